@@ -0,0 +1,41 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs benchmarks with allocation profiling (<code>-prof gc</code>) always on. Accepts the same
+ * arguments as the JMH command line:
+ *
+ * <pre>{@code
+ * java -jar target/benchmarks.jar ChiBench -f 1
+ * }</pre>
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+public class BenchmarkRunner {
+
+  /**
+   * Run benchmarks.
+   *
+   * @param args JMH arguments.
+   * @throws Exception If something goes wrong.
+   */
+  public static void main(String[] args) throws Exception {
+    var cmd = new CommandLineOptions(args);
+    if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListProfilers()) {
+      org.openjdk.jmh.Main.main(args);
+      return;
+    }
+    var options = new OptionsBuilder().parent(cmd).addProfiler(GCProfiler.class).build();
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.benchmarks;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal HTTP/1.1 keep-alive client. Reads a response using the <code>Content-Length</code>
+ * header, so client overhead doesn't hide server cost.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+class LoopbackClient implements Closeable {
+
+  private static final byte[] CONTENT_LENGTH =
+      "content-length:".getBytes(StandardCharsets.US_ASCII);
+
+  private final Socket socket;
+
+  private final OutputStream out;
+
+  private final InputStream in;
+
+  private final byte[] line = new byte[1024];
+
+  private byte[] body = new byte[1024];
+
+  LoopbackClient(int port) throws IOException {
+    socket = new Socket(InetAddress.getLoopbackAddress(), port);
+    socket.setTcpNoDelay(true);
+    out = socket.getOutputStream();
+    in = new BufferedInputStream(socket.getInputStream(), 16 * 1024);
+  }
+
+  /**
+   * Creates a GET request.
+   *
+   * @param path Request path.
+   * @return Request bytes.
+   */
+  static byte[] get(String path) {
+    return ("GET " + path + " HTTP/1.1\r\nHost: localhost\r\nAccept: */*\r\n\r\n")
+        .getBytes(StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Send request and read response.
+   *
+   * @param request Request bytes.
+   * @return Response body length.
+   * @throws IOException If something goes wrong.
+   */
+  int send(byte[] request) throws IOException {
+    out.write(request);
+    out.flush();
+    int contentLength = -1;
+    int len;
+    // status line + headers
+    while ((len = readLine()) > 0) {
+      if (startsWithIgnoreCase(line, len, CONTENT_LENGTH)) {
+        contentLength = parseInt(line, CONTENT_LENGTH.length, len);
+      }
+    }
+    if (contentLength < 0) {
+      throw new IOException("Content-Length is required");
+    }
+    if (body.length < contentLength) {
+      body = new byte[contentLength];
+    }
+    int read = 0;
+    while (read < contentLength) {
+      int n = in.read(body, read, contentLength - read);
+      if (n < 0) {
+        throw new EOFException();
+      }
+      read += n;
+    }
+    return contentLength;
+  }
+
+  private int readLine() throws IOException {
+    int len = 0;
+    int ch;
+    while ((ch = in.read()) != '\n') {
+      if (ch < 0) {
+        throw new EOFException();
+      }
+      if (ch != '\r' && len < line.length) {
+        line[len++] = (byte) ch;
+      }
+    }
+    return len;
+  }
+
+  private static boolean startsWithIgnoreCase(byte[] value, int len, byte[] prefix) {
+    if (len < prefix.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if (Character.toLowerCase(value[i]) != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int parseInt(byte[] value, int start, int end) {
+    int result = 0;
+    for (int i = start; i < end; i++) {
+      byte ch = value[i];
+      if (ch >= '0' && ch <= '9') {
+        result = result * 10 + (ch - '0');
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public void close() throws IOException {
+    socket.close();
+  }
+}
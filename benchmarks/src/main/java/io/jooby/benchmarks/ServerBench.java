@@ -0,0 +1,94 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import io.jooby.Jooby;
+import io.jooby.Server;
+import io.jooby.ServerOptions;
+import io.jooby.StartupSummary;
+import io.jooby.jackson.Jackson2Module;
+import io.jooby.jetty.JettyServer;
+import io.jooby.netty.NettyServer;
+import io.jooby.undertow.UndertowServer;
+
+/**
+ * End-to-end plaintext/JSON requests over loopback, one keep-alive connection per benchmark
+ * thread. Run with <code>-t</code> to add concurrent connections.
+ */
+@Fork(2)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ServerBench {
+
+  private static final byte[] PLAINTEXT = LoopbackClient.get("/plaintext");
+
+  private static final byte[] JSON = LoopbackClient.get("/json");
+
+  @Param({"netty", "jetty", "undertow"})
+  public String server;
+
+  private Server instance;
+
+  private int port;
+
+  @State(Scope.Thread)
+  public static class Connection {
+    private LoopbackClient client;
+
+    @Setup
+    public void setup(ServerBench bench) throws Exception {
+      client = new LoopbackClient(bench.port);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+      client.close();
+    }
+  }
+
+  @Setup
+  public void setup() {
+    var options = new ServerOptions().setPort(0);
+    instance =
+        switch (server) {
+          case "netty" -> new NettyServer(options);
+          case "jetty" -> new JettyServer(options);
+          case "undertow" -> new UndertowServer(options);
+          default -> throw new IllegalArgumentException("Unknown server: " + server);
+        };
+    var app = new Jooby();
+    app.setStartupSummary(List.of(StartupSummary.NONE));
+    app.install(new Jackson2Module());
+    app.get("/plaintext", ctx -> "Hello, World!");
+    app.get("/json", ctx -> Map.of("message", "Hello, World!"));
+    instance.start(app);
+    port = instance.getOptions().getPort();
+  }
+
+  @TearDown
+  public void tearDown() {
+    instance.stop();
+  }
+
+  @Benchmark
+  public int plaintext(Connection connection) throws Exception {
+    return connection.client.send(PLAINTEXT);
+  }
+
+  @Benchmark
+  public int json(Connection connection) throws Exception {
+    return connection.client.send(JSON);
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import io.jooby.MessageEncoder;
+import io.jooby.Route;
+import io.jooby.Router;
+
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ChiBench {
+
+  private Chi router;
+
+  @Setup
+  public void setup() {
+    router = new Chi(false);
+    for (var resource : new String[] {"user", "page", "order", "product", "invoice"}) {
+      var base = "/api/" + resource;
+      router.insert(route(base + "/edit"));
+      router.insert(route(base + "/{id}"));
+      router.insert(route(base + "/{id}/items/{item:[0-9]+}"));
+      router.insert(route(base + "/files/*"));
+    }
+  }
+
+  @Benchmark
+  public Router.Match staticPath() {
+    return router.find("GET", "/api/order/edit");
+  }
+
+  @Benchmark
+  public Router.Match paramPath() {
+    return router.find("GET", "/api/order/123");
+  }
+
+  @Benchmark
+  public Router.Match regexPath() {
+    return router.find("GET", "/api/order/123/items/456");
+  }
+
+  @Benchmark
+  public Router.Match catchAllPath() {
+    return router.find("GET", "/api/order/files/2024/01/report.pdf");
+  }
+
+  @Benchmark
+  public Router.Match missingPath() {
+    return router.find("GET", "/api/customer/123");
+  }
+
+  private Route route(String pattern) {
+    return new Route("GET", pattern, ctx -> pattern).setEncoder(MessageEncoder.TO_STRING);
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import io.jooby.MediaType;
+import io.jooby.MessageEncoder;
+import io.jooby.Route;
+import io.jooby.output.Output;
+import io.jooby.test.MockContext;
+
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class HttpMessageEncoderBench {
+
+  @Param({
+    "",
+    "*/*",
+    "application/json",
+    "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8"
+  })
+  public String accept;
+
+  private MessageEncoder encoder;
+
+  private MessageEncoder routeEncoder;
+
+  private MockContext ctx;
+
+  private Object value;
+
+  @Setup
+  public void setup() {
+    var encoder = new HttpMessageEncoder();
+    encoder.add(MediaType.json, (ctx, value) -> ctx.getOutputFactory().wrap("{}"));
+    encoder.add(MediaType.xml, (ctx, value) -> ctx.getOutputFactory().wrap("<xml/>"));
+    this.encoder = encoder;
+
+    var route = new Route("GET", "/", ctx -> "ok").produces(MediaType.json);
+    this.routeEncoder = encoder.forRoute(route);
+
+    ctx = new MockContext();
+    ctx.setRoute(route);
+    if (!accept.isEmpty()) {
+      ctx.setRequestHeader("Accept", accept);
+    }
+    value = new Object();
+  }
+
+  /** Negotiation against all the registered encoders. */
+  @Benchmark
+  public Output negotiate() throws Exception {
+    return encoder.encode(ctx, value);
+  }
+
+  /** Negotiation against route produce types. */
+  @Benchmark
+  public Output negotiateProduces() throws Exception {
+    return routeEncoder.encode(ctx, value);
+  }
+
+  @Benchmark
+  public Object accept() {
+    return ctx.accept(ctx.getRoute().getProduces());
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import io.jooby.QueryString;
+import io.jooby.value.ValueFactory;
+
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class UrlParserBench {
+
+  public record Search(String q, int page, int size, List<String> sort, Filter filter) {}
+
+  public record Filter(String name, List<String> tags) {}
+
+  private static final String QUERY =
+      "q=jooby%20web&page=2&size=20&sort=name&sort=-date"
+          + "&filter.name=foo&filter.tags[0]=a&filter.tags[1]=b";
+
+  private ValueFactory factory;
+
+  private QueryString parsed;
+
+  @Setup
+  public void setup() {
+    factory = new ValueFactory();
+    parsed = UrlParser.queryString(factory, QUERY);
+  }
+
+  @Benchmark
+  public QueryString queryString() {
+    return UrlParser.queryString(factory, QUERY);
+  }
+
+  @Benchmark
+  public Map<String, List<String>> toMultimap() {
+    return parsed.toMultimap();
+  }
+
+  @Benchmark
+  public int pageParam() {
+    return parsed.get("page").intValue();
+  }
+
+  @Benchmark
+  public List<String> tagsParam() {
+    return parsed.get("filter").get("tags").toList();
+  }
+
+  @Benchmark
+  public Search bind() {
+    return UrlParser.queryString(factory, QUERY).to(Search.class);
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.output;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ByteBufferedOutputBench {
+
+  /** Size of each write. */
+  @Param({"16", "512", "8192"})
+  public int chunk;
+
+  @Param({"false", "true"})
+  public boolean direct;
+
+  private OutputFactory factory;
+
+  private byte[] bytes;
+
+  private String text;
+
+  @Setup
+  public void setup() {
+    factory = OutputFactory.create(new OutputOptions().setDirectBuffers(direct));
+    bytes = new byte[chunk];
+    Arrays.fill(bytes, (byte) 'a');
+    text = new String(bytes, StandardCharsets.US_ASCII);
+  }
+
+  /** Fits into the default buffer size. */
+  @Benchmark
+  public ByteBuffer writeBytes() {
+    var output = factory.allocate();
+    for (int i = 0; i < 8; i++) {
+      output.write(bytes);
+    }
+    return output.asByteBuffer();
+  }
+
+  /** Starts with a small buffer, forces the buffer to grow. */
+  @Benchmark
+  public ByteBuffer writeAndGrow() {
+    var output = new ByteBufferedOutput(direct, 64);
+    for (int i = 0; i < 8; i++) {
+      output.write(bytes);
+    }
+    return output.asByteBuffer();
+  }
+
+  @Benchmark
+  public ByteBuffer writeString() {
+    var output = factory.allocate();
+    for (int i = 0; i < 8; i++) {
+      output.write(text, StandardCharsets.UTF_8);
+    }
+    return output.asByteBuffer();
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.value;
+
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import io.jooby.internal.UrlParser;
+
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ReflectiveBeanConverterBench {
+
+  public record Address(String street, String city, int zip) {}
+
+  public record Person(String name, int age, boolean active, Address address) {}
+
+  public static class Account {
+    private String id;
+
+    private String email;
+
+    private long balance;
+
+    public void setId(String id) {
+      this.id = id;
+    }
+
+    public void setEmail(String email) {
+      this.email = email;
+    }
+
+    public void setBalance(long balance) {
+      this.balance = balance;
+    }
+
+    public String getId() {
+      return id;
+    }
+
+    public String getEmail() {
+      return email;
+    }
+
+    public long getBalance() {
+      return balance;
+    }
+  }
+
+  private ReflectiveBeanConverter converter;
+
+  private Value person;
+
+  private Value account;
+
+  @Setup
+  public void setup() {
+    var factory = new ValueFactory();
+    converter = new ReflectiveBeanConverter(factory, MethodHandles.publicLookup());
+    person =
+        UrlParser.queryString(
+            factory,
+            "name=Edgar&age=40&active=true"
+                + "&address.street=Main&address.city=Lima&address.zip=15001");
+    account = UrlParser.queryString(factory, "id=a-1&email=me%40jooby.io&balance=100");
+  }
+
+  @Benchmark
+  public Object record() {
+    return converter.convert(Person.class, person, ConversionHint.Strict);
+  }
+
+  @Benchmark
+  public Object bean() {
+    return converter.convert(Account.class, account, ConversionHint.Strict);
+  }
+}
@@ -0,0 +1,357 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.jspecify.annotations.Nullable;
+
+import com.typesafe.config.Config;
+
+/**
+ * Response compression options. Compression is off by default, turn it on with {@link
+ * ServerOptions#setCompression(CompressionOptions)}:
+ *
+ * <pre>{@code
+ * {
+ *   setServerOptions(new ServerOptions()
+ *       .setCompression(new CompressionOptions()
+ *           .setEncodings("zstd", "br", "gzip")
+ *           .setMinSize(1024)
+ *       )
+ *   );
+ * }
+ * }</pre>
+ *
+ * <p>A response is compressed when:
+ *
+ * <ul>
+ *   <li>The client accepts one of the {@link #getEncodings()} (<code>Accept-Encoding</code> header,
+ *       quality values are honored). On ties, the first configured encoding wins.
+ *   <li>The response type is one of the {@link #getMimeTypes()}. Images, video, archives, etc. are
+ *       already compressed.
+ *   <li>The response length is unknown (chunked) or at least {@link #getMinSize()} bytes.
+ *   <li>The route doesn't turn it off, see {@link Route#setCompress(boolean)}.
+ * </ul>
+ *
+ * <p>Server support:
+ *
+ * <ul>
+ *   <li>Netty: all the options. <code>br</code> and <code>zstd</code> require <code>
+ *       com.aayushatharva.brotli4j:brotli4j</code> and <code>com.github.luben:zstd-jni</code>,
+ *       they are ignored when missing.
+ *   <li>Undertow: all the options, but only <code>gzip</code> and <code>deflate</code> encodings.
+ *   <li>Jetty: all the options, but no <code>deflate</code> encoding. <code>br</code> and <code>
+ *       zstd</code> require <code>jetty-compression-brotli</code> and <code>
+ *       jetty-compression-zstandard</code>, they are ignored when missing. Wildcard types are
+ *       expanded to the types known by Jetty.
+ * </ul>
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+public class CompressionOptions {
+
+  /** Gzip encoding. */
+  public static final String GZIP = "gzip";
+
+  /** Deflate encoding. */
+  public static final String DEFLATE = "deflate";
+
+  /** Brotli encoding. */
+  public static final String BROTLI = "br";
+
+  /** Zstandard encoding. */
+  public static final String ZSTD = "zstd";
+
+  /** Matches any response type, see {@link #setMimeTypes(String...)}. */
+  public static final String ANY_TYPE = "*/*";
+
+  private static final int MAX_LEVEL = 22;
+
+  private static final Set<String> SUPPORTED = Set.of(GZIP, DEFLATE, BROTLI, ZSTD);
+
+  private int level = ServerOptions.DEFAULT_COMPRESSION_LEVEL;
+
+  private List<String> encodings = List.of(GZIP, DEFLATE);
+
+  private int minSize = 1024;
+
+  private Set<String> mimeTypes =
+      Set.of(
+          "text/*",
+          "application/json",
+          "application/problem+json",
+          "application/javascript",
+          "application/xml",
+          "application/xhtml+xml",
+          "application/rss+xml",
+          "application/atom+xml",
+          "application/x-ndjson",
+          "application/graphql-response+json",
+          "image/svg+xml");
+
+  /** Creates default compression options. */
+  public CompressionOptions() {}
+
+  /**
+   * Default options: <code>gzip</code> and <code>deflate</code>, level <code>6</code>, min size
+   * <code>1kb</code> and text based types.
+   *
+   * @return Default options.
+   */
+  public static CompressionOptions defaults() {
+    return new CompressionOptions();
+  }
+
+  /**
+   * Creates compression options from config object: <code>level</code>, <code>encodings</code>,
+   * <code>minSize</code> and <code>mimeTypes</code>.
+   *
+   * @param conf Configuration object, like <code>server.compression</code>.
+   * @return Compression options.
+   */
+  public static CompressionOptions from(Config conf) {
+    var options = new CompressionOptions();
+    if (conf.hasPath("level")) {
+      options.setLevel(conf.getInt("level"));
+    }
+    if (conf.hasPath("encodings")) {
+      options.setEncodings(conf.getStringList("encodings").toArray(String[]::new));
+    }
+    if (conf.hasPath("minSize")) {
+      options.setMinSize((int) conf.getMemorySize("minSize").toBytes());
+    }
+    if (conf.hasPath("mimeTypes")) {
+      options.setMimeTypes(conf.getStringList("mimeTypes").toArray(String[]::new));
+    }
+    return options;
+  }
+
+  /**
+   * Compression level. Meaning depends on encoding: <code>0..9</code> for gzip/deflate, <code>
+   * 0..11</code> for brotli and <code>1..22</code> for zstd. Default is: <code>6</code>.
+   *
+   * @return Compression level.
+   */
+  public int getLevel() {
+    return level;
+  }
+
+  /**
+   * Set compression level.
+   *
+   * @param level Compression level, between <code>0..22</code>. Each encoding caps it to its own
+   *     max level.
+   * @return This options.
+   * @throws IllegalArgumentException When level is out of range.
+   */
+  public CompressionOptions setLevel(int level) {
+    if (level < 0 || level > MAX_LEVEL) {
+      throw new IllegalArgumentException(
+          "Compression level out of range [0.." + MAX_LEVEL + "]: " + level);
+    }
+    this.level = level;
+    return this;
+  }
+
+  /**
+   * Encodings to use, in order of preference. Default is: <code>gzip, deflate</code>.
+   *
+   * @return Encodings to use.
+   */
+  public List<String> getEncodings() {
+    return encodings;
+  }
+
+  /**
+   * Set encodings to use, in order of preference. Supported values are: <code>zstd</code>, <code>
+   * br</code>, <code>gzip</code> and <code>deflate</code>.
+   *
+   * @param encodings Encodings to use.
+   * @return This options.
+   */
+  public CompressionOptions setEncodings(String... encodings) {
+    var result = new LinkedHashSet<String>();
+    for (var encoding : encodings) {
+      var value = encoding.trim().toLowerCase(Locale.ROOT);
+      if (!SUPPORTED.contains(value)) {
+        throw new IllegalArgumentException("Unsupported encoding: " + encoding);
+      }
+      result.add(value);
+    }
+    if (result.isEmpty()) {
+      throw new IllegalArgumentException("At least one encoding is required");
+    }
+    this.encodings = List.copyOf(result);
+    return this;
+  }
+
+  /**
+   * Min response size (in bytes) to compress. Applies to responses with a known length. Default
+   * is: <code>1kb</code>.
+   *
+   * @return Min response size.
+   */
+  public int getMinSize() {
+    return minSize;
+  }
+
+  /**
+   * Set min response size (in bytes) to compress.
+   *
+   * @param minSize Min response size.
+   * @return This options.
+   */
+  public CompressionOptions setMinSize(int minSize) {
+    this.minSize = Math.max(0, minSize);
+    return this;
+  }
+
+  /**
+   * Response types to compress. A type might be a wildcard: <code>text/*</code>.
+   *
+   * @return Response types to compress.
+   */
+  public Set<String> getMimeTypes() {
+    return mimeTypes;
+  }
+
+  /**
+   * Set response types to compress. A type might be a wildcard: <code>text/*</code>, or {@link
+   * #ANY_TYPE} to compress all the responses.
+   *
+   * @param mimeTypes Response types to compress.
+   * @return This options.
+   */
+  public CompressionOptions setMimeTypes(String... mimeTypes) {
+    this.mimeTypes =
+        Set.copyOf(
+            Arrays.stream(mimeTypes).map(it -> it.trim().toLowerCase(Locale.ROOT)).toList());
+    return this;
+  }
+
+  /**
+   * True when the content type is one of the {@link #getMimeTypes()}.
+   *
+   * @param contentType Content type header, parameters (like charset) are ignored.
+   * @return True when the content type is compressible.
+   */
+  public boolean isCompressible(@Nullable String contentType) {
+    if (mimeTypes.contains(ANY_TYPE)) {
+      return true;
+    }
+    if (contentType == null) {
+      return false;
+    }
+    int end = contentType.indexOf(';');
+    var type =
+        (end < 0 ? contentType : contentType.substring(0, end)).trim().toLowerCase(Locale.ROOT);
+    if (mimeTypes.contains(type)) {
+      return true;
+    }
+    int slash = type.indexOf('/');
+    return slash > 0 && mimeTypes.contains(type.substring(0, slash + 1) + "*");
+  }
+
+  /**
+   * True when a response must be compressed, based on its type and length.
+   *
+   * @param contentType Content type header or <code>null</code>.
+   * @param contentLength Content length or <code>-1</code> when unknown.
+   * @return True when a response must be compressed.
+   */
+  public boolean shouldCompress(@Nullable String contentType, long contentLength) {
+    return (contentLength < 0 || contentLength >= minSize) && isCompressible(contentType);
+  }
+
+  /**
+   * Choose the encoding to use from <code>Accept-Encoding</code> header. See {@link
+   * #negotiate(String, Collection)}.
+   *
+   * @param acceptEncoding Accept encoding header or <code>null</code>.
+   * @return Encoding to use or <code>null</code> when none of the {@link #getEncodings()} is
+   *     accepted.
+   */
+  public @Nullable String negotiate(@Nullable String acceptEncoding) {
+    return negotiate(acceptEncoding, encodings);
+  }
+
+  /**
+   * Choose the encoding to use from <code>Accept-Encoding</code> header. The encoding with the
+   * highest quality value wins, on ties the first of <code>encodings</code> wins. A <code>*</code>
+   * entry matches the encodings not listed in the header.
+   *
+   * @param acceptEncoding Accept encoding header or <code>null</code>.
+   * @param encodings Available encodings, in order of preference.
+   * @return Encoding to use or <code>null</code> when none of the encodings is accepted.
+   */
+  public static @Nullable String negotiate(
+      @Nullable String acceptEncoding, Collection<String> encodings) {
+    if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+      return null;
+    }
+    String result = null;
+    float best = 0;
+    for (var encoding : encodings) {
+      float quality = quality(acceptEncoding, encoding);
+      if (quality > best) {
+        best = quality;
+        result = encoding;
+      }
+    }
+    return result;
+  }
+
+  private static float quality(String acceptEncoding, String encoding) {
+    float wildcard = 0;
+    int start = 0;
+    int length = acceptEncoding.length();
+    while (start < length) {
+      int end = acceptEncoding.indexOf(',', start);
+      if (end < 0) {
+        end = length;
+      }
+      int semicolon = acceptEncoding.indexOf(';', start);
+      int nameEnd = semicolon < 0 || semicolon > end ? end : semicolon;
+      var name = acceptEncoding.substring(start, nameEnd).trim();
+      boolean match = name.equalsIgnoreCase(encoding);
+      if (match || name.equals("*")) {
+        float quality = nameEnd == end ? 1 : parseQuality(acceptEncoding.substring(nameEnd, end));
+        if (match) {
+          return quality;
+        }
+        wildcard = quality;
+      }
+      start = end + 1;
+    }
+    return wildcard;
+  }
+
+  private static float parseQuality(String params) {
+    for (var param : params.split(";")) {
+      var value = param.trim();
+      if (value.startsWith("q=") || value.startsWith("Q=")) {
+        try {
+          return Float.parseFloat(value.substring(2));
+        } catch (NumberFormatException x) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+
+  @Override
+  public String toString() {
+    return String.join("|", encodings) + "(" + level + ")";
+  }
+}
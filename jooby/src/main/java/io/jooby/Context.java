@@ -25,10 +25,12 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
 import java.util.function.BiFunction;
 
 import org.jspecify.annotations.Nullable;
 
+import io.jooby.internal.ContextPathSelector;
 import io.jooby.internal.LocaleUtils;
 import io.jooby.internal.ReadOnlyContext;
 import io.jooby.internal.WebSocketSender;
@@ -72,18 +74,7 @@ public interface Context extends Registry {
      * @return Best match application.
      */
     private static Selector multiple(List<Jooby> applications) {
-      return path -> {
-        var defaultApp = applications.getFirst();
-        for (var app : applications) {
-          var contextPath = app.getContextPath();
-          if ("/".equals(contextPath)) {
-            defaultApp = app;
-          } else if (path.startsWith(contextPath)) {
-            return app;
-          }
-        }
-        return defaultApp;
-      };
+      return new ContextPathSelector(applications);
     }
 
     private static Selector single(Jooby defaultApp) {
@@ -940,6 +931,30 @@ public interface Context extends Registry {
    */
   Body body();
 
+  /**
+   * HTTP body as a publisher of byte buffers. Buffers are read on demand (backpressure): no more
+   * than the requested number of buffers are delivered to the subscriber and nothing is read from
+   * the network while there is no demand.
+   *
+   * <p>Buffers are only valid during {@link Flow.Subscriber#onNext(Object)}, subscribers must
+   * consume (or copy) them before returning. Signals might be delivered on an IO thread, so they
+   * must not block. The body can be subscribed once.
+   *
+   * <p>Netty and Undertow read the whole body before executing a route. To process the body while
+   * it arrives, turn on streaming at route level, see {@link Route#setStreamingBody(boolean)}.
+   *
+   * <pre>{@code
+   * post("/ingest", ctx -> {
+   *   ctx.bodyPublisher().subscribe(new StorageSubscriber(ctx));
+   *   return ctx;
+   * }).setStreamingBody(true)
+   *   .setNonBlocking(true);
+   * }</pre>
+   *
+   * @return HTTP body as a publisher of byte buffers.
+   */
+  Flow.Publisher<ByteBuffer> bodyPublisher();
+
   /**
    * Convert the HTTP body to the given type.
    *
@@ -1433,6 +1448,16 @@ public interface Context extends Registry {
    */
   boolean isResponseStarted();
 
+  /**
+   * Abort the response and close the connection, without completing the response. For failures
+   * found once the response has started (status code and headers are gone), so the client sees a
+   * broken response instead of a truncated body that looks complete.
+   *
+   * @param cause Failure.
+   * @return This context.
+   */
+  Context abort(Throwable cause);
+
   /**
    * True if response headers are cleared on application error. If none set it uses the
    * default/global value specified by {@link Router#setRouterOptions(RouterOptions)} {@link
@@ -1496,4 +1521,20 @@ public interface Context extends Registry {
       Context ctx, WebSocket ws, boolean binary, WebSocket.WriteCallback callback) {
     return new WebSocketSender(ctx, ws, binary, callback);
   }
+
+  /**
+   * Encode a value using the route encoder, like {@link WebSocket#render(Object)} does, but without
+   * sending it. Server implementations use it on broadcast, so the value is encoded once and
+   * written to all the sessions.
+   *
+   * <p>This method is part of Public API, but direct usage is discouraged.
+   *
+   * @param ctx Originating context.
+   * @param ws WebSocket.
+   * @param value Value to encode.
+   * @return Encoded message.
+   */
+  static Output websocketMessage(Context ctx, WebSocket ws, Object value) {
+    return WebSocketSender.encode(ctx, ws, value);
+  }
 }
@@ -20,6 +20,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.Flow;
 
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
@@ -316,30 +317,11 @@ public interface DefaultContext extends Context {
       return produceTypes.isEmpty() ? null : produceTypes.get(0);
     }
 
-    // Sort accept by most relevant/specific first:
-    var acceptTypes =
-        accept.toList().stream()
-            .flatMap(value -> MediaType.parse(value).stream())
-            .distinct()
-            .sorted()
-            .toList();
+    // Sort accept by most relevant/specific first (cached by header value):
+    var acceptTypes = ContentNegotiation.acceptTypes(accept.toList());
 
     // Find most appropriated type:
-    var idx = Integer.MAX_VALUE;
-    MediaType result = null;
-    for (var produceType : produceTypes) {
-      for (int i = 0; i < acceptTypes.size(); i++) {
-        MediaType acceptType = acceptTypes.get(i);
-        if (produceType.matches(acceptType)) {
-          if (i < idx) {
-            result = produceType;
-            idx = i;
-            break;
-          }
-        }
-      }
-    }
-    return result;
+    return ContentNegotiation.accept(acceptTypes, produceTypes);
   }
 
   @Override
@@ -475,6 +457,11 @@ public interface DefaultContext extends Context {
     return form().file(name);
   }
 
+  @Override
+  default Flow.Publisher<ByteBuffer> bodyPublisher() {
+    return new BodyPublisher(body());
+  }
+
   @Override
   default <T> T body(Class<T> type) {
     return body().to(type);
@@ -538,7 +525,7 @@ public interface DefaultContext extends Context {
     try {
       var route = getRoute();
       var encoder = route.getEncoder();
-      var bytes = encoder.encode(this, value);
+      var bytes = encoder.encode(this, value, true);
       if (bytes == null) {
         if (!isResponseStarted()) {
           throw new IllegalStateException("The response was not encoded");
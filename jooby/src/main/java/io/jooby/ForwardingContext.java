@@ -18,6 +18,7 @@ import java.security.cert.Certificate;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -1026,6 +1027,11 @@ public class ForwardingContext implements Context {
     return ctx.body();
   }
 
+  @Override
+  public Flow.Publisher<ByteBuffer> bodyPublisher() {
+    return ctx.bodyPublisher();
+  }
+
   @Override
   public <T> T body(Class<T> type) {
     return ctx.body(type);
@@ -1338,6 +1344,12 @@ public class ForwardingContext implements Context {
     return ctx.isResponseStarted();
   }
 
+  @Override
+  public Context abort(Throwable cause) {
+    ctx.abort(cause);
+    return this;
+  }
+
   @Override
   public boolean getResetHeadersOnError() {
     return ctx.getResetHeadersOnError();
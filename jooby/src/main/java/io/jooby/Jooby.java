@@ -660,6 +660,12 @@ public class Jooby implements Router, Registry {
     return this;
   }
 
+  @Override
+  public Jooby setDispatchFilter(Route.Filter filter) {
+    this.router.setDispatchFilter(filter);
+    return this;
+  }
+
   @Override
   public Logger getLog() {
     return LoggerFactory.getLogger(getClass());
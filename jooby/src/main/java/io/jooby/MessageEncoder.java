@@ -36,4 +36,21 @@ public interface MessageEncoder {
    * @throws Exception If something goes wrong.
    */
   @Nullable Output encode(Context ctx, Object value) throws Exception;
+
+  /**
+   * Encodes a value. {@link Context#render(Object)} sets <code>render</code> while encoding the
+   * route response: only then an encoder might send the response directly (and return <code>null
+   * </code>). Server-sent events, web sockets and chunked responses expect an encoded output.
+   *
+   * <p>Default implementation calls {@link #encode(Context, Object)}.
+   *
+   * @param ctx Web context.
+   * @param value Value to render.
+   * @param render True when encoding the route response.
+   * @return Encoded value or <code>null</code> if given object isn't supported it.
+   * @throws Exception If something goes wrong.
+   */
+  default @Nullable Output encode(Context ctx, Object value, boolean render) throws Exception {
+    return encode(ctx, value);
+  }
 }
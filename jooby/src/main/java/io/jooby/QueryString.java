@@ -53,4 +53,20 @@ public interface QueryString extends Value {
   static QueryString create(ValueFactory valueFactory, @Nullable String queryString) {
     return UrlParser.queryString(valueFactory, queryString);
   }
+
+  /**
+   * Query string hash value. Same as {@link #create(ValueFactory, String)} when <code>lazy</code>
+   * is <code>false</code>. Otherwise, parameters are decoded on first access.
+   *
+   * @param valueFactory Current context.
+   * @param queryString Query string.
+   * @param lazy True for decoding parameters on first access.
+   * @return A query string.
+   * @see RouterOptions#setLazyQueryString(boolean)
+   */
+  static QueryString create(ValueFactory valueFactory, @Nullable String queryString, boolean lazy) {
+    return lazy
+        ? UrlParser.lazyQueryString(valueFactory, queryString)
+        : UrlParser.queryString(valueFactory, queryString);
+  }
 }
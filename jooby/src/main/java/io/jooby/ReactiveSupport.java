@@ -21,6 +21,15 @@ public class ReactiveSupport {
 
   private static final Route.Filter CONCURRENT = new ConcurrentHandler();
 
+  private static final Flow.Subscription CANCELLED =
+      new Flow.Subscription() {
+        @Override
+        public void request(long n) {}
+
+        @Override
+        public void cancel() {}
+      };
+
   private ReactiveSupport() {}
 
   /**
@@ -52,4 +61,29 @@ public class ReactiveSupport {
   public static Route.Handler concurrent(Route.Handler next) {
     return CONCURRENT.then(next);
   }
+
+  /**
+   * Reject a subscriber: signal a cancelled subscription followed by an error, as required by the
+   * Reactive Streams specification. Publishers use it when they don't accept the subscriber, like
+   * a request body subscribed more than once.
+   *
+   * @param subscriber Subscriber.
+   * @param cause Rejection cause.
+   */
+  public static void reject(Flow.Subscriber<?> subscriber, Throwable cause) {
+    subscriber.onSubscribe(CANCELLED);
+    subscriber.onError(cause);
+  }
+
+  /**
+   * Add demand to a subscription, capped at {@link Long#MAX_VALUE}.
+   *
+   * @param demand Current demand.
+   * @param n Requested items.
+   * @return New demand.
+   */
+  public static long addDemand(long demand, long n) {
+    long result = demand + n;
+    return result < 0 ? Long.MAX_VALUE : result;
+  }
 }
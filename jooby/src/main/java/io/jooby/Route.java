@@ -523,6 +523,10 @@ public class Route {
 
   private Boolean nonBlocking;
 
+  private boolean compress = true;
+
+  private boolean streamingBody;
+
   private MvcMethod mvcMethod;
 
   private boolean httpHead;
@@ -757,6 +761,55 @@ public class Route {
     return this;
   }
 
+  /**
+   * True when responses of this route might be compressed. Default is <code>true</code>.
+   * Compression must be enabled at server level, see {@link ServerOptions#setCompression}.
+   *
+   * @return True when responses of this route might be compressed.
+   */
+  public boolean isCompress() {
+    return compress;
+  }
+
+  /**
+   * Turn off response compression for this route. Useful for already compressed content, like
+   * images or archives.
+   *
+   * @param compress False to turn off response compression.
+   * @return This route.
+   */
+  public Route setCompress(boolean compress) {
+    this.compress = compress;
+    return this;
+  }
+
+  /**
+   * True when the route is executed as soon as request headers arrive, without reading the body.
+   * Default is <code>false</code>.
+   *
+   * @return True when the route is executed as soon as request headers arrive.
+   */
+  public boolean isStreamingBody() {
+    return streamingBody;
+  }
+
+  /**
+   * Execute the route as soon as request headers arrive and read the body on demand, see {@link
+   * Context#bodyPublisher()}. The body is never buffered (in memory or disk), so {@link
+   * Context#body()}, {@link Context#form()} and {@link Context#files()} are empty for these
+   * routes.
+   *
+   * <p>The max request size is enforced while reading: once reached, the subscriber gets a {@link
+   * StatusCode#REQUEST_ENTITY_TOO_LARGE} error.
+   *
+   * @param streamingBody True to read the body on demand.
+   * @return This route.
+   */
+  public Route setStreamingBody(boolean streamingBody) {
+    this.streamingBody = streamingBody;
+    return this;
+  }
+
   /**
    * Response types (format) produces by this route. If set, we expect to find a match in the <code>
    * Accept</code> header. If none matches, we send a {@link StatusCode#NOT_ACCEPTABLE} response.
@@ -468,6 +468,19 @@ public interface Router extends Registry {
    */
   Router setDefaultWorker(Executor worker);
 
+  /**
+   * Set a filter that runs before a request is dispatched to the worker thread pool. Unlike {@link
+   * #use(Route.Filter)} it applies to all HTTP routes (web socket and server-sent events routes are
+   * excluded) and runs before the worker queue, so it is the place for admission control like
+   * {@link io.jooby.handler.ConcurrencyLimitHandler}. The filter might run on an I/O thread, it
+   * must not block. {@link Route.Filter#setRoute(Route)} is called once per route when the
+   * application starts.
+   *
+   * @param filter Dispatch filter.
+   * @return This router.
+   */
+  Router setDispatchFilter(Route.Filter filter);
+
   /**
    * Output factory.
    *
@@ -17,6 +17,7 @@ package io.jooby;
  *       (slashes).
  *   <li>resetHeadersOnError: Indicates whenever response headers are clear/reset in case of
  *       exception.
+ *   <li>lazyQueryString: Decode query string parameters on access.
  * </ul>
  *
  * @author edgar
@@ -69,6 +70,12 @@ public class RouterOptions {
    */
   private boolean contextAsService;
 
+  /**
+   * If enabled, query string parameters are indexed and decoded when they are accessed, not when
+   * the query string is created.
+   */
+  private boolean lazyQueryString;
+
   /** Default constructor. */
   public RouterOptions() {}
 
@@ -304,4 +311,27 @@ public class RouterOptions {
     this.trustProxy = trustProxy;
     return this;
   }
+
+  /**
+   * If enabled, query string parameters are indexed and decoded when they are accessed, not when
+   * the query string is created. Default is <code>false</code>.
+   *
+   * @return True when query string is decoded on access.
+   */
+  public boolean isLazyQueryString() {
+    return lazyQueryString;
+  }
+
+  /**
+   * If enabled, query string parameters are indexed and decoded when they are accessed, not when
+   * the query string is created. Handlers reading a few parameters of long query strings only
+   * decode what they need. Decoding errors are reported on access.
+   *
+   * @param lazyQueryString True for decoding on access.
+   * @return This options.
+   */
+  public RouterOptions setLazyQueryString(boolean lazyQueryString) {
+    this.lazyQueryString = lazyQueryString;
+    return this;
+  }
 }
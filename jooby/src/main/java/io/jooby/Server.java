@@ -17,6 +17,8 @@ import java.nio.channels.ClosedChannelException;
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -110,6 +112,34 @@ public interface Server {
       }
     }
 
+    /**
+     * Creates a worker executor which runs each task on a new virtual thread. Used by server
+     * implementations when {@link ServerOptions#isVirtualThreads()} is on.
+     *
+     * <p>When {@link ServerOptions#isTracePinnedThreads()} is on, this method sets the <code>
+     * jdk.tracePinnedThreads</code> system property (unless already set) so pinned virtual threads
+     * are reported by the JVM. The JVM reads it once, so it has no effect when a virtual thread was
+     * started before. Java 24 or higher ignores it, a warning is logged instead.
+     *
+     * @param name Thread name prefix.
+     * @return A virtual thread per task executor.
+     */
+    protected ExecutorService newVirtualThreadExecutor(String name) {
+      if (getOptions().isTracePinnedThreads()
+          && System.getProperty("jdk.tracePinnedThreads") == null) {
+        if (Runtime.version().feature() >= 24) {
+          LoggerFactory.getLogger(getClass())
+              .warn(
+                  "server.tracePinnedThreads is ignored on Java {}, record the"
+                      + " jdk.VirtualThreadPinned event with Java Flight Recorder instead",
+                  Runtime.version().feature());
+        } else {
+          System.setProperty("jdk.tracePinnedThreads", "short");
+        }
+      }
+      return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+    }
+
     protected void fireReady(List<Jooby> applications) {
       for (Jooby app : applications) {
         app.ready(this);
@@ -99,6 +99,15 @@ public class ServerOptions {
   /** Number of worker threads (a.k.a application) to use. */
   private int workerThreads = WORKER_THREADS;
 
+  /** Number of listening sockets bound to the same port. Default is <code>1</code>. */
+  private int acceptors = 1;
+
+  /** Run blocking route handlers on virtual threads. Default is <code>false</code>. */
+  private boolean virtualThreads;
+
+  /** Report virtual threads blocked while pinned to their carrier thread. */
+  private boolean tracePinnedThreads;
+
   /**
    * Configure server to default headers: <code>Date</code>, <code>Content-Type</code> and <code>
    * Server</code> header.
@@ -131,7 +140,7 @@ public class ServerOptions {
   /** Bind only https port. Default is false. */
   private boolean httpsOnly;
 
-  private Integer compressionLevel;
+  private CompressionOptions compression;
 
   private Boolean http2;
 
@@ -177,6 +186,16 @@ public class ServerOptions {
       if (conf.hasPath("server.output.useDirectBuffers")) {
         options.output.setDirectBuffers(conf.getBoolean("server.output.useDirectBuffers"));
       }
+      if (conf.hasPath("server.output.pooled")) {
+        options.output.setPooled(conf.getBoolean("server.output.pooled"));
+      }
+      if (conf.hasPath("server.output.arenas")) {
+        options.output.setArenas(conf.getInt("server.output.arenas"));
+      }
+      if (conf.hasPath("server.output.maxCachedSize")) {
+        options.output.setMaxCachedSize(
+            (int) conf.getMemorySize("server.output.maxCachedSize").toBytes());
+      }
       if (conf.hasPath("server.defaultHeaders")) {
         options.setDefaultHeaders(conf.getBoolean("server.defaultHeaders"));
       }
@@ -187,6 +206,9 @@ public class ServerOptions {
       if (conf.hasPath("server.compressionLevel")) {
         options.setCompressionLevel(conf.getInt("server.compressionLevel"));
       }
+      if (conf.hasPath("server.compression")) {
+        options.setCompression(CompressionOptions.from(conf.getConfig("server.compression")));
+      }
       if (conf.hasPath("server.maxRequestSize")) {
         options.setMaxRequestSize((int) conf.getMemorySize("server.maxRequestSize").toBytes());
       }
@@ -196,6 +218,15 @@ public class ServerOptions {
       if (conf.hasPath("server.workerThreads")) {
         options.setWorkerThreads(conf.getInt("server.workerThreads"));
       }
+      if (conf.hasPath("server.acceptors")) {
+        options.setAcceptors(conf.getInt("server.acceptors"));
+      }
+      if (conf.hasPath("server.virtualThreads")) {
+        options.setVirtualThreads(conf.getBoolean("server.virtualThreads"));
+      }
+      if (conf.hasPath("server.tracePinnedThreads")) {
+        options.setTracePinnedThreads(conf.getBoolean("server.tracePinnedThreads"));
+      }
       if (conf.hasPath("server.host")) {
         options.setHost(conf.getString("server.host"));
       }
@@ -221,12 +252,19 @@ public class ServerOptions {
     buff.append(Optional.ofNullable(server).orElse("server")).append(" {");
     buff.append("port: ").append(port);
     buff.append(", ioThreads: ").append(getIoThreads());
-    buff.append(", workerThreads: ").append(getWorkerThreads());
+    if (virtualThreads) {
+      buff.append(", workerThreads: virtual");
+    } else {
+      buff.append(", workerThreads: ").append(getWorkerThreads());
+    }
+    if (acceptors > 1) {
+      buff.append(", acceptors: ").append(acceptors);
+    }
     buff.append(", output: ").append(getOutput());
     buff.append(", maxRequestSize: ").append(maxRequestSize);
     buff.append(", httpsOnly: ").append(httpsOnly);
-    if (compressionLevel != null) {
-      buff.append(", gzip");
+    if (compression != null) {
+      buff.append(", compression: ").append(compression);
     }
     buff.append("}");
 
@@ -369,17 +407,103 @@ public class ServerOptions {
     return this;
   }
 
+  /**
+   * Number of listening sockets bound to the same port.
+   *
+   * @return Number of listening sockets bound to the same port.
+   */
+  public int getAcceptors() {
+    return acceptors;
+  }
+
+  /**
+   * Set number of listening sockets bound to the same port. Each socket is bound with <code>
+   * SO_REUSEPORT</code> and registered on its own event loop, so the kernel spreads incoming
+   * connections across them instead of funneling every accept through a single thread. Useful for
+   * workloads with many short-lived connections.
+   *
+   * <p>Supported by Netty with the epoll or io_uring transport (Linux). Ignored elsewhere. Default
+   * is <code>1</code>.
+   *
+   * @param acceptors Number of listening sockets. Must be greater than <code>0</code>.
+   * @return This options.
+   */
+  public ServerOptions setAcceptors(int acceptors) {
+    if (acceptors <= 0) {
+      throw new IllegalArgumentException("Acceptors must be greater than 0: " + acceptors);
+    }
+    this.acceptors = acceptors;
+    return this;
+  }
+
+  /**
+   * True when blocking route handlers run on virtual threads instead of the bounded worker pool.
+   *
+   * @return True when blocking route handlers run on virtual threads.
+   */
+  public boolean isVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /**
+   * Run blocking route handlers on virtual threads. When enabled, servers create one virtual thread
+   * per dispatched request and {@link #getWorkerThreads()} is ignored. Supported by Jetty, Netty,
+   * Undertow and Vertx. Off by default.
+   *
+   * <p>Virtual threads let blocking code (JDBC, remote calls, etc.) scale to thousands of
+   * concurrent requests without the memory cost of platform threads.
+   *
+   * @param virtualThreads True to use virtual threads.
+   * @return This options.
+   */
+  public ServerOptions setVirtualThreads(boolean virtualThreads) {
+    this.virtualThreads = virtualThreads;
+    return this;
+  }
+
+  /**
+   * True when the JVM should report virtual threads that block while pinned to their carrier.
+   *
+   * @return True when pinning diagnostics are enabled.
+   */
+  public boolean isTracePinnedThreads() {
+    return tracePinnedThreads;
+  }
+
+  /**
+   * Turn on pinning diagnostics for virtual threads. When enabled, the server sets the <code>
+   * jdk.tracePinnedThreads</code> system property (unless already set) before creating the first
+   * virtual thread, so the JVM prints a stack trace each time a virtual thread blocks while pinned
+   * (inside a <code>synchronized</code> block or a native frame). Only applies when {@link
+   * #isVirtualThreads()} is on.
+   *
+   * <p>The JVM reads the property once, when the first virtual thread starts. Prefer the launcher
+   * flag: <code>-Djdk.tracePinnedThreads=short</code>, which works no matter when the server
+   * starts. Java 24 or higher doesn't support the property: pinning is reported by the <code>
+   * jdk.VirtualThreadPinned</code> Java Flight Recorder event, and this option logs a warning.
+   *
+   * @param tracePinnedThreads True to report pinned virtual threads.
+   * @return This options.
+   */
+  public ServerOptions setTracePinnedThreads(boolean tracePinnedThreads) {
+    this.tracePinnedThreads = tracePinnedThreads;
+    return this;
+  }
+
   /**
    * Indicates compression level to use while producing gzip responses.
    *
    * @return Compression level value between <code>0...9</code> or <code>null</code> when off.
    */
   public @Nullable Integer getCompressionLevel() {
-    return compressionLevel;
+    return compression == null ? null : compression.getLevel();
   }
 
   /**
-   * Set compression level to use while producing gzip responses.
+   * Set compression level to use while producing gzip responses. Shortcut for {@link
+   * #setCompression(CompressionOptions)} using default encodings, but compressing responses of any
+   * type and size, like previous versions did. Use {@link #setCompression(CompressionOptions)} for
+   * the text only types and the min size of {@link CompressionOptions#defaults()}.
    *
    * <p>Gzip is off by default (compression level is null).
    *
@@ -387,7 +511,38 @@ public class ServerOptions {
    * @return This options.
    */
   public ServerOptions setCompressionLevel(@Nullable Integer compressionLevel) {
-    this.compressionLevel = compressionLevel;
+    if (compressionLevel == null) {
+      this.compression = null;
+    } else {
+      this.compression =
+          Optional.ofNullable(compression)
+              .orElseGet(
+                  () ->
+                      CompressionOptions.defaults()
+                          .setMinSize(0)
+                          .setMimeTypes(CompressionOptions.ANY_TYPE))
+              .setLevel(compressionLevel);
+    }
+    return this;
+  }
+
+  /**
+   * Response compression options or <code>null</code> when off.
+   *
+   * @return Response compression options or <code>null</code> when off.
+   */
+  public @Nullable CompressionOptions getCompression() {
+    return compression;
+  }
+
+  /**
+   * Set response compression options. Compression is off by default.
+   *
+   * @param compression Compression options or <code>null</code> to turn it off.
+   * @return This options.
+   */
+  public ServerOptions setCompression(@Nullable CompressionOptions compression) {
+    this.compression = compression;
     return this;
   }
 
@@ -12,6 +12,8 @@ import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.jooby.internal.ServerSentHeartbeat;
+
 /**
  * Server-Sent message emitter.
  *
@@ -27,7 +29,13 @@ import org.slf4j.LoggerFactory;
  */
 public interface ServerSentEmitter {
 
-  /** Keep-alive task. */
+  /**
+   * Keep-alive task.
+   *
+   * @deprecated Server implementations no longer schedule a task per emitter, use {@link
+   *     #keepAlive(long)} instead.
+   */
+  @Deprecated(since = "4.5.5", forRemoval = true)
   class KeepAlive implements Runnable {
 
     private final Logger log = LoggerFactory.getLogger(ServerSentEmitter.class);
@@ -193,11 +201,28 @@ public interface ServerSentEmitter {
    * Send a comment message to the client. The comment line can be used to prevent connections from
    * timing out; a server can send a comment periodically to keep the connection alive.
    *
+   * <p>Comments of all the emitters are sent from a single shared timer. Calling this method again
+   * changes the period.
+   *
    * @param timeInMillis Period of time in millis.
    * @return This emitter.
    */
   ServerSentEmitter keepAlive(long timeInMillis);
 
+  /**
+   * Register an emitter in the shared heartbeat, a comment message is sent every period of time
+   * until the emitter gets closed. Server implementations of {@link #keepAlive(long)} delegate to
+   * this method.
+   *
+   * <p>This method is part of Public API, but direct usage is discouraged.
+   *
+   * @param emitter Emitter.
+   * @param timeInMillis Period of time in millis.
+   */
+  static void heartbeat(ServerSentEmitter emitter, long timeInMillis) {
+    ServerSentHeartbeat.getInstance().register(emitter, timeInMillis);
+  }
+
   /**
    * Read the <code>Last-Event-ID</code> header and retrieve it. Might be null.
    *
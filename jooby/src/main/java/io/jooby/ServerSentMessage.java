@@ -159,6 +159,9 @@ public class ServerSentMessage {
 
       IntPredicate nl = ch -> ch == '\n';
       var message = encoder.encode(ctx, data);
+      if (message == null) {
+        throw new IllegalStateException("The message was not encoded");
+      }
       var lines = split(message.iterator(), nl);
       while (lines.hasNext()) {
         buffer.write(lines.next());
@@ -0,0 +1,140 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Keeps the most recent server-sent messages of each topic, so clients reconnecting with a <code>
+ * Last-Event-ID</code> header get the messages they missed without the application querying them
+ * again.
+ *
+ * <pre>{@code
+ * ServerSentReplayBuffer buffer = new ServerSentReplayBuffer(100);
+ *
+ * sse("/prices", sse -> {
+ *   buffer.replay("prices", sse);
+ * });
+ *
+ * // publish:
+ * ServerSentMessage message = buffer.add("prices", new ServerSentMessage(price));
+ * ...send message to connected clients
+ * }</pre>
+ *
+ * <p>Each topic is a ring buffer of fixed capacity: once full, adding a message evicts the oldest
+ * one. Messages without an ID get a sequential ID (per topic) when added.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+public class ServerSentReplayBuffer {
+
+  private static class Ring {
+    private final ServerSentMessage[] messages;
+
+    private final Map<String, Long> ids = new HashMap<>();
+
+    /** Sequence of the next message. */
+    private long next;
+
+    Ring(int capacity) {
+      this.messages = new ServerSentMessage[capacity];
+    }
+
+    synchronized ServerSentMessage add(ServerSentMessage message) {
+      var seq = next++;
+      if (message.getId() == null) {
+        message.setId(Long.toString(seq));
+      }
+      var index = (int) (seq % messages.length);
+      var evicted = messages[index];
+      if (evicted != null) {
+        ids.remove(evicted.getId().toString(), seq - messages.length);
+      }
+      messages[index] = message;
+      ids.put(message.getId().toString(), seq);
+      return message;
+    }
+
+    synchronized List<ServerSentMessage> since(String lastEventId) {
+      var oldest = Math.max(0, next - messages.length);
+      var seq = ids.get(lastEventId);
+      // Unknown or evicted: send everything we have
+      var from = seq == null ? oldest : seq + 1;
+      List<ServerSentMessage> result = new ArrayList<>((int) (next - from));
+      for (var i = from; i < next; i++) {
+        result.add(messages[(int) (i % messages.length)]);
+      }
+      return result;
+    }
+  }
+
+  private final int capacity;
+
+  private final Map<String, Ring> topics = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a replay buffer.
+   *
+   * @param capacity Max number of messages to keep per topic.
+   */
+  public ServerSentReplayBuffer(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be greater than zero: " + capacity);
+    }
+    this.capacity = capacity;
+  }
+
+  /**
+   * Add a message to a topic. Messages without an ID get one.
+   *
+   * @param topic Topic.
+   * @param message Message.
+   * @return Same message.
+   */
+  public ServerSentMessage add(String topic, ServerSentMessage message) {
+    return topics.computeIfAbsent(topic, key -> new Ring(capacity)).add(message);
+  }
+
+  /**
+   * Messages of a topic sent after the given event ID, from oldest to newest. When the ID is not
+   * in the buffer (it is too old or unknown) all the messages of the topic are returned.
+   *
+   * @param topic Topic.
+   * @param lastEventId Last event ID seen by the client or <code>null</code>.
+   * @return Messages after the event ID. Empty when the ID is <code>null</code>.
+   */
+  public List<ServerSentMessage> since(String topic, @Nullable String lastEventId) {
+    var ring = topics.get(topic);
+    if (ring == null || lastEventId == null) {
+      return Collections.emptyList();
+    }
+    return ring.since(lastEventId);
+  }
+
+  /**
+   * Send to the emitter the messages of a topic it missed, using the <code>Last-Event-ID</code>
+   * header. Does nothing for new connections (no header).
+   *
+   * @param topic Topic.
+   * @param sse Server-sent emitter.
+   * @return Number of messages sent.
+   */
+  public int replay(String topic, ServerSentEmitter sse) {
+    var messages = since(topic, sse.getLastEventId());
+    for (var message : messages) {
+      sse.send(message);
+    }
+    return messages.size();
+  }
+}
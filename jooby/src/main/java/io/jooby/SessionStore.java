@@ -80,6 +80,15 @@ public interface SessionStore {
         this.hash = hash;
       }
 
+      /**
+       * Last time the session was saved.
+       *
+       * @return Last accessed time.
+       */
+      public Instant getLastAccessedTime() {
+        return lastAccessedTime;
+      }
+
       public boolean isExpired(Duration timeout) {
         Duration timeElapsed = Duration.between(lastAccessedTime, Instant.now());
         return timeElapsed.compareTo(timeout) > 0;
@@ -130,6 +130,18 @@ public interface WebSocket {
     void operationComplete(WebSocket ws, @Nullable Throwable cause);
   }
 
+  /**
+   * What to do with a session that can't keep up with a broadcast, because its outbound buffer is
+   * full.
+   */
+  enum SlowConsumer {
+    /** Skip the message for the slow session. */
+    DROP,
+
+    /** Close the slow session with {@link WebSocketCloseStatus#SERVICE_OVERLOAD}. */
+    CLOSE
+  }
+
   /** Max message size for websocket (128K). */
   int MAX_BUFFER_SIZE = 131072;
 
@@ -202,6 +214,9 @@ public interface WebSocket {
    *
    * }</pre>
    *
+   * <p>Prefer {@link #broadcast(Object)} to send the same message to all sessions, it encodes the
+   * message once.
+   *
    * @param callback Callback.
    */
   void forEach(SneakyThrows.Consumer<WebSocket> callback);
@@ -459,6 +474,60 @@ public interface WebSocket {
    */
   WebSocket renderBinary(Object value, WriteCallback callback);
 
+  /**
+   * Encode a value once and send it as a text message to all the live sessions (including this).
+   * Slow sessions skip the message.
+   *
+   * <pre>{@code
+   * ws.broadcast(new Event("price", 42));
+   * }</pre>
+   *
+   * @param value Value to send.
+   * @return This websocket.
+   */
+  default WebSocket broadcast(Object value) {
+    return broadcast(value, SlowConsumer.DROP);
+  }
+
+  /**
+   * Encode a value once and send it as a text message to all the live sessions (including this).
+   * The encoded message is shared by all the sessions, so the cost of encoding doesn't grow with
+   * the number of sessions.
+   *
+   * @param value Value to send.
+   * @param slowConsumer What to do with sessions that can't keep up.
+   * @return This websocket.
+   */
+  default WebSocket broadcast(Object value, SlowConsumer slowConsumer) {
+    forEach(ws -> ws.render(value));
+    return this;
+  }
+
+  /**
+   * Encode a value once and send it as a binary message to all the live sessions (including this).
+   * Slow sessions skip the message.
+   *
+   * @param value Value to send.
+   * @return This websocket.
+   */
+  default WebSocket broadcastBinary(Object value) {
+    return broadcastBinary(value, SlowConsumer.DROP);
+  }
+
+  /**
+   * Encode a value once and send it as a binary message to all the live sessions (including this).
+   * The encoded message is shared by all the sessions, so the cost of encoding doesn't grow with
+   * the number of sessions.
+   *
+   * @param value Value to send.
+   * @param slowConsumer What to do with sessions that can't keep up.
+   * @return This websocket.
+   */
+  default WebSocket broadcastBinary(Object value, SlowConsumer slowConsumer) {
+    forEach(ws -> ws.renderBinary(value));
+    return this;
+  }
+
   /**
    * Close the web socket and send a {@link WebSocketCloseStatus#NORMAL} code to client.
    *
@@ -0,0 +1,215 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.handler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded ring buffer of preallocated {@link AccessLogRecord}. Request threads claim a slot, fill
+ * it and publish it; a single background thread formats published records and writes them.
+ *
+ * <p>Each slot has a sequence number: a slot is free for position <code>p</code> when its sequence
+ * is <code>p</code> and ready to read when its sequence is <code>p + 1</code>. Producers claim
+ * positions with a CAS, so there is no lock on the request path.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+final class AccessLogBuffer implements Runnable {
+
+  /** Writes records from the background thread. */
+  interface Writer {
+    /**
+     * Write a record.
+     *
+     * @param record Record.
+     */
+    void write(AccessLogRecord record);
+
+    /** Called once there are no more records to write (for now). */
+    void flush();
+  }
+
+  private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final Logger log = LoggerFactory.getLogger(AccessLogHandler.class);
+
+  private final AccessLogRecord[] slots;
+
+  private final AtomicLongArray sequences;
+
+  private final int mask;
+
+  private final AccessLogHandler.Overflow overflow;
+
+  private final Writer writer;
+
+  private final AtomicLong head = new AtomicLong();
+
+  private final LongAdder dropped = new LongAdder();
+
+  /** Consumer position, only updated by the background thread. */
+  private volatile long tail;
+
+  private volatile boolean running = true;
+
+  private @Nullable Thread thread;
+
+  AccessLogBuffer(
+      int capacity,
+      int requestHeaders,
+      int responseHeaders,
+      AccessLogHandler.Overflow overflow,
+      Writer writer) {
+    if (Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+    }
+    this.slots = new AccessLogRecord[capacity];
+    this.sequences = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      slots[i] = new AccessLogRecord(requestHeaders, responseHeaders);
+      sequences.set(i, i);
+    }
+    this.mask = capacity - 1;
+    this.overflow = overflow;
+    this.writer = writer;
+  }
+
+  /**
+   * Start the background thread.
+   *
+   * @return This buffer.
+   */
+  AccessLogBuffer start() {
+    var thread = new Thread(this, "access-log");
+    thread.setDaemon(true);
+    thread.start();
+    this.thread = thread;
+    return this;
+  }
+
+  /**
+   * Claim a free record. Once filled, the record must be {@link #publish(AccessLogRecord)
+   * published}.
+   *
+   * @return A free record or <code>null</code> when the buffer is full and overflow policy is
+   *     {@link AccessLogHandler.Overflow#DROP} (or the buffer was closed).
+   */
+  @Nullable AccessLogRecord claim() {
+    while (running) {
+      long position = head.get();
+      int index = (int) (position & mask);
+      long sequence = sequences.get(index);
+      if (sequence == position) {
+        if (head.compareAndSet(position, position + 1)) {
+          var record = slots[index];
+          record.position = position;
+          return record;
+        }
+      } else if (sequence < position) {
+        // full
+        if (overflow == AccessLogHandler.Overflow.DROP) {
+          break;
+        }
+        LockSupport.parkNanos(1000);
+      }
+      // else: another producer claimed the slot, retry
+    }
+    dropped.increment();
+    return null;
+  }
+
+  /**
+   * Make a record available to the background thread.
+   *
+   * @param record Record returned by {@link #claim()}.
+   */
+  void publish(AccessLogRecord record) {
+    sequences.setRelease((int) (record.position & mask), record.position + 1);
+  }
+
+  /**
+   * Number of records dropped because the buffer was full.
+   *
+   * @return Number of dropped records.
+   */
+  long getDropped() {
+    return dropped.sum();
+  }
+
+  /**
+   * Write all the published records on the caller thread.
+   *
+   * @return Number of written records.
+   */
+  int drain() {
+    int count = 0;
+    long position = tail;
+    try {
+      while (true) {
+        int index = (int) (position & mask);
+        if (sequences.getAcquire(index) != position + 1) {
+          break;
+        }
+        var record = slots[index];
+        try {
+          writer.write(record);
+        } catch (Exception x) {
+          log.error("access log resulted in exception", x);
+        } finally {
+          record.clear();
+          // free slot for next round
+          sequences.setRelease(index, position + slots.length);
+        }
+        position += 1;
+        count += 1;
+      }
+    } finally {
+      tail = position;
+      if (count > 0) {
+        try {
+          writer.flush();
+        } catch (Exception x) {
+          log.error("access log resulted in exception", x);
+        }
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public void run() {
+    while (running) {
+      if (drain() == 0) {
+        LockSupport.parkNanos(this, IDLE_NANOS);
+      }
+    }
+    // write what is left
+    drain();
+  }
+
+  /** Stop the background thread, after writing pending records. */
+  void close() {
+    running = false;
+    var thread = this.thread;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+      try {
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+      } catch (InterruptedException x) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
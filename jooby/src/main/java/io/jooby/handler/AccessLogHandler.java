@@ -7,6 +7,8 @@ package io.jooby.handler;
 
 import static java.util.Objects.requireNonNull;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
@@ -17,6 +19,7 @@ import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -141,10 +144,63 @@ import io.jooby.Route;
  * }
  * }</pre>
  *
+ * <h2>format</h2>
+ *
+ * <p>Besides NCSA, entries might be logged as JSON (one object per line) or as binary records (see
+ * {@link #binaryLog(Consumer)}):
+ *
+ * <pre>{@code
+ * {
+ *   use("*", new AccessLogHandler()
+ *      .format(AccessLogHandler.Format.JSON));
+ * }
+ * }</pre>
+ *
+ * <h2>async</h2>
+ *
+ * <p>By default, entries are formatted and logged on the request thread once the response is
+ * complete. In async mode, request threads copy the log fields into a preallocated ring buffer and
+ * a background thread formats and writes them:
+ *
+ * <pre>{@code
+ * {
+ *   AccessLogHandler accessLog = new AccessLogHandler()
+ *      .async(8192, AccessLogHandler.Overflow.DROP);
+ *   use(accessLog);
+ *   onStop(accessLog);
+ * }
+ * }</pre>
+ *
+ * <p>When the buffer is full, entries are dropped (see {@link #getDropped()}) or the request thread
+ * waits for a free slot, depending on the {@link Overflow} policy. Options must be set before
+ * installing the handler.
+ *
  * @author edgar
  * @since 2.5.2
  */
-public class AccessLogHandler implements Route.Filter {
+public class AccessLogHandler implements Route.Filter, AutoCloseable {
+
+  /** Log entry format. */
+  public enum Format {
+    /** NCSA common log format. Default format. */
+    COMMON,
+
+    /** One JSON object per line. */
+    JSON,
+
+    /** Binary records, written to the consumer set by {@link #binaryLog(Consumer)}. */
+    BINARY
+  }
+
+  /** What to do in async mode, when the ring buffer is full. */
+  public enum Overflow {
+    /** Discard the log entry. */
+    DROP,
+
+    /** Request thread waits until there is space in the buffer. */
+    BLOCK
+  }
+
   private static final String USER_AGENT = "User-Agent";
 
   private static final String REFERER = "Referer";
@@ -153,10 +209,6 @@ public class AccessLogHandler implements Route.Filter {
       DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z").withZone(ZoneId.systemDefault());
 
   private static final String DASH = "-";
-  private static final char SP = ' ';
-  private static final char BL = '[';
-  private static final char BR = ']';
-  private static final char Q = '\"';
 
   private static final Function<Context, String> USER_OR_DASH =
       ctx -> Optional.ofNullable(ctx.getUser()).map(Object::toString).orElse(DASH);
@@ -164,6 +216,9 @@ public class AccessLogHandler implements Route.Filter {
   /** Default buffer size. */
   private static final int MESSAGE_SIZE = 256;
 
+  /** Buffer size for binary records written from background thread. */
+  private static final int BINARY_BUFFER_SIZE = 64 * 1024;
+
   /** The logging system. */
   private final Logger log = LoggerFactory.getLogger(getClass());
 
@@ -177,6 +232,18 @@ public class AccessLogHandler implements Route.Filter {
 
   private List<String> responseHeaders = Collections.emptyList();
 
+  private boolean secondPrecision = true;
+
+  private Format format = Format.COMMON;
+
+  private @Nullable Consumer<ByteBuffer> binaryLog;
+
+  private int capacity;
+
+  private Overflow overflow = Overflow.DROP;
+
+  private @Nullable AccessLogBuffer buffer;
+
   /**
    * Creates a new {@link AccessLogHandler} and use the given function and userId provider. Please
    * note, if the user isn't present this function is allowed to returns <code>-</code> (dash
@@ -186,7 +253,7 @@ public class AccessLogHandler implements Route.Filter {
    */
   public AccessLogHandler(Function<Context, String> userId) {
     this.userId = requireNonNull(userId, "User ID provider required.");
-    dateFormatter(FORMATTER);
+    this.df = ts -> FORMATTER.format(Instant.ofEpochMilli(ts));
   }
 
   /** Creates a new {@link AccessLogHandler} without user identifier. */
@@ -196,49 +263,137 @@ public class AccessLogHandler implements Route.Filter {
 
   @Override
   public Route.Handler apply(Route.Handler next) {
-    long timestamp = System.currentTimeMillis();
+    if (format == Format.BINARY && binaryLog == null) {
+      throw new IllegalStateException("Binary format requires a binary log consumer");
+    }
+    var buffer = capacity > 0 ? buffer() : null;
+    // Sync mode: record and writer are reused by each request thread
+    var writers =
+        buffer == null
+            ? ThreadLocal.withInitial(
+                () ->
+                    new SyncWriter(
+                        new AccessLogRecord(requestHeaders.size(), responseHeaders.size()),
+                        newWriter(false)))
+            : null;
     return ctx -> {
+      long timestamp = System.currentTimeMillis();
+      long start = System.nanoTime();
       // Take remote address here (less chances of loosing it on interrupted requests).
       String remoteAddr = ctx.getRemoteAddress();
-      ctx.onComplete(
-          context -> {
-            StringBuilder sb = new StringBuilder(MESSAGE_SIZE);
-            sb.append(remoteAddr);
-            sb.append(SP).append(DASH).append(SP);
-            sb.append(userId.apply(ctx));
-            sb.append(SP);
-            sb.append(BL).append(df.apply(timestamp)).append(BR);
-            sb.append(SP);
-            sb.append(Q).append(ctx.getMethod());
-            sb.append(SP);
-            sb.append(ctx.getRequestPath());
-            sb.append(ctx.queryString());
-            sb.append(SP);
-            sb.append(ctx.getProtocol());
-            sb.append(Q).append(SP);
-            sb.append(ctx.getResponseCode().value());
-            sb.append(SP);
-            long responseLength = ctx.getResponseLength();
-            sb.append(responseLength >= 0 ? responseLength : DASH);
-            long now = System.currentTimeMillis();
-            sb.append(SP);
-            sb.append(now - timestamp);
-            appendHeaders(sb, requestHeaders, h -> ctx.header(h).valueOrNull());
-            appendHeaders(sb, responseHeaders, h -> ctx.getResponseHeader(h));
-            logRecord.accept(sb.toString());
-          });
+      ctx.onComplete(context -> log(ctx, remoteAddr, timestamp, start, buffer, writers));
       return next.apply(ctx);
     };
   }
 
-  private void appendHeaders(
-      StringBuilder buff, List<String> requestHeaders, Function<String, String> headers) {
-    for (String header : requestHeaders) {
-      String value = headers.apply(header);
-      if (value == null) {
-        buff.append(SP).append(Q).append(DASH).append(Q);
-      } else {
-        buff.append(SP).append(Q).append(value).append(Q);
+  private void log(
+      Context ctx,
+      String remoteAddr,
+      long timestamp,
+      long start,
+      @Nullable AccessLogBuffer buffer,
+      @Nullable ThreadLocal<SyncWriter> writers) {
+    String user = userId.apply(ctx);
+    if (buffer == null) {
+      var sync = requireNonNull(writers).get();
+      var record = sync.record();
+      record.fill(ctx, remoteAddr, user, timestamp, start, requestHeaders, responseHeaders);
+      try {
+        sync.writer().write(record);
+        sync.writer().flush();
+      } finally {
+        record.clear();
+      }
+    } else {
+      var record = buffer.claim();
+      if (record != null) {
+        try {
+          record.fill(ctx, remoteAddr, user, timestamp, start, requestHeaders, responseHeaders);
+        } finally {
+          buffer.publish(record);
+        }
+      }
+    }
+  }
+
+  private synchronized AccessLogBuffer buffer() {
+    if (buffer == null) {
+      buffer =
+          new AccessLogBuffer(
+                  capacity,
+                  requestHeaders.size(),
+                  responseHeaders.size(),
+                  overflow,
+                  newWriter(true))
+              .start();
+    }
+    return buffer;
+  }
+
+  private AccessLogBuffer.Writer newWriter(boolean async) {
+    if (format == Format.BINARY) {
+      return new BinaryWriter(
+          requireNonNull(binaryLog), async ? BINARY_BUFFER_SIZE : MESSAGE_SIZE);
+    }
+    // writers are never shared between threads, caching the formatted second is safe
+    var dates = new AccessLogRecord.DateCache(df, secondPrecision);
+    var sb = new StringBuilder(MESSAGE_SIZE);
+    var json = format == Format.JSON;
+    return new AccessLogBuffer.Writer() {
+      @Override
+      public void write(AccessLogRecord record) {
+        sb.setLength(0);
+        if (json) {
+          record.appendJson(sb, requestHeaders, responseHeaders);
+        } else {
+          record.appendCommon(sb, dates.format(record.timestamp));
+        }
+        logRecord.accept(sb.toString());
+      }
+
+      @Override
+      public void flush() {}
+    };
+  }
+
+  /** Record and writer owned by a request thread, used in sync mode. */
+  private record SyncWriter(AccessLogRecord record, AccessLogBuffer.Writer writer) {}
+
+  /** Writes binary records into a reusable buffer, the buffer is sent to consumer on flush. */
+  private static class BinaryWriter implements AccessLogBuffer.Writer {
+    private final Consumer<ByteBuffer> consumer;
+
+    private ByteBuffer buffer;
+
+    BinaryWriter(Consumer<ByteBuffer> consumer, int bufferSize) {
+      this.consumer = consumer;
+      this.buffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    @Override
+    public void write(AccessLogRecord record) {
+      while (true) {
+        int mark = buffer.position();
+        try {
+          record.writeBinary(buffer);
+          return;
+        } catch (BufferOverflowException x) {
+          buffer.position(mark);
+          if (mark > 0) {
+            flush();
+          } else {
+            // Record doesn't fit in an empty buffer
+            buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+          }
+        }
+      }
+    }
+
+    @Override
+    public void flush() {
+      if (buffer.position() > 0) {
+        consumer.accept(buffer.flip());
+        buffer.clear();
       }
     }
   }
@@ -281,6 +436,7 @@ public class AccessLogHandler implements Route.Filter {
   public AccessLogHandler dateFormatter(final Function<Long, String> formatter) {
     requireNonNull(formatter, "Formatter required.");
     this.df = formatter;
+    this.secondPrecision = false;
     return this;
   }
 
@@ -291,7 +447,9 @@ public class AccessLogHandler implements Route.Filter {
    * @return This instance.
    */
   public AccessLogHandler dateFormatter(ZoneId zoneId) {
-    return dateFormatter(FORMATTER.withZone(zoneId));
+    dateFormatter(FORMATTER.withZone(zoneId));
+    this.secondPrecision = true;
+    return this;
   }
 
   /**
@@ -324,4 +482,87 @@ public class AccessLogHandler implements Route.Filter {
     this.responseHeaders = Arrays.asList(names);
     return this;
   }
+
+  /**
+   * Set log entry format. Default is: {@link Format#COMMON}.
+   *
+   * @param format Log entry format.
+   * @return This instance.
+   */
+  public AccessLogHandler format(Format format) {
+    this.format = requireNonNull(format, "Format required.");
+    return this;
+  }
+
+  /**
+   * Write log entries as binary records, see {@link Format#BINARY}. The consumer gets a buffer with
+   * one or more records, the buffer is reused once the consumer returns. Each record is:
+   *
+   * <pre>
+   * int    record size, in bytes, excluding this field
+   * long   timestamp, epoch millis
+   * long   latency, nanos
+   * int    status code
+   * long   response length, -1 when unknown
+   * string remote address, user, method, path, query, protocol
+   * string request header values, response header values (configured order)
+   * </pre>
+   *
+   * <p>Strings are written as a <code>short</code> length followed by the UTF-8 bytes. Missing
+   * values have a length of <code>-1</code>.
+   *
+   * @param log Binary record consumer.
+   * @return This instance.
+   */
+  public AccessLogHandler binaryLog(Consumer<ByteBuffer> log) {
+    this.binaryLog = requireNonNull(log, "Consumer is required.");
+    this.format = Format.BINARY;
+    return this;
+  }
+
+  /**
+   * Format and write log entries from a background thread, using a ring buffer of 8192 entries.
+   * Entries are dropped when the buffer is full.
+   *
+   * @return This instance.
+   */
+  public AccessLogHandler async() {
+    return async(8192, Overflow.DROP);
+  }
+
+  /**
+   * Format and write log entries from a background thread. Request threads copy log fields into a
+   * preallocated ring buffer.
+   *
+   * @param capacity Buffer capacity, must be a power of two.
+   * @param overflow What to do when the buffer is full.
+   * @return This instance.
+   */
+  public AccessLogHandler async(int capacity, Overflow overflow) {
+    if (Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+    }
+    this.capacity = capacity;
+    this.overflow = requireNonNull(overflow, "Overflow required.");
+    return this;
+  }
+
+  /**
+   * Number of log entries dropped because the async buffer was full.
+   *
+   * @return Number of dropped entries.
+   */
+  public long getDropped() {
+    var buffer = this.buffer;
+    return buffer == null ? 0 : buffer.getDropped();
+  }
+
+  /** Write pending log entries and stop the background thread (async mode only). */
+  @Override
+  public void close() {
+    var buffer = this.buffer;
+    if (buffer != null) {
+      buffer.close();
+    }
+  }
 }
@@ -0,0 +1,293 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.handler;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.jspecify.annotations.Nullable;
+
+import io.jooby.Context;
+
+/**
+ * Fields of an access log entry. Values are captured from the context when the response is
+ * complete, formatting happens later (maybe on a different thread). Instances are reused when
+ * running in async mode.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+final class AccessLogRecord {
+  private static final String DASH = "-";
+  private static final char SP = ' ';
+  private static final char BL = '[';
+  private static final char BR = ']';
+  private static final char Q = '\"';
+
+  /** Ring buffer position, used by {@link AccessLogBuffer}. */
+  long position;
+
+  @Nullable String remoteAddress;
+
+  @Nullable String user;
+
+  long timestamp;
+
+  @Nullable String method;
+
+  @Nullable String path;
+
+  @Nullable String query;
+
+  @Nullable String protocol;
+
+  int status;
+
+  long length;
+
+  long latency;
+
+  final @Nullable String[] requestHeaders;
+
+  final @Nullable String[] responseHeaders;
+
+  AccessLogRecord(int requestHeaders, int responseHeaders) {
+    this.requestHeaders = new String[requestHeaders];
+    this.responseHeaders = new String[responseHeaders];
+  }
+
+  void fill(
+      Context ctx,
+      String remoteAddress,
+      String user,
+      long timestamp,
+      long start,
+      List<String> requestHeaders,
+      List<String> responseHeaders) {
+    this.remoteAddress = remoteAddress;
+    this.user = user;
+    this.timestamp = timestamp;
+    this.method = ctx.getMethod();
+    this.path = ctx.getRequestPath();
+    this.query = ctx.queryString();
+    this.protocol = ctx.getProtocol();
+    this.status = ctx.getResponseCode().value();
+    this.length = ctx.getResponseLength();
+    this.latency = System.nanoTime() - start;
+    for (int i = 0; i < this.requestHeaders.length; i++) {
+      this.requestHeaders[i] = ctx.header(requestHeaders.get(i)).valueOrNull();
+    }
+    for (int i = 0; i < this.responseHeaders.length; i++) {
+      this.responseHeaders[i] = ctx.getResponseHeader(responseHeaders.get(i));
+    }
+  }
+
+  /** Release references, so captured values can be garbage collected. */
+  void clear() {
+    remoteAddress = null;
+    user = null;
+    method = null;
+    path = null;
+    query = null;
+    protocol = null;
+    Arrays.fill(requestHeaders, null);
+    Arrays.fill(responseHeaders, null);
+  }
+
+  /**
+   * Append an NCSA (common log format) line.
+   *
+   * @param sb Output.
+   * @param date Formatted date.
+   */
+  void appendCommon(StringBuilder sb, String date) {
+    sb.append(remoteAddress);
+    sb.append(SP).append(DASH).append(SP);
+    sb.append(user);
+    sb.append(SP);
+    sb.append(BL).append(date).append(BR);
+    sb.append(SP);
+    sb.append(Q).append(method);
+    sb.append(SP);
+    sb.append(path);
+    sb.append(query);
+    sb.append(SP);
+    sb.append(protocol);
+    sb.append(Q).append(SP);
+    sb.append(status);
+    sb.append(SP);
+    if (length >= 0) {
+      sb.append(length);
+    } else {
+      sb.append(DASH);
+    }
+    sb.append(SP);
+    sb.append(TimeUnit.NANOSECONDS.toMillis(latency));
+    appendHeaders(sb, requestHeaders);
+    appendHeaders(sb, responseHeaders);
+  }
+
+  private static void appendHeaders(StringBuilder sb, @Nullable String[] values) {
+    for (String value : values) {
+      sb.append(SP).append(Q).append(value == null ? DASH : value).append(Q);
+    }
+  }
+
+  /**
+   * Append a JSON object (single line).
+   *
+   * @param sb Output.
+   * @param requestHeaderNames Request header names.
+   * @param responseHeaderNames Response header names.
+   */
+  void appendJson(
+      StringBuilder sb, List<String> requestHeaderNames, List<String> responseHeaderNames) {
+    sb.append('{');
+    jsonField(sb, "remoteAddress", remoteAddress).append(',');
+    jsonField(sb, "user", user).append(',');
+    sb.append("\"timestamp\":").append(timestamp).append(',');
+    jsonField(sb, "method", method).append(',');
+    jsonField(sb, "path", path).append(',');
+    jsonField(sb, "query", query).append(',');
+    jsonField(sb, "protocol", protocol).append(',');
+    sb.append("\"status\":").append(status).append(',');
+    sb.append("\"length\":").append(length).append(',');
+    sb.append("\"latency\":").append(TimeUnit.NANOSECONDS.toMillis(latency));
+    appendJsonHeaders(sb, "requestHeaders", requestHeaderNames, requestHeaders);
+    appendJsonHeaders(sb, "responseHeaders", responseHeaderNames, responseHeaders);
+    sb.append('}');
+  }
+
+  private static void appendJsonHeaders(
+      StringBuilder sb, String field, List<String> names, @Nullable String[] values) {
+    if (values.length > 0) {
+      sb.append(",\"").append(field).append("\":{");
+      for (int i = 0; i < values.length; i++) {
+        if (i > 0) {
+          sb.append(',');
+        }
+        jsonField(sb, names.get(i), values[i]);
+      }
+      sb.append('}');
+    }
+  }
+
+  private static StringBuilder jsonField(StringBuilder sb, String name, @Nullable String value) {
+    jsonString(sb, name).append(':');
+    return value == null ? sb.append("null") : jsonString(sb, value);
+  }
+
+  private static StringBuilder jsonString(StringBuilder sb, String value) {
+    sb.append(Q);
+    for (int i = 0; i < value.length(); i++) {
+      char ch = value.charAt(i);
+      switch (ch) {
+        case '"' -> sb.append("\\\"");
+        case '\\' -> sb.append("\\\\");
+        case '\n' -> sb.append("\\n");
+        case '\r' -> sb.append("\\r");
+        case '\t' -> sb.append("\\t");
+        default -> {
+          if (ch < 0x20) {
+            sb.append(String.format("\\u%04x", (int) ch));
+          } else {
+            sb.append(ch);
+          }
+        }
+      }
+    }
+    return sb.append(Q);
+  }
+
+  /**
+   * Write a binary record. Layout (big endian):
+   *
+   * <pre>
+   * int    record size, in bytes, excluding this field
+   * long   timestamp, epoch millis
+   * long   latency, nanos
+   * int    status code
+   * long   response length, -1 when unknown
+   * string remote address, user, method, path, query, protocol
+   * string request header values, response header values (configured order)
+   * </pre>
+   *
+   * <p>Strings are written as a <code>short</code> length followed by the UTF-8 bytes. Missing
+   * values have a length of <code>-1</code>.
+   *
+   * @param buffer Output.
+   * @throws BufferOverflowException When there isn't enough space in buffer.
+   */
+  void writeBinary(ByteBuffer buffer) {
+    int start = buffer.position();
+    buffer.putInt(0);
+    buffer.putLong(timestamp);
+    buffer.putLong(latency);
+    buffer.putInt(status);
+    buffer.putLong(length);
+    binaryString(buffer, remoteAddress);
+    binaryString(buffer, user);
+    binaryString(buffer, method);
+    binaryString(buffer, path);
+    binaryString(buffer, query);
+    binaryString(buffer, protocol);
+    for (String value : requestHeaders) {
+      binaryString(buffer, value);
+    }
+    for (String value : responseHeaders) {
+      binaryString(buffer, value);
+    }
+    buffer.putInt(start, buffer.position() - start - Integer.BYTES);
+  }
+
+  private static void binaryString(ByteBuffer buffer, @Nullable String value) {
+    if (value == null) {
+      buffer.putShort((short) -1);
+    } else {
+      byte[] bytes = value.getBytes(UTF_8);
+      int length = Math.min(bytes.length, Short.MAX_VALUE);
+      buffer.putShort((short) length);
+      buffer.put(bytes, 0, length);
+    }
+  }
+
+  /**
+   * Format the record date, caching the last formatted second when the formatter has second
+   * precision.
+   */
+  static final class DateCache {
+    private final Function<Long, String> formatter;
+
+    private final boolean secondPrecision;
+
+    private long second = -1;
+
+    private @Nullable String date;
+
+    DateCache(Function<Long, String> formatter, boolean secondPrecision) {
+      this.formatter = formatter;
+      this.secondPrecision = secondPrecision;
+    }
+
+    String format(long timestamp) {
+      if (!secondPrecision) {
+        return formatter.apply(timestamp);
+      }
+      long second = timestamp / 1000;
+      if (second != this.second) {
+        this.date = formatter.apply(timestamp);
+        this.second = second;
+      }
+      return date;
+    }
+  }
+}
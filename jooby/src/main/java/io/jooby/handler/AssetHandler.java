@@ -7,21 +7,30 @@ package io.jooby.handler;
 
 import static java.util.Objects.requireNonNull;
 
+import java.nio.channels.FileChannel;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.function.Function;
 
 import org.jspecify.annotations.Nullable;
 
 import io.jooby.*;
+import io.jooby.internal.AssetCache;
+import io.jooby.internal.FileAsset;
 
 /**
  * Handler for static resources represented by the {@link Asset} contract.
  *
  * <p>It has built-in support for static-static as well as SPAs (single page applications).
  *
+ * <p>File system assets are sent using a {@link FileChannel}, which allows servers to use
+ * zero-copy file transfer. Precompressed variants (<code>.br</code>, <code>.gz</code>, <code>.zst
+ * </code>) are picked up via {@link #setPrecompressed(String...)} and small assets might be kept
+ * in memory via {@link #setCache(long, long)}.
+ *
  * @author edgar
  * @since 2.0.0
  */
@@ -46,6 +55,11 @@ public class AssetHandler implements Route.Handler {
   private Function<Asset, MediaType> mediaTypeResolver = Asset::getContentType;
   private SneakyThrows.Consumer<Context> notFound = NOT_FOUND;
 
+  /** Content encodings of precompressed variants, in order of preference. */
+  private String[] precompressed = new String[0];
+
+  private @Nullable AssetCache cache;
+
   /**
    * Creates a new asset handler that fallback to the given fallback asset when the asset is not
    * found. Instead of produces a <code>404</code> its fallback to the given asset.
@@ -97,21 +111,48 @@ public class AssetHandler implements Route.Handler {
 
     CacheControl cacheParams = cacheControl.apply(resolvedPath);
 
+    MediaType contentType = mediaTypeResolver.apply(asset);
+    String cacheKey = resolvedPath;
+    if (precompressed.length > 0) {
+      ctx.setResponseHeader("Vary", "Accept-Encoding");
+      String acceptEncoding = ctx.header("Accept-Encoding").valueOrNull();
+      if (acceptEncoding != null) {
+        for (String encoding : precompressed) {
+          if (accepts(acceptEncoding, encoding)) {
+            String variantPath = resolvedPath + extension(encoding);
+            Asset variant = variant(variantPath, asset);
+            if (variant != null) {
+              asset.close();
+              asset = variant;
+              cacheKey = variantPath;
+              ctx.setResponseHeader("Content-Encoding", encoding);
+              break;
+            }
+          }
+        }
+      }
+    }
+
+    // Range requests are handled by the server from file/stream
+    AssetCache.Entry cached =
+        cache == null || ctx.header("Range").isPresent() ? null : cache.get(cacheKey, asset);
+
     // handle If-None-Match
     if (cacheParams.isEtag()) {
+      String etag = cached == null ? asset.getEtag() : cached.etag();
       String ifnm = ctx.header("If-None-Match").valueOrNull();
-      if (ifnm != null && ifnm.equals(asset.getEtag())) {
+      if (ifnm != null && ifnm.equals(etag)) {
         ctx.send(StatusCode.NOT_MODIFIED);
         asset.close();
         return ctx;
       } else {
-        ctx.setResponseHeader("ETag", asset.getEtag());
+        ctx.setResponseHeader("ETag", etag);
       }
     }
 
     // Handle If-Modified-Since
     if (cacheParams.isLastModified()) {
-      long lastModified = asset.getLastModified();
+      long lastModified = cached == null ? asset.getLastModified() : cached.lastModified();
       if (lastModified > 0) {
         long ifms = ctx.header("If-Modified-Since").longValue(-1);
         if (lastModified / ONE_SEC <= ifms / ONE_SEC) {
@@ -130,14 +171,58 @@ public class AssetHandler implements Route.Handler {
       ctx.setResponseHeader("Cache-Control", "no-store, must-revalidate");
     }
 
+    ctx.setResponseType(contentType);
+    if (cached != null) {
+      asset.close();
+      return ctx.send(cached.bytes());
+    }
+    if (asset instanceof FileAsset file) {
+      return ctx.send(FileChannel.open(file.getPath()));
+    }
     long length = asset.getSize();
     if (length != -1) {
       ctx.setResponseLength(length);
     }
-    ctx.setResponseType(mediaTypeResolver.apply(asset));
     return ctx.send(asset.stream());
   }
 
+  /**
+   * Serve precompressed variants of assets. For a request to <code>app.js</code> the handler looks
+   * for <code>app.js.br</code>, <code>app.js.gz</code> or <code>app.js.zst</code> (in the given
+   * order) and sends the first one accepted by the <code>Accept-Encoding</code> header. Response
+   * type is the one of the original asset.
+   *
+   * <pre>{@code
+   * {
+   *   assets("/?*", new AssetHandler("index.html", source).setPrecompressed("br", "gzip"));
+   * }
+   * }</pre>
+   *
+   * @param encodings Supported encodings: <code>br</code>, <code>gzip</code> and <code>zstd</code>.
+   * @return This handler.
+   */
+  public AssetHandler setPrecompressed(String... encodings) {
+    for (String encoding : encodings) {
+      extension(encoding);
+    }
+    this.precompressed = encodings.clone();
+    return this;
+  }
+
+  /**
+   * Keep small assets in memory, together with their e-tag. Cached content is validated against
+   * asset size and last modified date on every request. Least recently used assets are evicted
+   * once <code>maxSize</code> is reached.
+   *
+   * @param maxSize Max number of bytes to keep in memory.
+   * @param maxAssetSize Max size of a cacheable asset.
+   * @return This handler.
+   */
+  public AssetHandler setCache(long maxSize, long maxAssetSize) {
+    this.cache = new AssetCache(maxSize, maxAssetSize);
+    return this;
+  }
+
   /**
    * Turn on/off e-tag support.
    *
@@ -246,6 +331,67 @@ public class AssetHandler implements Route.Handler {
     return this;
   }
 
+  private @Nullable Asset variant(String path, Asset asset) {
+    Asset variant = resolve(path);
+    if (variant == null) {
+      return null;
+    }
+    // single file sources resolve to the same file for any path
+    if (variant.isDirectory() || variant.equals(asset)) {
+      try {
+        variant.close();
+      } catch (Exception cause) {
+        throw SneakyThrows.propagate(cause);
+      }
+      return null;
+    }
+    return variant;
+  }
+
+  private static String extension(String encoding) {
+    return switch (encoding) {
+      case "br" -> ".br";
+      case "gzip" -> ".gz";
+      case "zstd" -> ".zst";
+      default -> throw new IllegalArgumentException("Unsupported encoding: " + encoding);
+    };
+  }
+
+  /**
+   * Check if the <code>Accept-Encoding</code> header accepts the given encoding. An encoding is
+   * accepted when listed (or matched by <code>*</code>) with a non-zero quality value.
+   */
+  static boolean accepts(String acceptEncoding, String encoding) {
+    boolean wildcard = false;
+    for (String item : acceptEncoding.split(",")) {
+      int semicolon = item.indexOf(';');
+      String name = (semicolon < 0 ? item : item.substring(0, semicolon)).trim();
+      boolean match = name.equalsIgnoreCase(encoding);
+      if (match || name.equals("*")) {
+        boolean accepted = semicolon < 0 || quality(item.substring(semicolon + 1)) > 0;
+        if (match) {
+          return accepted;
+        }
+        wildcard = accepted;
+      }
+    }
+    return wildcard;
+  }
+
+  private static double quality(String params) {
+    for (String param : params.split(";")) {
+      String value = param.trim().toLowerCase(Locale.ROOT);
+      if (value.startsWith("q=")) {
+        try {
+          return Double.parseDouble(value.substring(2));
+        } catch (NumberFormatException x) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+
   private @Nullable Asset resolve(String filepath) {
     for (AssetSource source : sources) {
       Asset asset = source.resolve(filepath);
@@ -0,0 +1,339 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.handler;
+
+import java.time.Duration;
+
+/**
+ * Concurrency limit used by {@link ConcurrencyLimitHandler}. A limit is the max number of requests
+ * allowed to be in-flight at the same time. Adaptive limits adjust it from observed latency.
+ *
+ * <ul>
+ *   <li>{@link #fixed(int)}: constant limit.
+ *   <li>{@link #aimd()}: additive increase, multiplicative decrease. Grows by one while latency
+ *       stays under a timeout and backs off when it doesn't.
+ *   <li>{@link #gradient()}: compares short term latency against long term latency and shrinks
+ *       the limit as soon as requests start queueing.
+ * </ul>
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+public interface ConcurrencyLimit {
+
+  /** Fixed/constant limit. */
+  class Fixed implements ConcurrencyLimit {
+    private final int limit;
+
+    /**
+     * Creates a fixed limit.
+     *
+     * @param limit Limit. Must be greater than <code>0</code>.
+     */
+    public Fixed(int limit) {
+      if (limit <= 0) {
+        throw new IllegalArgumentException("Limit must be greater than 0: " + limit);
+      }
+      this.limit = limit;
+    }
+
+    @Override
+    public int getLimit() {
+      return limit;
+    }
+
+    @Override
+    public void onSample(long rtt, int inflight, boolean dropped) {
+      // NOOP
+    }
+
+    @Override
+    public String toString() {
+      return "fixed(" + limit + ")";
+    }
+  }
+
+  /**
+   * Additive increase, multiplicative decrease limit. Limit grows by one when a request completes
+   * under {@link #setTimeout(Duration)} while at least half of the limit is in use, and it is
+   * multiplied by {@link #setBackoffRatio(double)} when a request is slower than that or dropped.
+   */
+  class Aimd implements ConcurrencyLimit {
+    private volatile int limit = 20;
+    private int minLimit = 20;
+    private int maxLimit = 200;
+    private double backoffRatio = 0.9;
+    private long timeout = Duration.ofSeconds(5).toNanos();
+
+    /**
+     * Set initial limit. Default is <code>20</code>.
+     *
+     * @param limit Initial limit.
+     * @return This limit.
+     */
+    public Aimd setInitialLimit(int limit) {
+      this.limit = limit;
+      return this;
+    }
+
+    /**
+     * Set min limit. Default is <code>20</code>.
+     *
+     * @param minLimit Min limit.
+     * @return This limit.
+     */
+    public Aimd setMinLimit(int minLimit) {
+      this.minLimit = minLimit;
+      return this;
+    }
+
+    /**
+     * Set max limit. Default is <code>200</code>.
+     *
+     * @param maxLimit Max limit.
+     * @return This limit.
+     */
+    public Aimd setMaxLimit(int maxLimit) {
+      this.maxLimit = maxLimit;
+      return this;
+    }
+
+    /**
+     * Ratio applied to the limit on back off. Default is <code>0.9</code>.
+     *
+     * @param backoffRatio Value between <code>0.5</code> and <code>1</code> (exclusive).
+     * @return This limit.
+     */
+    public Aimd setBackoffRatio(double backoffRatio) {
+      if (backoffRatio < 0.5 || backoffRatio >= 1.0) {
+        throw new IllegalArgumentException("Backoff ratio must be in [0.5, 1.0): " + backoffRatio);
+      }
+      this.backoffRatio = backoffRatio;
+      return this;
+    }
+
+    /**
+     * Requests slower than this trigger a back off. Default is <code>5s</code>.
+     *
+     * @param timeout Timeout.
+     * @return This limit.
+     */
+    public Aimd setTimeout(Duration timeout) {
+      this.timeout = timeout.toNanos();
+      return this;
+    }
+
+    @Override
+    public int getLimit() {
+      return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rtt, int inflight, boolean dropped) {
+      var current = limit;
+      if (dropped || rtt > timeout) {
+        current = (int) (current * backoffRatio);
+      } else if (inflight * 2 >= current) {
+        current = current + 1;
+      }
+      limit = Math.min(maxLimit, Math.max(minLimit, current));
+    }
+
+    @Override
+    public String toString() {
+      return "aimd(" + limit + ")";
+    }
+  }
+
+  /**
+   * Gradient limit. Keeps a long term (exponential) average of latency and compares each sample
+   * against it. While latency is stable, the limit grows by {@link #setQueueSize(int)}, once
+   * latency goes over <code>longTermRtt * rttTolerance</code> the limit shrinks proportionally
+   * (down to half per sample). Changes are smoothed with {@link #setSmoothing(double)}.
+   *
+   * <p>Based on the Gradient2 algorithm from Netflix <code>concurrency-limits</code>.
+   */
+  class Gradient implements ConcurrencyLimit {
+    private volatile int limit = 20;
+    private double estimatedLimit = 20;
+    private int minLimit = 20;
+    private int maxLimit = 200;
+    private int queueSize = 4;
+    private double smoothing = 0.2;
+    private double rttTolerance = 1.5;
+    private int window = 600;
+    private int warmup = 10;
+    private int samples;
+    private double longRtt;
+
+    /**
+     * Set initial limit. Default is <code>20</code>.
+     *
+     * @param limit Initial limit.
+     * @return This limit.
+     */
+    public Gradient setInitialLimit(int limit) {
+      this.limit = limit;
+      this.estimatedLimit = limit;
+      return this;
+    }
+
+    /**
+     * Set min limit. Default is <code>20</code>.
+     *
+     * @param minLimit Min limit.
+     * @return This limit.
+     */
+    public Gradient setMinLimit(int minLimit) {
+      this.minLimit = minLimit;
+      return this;
+    }
+
+    /**
+     * Set max limit. Default is <code>200</code>.
+     *
+     * @param maxLimit Max limit.
+     * @return This limit.
+     */
+    public Gradient setMaxLimit(int maxLimit) {
+      this.maxLimit = maxLimit;
+      return this;
+    }
+
+    /**
+     * Number of requests allowed to queue while latency is stable. This is how fast the limit
+     * grows. Default is <code>4</code>.
+     *
+     * @param queueSize Queue size.
+     * @return This limit.
+     */
+    public Gradient setQueueSize(int queueSize) {
+      this.queueSize = queueSize;
+      return this;
+    }
+
+    /**
+     * Weight of a new limit over the current one. Default is <code>0.2</code>.
+     *
+     * @param smoothing Value between <code>0</code> (exclusive) and <code>1</code>.
+     * @return This limit.
+     */
+    public Gradient setSmoothing(double smoothing) {
+      if (smoothing <= 0.0 || smoothing > 1.0) {
+        throw new IllegalArgumentException("Smoothing must be in (0.0, 1.0]: " + smoothing);
+      }
+      this.smoothing = smoothing;
+      return this;
+    }
+
+    /**
+     * How much latency may grow over the long term average before the limit shrinks. Default is
+     * <code>1.5</code>.
+     *
+     * @param rttTolerance Value greater or equal to <code>1</code>.
+     * @return This limit.
+     */
+    public Gradient setRttTolerance(double rttTolerance) {
+      if (rttTolerance < 1.0) {
+        throw new IllegalArgumentException("Tolerance must be >= 1.0: " + rttTolerance);
+      }
+      this.rttTolerance = rttTolerance;
+      return this;
+    }
+
+    /**
+     * Number of samples of the long term latency average. Default is <code>600</code>.
+     *
+     * @param window Number of samples.
+     * @return This limit.
+     */
+    public Gradient setWindow(int window) {
+      this.window = window;
+      return this;
+    }
+
+    @Override
+    public int getLimit() {
+      return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rtt, int inflight, boolean dropped) {
+      // Latency below clock resolution (0) makes the ratios below Infinity/NaN
+      double shortRtt = Math.max(1, rtt);
+      if (samples < warmup) {
+        // simple average until warm
+        samples += 1;
+        longRtt = longRtt + (shortRtt - longRtt) / samples;
+      } else {
+        var factor = 2.0 / (window + 1);
+        longRtt = longRtt * (1 - factor) + shortRtt * factor;
+      }
+      // Long term latency recovers faster after a steady slow down
+      if (longRtt / shortRtt > 2) {
+        longRtt = longRtt * 0.95;
+      }
+      // Don't grow the limit when the application is not using it
+      if (inflight < estimatedLimit / 2) {
+        return;
+      }
+      var gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+      var newLimit = estimatedLimit * gradient + queueSize;
+      newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+      estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+      limit = (int) estimatedLimit;
+    }
+
+    @Override
+    public String toString() {
+      return "gradient(" + limit + ")";
+    }
+  }
+
+  /**
+   * Current limit.
+   *
+   * @return Current limit.
+   */
+  int getLimit();
+
+  /**
+   * Record a completed request.
+   *
+   * @param rtt Request latency in nanoseconds.
+   * @param inflight Number of in-flight requests when the request completed (including itself).
+   * @param dropped True when request failed due to overload (timeout or service unavailable).
+   */
+  void onSample(long rtt, int inflight, boolean dropped);
+
+  /**
+   * Creates a fixed limit.
+   *
+   * @param limit Limit.
+   * @return Fixed limit.
+   */
+  static ConcurrencyLimit fixed(int limit) {
+    return new Fixed(limit);
+  }
+
+  /**
+   * Creates an AIMD limit with default settings.
+   *
+   * @return AIMD limit.
+   */
+  static Aimd aimd() {
+    return new Aimd();
+  }
+
+  /**
+   * Creates a gradient limit with default settings.
+   *
+   * @return Gradient limit.
+   */
+  static Gradient gradient() {
+    return new Gradient();
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.handler;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.jooby.Context;
+import io.jooby.Route;
+import io.jooby.StatusCode;
+
+/**
+ * Admission control for HTTP requests. Keeps track of in-flight requests and rejects new ones with
+ * {@link StatusCode#SERVICE_UNAVAILABLE} and a <code>Retry-After</code> header once a {@link
+ * ConcurrencyLimit} is reached. Overload shows up as fast <code>503</code> responses instead of
+ * growing latency in the worker queue.
+ *
+ * <p>Install it as dispatch filter, so it runs before a request is dispatched to a worker thread:
+ *
+ * <pre>{@code
+ * {
+ *   setDispatchFilter(new ConcurrencyLimitHandler(ConcurrencyLimit.gradient()));
+ * }
+ * }</pre>
+ *
+ * <p>Routes might be prioritized using the {@link #PRIORITY} attribute. Low priority requests are
+ * shed first:
+ *
+ * <pre>{@code
+ * {
+ *   get("/reports", ctx -> ...)
+ *       .setAttribute(ConcurrencyLimitHandler.PRIORITY, ConcurrencyLimitHandler.Priority.LOW);
+ * }
+ * }</pre>
+ *
+ * <p>Latency is measured from admission until the response is complete, so it includes time spent
+ * waiting for a worker thread.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+public class ConcurrencyLimitHandler implements Route.Filter {
+
+  /** Route attribute with request {@link Priority}. Value might be a priority or its name. */
+  public static final String PRIORITY = "concurrencyPriority";
+
+  /** Request priority. Each priority is allowed to use a portion of the current limit. */
+  public enum Priority {
+    /** Rejected once half of the limit is in use. */
+    LOW(0.5),
+
+    /** Default priority. Rejected once 90% of the limit is in use. */
+    NORMAL(0.9),
+
+    /** Rejected once the limit is reached. Gets the last 10% of the limit for itself. */
+    HIGH(1.0),
+
+    /** Never rejected, still counted as in-flight (health checks, admin routes, etc.). */
+    CRITICAL(Double.POSITIVE_INFINITY);
+
+    private final double share;
+
+    Priority(double share) {
+      this.share = share;
+    }
+
+    int capacity(int limit) {
+      return share == Double.POSITIVE_INFINITY
+          ? Integer.MAX_VALUE
+          : Math.max(1, (int) (limit * share));
+    }
+  }
+
+  private final ConcurrencyLimit limit;
+
+  private final AtomicInteger inflight = new AtomicInteger();
+
+  private final LongAdder rejected = new LongAdder();
+
+  private String retryAfter = "1";
+
+  /**
+   * Creates a concurrency limit handler.
+   *
+   * @param limit Limit to use.
+   */
+  public ConcurrencyLimitHandler(ConcurrencyLimit limit) {
+    this.limit = limit;
+  }
+
+  /** Creates a concurrency limit handler using a {@link ConcurrencyLimit#gradient()} limit. */
+  public ConcurrencyLimitHandler() {
+    this(ConcurrencyLimit.gradient());
+  }
+
+  /**
+   * Value of the <code>Retry-After</code> response header sent on rejection. Default is <code>1s
+   * </code>.
+   *
+   * @param retryAfter Retry after, rounded up to seconds.
+   * @return This handler.
+   */
+  public ConcurrencyLimitHandler setRetryAfter(Duration retryAfter) {
+    var seconds = retryAfter.getSeconds() + (retryAfter.getNano() > 0 ? 1 : 0);
+    this.retryAfter = Long.toString(Math.max(0, seconds));
+    return this;
+  }
+
+  /**
+   * Current limit.
+   *
+   * @return Current limit.
+   */
+  public int getLimit() {
+    return limit.getLimit();
+  }
+
+  /**
+   * Number of in-flight requests.
+   *
+   * @return Number of in-flight requests.
+   */
+  public int getInflight() {
+    return inflight.get();
+  }
+
+  /**
+   * Number of rejected requests.
+   *
+   * @return Number of rejected requests.
+   */
+  public long getRejected() {
+    return rejected.sum();
+  }
+
+  @Override
+  public Route.Handler apply(Route.Handler next) {
+    return ctx -> {
+      if (!tryAcquire(priority(ctx))) {
+        rejected.increment();
+        ctx.setResponseHeader("Retry-After", retryAfter);
+        return ctx.send(StatusCode.SERVICE_UNAVAILABLE);
+      }
+      var start = System.nanoTime();
+      ctx.onComplete(context -> release(context, start));
+      return next.apply(ctx);
+    };
+  }
+
+  private boolean tryAcquire(Priority priority) {
+    var capacity = priority.capacity(limit.getLimit());
+    while (true) {
+      var current = inflight.get();
+      if (current >= capacity) {
+        return false;
+      }
+      if (inflight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private void release(Context ctx, long start) {
+    var rtt = System.nanoTime() - start;
+    var current = inflight.getAndDecrement();
+    var status = ctx.getResponseCode();
+    limit.onSample(
+        rtt,
+        current,
+        status == StatusCode.SERVICE_UNAVAILABLE || status == StatusCode.GATEWAY_TIMEOUT);
+  }
+
+  /**
+   * Resolve the {@link #PRIORITY} attribute of the route, so a bad value fails at application
+   * startup instead of on every request. Called per route when installed as dispatch filter.
+   *
+   * @param route Route.
+   */
+  @Override
+  public void setRoute(Route route) {
+    priority(route);
+  }
+
+  private static Priority priority(Context ctx) {
+    var route = ctx.getRoute();
+    return route == null ? Priority.NORMAL : priority(route);
+  }
+
+  private static Priority priority(Route route) {
+    Object value = route.getAttribute(PRIORITY);
+    if (value instanceof Priority priority) {
+      return priority;
+    }
+    if (value == null) {
+      return Priority.NORMAL;
+    }
+    Priority priority;
+    try {
+      priority = Priority.valueOf(value.toString().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException x) {
+      throw new IllegalArgumentException("Invalid " + PRIORITY + ": " + value + " at " + route, x);
+    }
+    // replace the name, so it is converted once
+    route.setAttribute(PRIORITY, priority);
+    return priority;
+  }
+
+  @Override
+  public String toString() {
+    return "concurrencyLimit(" + limit + ")";
+  }
+}
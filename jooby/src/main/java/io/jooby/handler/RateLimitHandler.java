@@ -7,8 +7,9 @@ package io.jooby.handler;
 
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
-import java.util.Map;
+import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 import io.github.bucket4j.Bucket;
@@ -19,9 +20,11 @@ import io.jooby.SneakyThrows;
 import io.jooby.StatusCode;
 
 /**
- * Rate limit handler using https://github.com/vladimir-bukhtoyarov/bucket4j.
+ * Rate limit handler using a built-in {@link RateLimiter} or
+ * https://github.com/vladimir-bukhtoyarov/bucket4j.
  *
- * <p>NOTE: bucket4j must be included as part of your project dependencies (classpath).
+ * <p>NOTE: bucket4j must be included as part of your project dependencies (classpath) when using
+ * buckets.
  *
  * <p>Example 1: 10 requests per minute
  *
@@ -56,7 +59,20 @@ import io.jooby.StatusCode;
  * }
  * }</pre>
  *
- * Example 4: Rate limit in a cluster
+ * <p>Buckets created by a bucket factory are kept in memory, up to <code>100_000</code> keys. When
+ * there are more keys, the least recently used ones are evicted and get a new bucket on next
+ * request.
+ *
+ * Example 4: 10 requests per minute per IP address, without bucket4j. Number of tracked addresses
+ * is bounded, see {@link RateLimiter}.
+ *
+ * <pre>{@code
+ * {
+ *   before(new RateLimitHandler(new RateLimiter(10, Duration.ofMinutes(1))));
+ * }
+ * }</pre>
+ *
+ * Example 5: Rate limit in a cluster
  *
  * <pre>{@code
  * {
@@ -77,7 +93,10 @@ import io.jooby.StatusCode;
  */
 public class RateLimitHandler implements Route.Before {
 
-  private final Function<Context, Bucket> factory;
+  /** Max number of buckets created by a bucket factory to keep in memory. */
+  private static final int MAX_KEYS = 100_000;
+
+  private final Route.Before limit;
 
   /**
    * Rate limit per IP/Remote Address.
@@ -119,8 +138,45 @@ public class RateLimitHandler implements Route.Before {
     this((Function<Context, Bucket>) ctx -> bucket);
   }
 
+  /**
+   * Rate limit per IP/Remote Address using the built-in limiter.
+   *
+   * @param limiter Rate limiter.
+   */
+  public RateLimitHandler(RateLimiter limiter) {
+    this(limiter, Context::getRemoteAddress);
+  }
+
+  /**
+   * Rate limit per header key using the built-in limiter.
+   *
+   * @param limiter Rate limiter.
+   * @param headerName Header to use as key.
+   */
+  public RateLimitHandler(RateLimiter limiter, String headerName) {
+    this(limiter, ctx -> ctx.header(headerName).value());
+  }
+
+  /**
+   * Rate limiter with a custom key provider using the built-in limiter.
+   *
+   * @param limiter Rate limiter.
+   * @param classifier Key provider.
+   */
+  public RateLimitHandler(RateLimiter limiter, SneakyThrows.Function<Context, String> classifier) {
+    this.limit =
+        ctx -> {
+          long result = limiter.consume(classifier.apply(ctx));
+          if (result >= 0) {
+            ctx.setResponseHeader("X-Rate-Limit-Remaining", result);
+          } else {
+            tooManyRequests(ctx, -result);
+          }
+        };
+  }
+
   private RateLimitHandler(Function<Context, Bucket> factory) {
-    this.factory = factory;
+    this.limit = ctx -> consume(ctx, factory.apply(ctx));
   }
 
   /**
@@ -161,23 +217,118 @@ public class RateLimitHandler implements Route.Before {
 
   @Override
   public void apply(Context ctx) throws Exception {
-    Bucket bucket = factory.apply(ctx);
+    limit.apply(ctx);
+  }
+
+  private static void consume(Context ctx, Bucket bucket) {
     // tryConsume returns false immediately if no tokens available with the bucket
     ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
     if (probe.isConsumed()) {
       ctx.setResponseHeader("X-Rate-Limit-Remaining", probe.getRemainingTokens());
     } else {
-      ctx.setResponseHeader(
-          "X-Rate-Limit-Retry-After-Milliseconds",
-          NANOSECONDS.toMillis(probe.getNanosToWaitForRefill()));
-      ctx.send(StatusCode.TOO_MANY_REQUESTS);
+      tooManyRequests(ctx, probe.getNanosToWaitForRefill());
     }
   }
 
+  private static void tooManyRequests(Context ctx, long nanosToWait) {
+    ctx.setResponseHeader(
+        "X-Rate-Limit-Retry-After-Milliseconds", NANOSECONDS.toMillis(nanosToWait));
+    ctx.send(StatusCode.TOO_MANY_REQUESTS);
+  }
+
   private static Function<Context, Bucket> byKey(
       SneakyThrows.Function<String, Bucket> bucketFactory,
       SneakyThrows.Function<Context, String> classifier) {
-    Map<String, Bucket> buckets = new ConcurrentHashMap<>();
-    return ctx -> buckets.computeIfAbsent(classifier.apply(ctx), bucketFactory);
+    var buckets = new Buckets(MAX_KEYS);
+    return ctx -> buckets.get(classifier.apply(ctx), bucketFactory);
+  }
+
+  /**
+   * Buckets by key. The number of keys is bounded: keys are split in segments (one per available
+   * processor, rounded up to a power of two) and each segment evicts its least recently used keys
+   * when it gets full, like {@link RateLimiter} does. An evicted key gets a new bucket from the
+   * factory on next request.
+   */
+  static final class Buckets {
+    private static final class Entry {
+      private final Bucket bucket;
+
+      private volatile long accessedAt;
+
+      Entry(Bucket bucket) {
+        this.bucket = bucket;
+        this.accessedAt = System.nanoTime();
+      }
+    }
+
+    private static final class Segment {
+      private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+      private final AtomicBoolean evicting = new AtomicBoolean();
+    }
+
+    /** Number of keys inspected to compute the LRU threshold during eviction. */
+    private static final int SAMPLE_SIZE = 64;
+
+    private final Segment[] segments;
+
+    private final int maxKeysPerSegment;
+
+    Buckets(int maxKeys) {
+      int segments = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+      this.segments = new Segment[segments];
+      for (int i = 0; i < segments; i++) {
+        this.segments[i] = new Segment();
+      }
+      this.maxKeysPerSegment = Math.max(1, maxKeys / segments);
+    }
+
+    Bucket get(String key, SneakyThrows.Function<String, Bucket> bucketFactory) {
+      int hash = key.hashCode();
+      var segment = segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+      var entry = segment.entries.get(key);
+      if (entry == null) {
+        if (segment.entries.size() >= maxKeysPerSegment) {
+          evict(segment);
+        }
+        entry = segment.entries.computeIfAbsent(key, k -> new Entry(bucketFactory.apply(k)));
+      } else {
+        entry.accessedAt = System.nanoTime();
+      }
+      return entry.bucket;
+    }
+
+    /** Evict keys until segment size is 3/4 of the max. */
+    private void evict(Segment segment) {
+      if (!segment.evicting.compareAndSet(false, true)) {
+        // someone else is on it
+        return;
+      }
+      try {
+        var entries = segment.entries;
+        int target = maxKeysPerSegment - Math.max(1, maxKeysPerSegment / 4);
+        int size = entries.size();
+        if (size <= target) {
+          return;
+        }
+        long[] sample = new long[Math.min(SAMPLE_SIZE, size)];
+        int count = 0;
+        for (var entry : entries.values()) {
+          if (count == sample.length) {
+            break;
+          }
+          sample[count++] = entry.accessedAt;
+        }
+        if (count == 0) {
+          return;
+        }
+        Arrays.sort(sample, 0, count);
+        int index = Math.min(count - 1, (int) ((long) (size - target) * count / size));
+        long threshold = sample[index];
+        entries.values().removeIf(entry -> entry.accessedAt <= threshold);
+      } finally {
+        segment.evicting.set(false);
+      }
+    }
   }
 }
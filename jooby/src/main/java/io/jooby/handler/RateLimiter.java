@@ -0,0 +1,202 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.handler;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * In-memory rate limiter used by {@link RateLimitHandler}. Allows up to <code>limit</code> requests
+ * per <code>period</code> and key, with requests spread evenly over the period (a full period of
+ * inactivity gives the whole limit again).
+ *
+ * <pre>{@code
+ * {
+ *   // 10 requests per minute per IP address
+ *   before(new RateLimitHandler(new RateLimiter(10, Duration.ofMinutes(1))));
+ * }
+ * }</pre>
+ *
+ * <p>State of a key is a single <code>long</code> (GCRA: generic cell rate algorithm), updated with
+ * a CAS. No lock and no bucket object is required per request.
+ *
+ * <p>The number of keys is bounded (see {@link #setMaxKeys(int)}). Keys are split in segments (one
+ * per available processor, rounded up to a power of two) and each segment evicts its keys when it
+ * gets full: idle keys (the ones with all the permits available) are evicted first, which is the
+ * same as never seeing them. If that isn't enough, the least recently used keys are evicted.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+public class RateLimiter {
+
+  private static final class Counter {
+    private static final AtomicLongFieldUpdater<Counter> TAT =
+        AtomicLongFieldUpdater.newUpdater(Counter.class, "tat");
+
+    /** Theoretical arrival time of next request, relative to limiter creation. */
+    private volatile long tat;
+  }
+
+  private static final class Segment {
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean evicting = new AtomicBoolean();
+  }
+
+  /** Number of keys inspected to compute the LRU threshold during eviction. */
+  private static final int SAMPLE_SIZE = 64;
+
+  private final long origin = System.nanoTime();
+
+  private final long interval;
+
+  private final long tolerance;
+
+  private final Segment[] segments;
+
+  private int maxKeysPerSegment;
+
+  /**
+   * Creates a rate limiter.
+   *
+   * @param limit Number of requests allowed per period.
+   * @param period Period of time.
+   */
+  public RateLimiter(long limit, Duration period) {
+    if (limit <= 0) {
+      throw new IllegalArgumentException("Limit must be greater than 0: " + limit);
+    }
+    this.interval = period.toNanos() / limit;
+    if (interval <= 0) {
+      throw new IllegalArgumentException("Period is too short for limit: " + period);
+    }
+    this.tolerance = interval * limit;
+    int segments = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+    this.segments = new Segment[segments];
+    for (int i = 0; i < segments; i++) {
+      this.segments[i] = new Segment();
+    }
+    setMaxKeys(100_000);
+  }
+
+  /**
+   * Set max number of keys to keep in memory. Default is <code>100_000</code>.
+   *
+   * @param maxKeys Max number of keys.
+   * @return This limiter.
+   */
+  public RateLimiter setMaxKeys(int maxKeys) {
+    if (maxKeys <= 0) {
+      throw new IllegalArgumentException("Max keys must be greater than 0: " + maxKeys);
+    }
+    this.maxKeysPerSegment = Math.max(1, maxKeys / segments.length);
+    return this;
+  }
+
+  /**
+   * Try to consume a permit.
+   *
+   * @param key Key.
+   * @return True when the request is allowed.
+   */
+  public boolean tryConsume(String key) {
+    return consume(key) >= 0;
+  }
+
+  /**
+   * Number of keys in memory.
+   *
+   * @return Number of keys in memory.
+   */
+  public int size() {
+    int size = 0;
+    for (var segment : segments) {
+      size += segment.counters.size();
+    }
+    return size;
+  }
+
+  /**
+   * Consume a permit.
+   *
+   * @param key Key.
+   * @return Remaining permits when request is allowed, otherwise minus the nanoseconds to wait for
+   *     next permit.
+   */
+  long consume(String key) {
+    return consume(key, System.nanoTime() - origin);
+  }
+
+  long consume(String key, long now) {
+    var counter = counter(key, now);
+    while (true) {
+      long tat = counter.tat;
+      long next = Math.max(tat, now) + interval;
+      long wait = next - now - tolerance;
+      if (wait > 0) {
+        return -wait;
+      }
+      if (Counter.TAT.compareAndSet(counter, tat, next)) {
+        return (tolerance - (next - now)) / interval;
+      }
+    }
+  }
+
+  private Counter counter(String key, long now) {
+    int hash = key.hashCode();
+    var segment = segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    var counter = segment.counters.get(key);
+    if (counter == null) {
+      if (segment.counters.size() >= maxKeysPerSegment) {
+        evict(segment, now);
+      }
+      counter = segment.counters.computeIfAbsent(key, k -> new Counter());
+    }
+    return counter;
+  }
+
+  /**
+   * Evict keys until segment size is 3/4 of the max. A concurrent request might still update an
+   * evicted key, the update is lost and the key starts again with all its permits.
+   */
+  private void evict(Segment segment, long now) {
+    if (!segment.evicting.compareAndSet(false, true)) {
+      // someone else is on it
+      return;
+    }
+    try {
+      var counters = segment.counters;
+      // idle keys have all their permits, same as a missing key
+      counters.values().removeIf(counter -> counter.tat <= now);
+      int target = maxKeysPerSegment - maxKeysPerSegment / 4;
+      int size = counters.size();
+      if (size > target) {
+        // least recently used keys have the lowest arrival time
+        long[] sample = new long[Math.min(SAMPLE_SIZE, size)];
+        int count = 0;
+        for (var counter : counters.values()) {
+          if (count == sample.length) {
+            break;
+          }
+          sample[count++] = counter.tat;
+        }
+        if (count == 0) {
+          return;
+        }
+        Arrays.sort(sample, 0, count);
+        int index = Math.min(count - 1, (int) ((long) (size - target) * count / size));
+        long threshold = sample[index];
+        counters.values().removeIf(counter -> counter.tat <= threshold);
+      }
+    } finally {
+      segment.evicting.set(false);
+    }
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+
+import io.jooby.SneakyThrows;
+import io.jooby.handler.Asset;
+
+/**
+ * Bounded (LRU) in-memory cache of small assets. Entries keep asset bytes and e-tag, and they are
+ * validated against asset size and last modified date on every access.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+public class AssetCache {
+
+  /**
+   * Cached asset content.
+   *
+   * @param bytes Asset content.
+   * @param etag Precomputed e-tag.
+   * @param lastModified Last modified date at load time.
+   */
+  public record Entry(byte[] bytes, String etag, long lastModified) {}
+
+  private final long maxSize;
+
+  private final long maxAssetSize;
+
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  private long size;
+
+  /**
+   * Creates a new cache.
+   *
+   * @param maxSize Max number of bytes to keep in memory.
+   * @param maxAssetSize Max size of a single asset. Larger assets are never cached.
+   */
+  public AssetCache(long maxSize, long maxAssetSize) {
+    if (maxSize <= 0 || maxAssetSize <= 0) {
+      throw new IllegalArgumentException(
+          "Cache size must be greater than 0: " + maxSize + ", " + maxAssetSize);
+    }
+    this.maxSize = maxSize;
+    this.maxAssetSize = Math.min(maxSize, maxAssetSize);
+  }
+
+  /**
+   * Get a cached entry or load it when asset is small enough.
+   *
+   * @param key Asset key.
+   * @param asset Asset.
+   * @return Cached entry or <code>null</code> when asset is too large.
+   */
+  public @Nullable Entry get(String key, Asset asset) {
+    long length = asset.getSize();
+    if (length < 0 || length > maxAssetSize) {
+      return null;
+    }
+    long lastModified = asset.getLastModified();
+    synchronized (entries) {
+      var entry = entries.get(key);
+      if (entry != null) {
+        if (entry.bytes.length == length && entry.lastModified == lastModified) {
+          return entry;
+        }
+        remove(key);
+      }
+    }
+    var entry = load(asset, length, lastModified);
+    if (entry != null) {
+      synchronized (entries) {
+        var previous = entries.put(key, entry);
+        size += entry.bytes.length - (previous == null ? 0 : previous.bytes.length);
+        evict();
+      }
+    }
+    return entry;
+  }
+
+  /**
+   * Current number of bytes in memory.
+   *
+   * @return Current number of bytes in memory.
+   */
+  public long size() {
+    synchronized (entries) {
+      return size;
+    }
+  }
+
+  private @Nullable Entry load(Asset asset, long length, long lastModified) {
+    try (var in = asset.stream()) {
+      var bytes = in.readAllBytes();
+      // asset changed while reading it
+      if (bytes.length != length) {
+        return null;
+      }
+      return new Entry(bytes, asset.getEtag(), lastModified);
+    } catch (IOException x) {
+      throw SneakyThrows.propagate(x);
+    }
+  }
+
+  private void remove(String key) {
+    var entry = entries.remove(key);
+    if (entry != null) {
+      size -= entry.bytes.length;
+    }
+  }
+
+  private void evict() {
+    Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+    while (size > maxSize && it.hasNext()) {
+      size -= it.next().getValue().bytes.length;
+      it.remove();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "size: " + size() + "/" + maxSize;
+  }
+}
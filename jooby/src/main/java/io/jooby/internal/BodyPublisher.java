@@ -0,0 +1,133 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jspecify.annotations.Nullable;
+
+import io.jooby.Body;
+import io.jooby.ReactiveSupport;
+import io.jooby.ServerOptions;
+
+/**
+ * Publish a body already read by the server (memory or file), one buffer per requested item. Used
+ * by servers without native support or when the body was buffered before executing the route.
+ */
+public class BodyPublisher implements Flow.Publisher<ByteBuffer>, Flow.Subscription {
+
+  private final Body body;
+
+  private final AtomicBoolean subscribed = new AtomicBoolean();
+
+  private final AtomicLong demand = new AtomicLong();
+
+  /** Work in progress: only one thread drains the body at a time. */
+  private final AtomicInteger wip = new AtomicInteger();
+
+  private Flow.@Nullable Subscriber<? super ByteBuffer> subscriber;
+
+  private @Nullable ReadableByteChannel channel;
+
+  private @Nullable ByteBuffer buffer;
+
+  private volatile boolean done;
+
+  public BodyPublisher(Body body) {
+    this.body = body;
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+    if (subscribed.compareAndSet(false, true)) {
+      this.subscriber = subscriber;
+      subscriber.onSubscribe(this);
+    } else {
+      ReactiveSupport.reject(subscriber, new IllegalStateException("Body was subscribed already"));
+    }
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      fail(new IllegalArgumentException("Demand must be positive: " + n));
+    } else {
+      demand.accumulateAndGet(n, ReactiveSupport::addDemand);
+      drain();
+    }
+  }
+
+  @Override
+  public void cancel() {
+    done = true;
+    // closes the channel, unless someone else is draining
+    drain();
+  }
+
+  private void fail(Throwable cause) {
+    if (!done) {
+      done = true;
+      subscriber.onError(cause);
+      drain();
+    }
+  }
+
+  private void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    do {
+      try {
+        while (!done && demand.get() > 0) {
+          if (channel == null) {
+            channel = body.channel();
+            buffer = ByteBuffer.allocate(ServerOptions._8KB);
+          }
+          buffer.clear();
+          if (channel.read(buffer) < 0) {
+            done = true;
+            subscriber.onComplete();
+          } else if (buffer.position() > 0) {
+            buffer.flip();
+            demand.decrementAndGet();
+            subscriber.onNext(buffer);
+          }
+        }
+      } catch (IOException cause) {
+        done = true;
+        subscriber.onError(cause);
+      } catch (Throwable cause) {
+        // subscriber failed, subscription is cancelled
+        done = true;
+        close();
+        throw cause;
+      }
+      if (done) {
+        close();
+      }
+      missed = wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private void close() {
+    var channel = this.channel;
+    if (channel != null) {
+      this.channel = null;
+      try {
+        channel.close();
+      } catch (IOException ignored) {
+        // nothing to do
+      }
+    }
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jspecify.annotations.Nullable;
+
+import io.jooby.Context;
+import io.jooby.MediaType;
+import io.jooby.MessageEncoder;
+
+/**
+ * Content negotiation table. Resolves the <code>Accept</code> header against a fixed list of
+ * produce types, computed once at route build time.
+ *
+ * <p>Clients send a small set of distinct <code>Accept</code> values, so parsed headers and
+ * resolved encoders are cached by raw header value. Caches are bounded, they are cleared once they
+ * reach their limit.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+public final class ContentNegotiation {
+
+  private static final int MAX_ACCEPT_TYPES = 256;
+
+  private static final int MAX_ENCODERS = 64;
+
+  private static final Map<String, List<MediaType>> ACCEPT_TYPES = new ConcurrentHashMap<>();
+
+  private final List<MediaType> produces;
+
+  private final MessageEncoder[] encoders;
+
+  private final Map<String, MessageEncoder> cache = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a negotiation table.
+   *
+   * @param produces Produce types, in order of preference.
+   * @param encoders Available encoders.
+   */
+  public ContentNegotiation(List<MediaType> produces, Map<MediaType, MessageEncoder> encoders) {
+    this.produces = List.copyOf(produces);
+    this.encoders = new MessageEncoder[this.produces.size()];
+    for (int i = 0; i < this.encoders.length; i++) {
+      this.encoders[i] = encoders.getOrDefault(this.produces.get(i), MessageEncoder.TO_STRING);
+    }
+  }
+
+  /**
+   * Produce types.
+   *
+   * @return Produce types.
+   */
+  public List<MediaType> getProduces() {
+    return produces;
+  }
+
+  /**
+   * Find the encoder for the current request.
+   *
+   * @param ctx Web context.
+   * @return Best encoder or {@link MessageEncoder#TO_STRING} when none matches.
+   */
+  public MessageEncoder encoder(Context ctx) {
+    var accept = ctx.header(Context.ACCEPT);
+    if (accept.isMissing()) {
+      // NO header? Pick first, which is the default.
+      return encoders.length == 0 ? MessageEncoder.TO_STRING : encoders[0];
+    }
+    if (accept.size() > 1) {
+      return encoder(acceptTypes(accept.toList()));
+    }
+    var value = accept.value();
+    var encoder = cache.get(value);
+    if (encoder == null) {
+      encoder = encoder(acceptTypes(value));
+      if (cache.size() >= MAX_ENCODERS) {
+        cache.clear();
+      }
+      cache.put(value, encoder);
+    }
+    return encoder;
+  }
+
+  private MessageEncoder encoder(List<MediaType> acceptTypes) {
+    var index = select(acceptTypes, produces);
+    return index < 0 ? MessageEncoder.TO_STRING : encoders[index];
+  }
+
+  /**
+   * Parse, de-duplicate and sort (most specific first) an <code>Accept</code> header value.
+   *
+   * @param value Header value.
+   * @return Accept types. Immutable.
+   */
+  public static List<MediaType> acceptTypes(String value) {
+    var types = ACCEPT_TYPES.get(value);
+    if (types == null) {
+      types = sort(MediaType.parse(value));
+      if (ACCEPT_TYPES.size() >= MAX_ACCEPT_TYPES) {
+        ACCEPT_TYPES.clear();
+      }
+      ACCEPT_TYPES.put(value, types);
+    }
+    return types;
+  }
+
+  /**
+   * Parse, de-duplicate and sort (most specific first) multiple <code>Accept</code> header values.
+   *
+   * @param values Header values.
+   * @return Accept types. Immutable.
+   */
+  public static List<MediaType> acceptTypes(List<String> values) {
+    if (values.size() == 1) {
+      return acceptTypes(values.get(0));
+    }
+    var types = new ArrayList<MediaType>();
+    for (var value : values) {
+      types.addAll(MediaType.parse(value));
+    }
+    return sort(types);
+  }
+
+  /**
+   * Find the most appropriated produce type.
+   *
+   * @param acceptTypes Sorted accept types.
+   * @param produces Produce types.
+   * @return Index of produce type or <code>-1</code> when there is no match.
+   */
+  public static int select(List<MediaType> acceptTypes, List<MediaType> produces) {
+    var idx = Integer.MAX_VALUE;
+    var result = -1;
+    for (int j = 0; j < produces.size(); j++) {
+      var produceType = produces.get(j);
+      for (int i = 0; i < acceptTypes.size() && i < idx; i++) {
+        if (produceType.matches(acceptTypes.get(i))) {
+          result = j;
+          idx = i;
+          break;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Find the most appropriated produce type.
+   *
+   * @param acceptTypes Sorted accept types.
+   * @param produces Produce types.
+   * @return Produce type or <code>null</code> when there is no match.
+   */
+  public static @Nullable MediaType accept(List<MediaType> acceptTypes, List<MediaType> produces) {
+    var index = select(acceptTypes, produces);
+    return index < 0 ? null : produces.get(index);
+  }
+
+  private static List<MediaType> sort(List<MediaType> types) {
+    var result = new ArrayList<>(new LinkedHashSet<>(types));
+    Collections.sort(result);
+    return Collections.unmodifiableList(result);
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.jooby.Context;
+import io.jooby.Jooby;
+
+/**
+ * Application selector backed by a prefix tree of context paths. Selection cost depends on the
+ * path length, not on the number of applications.
+ *
+ * <p>Matching rules are the same as a linear scan: when multiple context paths are prefix of the
+ * path, the application registered first wins. Applications with <code>/</code> context path are
+ * the default, otherwise it is the first application.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+public class ContextPathSelector implements Context.Selector {
+
+  private static class Node {
+    private final Map<Character, Node> children = new HashMap<>();
+
+    /** Position of the application or <code>-1</code> for non-terminal nodes. */
+    private int index = -1;
+  }
+
+  private final Jooby[] applications;
+
+  private final Node root = new Node();
+
+  private final Jooby defaultApp;
+
+  /**
+   * Creates a new selector.
+   *
+   * @param applications Applications, in order of preference.
+   */
+  public ContextPathSelector(List<Jooby> applications) {
+    this.applications = applications.toArray(new Jooby[0]);
+    var defaultApp = applications.getFirst();
+    for (int i = 0; i < this.applications.length; i++) {
+      var app = this.applications[i];
+      var contextPath = app.getContextPath();
+      if ("/".equals(contextPath)) {
+        defaultApp = app;
+      } else {
+        var node = root;
+        for (int j = 0; j < contextPath.length(); j++) {
+          node = node.children.computeIfAbsent(contextPath.charAt(j), c -> new Node());
+        }
+        if (node.index < 0) {
+          node.index = i;
+        }
+      }
+    }
+    this.defaultApp = defaultApp;
+  }
+
+  @Override
+  public Jooby select(String path) {
+    var node = root;
+    var index = root.index < 0 ? Integer.MAX_VALUE : root.index;
+    for (int i = 0; i < path.length(); i++) {
+      node = node.children.get(path.charAt(i));
+      if (node == null) {
+        break;
+      }
+      if (node.index >= 0 && node.index < index) {
+        index = node.index;
+      }
+    }
+    return index == Integer.MAX_VALUE ? defaultApp : applications[index];
+  }
+}
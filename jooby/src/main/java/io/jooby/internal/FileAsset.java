@@ -35,6 +35,15 @@ public class FileAsset implements Asset {
     this.file = file;
   }
 
+  /**
+   * Asset file.
+   *
+   * @return Asset file.
+   */
+  public Path getPath() {
+    return file;
+  }
+
   @Override
   public long getSize() {
     try {
@@ -126,7 +126,7 @@ public class HeadContext extends ForwardingContext {
     try {
       Route route = getRoute();
       MessageEncoder encoder = route.getEncoder();
-      var bytes = encoder.encode(this, value);
+      Output bytes = encoder.encode(this, value, true);
       if (bytes == null) {
         if (!isResponseStarted()) {
           throw new IllegalStateException("The response was not encoded");
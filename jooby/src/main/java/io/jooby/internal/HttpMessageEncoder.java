@@ -17,6 +17,7 @@ import io.jooby.FileDownload;
 import io.jooby.MediaType;
 import io.jooby.MessageEncoder;
 import io.jooby.ModelAndView;
+import io.jooby.Route;
 import io.jooby.StatusCode;
 import io.jooby.TemplateEngine;
 import io.jooby.output.Output;
@@ -25,7 +26,20 @@ public class HttpMessageEncoder implements MessageEncoder {
 
   private Map<MediaType, MessageEncoder> encoders;
 
-  private final LinkedList<TemplateEngine> templateEngineList = new LinkedList<>();
+  private final LinkedList<TemplateEngine> templateEngineList;
+
+  /** Negotiation table, defaults to all the registered encoders. */
+  private ContentNegotiation negotiation;
+
+  public HttpMessageEncoder() {
+    this.templateEngineList = new LinkedList<>();
+  }
+
+  private HttpMessageEncoder(HttpMessageEncoder parent, ContentNegotiation negotiation) {
+    this.encoders = parent.encoders;
+    this.templateEngineList = parent.templateEngineList;
+    this.negotiation = negotiation;
+  }
 
   public HttpMessageEncoder add(MediaType type, MessageEncoder encoder) {
     if (encoder instanceof TemplateEngine engine) {
@@ -41,12 +55,33 @@ public class HttpMessageEncoder implements MessageEncoder {
         encoders = new LinkedHashMap<>();
       }
       encoders.put(type, encoder);
+      negotiation = new ContentNegotiation(List.copyOf(encoders.keySet()), encoders);
     }
     return this;
   }
 
+  /**
+   * Creates an encoder with a negotiation table for the given route. Must be called once all the
+   * encoders have been registered.
+   *
+   * @param route Route.
+   * @return Route encoder.
+   */
+  public MessageEncoder forRoute(Route route) {
+    var produces = route.getProduces();
+    if (encoders == null || produces.isEmpty()) {
+      return this;
+    }
+    return new HttpMessageEncoder(this, new ContentNegotiation(produces, encoders));
+  }
+
   @Override
   public Output encode(Context ctx, Object value) throws Exception {
+    return encode(ctx, value, false);
+  }
+
+  @Override
+  public Output encode(Context ctx, Object value, boolean render) throws Exception {
     if (value instanceof ModelAndView<?> modelAndView) {
       for (var engine : templateEngineList) {
         if (engine.supports(modelAndView)) {
@@ -98,15 +133,9 @@ public class HttpMessageEncoder implements MessageEncoder {
     if (value instanceof ByteBuffer buffer) {
       return outputFactory.wrap(buffer);
     }
-    if (encoders != null) {
+    if (negotiation != null) {
       // Content negotiation, find best:
-      var produces = ctx.getRoute().getProduces();
-      if (produces.isEmpty()) {
-        produces = encoders.keySet().stream().toList();
-      }
-      var type = ctx.accept(produces);
-      var encoder = encoders.getOrDefault(type, MessageEncoder.TO_STRING);
-      return encoder.encode(ctx, value);
+      return negotiation.encoder(ctx).encode(ctx, value, render);
     } else {
       return MessageEncoder.TO_STRING.encode(ctx, value);
     }
@@ -63,4 +63,24 @@ public class JarAsset implements Asset {
       // silence
     }
   }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj instanceof JarAsset that) {
+      return jar.getName().equals(that.jar.getName())
+          && entry.getName().equals(that.entry.getName());
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    // Stable across requests, required by e-tag
+    return 31 * jar.getName().hashCode() + entry.getName().hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return jar.getName() + "!/" + entry.getName();
+  }
 }
@@ -0,0 +1,325 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.jspecify.annotations.Nullable;
+
+import io.jooby.value.Value;
+import io.jooby.value.ValueFactory;
+
+/**
+ * Query string that only indexes parameter offsets at creation time. Names and values are decoded
+ * when they are accessed.
+ *
+ * <p>Access to simple (non-nested) parameters by name scans the index and decodes matching values
+ * only. Nested parameters (<code>a.b</code>, <code>a[0]</code>) and any other operation (iteration,
+ * conversion, etc.) decode the whole query string once, same as {@link UrlParser#queryString}.
+ *
+ * <p>Decoding errors are reported on access, not at creation time.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+public class LazyQueryStringValue extends QueryStringValue {
+
+  private static final int NONE = 0;
+
+  private static final int EXACT = 1;
+
+  private static final int NESTED = 2;
+
+  private final String source;
+
+  /** Triplets of: name start, value start, value end. Name ends at value start - 1. */
+  private int[] params = new int[12];
+
+  private int count;
+
+  private boolean parsed;
+
+  LazyQueryStringValue(ValueFactory factory, String source, int paramsLimit) {
+    super(factory, "?" + source);
+    this.source = source;
+    index(paramsLimit);
+  }
+
+  /**
+   * Number of indexed parameters.
+   *
+   * @return Number of indexed parameters.
+   */
+  int paramCount() {
+    return count;
+  }
+
+  /**
+   * True when the query string was fully decoded.
+   *
+   * @return True when the query string was fully decoded.
+   */
+  boolean isParsed() {
+    return parsed;
+  }
+
+  @Override
+  public Value get(String name) {
+    if (!parsed) {
+      var value = hash.get(name);
+      if (value == null) {
+        value = find(name);
+      }
+      if (value != null) {
+        return value;
+      }
+      if (!parsed) {
+        return new MissingValue(factory, name);
+      }
+    }
+    return super.get(name);
+  }
+
+  @Override
+  public Value getOrDefault(String name, String defaultValue) {
+    var value = get(name);
+    return value.isMissing() ? Value.value(factory, name, defaultValue) : value;
+  }
+
+  @Override
+  public int size() {
+    parse();
+    return super.size();
+  }
+
+  @Override
+  public String value() {
+    parse();
+    return super.value();
+  }
+
+  @Override
+  public Iterator<Value> iterator() {
+    parse();
+    return super.iterator();
+  }
+
+  @Override
+  public List<String> toList() {
+    parse();
+    return super.toList();
+  }
+
+  @Override
+  public Set<String> toSet() {
+    parse();
+    return super.toSet();
+  }
+
+  @Override
+  public <T> List<T> toList(Class<T> type) {
+    parse();
+    return super.toList(type);
+  }
+
+  @Override
+  public <T> Set<T> toSet(Class<T> type) {
+    parse();
+    return super.toSet(type);
+  }
+
+  @Override
+  public <T> Optional<T> toOptional(Class<T> type) {
+    parse();
+    return super.toOptional(type);
+  }
+
+  @Override
+  public <T> T to(Class<T> type) {
+    parse();
+    return super.to(type);
+  }
+
+  @Nullable @Override
+  public <T> T toNullable(Class<T> type) {
+    parse();
+    return super.toNullable(type);
+  }
+
+  @Override
+  public <T> T toEmpty(Class<T> type) {
+    parse();
+    return super.toEmpty(type);
+  }
+
+  @Override
+  public Map<String, List<String>> toMultimap() {
+    parse();
+    return super.toMultimap();
+  }
+
+  @Override
+  public void put(String path, String value) {
+    parse();
+    super.put(path, value);
+  }
+
+  @Override
+  public void put(String path, Value node) {
+    parse();
+    super.put(path, node);
+  }
+
+  @Override
+  public void put(String path, Collection<String> values) {
+    parse();
+    super.put(path, values);
+  }
+
+  @Override
+  public void put(Map<String, Collection<String>> headers) {
+    parse();
+    super.put(headers);
+  }
+
+  @Override
+  public String toString() {
+    parse();
+    return super.toString();
+  }
+
+  /** Decode all the parameters, it discards values created by {@link #get(String)}. */
+  private void parse() {
+    if (!parsed) {
+      parsed = true;
+      hash = EMPTY;
+      for (int i = 0; i < count; i++) {
+        var offset = i * 3;
+        var valueStart = params[offset + 1];
+        super.put(
+            UrlParser.decodeQueryComponent(source, params[offset], valueStart - 1),
+            UrlParser.decodeQueryComponent(source, valueStart, params[offset + 2]));
+      }
+    }
+  }
+
+  private @Nullable Value find(String name) {
+    Value result = null;
+    for (int i = 0; i < count; i++) {
+      var offset = i * 3;
+      var valueStart = params[offset + 1];
+      var match = match(name, params[offset], valueStart - 1);
+      if (match == NESTED) {
+        parse();
+        return null;
+      }
+      if (match == EXACT) {
+        var value = UrlParser.decodeQueryComponent(source, valueStart, params[offset + 2]);
+        if (result == null) {
+          result = new SingleValue(factory, name, value);
+        } else if (result instanceof ArrayValue array) {
+          array.add(value);
+        } else {
+          result = new ArrayValue(factory, name).add(result).add(value);
+        }
+      }
+    }
+    if (result != null) {
+      hash().put(name, result);
+    }
+    return result;
+  }
+
+  private int match(String name, int from, int to) {
+    var s = source;
+    for (int i = from; i < to; i++) {
+      var ch = s.charAt(i);
+      if (ch == '%' || ch == '+') {
+        s = UrlParser.decodeQueryComponent(s, from, to);
+        from = 0;
+        to = s.length();
+        break;
+      }
+    }
+    for (int i = from; i < to; i++) {
+      var ch = s.charAt(i);
+      if (ch == '.' || ch == '[' || ch == ']') {
+        // root segment of a nested parameter, empty root is resolved by full parsing
+        var rootLength = i - from;
+        return rootLength == 0
+                || (rootLength == name.length() && s.regionMatches(from, name, 0, rootLength))
+            ? NESTED
+            : NONE;
+      }
+    }
+    var length = to - from;
+    return length == name.length() && s.regionMatches(from, name, 0, length) ? EXACT : NONE;
+  }
+
+  /** Same rules as {@link UrlParser#decodeParams}, without decoding. */
+  private void index(int paramsLimit) {
+    var s = source;
+    int len = s.length();
+    int from = 0;
+    if (len > 0 && s.charAt(0) == '?') {
+      from++;
+    }
+    int nameStart = from;
+    int valueStart = -1;
+    int i;
+    loop:
+    for (i = from; i < len; i++) {
+      switch (s.charAt(i)) {
+        case '=':
+          if (nameStart == i) {
+            nameStart = i + 1;
+          } else if (valueStart < nameStart) {
+            valueStart = i + 1;
+          }
+          break;
+        case '&':
+        case ';':
+          if (addParam(nameStart, valueStart, i)) {
+            paramsLimit--;
+            if (paramsLimit == 0) {
+              return;
+            }
+          }
+          nameStart = i + 1;
+          break;
+        case '#':
+          break loop;
+        default:
+          // continue
+      }
+    }
+    addParam(nameStart, valueStart, i);
+  }
+
+  private boolean addParam(int nameStart, int valueStart, int valueEnd) {
+    if (nameStart >= valueEnd) {
+      return false;
+    }
+    if (valueStart <= nameStart) {
+      valueStart = valueEnd + 1;
+    }
+    var offset = count * 3;
+    if (offset + 3 > params.length) {
+      params = Arrays.copyOf(params, params.length * 2);
+    }
+    params[offset] = nameStart;
+    params[offset + 1] = valueStart;
+    params[offset + 2] = valueEnd;
+    count++;
+    return true;
+  }
+}
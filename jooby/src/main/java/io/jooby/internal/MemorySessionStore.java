@@ -6,10 +6,13 @@
 package io.jooby.internal;
 
 import java.time.Duration;
-import java.util.Iterator;
-import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 import io.jooby.Context;
@@ -17,9 +20,26 @@ import io.jooby.Session;
 import io.jooby.SessionStore;
 import io.jooby.SessionToken;
 
+/**
+ * In-memory session store. Besides the session map, sessions are indexed by last access time in
+ * one second buckets. Expired sessions are removed by sweeping only the buckets which are older
+ * than the timeout, at most once per second and by a single request thread, so finding a session
+ * doesn't depend on the number of live sessions.
+ */
 public class MemorySessionStore extends SessionStore.InMemory {
 
-  private ConcurrentHashMap<String, Data> sessions = new ConcurrentHashMap<>();
+  private static final long TICK = 1000L;
+
+  private final ConcurrentHashMap<String, Data> sessions = new ConcurrentHashMap<>();
+
+  /** Session IDs grouped by last accessed time (in ticks). */
+  private final ConcurrentSkipListMap<Long, Set<String>> expiry = new ConcurrentSkipListMap<>();
+
+  private final AtomicBoolean sweeping = new AtomicBoolean();
+
+  private final AtomicLong lastSweep = new AtomicLong();
+
+  private final LongAdder expired = new LongAdder();
 
   private Duration timeout;
 
@@ -30,22 +50,42 @@ public class MemorySessionStore extends SessionStore.InMemory {
 
   @Override
   protected Data getOrCreate(String sessionId, Function<String, Data> factory) {
-    return sessions.computeIfAbsent(sessionId, factory);
+    return sessions.computeIfAbsent(
+        sessionId,
+        id -> {
+          var data = factory.apply(id);
+          index(id, null, data);
+          return data;
+        });
   }
 
   @Override
   protected Data getOrNull(String sessionId) {
-    return sessions.get(sessionId);
+    var data = sessions.get(sessionId);
+    if (data != null && timeout != null && data.isExpired(timeout)) {
+      // not swept yet
+      if (sessions.remove(sessionId, data)) {
+        unindex(sessionId, data);
+        expired.increment();
+      }
+      return null;
+    }
+    return data;
   }
 
   @Override
   protected Data remove(String sessionId) {
-    return sessions.remove(sessionId);
+    var data = sessions.remove(sessionId);
+    if (data != null) {
+      unindex(sessionId, data);
+    }
+    return data;
   }
 
   @Override
   protected void put(String sessionId, Data data) {
-    sessions.put(sessionId, data);
+    var previous = sessions.put(sessionId, data);
+    index(sessionId, previous, data);
   }
 
   @Override
@@ -54,20 +94,81 @@ public class MemorySessionStore extends SessionStore.InMemory {
     return super.findSession(ctx);
   }
 
-  /** Check for expired session and delete them. */
+  /**
+   * Number of live sessions, including expired sessions not yet swept.
+   *
+   * @return Number of live sessions.
+   */
+  public int getSessionCount() {
+    return sessions.size();
+  }
+
+  /**
+   * Number of sessions removed due to inactivity since this store was created.
+   *
+   * @return Number of expired sessions.
+   */
+  public long getExpiredCount() {
+    return expired.sum();
+  }
+
+  /** Remove sessions in buckets older than the timeout. Runs at most once per tick. */
   private void purge() {
     if (timeout != null) {
-      Iterator<Map.Entry<String, Data>> iterator = sessions.entrySet().iterator();
-      while (iterator.hasNext()) {
-        Map.Entry<String, Data> entry = iterator.next();
-        Data session = entry.getValue();
-        if (session.isExpired(timeout)) {
-          iterator.remove();
+      var now = System.currentTimeMillis();
+      var tick = now / TICK;
+      var last = lastSweep.get();
+      if (tick > last
+          && lastSweep.compareAndSet(last, tick)
+          && sweeping.compareAndSet(false, true)) {
+        try {
+          // A bucket is fully expired once its upper bound is older than timeout
+          var limit = (now - timeout.toMillis()) / TICK;
+          var buckets = expiry.headMap(limit).entrySet().iterator();
+          while (buckets.hasNext()) {
+            var bucket = buckets.next();
+            buckets.remove();
+            for (var sessionId : bucket.getValue()) {
+              var data = sessions.get(sessionId);
+              if (data != null && data.isExpired(timeout) && sessions.remove(sessionId, data)) {
+                expired.increment();
+              }
+            }
+          }
+        } finally {
+          sweeping.set(false);
         }
       }
     }
   }
 
+  private void index(String sessionId, Data previous, Data data) {
+    var bucket = bucket(data);
+    if (previous != null) {
+      var previousBucket = bucket(previous);
+      if (previousBucket == bucket) {
+        return;
+      }
+      unindex(sessionId, previousBucket);
+    }
+    expiry.computeIfAbsent(bucket, key -> ConcurrentHashMap.newKeySet()).add(sessionId);
+  }
+
+  private void unindex(String sessionId, Data data) {
+    unindex(sessionId, bucket(data));
+  }
+
+  private void unindex(String sessionId, long bucket) {
+    var ids = expiry.get(bucket);
+    if (ids != null) {
+      ids.remove(sessionId);
+    }
+  }
+
+  private static long bucket(Data data) {
+    return data.getLastAccessedTime().toEpochMilli() / TICK;
+  }
+
   public SessionStore setTimeout(Duration timeout) {
     this.timeout = timeout;
     return this;
@@ -0,0 +1,103 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.jspecify.annotations.Nullable;
+
+import io.jooby.Context;
+import io.jooby.Router;
+
+/**
+ * Route trees mounted by predicate. Domain mounts are indexed by host, so only arbitrary predicates
+ * need to be tested on every request. Evaluation order is the mount order.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+class MountTable {
+
+  /**
+   * Host predicate, created by {@link Router#domain(String, Runnable)}. Uses identity equality,
+   * same domain might be mounted multiple times.
+   */
+  static final class Domain implements Predicate<Context> {
+    private final String domain;
+
+    Domain(String domain) {
+      this.domain = domain;
+    }
+
+    @Override
+    public boolean test(Context ctx) {
+      return ctx.getHost().equals(domain);
+    }
+  }
+
+  /**
+   * Mounted tree.
+   *
+   * @param predicate Predicate or <code>null</code> when host has been already matched.
+   * @param tree Route tree.
+   */
+  private record Mount(@Nullable Predicate<Context> predicate, RouteTree tree) {}
+
+  private static final Mount[] EMPTY = new Mount[0];
+
+  private final Map<String, Mount[]> hosts = new HashMap<>();
+
+  private final Mount[] others;
+
+  MountTable(Map<Predicate<Context>, RouteTree> predicates) {
+    var others = new ArrayList<Mount>();
+    for (var predicate : predicates.keySet()) {
+      if (predicate instanceof Domain domain) {
+        hosts.computeIfAbsent(domain.domain, host -> mounts(predicates, host));
+      } else {
+        others.add(new Mount(predicate, predicates.get(predicate)));
+      }
+    }
+    this.others = others.toArray(EMPTY);
+  }
+
+  /**
+   * Find a matching route.
+   *
+   * @param ctx Web context.
+   * @return Matching route or <code>null</code>.
+   */
+  Router.@Nullable Match find(Context ctx) {
+    var mounts = hosts.isEmpty() ? others : hosts.getOrDefault(ctx.getHost(), others);
+    for (var mount : mounts) {
+      if (mount.predicate == null || mount.predicate.test(ctx)) {
+        var match = mount.tree.find(ctx.getMethod(), ctx.getRequestPath());
+        if (match.matches()) {
+          return match;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static Mount[] mounts(Map<Predicate<Context>, RouteTree> predicates, String host) {
+    List<Mount> result = new ArrayList<>();
+    for (var e : predicates.entrySet()) {
+      if (e.getKey() instanceof Domain domain) {
+        if (domain.domain.equals(host)) {
+          result.add(new Mount(null, e.getValue()));
+        }
+      } else {
+        result.add(new Mount(e.getKey(), e.getValue()));
+      }
+    }
+    return result.toArray(EMPTY);
+  }
+}
@@ -15,11 +15,17 @@ import io.jooby.Route;
 import io.jooby.Route.Handler;
 import io.jooby.internal.handler.DispatchHandler;
 import io.jooby.internal.handler.PostDispatchInitializerHandler;
+import io.jooby.internal.handler.ServerSentEventHandler;
+import io.jooby.internal.handler.WebSocketHandler;
 
 public class Pipeline {
 
   public static Handler build(
-      Route route, ExecutionMode mode, Executor executor, ContextInitializer initializer) {
+      Route route,
+      ExecutionMode mode,
+      Executor executor,
+      ContextInitializer initializer,
+      Route.Filter dispatchFilter) {
     // Set default wrapper and blocking mode
     if (!route.isNonBlockingSet()) {
       route.setNonBlocking(isDefaultNonblocking(executor, mode));
@@ -33,8 +39,24 @@ public class Pipeline {
     } else {
       pipeline = route.getPipeline();
     }
-    return dispatchHandler(
-        mode, executor, decorate(initializer, DEFAULT.then(pipeline)), route.isNonBlocking());
+    Handler handler =
+        dispatchHandler(
+            mode, executor, decorate(initializer, DEFAULT.then(pipeline)), route.isNonBlocking());
+    return admission(route, dispatchFilter, handler);
+  }
+
+  /**
+   * Dispatch filter runs before the request is dispatched to a worker thread, so admission control
+   * happens before queueing. Long-lived connections (web socket, server-sent events) are excluded.
+   */
+  private static Handler admission(Route route, Route.Filter dispatchFilter, Handler handler) {
+    if (dispatchFilter == null
+        || route.getHandler() instanceof WebSocketHandler
+        || route.getHandler() instanceof ServerSentEventHandler) {
+      return handler;
+    }
+    dispatchFilter.setRoute(route);
+    return dispatchFilter.then(handler);
   }
 
   private static boolean isDefaultNonblocking(Executor executor, ExecutionMode mode) {
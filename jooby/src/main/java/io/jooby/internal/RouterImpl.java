@@ -138,6 +138,8 @@ public class RouterImpl implements Router {
 
   private Map<Predicate<Context>, RouteTree> predicateMap;
 
+  private MountTable mountTable;
+
   private Executor worker = new ForwardingExecutor();
 
   private Map<Route, Executor> routeExecutor = new HashMap<>();
@@ -156,6 +158,8 @@ public class RouterImpl implements Router {
 
   private ContextInitializer postDispatchInitializer;
 
+  private Route.Filter dispatchFilter;
+
   private RouterOptions routerOptions = RouterOptions.defaults();
 
   private boolean started;
@@ -359,6 +363,12 @@ public class RouterImpl implements Router {
     return this;
   }
 
+  @Override
+  public Router setDispatchFilter(Route.Filter filter) {
+    this.dispatchFilter = filter;
+    return this;
+  }
+
   @Override
   public Router use(Route.Filter filter) {
     stack.peekLast().then(filter);
@@ -598,10 +608,11 @@ public class RouterImpl implements Router {
         route.setFilter(prependMediaType(route.getProduces(), route.getFilter(), Route.ACCEPT));
       }
       Route.Handler pipeline =
-          Pipeline.build(route, forceMode(route, mode), executor, postDispatchInitializer);
+          Pipeline.build(
+              route, forceMode(route, mode), executor, postDispatchInitializer, dispatchFilter);
       route.setPipeline(pipeline);
       /** Final render */
-      route.setEncoder(encoder);
+      route.setEncoder(encoder.forRoute(route));
     }
     ((Chi) chi).setEncoder(encoder);
 
@@ -681,6 +692,7 @@ public class RouterImpl implements Router {
       this.predicateMap.values().forEach(RouteTree::destroy);
       this.predicateMap.clear();
       this.predicateMap = null;
+      this.mountTable = null;
     }
   }
 
@@ -694,14 +706,10 @@ public class RouterImpl implements Router {
     if (preDispatchInitializer != null) {
       preDispatchInitializer.apply(ctx);
     }
-    if (predicateMap != null) {
-      for (Map.Entry<Predicate<Context>, RouteTree> e : predicateMap.entrySet()) {
-        if (e.getKey().test(ctx)) {
-          Router.Match match = e.getValue().find(ctx.getMethod(), ctx.getRequestPath());
-          if (match.matches()) {
-            return match;
-          }
-        }
+    if (mountTable != null) {
+      var match = mountTable.find(ctx);
+      if (match != null) {
+        return match;
       }
     }
     return chi.find(ctx.getMethod(), ctx.getRequestPath());
@@ -888,6 +896,8 @@ public class RouterImpl implements Router {
     // it.setDecoders(src.getDecoders());
     it.setMvcMethod(src.getMvcMethod());
     it.setNonBlocking(src.isNonBlocking());
+    it.setCompress(src.isCompress());
+    it.setStreamingBody(src.isStreamingBody());
     it.setSummary(src.getSummary());
   }
 
@@ -896,6 +906,7 @@ public class RouterImpl implements Router {
       predicateMap = new LinkedHashMap<>();
     }
     predicateMap.put(predicate, tree);
+    mountTable = new MountTable(predicateMap);
   }
 
   private void removePreDispatchInitializer(ContextInitializer initializer) {
@@ -937,7 +948,7 @@ public class RouterImpl implements Router {
   }
 
   private static Predicate<Context> domainPredicate(String domain) {
-    return ctx -> ctx.getHost().equals(domain);
+    return new MountTable.Domain(domain);
   }
 
   private void copyRoutes(String path, Router router) {
@@ -0,0 +1,191 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.jooby.ServerSentEmitter;
+
+/**
+ * Hashed wheel timer that sends the keep-alive comment of all the server-sent emitters. A single
+ * daemon thread advances the wheel, so the cost of an emitter is one wheel entry instead of one
+ * scheduled task per period.
+ *
+ * <p>Registrations are queued and moved into the wheel by the timer thread, so the wheel itself is
+ * only accessed from that thread. Closed emitters are dropped the next time they are due.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+public final class ServerSentHeartbeat {
+
+  private static final class Entry {
+    private final ServerSentEmitter emitter;
+
+    private volatile long period;
+
+    private long deadline;
+
+    Entry(ServerSentEmitter emitter, long period) {
+      this.emitter = emitter;
+      this.period = period;
+    }
+  }
+
+  private static class Holder {
+    private static final ServerSentHeartbeat INSTANCE = new ServerSentHeartbeat(100, 512).start();
+  }
+
+  private final Logger log = LoggerFactory.getLogger(ServerSentEmitter.class);
+
+  private final long tickInMillis;
+
+  private final Queue<Entry>[] wheel;
+
+  private final int mask;
+
+  private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+
+  private final Map<ServerSentEmitter, Entry> entries = new ConcurrentHashMap<>();
+
+  private long tick;
+
+  /**
+   * Creates a heartbeat wheel.
+   *
+   * @param tickInMillis Tick duration.
+   * @param wheelSize Number of buckets, must be a power of two.
+   */
+  @SuppressWarnings("unchecked")
+  ServerSentHeartbeat(long tickInMillis, int wheelSize) {
+    if (Integer.bitCount(wheelSize) != 1) {
+      throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+    }
+    this.tickInMillis = tickInMillis;
+    this.mask = wheelSize - 1;
+    this.wheel = new Queue[wheelSize];
+    for (int i = 0; i < wheelSize; i++) {
+      wheel[i] = new ArrayDeque<>();
+    }
+  }
+
+  /**
+   * Shared heartbeat, the timer thread is started on first access.
+   *
+   * @return Shared heartbeat.
+   */
+  public static ServerSentHeartbeat getInstance() {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * Send a keep-alive comment to the emitter every period of time, until it gets closed. Calling
+   * this method again for the same emitter changes the period.
+   *
+   * @param emitter Emitter.
+   * @param timeInMillis Period of time in millis.
+   */
+  public void register(ServerSentEmitter emitter, long timeInMillis) {
+    var period = Math.max(1, (timeInMillis + tickInMillis - 1) / tickInMillis);
+    var entry = new Entry(emitter, period);
+    var existing = entries.putIfAbsent(emitter, entry);
+    if (existing == null) {
+      pending.add(entry);
+    } else {
+      existing.period = period;
+    }
+  }
+
+  /**
+   * Number of registered emitters.
+   *
+   * @return Number of registered emitters.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  private ServerSentHeartbeat start() {
+    ScheduledExecutorService executor =
+        Executors.newSingleThreadScheduledExecutor(
+            task -> {
+              var thread = new Thread(task, "sse-heartbeat");
+              thread.setDaemon(true);
+              return thread;
+            });
+    executor.scheduleAtFixedRate(this::tick, tickInMillis, tickInMillis, TimeUnit.MILLISECONDS);
+    return this;
+  }
+
+  /** Advance the wheel by one tick. Must be called from the timer thread. */
+  void tick() {
+    var now = ++tick;
+    Entry entry;
+    while ((entry = pending.poll()) != null) {
+      schedule(entry, now);
+    }
+    var bucket = wheel[(int) (now & mask)];
+    List<Entry> due = null;
+    for (int i = bucket.size(); i > 0; i--) {
+      entry = bucket.poll();
+      if (entry.deadline <= now) {
+        if (due == null) {
+          due = new ArrayList<>();
+        }
+        due.add(entry);
+      } else {
+        // next round
+        bucket.add(entry);
+      }
+    }
+    if (due != null) {
+      for (var it : due) {
+        if (beat(it.emitter)) {
+          schedule(it, now);
+        } else {
+          entries.remove(it.emitter);
+        }
+      }
+    }
+  }
+
+  private void schedule(Entry entry, long now) {
+    entry.deadline = now + entry.period;
+    wheel[(int) (entry.deadline & mask)].add(entry);
+  }
+
+  private boolean beat(ServerSentEmitter emitter) {
+    if (!emitter.isOpen()) {
+      return false;
+    }
+    String sseId = emitter.getId();
+    try {
+      log.debug("running heart beat for {}", sseId);
+      emitter.send(":" + sseId + "\n");
+      return true;
+    } catch (Exception x) {
+      log.debug("connection lost for {}", sseId, x);
+      try {
+        emitter.close();
+      } catch (Exception cause) {
+        log.debug("close of {} resulted in exception", sseId, cause);
+      }
+      return false;
+    }
+  }
+}
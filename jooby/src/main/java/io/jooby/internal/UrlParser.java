@@ -20,15 +20,24 @@ import io.jooby.value.ValueFactory;
 public final class UrlParser {
   private static final char SPACE = 0x20;
 
+  private static final int PARAMS_LIMIT = 1024;
+
   public static QueryString queryString(ValueFactory valueFactory, String queryString) {
     if (queryString == null || queryString.length() == 0) {
       return new QueryStringValue(valueFactory, "");
     }
     QueryStringValue result = new QueryStringValue(valueFactory, "?" + queryString);
-    decodeParams(result, queryString, 0, StandardCharsets.UTF_8, 1024);
+    decodeParams(result, queryString, 0, StandardCharsets.UTF_8, PARAMS_LIMIT);
     return result;
   }
 
+  public static QueryString lazyQueryString(ValueFactory valueFactory, String queryString) {
+    if (queryString == null || queryString.length() == 0) {
+      return new QueryStringValue(valueFactory, "");
+    }
+    return new LazyQueryStringValue(valueFactory, queryString, PARAMS_LIMIT);
+  }
+
   public static String decodePathSegment(String value) {
     if (value == null || value.length() == 0) {
       return "";
@@ -90,6 +99,10 @@ public final class UrlParser {
     return true;
   }
 
+  static String decodeQueryComponent(String s, int from, int toExcluded) {
+    return decodeComponent(s, from, toExcluded, StandardCharsets.UTF_8, false);
+  }
+
   private static String decodeComponent(
       String s, int from, int toExcluded, Charset charset, boolean isPath) {
     int len = toExcluded - from;
@@ -15,12 +15,46 @@ import io.jooby.Cookie;
 import io.jooby.DefaultContext;
 import io.jooby.ForwardingContext;
 import io.jooby.MediaType;
+import io.jooby.SneakyThrows;
 import io.jooby.StatusCode;
 import io.jooby.WebSocket;
 import io.jooby.output.Output;
 
 public class WebSocketSender extends ForwardingContext implements DefaultContext {
 
+  /** Keeps the encoded message, instead of sending it. */
+  private static class Encoder extends WebSocketSender {
+    private Output output;
+
+    Encoder(Context context, WebSocket ws) {
+      super(context, ws, false, WebSocket.WriteCallback.NOOP);
+    }
+
+    @Override
+    public Context send(String data, Charset charset) {
+      output = getOutputFactory().wrap(data, charset);
+      return this;
+    }
+
+    @Override
+    public Context send(byte[] data) {
+      output = getOutputFactory().wrap(data);
+      return this;
+    }
+
+    @Override
+    public Context send(ByteBuffer data) {
+      output = getOutputFactory().wrap(data);
+      return this;
+    }
+
+    @Override
+    public Context send(Output output) {
+      this.output = output;
+      return this;
+    }
+  }
+
   private final WebSocket ws;
   private final boolean binary;
   private final WebSocket.WriteCallback callback;
@@ -33,6 +67,24 @@ public class WebSocketSender extends ForwardingContext implements DefaultContext
     this.callback = callback;
   }
 
+  /**
+   * Encode a value using the route encoder, like {@link WebSocket#render(Object)} does, but without
+   * sending it. Used by broadcast, so the value is encoded once and written to all the sessions.
+   *
+   * @param context Web socket context.
+   * @param ws Web socket.
+   * @param value Value to encode.
+   * @return Encoded message.
+   */
+  public static Output encode(Context context, WebSocket ws, Object value) {
+    var encoder = new Encoder(context, ws);
+    encoder.render(value);
+    if (encoder.output == null) {
+      throw new IllegalStateException("The message was not encoded");
+    }
+    return encoder.output;
+  }
+
   @Override
   public Context send(String data, Charset charset) {
     if (binary) {
@@ -75,8 +127,17 @@ public class WebSocketSender extends ForwardingContext implements DefaultContext
 
   @Override
   public Context render(Object value) {
-    DefaultContext.super.render(value);
-    return this;
+    try {
+      // Not a route response, so the message is always encoded (render is off)
+      var output = getRoute().getEncoder().encode(this, value);
+      if (output == null) {
+        throw new IllegalStateException("The message was not encoded");
+      }
+      send(output);
+      return this;
+    } catch (Exception x) {
+      throw SneakyThrows.propagate(x);
+    }
   }
 
   @Override
@@ -45,6 +45,9 @@ public class ChunkedSubscriber implements Flow.Subscriber {
       }
       var encoder = route.getEncoder();
       var data = encoder.encode(ctx, item);
+      if (data == null) {
+        throw new IllegalStateException("The item was not encoded");
+      }
 
       if (responseType == null) {
         responseType = ctx.getResponseType();
@@ -0,0 +1,216 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.output;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Size-classed buffer pool. Buffers are grouped by power of two size classes, from {@link
+ * #MIN_SIZE} up to <code>maxCachedSize</code>. Free buffers live in a small per-thread cache
+ * (platform threads only) backed by a fixed number of shared arenas. Threads pick an arena by
+ * thread id, so contention is spread the same way Netty's pooled allocator does.
+ *
+ * <p>Buffers bigger than <code>maxCachedSize</code> are allocated on demand and never cached.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+public class BufferPool {
+  /** Smallest size class: 512 bytes. */
+  public static final int MIN_SIZE = 512;
+
+  private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_SIZE);
+
+  /** Max number of free buffers per size class kept by an arena. */
+  private static final int ARENA_CAPACITY = 64;
+
+  /** Max number of free buffers per size class kept by a thread. */
+  private static final int THREAD_CACHE_CAPACITY = 8;
+
+  /**
+   * Lock-free bounded stack of free buffers. Slots are claimed with CAS, so a full arena simply
+   * drops the buffer and lets GC reclaim it.
+   */
+  private static class Arena {
+    private final AtomicReferenceArray<ByteBuffer>[] slots;
+
+    @SuppressWarnings("unchecked")
+    Arena(int sizeClasses) {
+      slots = new AtomicReferenceArray[sizeClasses];
+      for (int i = 0; i < sizeClasses; i++) {
+        slots[i] = new AtomicReferenceArray<>(ARENA_CAPACITY);
+      }
+    }
+
+    ByteBuffer poll(int sizeClass) {
+      var free = slots[sizeClass];
+      for (int i = 0; i < ARENA_CAPACITY; i++) {
+        var buffer = free.get(i);
+        if (buffer != null && free.compareAndSet(i, buffer, null)) {
+          return buffer;
+        }
+      }
+      return null;
+    }
+
+    boolean offer(int sizeClass, ByteBuffer buffer) {
+      var free = slots[sizeClass];
+      for (int i = 0; i < ARENA_CAPACITY; i++) {
+        if (free.get(i) == null && free.compareAndSet(i, null, buffer)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /** Per thread free list, one small stack per size class. */
+  private static class ThreadCache {
+    private final ByteBuffer[][] free;
+    private final int[] count;
+
+    ThreadCache(int sizeClasses) {
+      free = new ByteBuffer[sizeClasses][THREAD_CACHE_CAPACITY];
+      count = new int[sizeClasses];
+    }
+
+    ByteBuffer poll(int sizeClass) {
+      int n = count[sizeClass];
+      if (n == 0) {
+        return null;
+      }
+      count[sizeClass] = --n;
+      var buffer = free[sizeClass][n];
+      free[sizeClass][n] = null;
+      return buffer;
+    }
+
+    boolean offer(int sizeClass, ByteBuffer buffer) {
+      int n = count[sizeClass];
+      if (n == THREAD_CACHE_CAPACITY) {
+        return false;
+      }
+      free[sizeClass][n] = buffer;
+      count[sizeClass] = n + 1;
+      return true;
+    }
+  }
+
+  private final boolean direct;
+
+  private final int maxCachedSize;
+
+  private final int sizeClasses;
+
+  private final Arena[] arenas;
+
+  private final ThreadLocal<ThreadCache> threadCache;
+
+  /**
+   * Creates a new pool.
+   *
+   * @param direct True for direct buffers.
+   * @param arenas Number of shared arenas.
+   * @param maxCachedSize Largest buffer size to keep in the pool.
+   */
+  public BufferPool(boolean direct, int arenas, int maxCachedSize) {
+    if (arenas <= 0) {
+      throw new IllegalArgumentException("Arenas must be greater than 0: " + arenas);
+    }
+    this.direct = direct;
+    this.maxCachedSize = roundUp(Math.max(MIN_SIZE, maxCachedSize));
+    this.sizeClasses = sizeClass(this.maxCachedSize) + 1;
+    this.arenas = new Arena[arenas];
+    for (int i = 0; i < arenas; i++) {
+      this.arenas[i] = new Arena(sizeClasses);
+    }
+    this.threadCache = ThreadLocal.withInitial(() -> new ThreadCache(sizeClasses));
+  }
+
+  /**
+   * True when this pool hands out direct buffers.
+   *
+   * @return True when this pool hands out direct buffers.
+   */
+  public boolean isDirect() {
+    return direct;
+  }
+
+  /**
+   * Acquire a buffer with at least the given capacity. Buffer is cleared.
+   *
+   * @param capacity Required capacity.
+   * @return A buffer, possibly recycled.
+   */
+  public ByteBuffer acquire(int capacity) {
+    if (capacity > maxCachedSize) {
+      return allocate(capacity);
+    }
+    var size = roundUp(Math.max(MIN_SIZE, capacity));
+    var sizeClass = sizeClass(size);
+    var thread = Thread.currentThread();
+    ByteBuffer buffer = null;
+    if (!thread.isVirtual()) {
+      buffer = threadCache.get().poll(sizeClass);
+    }
+    if (buffer == null) {
+      buffer = arena(thread).poll(sizeClass);
+    }
+    return buffer == null ? allocate(size) : buffer.clear();
+  }
+
+  /**
+   * Give a buffer back to the pool. Buffers not created by this pool or bigger than the max cached
+   * size are silently dropped.
+   *
+   * @param buffer Buffer to recycle. Must not be used after this call.
+   */
+  public void release(ByteBuffer buffer) {
+    var capacity = buffer.capacity();
+    if (buffer.isDirect() != direct
+        || buffer.isReadOnly()
+        || capacity > maxCachedSize
+        || capacity < MIN_SIZE
+        || Integer.bitCount(capacity) != 1) {
+      return;
+    }
+    var sizeClass = sizeClass(capacity);
+    var thread = Thread.currentThread();
+    if (!thread.isVirtual() && threadCache.get().offer(sizeClass, buffer)) {
+      return;
+    }
+    arena(thread).offer(sizeClass, buffer);
+  }
+
+  @Override
+  public String toString() {
+    return "{direct: "
+        + direct
+        + ", arenas: "
+        + arenas.length
+        + ", maxCachedSize: "
+        + maxCachedSize
+        + '}';
+  }
+
+  private Arena arena(Thread thread) {
+    return arenas[(int) (thread.threadId() % arenas.length)];
+  }
+
+  private ByteBuffer allocate(int capacity) {
+    return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+  }
+
+  private static int sizeClass(int size) {
+    return Integer.numberOfTrailingZeros(size) - MIN_SHIFT;
+  }
+
+  private static int roundUp(int value) {
+    var highest = Integer.highestOneBit(value);
+    return highest == value ? value : highest << 1;
+  }
+}
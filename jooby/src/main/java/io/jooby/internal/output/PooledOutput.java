@@ -0,0 +1,180 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.output;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.List;
+
+import io.jooby.Context;
+import io.jooby.SneakyThrows;
+import io.jooby.output.BufferedOutput;
+
+/**
+ * Buffered output backed by a {@link BufferPool}. Growing the output acquires a buffer from the
+ * next size class and gives the old one back. The buffer is recycled once the response has been
+ * written, see {@link #send(Context)}. An output can be sent only once per response: sending or
+ * writing again before the response completes fails with {@link IllegalStateException}.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+public class PooledOutput implements BufferedOutput {
+  private final BufferPool pool;
+
+  private final int initialCapacity;
+
+  private ByteBuffer buffer;
+
+  private int writePosition;
+
+  /** True while the buffer is owned by the response being written. */
+  private boolean sent;
+
+  /**
+   * Creates a new pooled output.
+   *
+   * @param pool Buffer pool.
+   * @param capacity Initial capacity.
+   */
+  public PooledOutput(BufferPool pool, int capacity) {
+    this.pool = pool;
+    this.initialCapacity = capacity;
+    this.buffer = pool.acquire(capacity);
+  }
+
+  @Override
+  public int size() {
+    return writePosition;
+  }
+
+  @Override
+  public void transferTo(SneakyThrows.Consumer<ByteBuffer> consumer) {
+    consumer.accept(asByteBuffer());
+  }
+
+  @Override
+  public Iterator<ByteBuffer> iterator() {
+    return List.of(asByteBuffer()).iterator();
+  }
+
+  @Override
+  public ByteBuffer asByteBuffer() {
+    if (buffer == null) {
+      return ByteBuffer.allocate(0).asReadOnlyBuffer();
+    }
+    return buffer.slice(0, writePosition).asReadOnlyBuffer();
+  }
+
+  @Override
+  public BufferedOutput write(byte b) {
+    ensureWritable(1);
+    buffer.put(writePosition, b);
+    writePosition += 1;
+    return this;
+  }
+
+  @Override
+  public BufferedOutput write(byte[] source) {
+    return write(source, 0, source.length);
+  }
+
+  @Override
+  public BufferedOutput write(byte[] source, int offset, int length) {
+    ensureWritable(length);
+    buffer.put(writePosition, source, offset, length);
+    writePosition += length;
+    return this;
+  }
+
+  @Override
+  public BufferedOutput write(ByteBuffer source) {
+    var length = source.remaining();
+    ensureWritable(length);
+    buffer.put(writePosition, source, source.position(), length);
+    source.position(source.limit());
+    writePosition += length;
+    return this;
+  }
+
+  @Override
+  public BufferedOutput clear() {
+    if (sent) {
+      throw new IllegalStateException("Output was sent already: " + this);
+    }
+    writePosition = 0;
+    if (buffer != null) {
+      buffer.clear();
+    }
+    return this;
+  }
+
+  /**
+   * Send the output and recycle the underlying buffer once the response completes. The output is
+   * empty after that and any {@link #asByteBuffer()} view taken before must not be used.
+   *
+   * @param ctx HTTP context.
+   * @throws IllegalStateException When the output was sent already and the response is still in
+   *     progress.
+   */
+  @Override
+  public void send(Context ctx) {
+    if (sent) {
+      throw new IllegalStateException("Output was sent already: " + this);
+    }
+    if (buffer == null) {
+      ctx.send(ByteBuffer.allocate(0));
+    } else {
+      sent = true;
+      ctx.onComplete(this::release);
+      ctx.send(buffer.slice(0, writePosition));
+    }
+  }
+
+  /**
+   * Give the underlying buffer back to the pool. Output remains usable, next write acquires a new
+   * buffer.
+   *
+   * @param ctx Ignored.
+   */
+  private void release(Context ctx) {
+    var released = buffer;
+    buffer = null;
+    writePosition = 0;
+    sent = false;
+    if (released != null) {
+      pool.release(released);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "size="
+        + size()
+        + ", capacity="
+        + (buffer == null ? 0 : buffer.capacity())
+        + ", pool="
+        + pool;
+  }
+
+  private void ensureWritable(int length) {
+    if (sent) {
+      throw new IllegalStateException("Output was sent already: " + this);
+    }
+    if (buffer == null) {
+      buffer = pool.acquire(Math.max(initialCapacity, length));
+    } else if (length > buffer.capacity() - writePosition) {
+      var required = writePosition + length;
+      if (required < 0) {
+        throw new OutOfMemoryError("Required buffer size too large: " + required);
+      }
+      var newBuffer = pool.acquire(required);
+      newBuffer.put(0, buffer, 0, writePosition);
+      pool.release(buffer);
+      buffer = newBuffer;
+    }
+  }
+}
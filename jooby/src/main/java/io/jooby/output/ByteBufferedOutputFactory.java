@@ -21,8 +21,16 @@ import io.jooby.internal.output.WrappedOutput;
 public class ByteBufferedOutputFactory implements OutputFactory {
 
   private static class ContextOutputFactory extends ByteBufferedOutputFactory {
-    public ContextOutputFactory(OutputOptions options) {
-      super(options);
+    private final ByteBufferedOutputFactory parent;
+
+    public ContextOutputFactory(ByteBufferedOutputFactory parent) {
+      super(parent.getOptions());
+      this.parent = parent;
+    }
+
+    @Override
+    public BufferedOutput allocate(boolean direct, int size) {
+      return parent.allocate(direct, size);
     }
 
     @Override
@@ -94,6 +102,6 @@ public class ByteBufferedOutputFactory implements OutputFactory {
 
   @Override
   public OutputFactory getContextFactory() {
-    return new ContextOutputFactory(options);
+    return new ContextOutputFactory(this);
   }
 }
@@ -18,13 +18,16 @@ import java.nio.charset.StandardCharsets;
 public interface OutputFactory {
 
   /**
-   * Default output factory, backed by {@link ByteBuffer}.
+   * Default output factory, backed by {@link ByteBuffer}. When {@link OutputOptions#isPooled()} is
+   * on, returns a {@link PooledOutputFactory}.
    *
    * @param options Output options.
    * @return Default output factory.
    */
   static OutputFactory create(OutputOptions options) {
-    return new ByteBufferedOutputFactory(options);
+    return options.isPooled()
+        ? new PooledOutputFactory(options)
+        : new ByteBufferedOutputFactory(options);
   }
 
   /**
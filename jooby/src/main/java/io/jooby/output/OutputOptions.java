@@ -16,6 +16,12 @@ public class OutputOptions {
 
   private boolean directBuffers;
 
+  private boolean pooled;
+
+  private int arenas = Runtime.getRuntime().availableProcessors();
+
+  private int maxCachedSize = 64 * 1024;
+
   /** Creates a default options. */
   public OutputOptions() {
     this(Runtime.getRuntime().maxMemory());
@@ -103,8 +109,85 @@ public class OutputOptions {
     return this;
   }
 
+  /**
+   * True when buffers are recycled through a {@link PooledOutputFactory}.
+   *
+   * @return True when buffers are recycled.
+   */
+  public boolean isPooled() {
+    return pooled;
+  }
+
+  /**
+   * Recycle output buffers once the response completes, instead of allocating a new one per
+   * response. Off by default. Doesn't apply to Netty, which always uses its own pooled allocator.
+   *
+   * @param pooled True for pooled buffers.
+   * @return This options.
+   */
+  public OutputOptions setPooled(boolean pooled) {
+    this.pooled = pooled;
+    return this;
+  }
+
+  /**
+   * Number of shared arenas used by the buffer pool. Defaults to number of available processors.
+   *
+   * @return Number of shared arenas.
+   */
+  public int getArenas() {
+    return arenas;
+  }
+
+  /**
+   * Set number of shared arenas used by the buffer pool. More arenas means less contention between
+   * threads, at the cost of keeping more free buffers around.
+   *
+   * @param arenas Number of arenas. Must be greater than <code>0</code>.
+   * @return This options.
+   */
+  public OutputOptions setArenas(int arenas) {
+    if (arenas <= 0) {
+      throw new IllegalArgumentException("Arenas must be greater than 0: " + arenas);
+    }
+    this.arenas = arenas;
+    return this;
+  }
+
+  /**
+   * Largest buffer size kept by the buffer pool. Bigger buffers are allocated on demand and left to
+   * the garbage collector. Default is <code>64kb</code>.
+   *
+   * @return Largest buffer size kept by the buffer pool.
+   */
+  public int getMaxCachedSize() {
+    return maxCachedSize;
+  }
+
+  /**
+   * Set largest buffer size kept by the buffer pool. Value is rounded up to the next power of two.
+   *
+   * @param maxCachedSize Largest buffer size in bytes.
+   * @return This options.
+   */
+  public OutputOptions setMaxCachedSize(int maxCachedSize) {
+    this.maxCachedSize = maxCachedSize;
+    return this;
+  }
+
   @Override
   public String toString() {
+    if (pooled) {
+      return "{size: "
+          + size
+          + ", direct: "
+          + directBuffers
+          + ", pooled: {arenas: "
+          + arenas
+          + ", maxCachedSize: "
+          + maxCachedSize
+          + "}}";
+    }
     return "{size: " + size + ", direct: " + directBuffers + '}';
   }
 }
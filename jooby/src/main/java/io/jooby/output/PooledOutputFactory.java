@@ -0,0 +1,44 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.output;
+
+import io.jooby.internal.output.BufferPool;
+import io.jooby.internal.output.PooledOutput;
+
+/**
+ * An output factory which recycles {@link java.nio.ByteBuffer}. Buffers are grouped in power of two
+ * size classes and kept in per-thread caches backed by shared arenas. A buffer goes back to the
+ * pool once the response it was sent with completes.
+ *
+ * <p>Enable it with {@link OutputOptions#setPooled(boolean)} or <code>server.output.pooled = true
+ * </code>. Pool size is controlled by {@link OutputOptions#getArenas()} and {@link
+ * OutputOptions#getMaxCachedSize()}.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+public class PooledOutputFactory extends ByteBufferedOutputFactory {
+
+  private final BufferPool heap;
+
+  private final BufferPool direct;
+
+  /**
+   * Creates a new pooled output factory.
+   *
+   * @param options Options.
+   */
+  public PooledOutputFactory(OutputOptions options) {
+    super(options);
+    this.heap = new BufferPool(false, options.getArenas(), options.getMaxCachedSize());
+    this.direct = new BufferPool(true, options.getArenas(), options.getMaxCachedSize());
+  }
+
+  @Override
+  public BufferedOutput allocate(boolean direct, int size) {
+    return new PooledOutput(direct ? this.direct : heap, size);
+  }
+}
@@ -50,6 +50,28 @@ public interface GrpcExchange {
    */
   Map<String, String> getHeaders();
 
+  /**
+   * True when the exchange implements {@link #setResponseHeader(String, String)}. Response
+   * compression is turned off for exchanges without response header support.
+   *
+   * @return True when the exchange implements {@link #setResponseHeader(String, String)}. Default
+   *     is: <code>false</code>.
+   */
+  default boolean supportsResponseHeaders() {
+    return false;
+  }
+
+  /**
+   * Sets a response header, like {@code grpc-encoding}. Headers are sent with the first payload (or
+   * with the trailers), so this method must be called before {@link #send(ByteBuffer, Consumer)}.
+   *
+   * <p>Default implementation does nothing, see {@link #supportsResponseHeaders()}.
+   *
+   * @param name Header name.
+   * @param value Header value.
+   */
+  default void setResponseHeader(String name, String value) {}
+
   /**
    * Writes a gRPC-framed byte payload to the underlying non-blocking socket.
    *
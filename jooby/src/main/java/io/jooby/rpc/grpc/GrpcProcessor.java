@@ -39,6 +39,10 @@ public interface GrpcProcessor {
    * connection into a {@link GrpcExchange} and passes it to this method. The processor uses this
    * exchange to asynchronously send response headers, payload byte frames, and HTTP/2 trailers.
    *
+   * <p>Buffers passed to {@link Flow.Subscriber#onNext(Object)} might be owned (pooled or reused)
+   * by the native server, they are only valid until <code>onNext</code> returns. Subscribers must
+   * consume or copy them before returning.
+   *
    * @param exchange The native server exchange representing the bidirectional HTTP/2 stream.
    * @return A reactive {@link Flow.Subscriber} that the native server must feed incoming request
    *     payload {@link ByteBuffer} chunks into. Returns {@code null} if the exchange was rejected.
@@ -7,9 +7,13 @@ package io.jooby.value;
 
 import static io.jooby.SneakyThrows.propagate;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 import io.jooby.FileUpload;
@@ -33,19 +37,72 @@ import jakarta.inject.Named;
  */
 public class ReflectiveBeanConverter implements Converter {
 
-  private record Setter(Method method, Object arg) {
-    public void invoke(MethodHandles.Lookup lookup, Object instance) throws Throwable {
-      var handle = lookup.unreflect(method);
-      handle.invoke(instance, arg);
+  /** How a value is converted to a parameter. Resolved once per parameter. */
+  private enum Kind {
+    SET,
+    COLLECTION,
+    OPTIONAL,
+    NULLABLE,
+    REQUIRED
+  }
+
+  /**
+   * Precompiled constructor or setter parameter.
+   *
+   * @param parameter Parameter.
+   * @param name Parameter name (constructor only).
+   * @param kind Conversion kind.
+   * @param type Raw type to convert to: element type for collections and optional.
+   * @param fileUpload True when parameter (or element type) is a {@link FileUpload}.
+   */
+  private record Param(
+      Parameter parameter, String name, Kind kind, Class<?> type, boolean fileUpload) {
+    static Param of(Parameter parameter, String name) {
+      var rawType = parameter.getType();
+      var elementType = $Types.parameterizedType0(parameter.getParameterizedType());
+      Kind kind;
+      if (Set.class.isAssignableFrom(rawType)) {
+        kind = Kind.SET;
+      } else if (Collection.class.isAssignableFrom(rawType)) {
+        kind = Kind.COLLECTION;
+      } else if (Optional.class.isAssignableFrom(rawType)) {
+        kind = Kind.OPTIONAL;
+      } else {
+        kind = isNullable(parameter) ? Kind.NULLABLE : Kind.REQUIRED;
+      }
+      var type = kind == Kind.NULLABLE || kind == Kind.REQUIRED ? rawType : elementType;
+      return new Param(parameter, name, kind, type, isFileUpload(elementType));
     }
   }
 
+  /**
+   * Precompiled setter.
+   *
+   * @param handle Setter handle, adapted to <code>(Object, Object)void</code>.
+   * @param param Setter parameter.
+   */
+  private record Setter(MethodHandle handle, Param param) {}
+
+  /**
+   * Precompiled binding plan for a bean type: resolved constructor handle, constructor parameters
+   * and setters by property name.
+   *
+   * @param constructor Constructor handle, adapted to <code>(Object[])Object</code>.
+   * @param parameters Constructor parameters.
+   * @param setters Setters by property name.
+   */
+  private record Plan(MethodHandle constructor, Param[] parameters, Map<String, Setter> setters) {}
+
   private static final String AMBIGUOUS_CONSTRUCTOR =
       "Ambiguous constructor found. Expecting a single constructor or only one annotated with "
           + Inject.class.getName();
 
+  private static final MethodType SETTER_TYPE =
+      MethodType.methodType(void.class, Object.class, Object.class);
+
   private final ValueFactory factory;
   private final MethodHandles.Lookup lookup;
+  private final Map<Class<?>, Plan> plans = new ConcurrentHashMap<>();
 
   /**
    * Creates a new instance using a lookup.
@@ -94,25 +151,21 @@ public class ReflectiveBeanConverter implements Converter {
     var rawType = $Types.parameterizedType0(type);
     var allowEmptyBean = hint == ConversionHint.Empty;
     try {
-      var constructors = rawType.getConstructors();
-      Set<Value> state = new HashSet<>();
-      Constructor<?> constructor;
-      if (constructors.length == 0) {
-        //noinspection unchecked
-        constructor = rawType.getDeclaredConstructor();
-      } else {
-        constructor = selectConstructor(constructors);
+      var plan = plans.get(rawType);
+      if (plan == null) {
+        plan = plans.computeIfAbsent(rawType, this::compile);
       }
-      var args = inject(factory, value, constructor, state::add);
-      var setters = setters(rawType, value, state);
+      Set<Value> state = new HashSet<>();
+      var args = inject(factory, value, plan.parameters, state::add);
+      var setters = setters(plan, value, state);
       Object instance;
       if (!allowEmptyBean && state.stream().allMatch(Value::isMissing)) {
         instance = null;
       } else {
-        var handle = lookup.unreflectConstructor(constructor);
-        instance = handle.invokeWithArguments(args);
-        for (var setter : setters) {
-          setter.invoke(lookup, instance);
+        instance = (Object) plan.constructor.invokeExact(args);
+        for (int i = 0; i < setters.size(); i += 2) {
+          var setter = (Setter) setters.get(i);
+          setter.handle.invokeExact(instance, setters.get(i + 1));
         }
       }
       if (instance == null && hint == ConversionHint.Strict) {
@@ -126,6 +179,91 @@ public class ReflectiveBeanConverter implements Converter {
     }
   }
 
+  /**
+   * Resolve constructor, parameters and setters of the given type.
+   *
+   * @param rawType Bean type.
+   * @return Binding plan.
+   */
+  private Plan compile(Class<?> rawType) {
+    try {
+      var constructors = rawType.getConstructors();
+      Constructor<?> constructor;
+      if (constructors.length == 0) {
+        constructor = rawType.getDeclaredConstructor();
+      } else {
+        constructor = selectConstructor(constructors);
+      }
+      var parameters = constructor.getParameters();
+      var params = new Param[parameters.length];
+      for (int i = 0; i < parameters.length; i++) {
+        params[i] = Param.of(parameters[i], parameterName(parameters[i]));
+      }
+      var handle =
+          lookup
+              .unreflectConstructor(constructor)
+              .asType(MethodType.genericMethodType(parameters.length))
+              .asSpreader(Object[].class, parameters.length);
+      return new Plan(handle, params, compileSetters(rawType));
+    } catch (ReflectiveOperationException x) {
+      throw propagate(x);
+    }
+  }
+
+  /**
+   * Index setter like methods by property name. Property <code>name</code> matches a single
+   * argument method named <code>setName</code> or <code>name</code>, <code>set</code> prefixed
+   * methods win.
+   */
+  private Map<String, Setter> compileSetters(Class<?> type) {
+    var methods = new HashMap<String, Method>();
+    for (var method : type.getMethods()) {
+      if (method.getParameterCount() == 1) {
+        var methodName = method.getName();
+        addSetter(methods, methodName, method);
+        if (methodName.length() > 3 && methodName.startsWith("set")) {
+          var property = methodName.substring(3);
+          var decapitalized = Character.toLowerCase(property.charAt(0)) + property.substring(1);
+          for (var name : List.of(property, decapitalized)) {
+            if (setterName(name).equals(methodName)) {
+              addSetter(methods, name, method);
+            }
+          }
+        }
+      }
+    }
+    var setters = new HashMap<String, Setter>();
+    for (var entry : methods.entrySet()) {
+      var method = entry.getValue();
+      var parameter = method.getParameters()[0];
+      setters.put(entry.getKey(), new Setter(setter(method), Param.of(parameter, entry.getKey())));
+    }
+    return Map.copyOf(setters);
+  }
+
+  private MethodHandle setter(Method method) {
+    try {
+      return lookup.unreflect(method).asType(SETTER_TYPE);
+    } catch (IllegalAccessException | WrongMethodTypeException x) {
+      // Fail only if someone tries to bind it: inaccessible or static methods
+      var thrower = MethodHandles.throwException(void.class, x.getClass());
+      return MethodHandles.dropArguments(thrower.bindTo(x), 0, Object.class, Object.class);
+    }
+  }
+
+  private static void addSetter(Map<String, Method> methods, String name, Method method) {
+    if (method.getName().startsWith("set")) {
+      // set prefixed methods always win
+      methods.put(name, method);
+    } else {
+      methods.putIfAbsent(name, method);
+    }
+  }
+
+  private static String setterName(String name) {
+    return "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+  }
+
   private static Constructor<?> selectConstructor(Constructor<?>[] constructors) {
     if (constructors.length == 1) {
       return constructors[0];
@@ -156,23 +294,19 @@ public class ReflectiveBeanConverter implements Converter {
     }
   }
 
-  private static List<Object> inject(
-      ValueFactory factory, Value scope, Executable method, Consumer<Value> state) {
-    var parameters = method.getParameters();
-    if (parameters.length == 0) {
-      return List.of();
-    }
-    var args = new ArrayList<>(parameters.length);
-    for (var parameter : parameters) {
-      var name = parameterName(parameter);
-      var param = scope.get(name);
+  private static Object[] inject(
+      ValueFactory factory, Value scope, Param[] parameters, Consumer<Value> state) {
+    var args = new Object[parameters.length];
+    for (int i = 0; i < parameters.length; i++) {
+      var parameter = parameters[i];
+      var param = scope.get(parameter.name);
       var arg = value(parameter, scope, param);
       if (arg == null) {
-        state.accept(Value.missing(factory, name));
+        state.accept(Value.missing(factory, parameter.name));
       } else {
         state.accept(param);
       }
-      args.add(arg);
+      args[i] = arg;
     }
     return args;
   }
@@ -207,22 +341,27 @@ public class ReflectiveBeanConverter implements Converter {
     return names;
   }
 
-  private static List<Setter> setters(Class<?> type, Value node, Set<Value> nodes) {
-    var methods = type.getMethods();
-    var result = new ArrayList<Setter>();
+  /**
+   * Resolve setter arguments.
+   *
+   * @return Pairs of setter and argument.
+   */
+  private static List<Object> setters(Plan plan, Value node, Set<Value> nodes) {
+    var result = new ArrayList<>();
     for (String name : names(node)) {
       var value = node.get(name);
       if (nodes.add(value)) {
-        var method = findSetter(methods, name);
-        if (method != null) {
-          var parameter = method.getParameters()[0];
+        var setter = plan.setters.get(name);
+        if (setter != null) {
+          var parameter = setter.param;
           try {
             var arg = value(parameter, node, value);
-            result.add(new Setter(method, arg));
+            result.add(setter);
+            result.add(arg);
           } catch (ProvisioningException x) {
             throw x;
           } catch (Exception x) {
-            throw new ProvisioningException(parameter, x);
+            throw new ProvisioningException(parameter.parameter, x);
           }
         } else {
           nodes.remove(value);
@@ -232,45 +371,39 @@ public class ReflectiveBeanConverter implements Converter {
     return result;
   }
 
-  @SuppressWarnings("unchecked")
-  private static Object value(Parameter parameter, Value node, Value value) {
+  private static Object value(Param parameter, Value node, Value value) {
     try {
-      if (isFileUpload(node, parameter)) {
+      if (parameter.fileUpload) {
         var formdata = (Formdata) node;
-        if (Set.class.isAssignableFrom(parameter.getType())) {
-          return new LinkedHashSet<>(formdata.files(value.name()));
-        } else if (Collection.class.isAssignableFrom(parameter.getType())) {
-          return formdata.files(value.name());
-        } else if (Optional.class.isAssignableFrom(parameter.getType())) {
-          List<FileUpload> files = formdata.files(value.name());
-          return files.isEmpty() ? Optional.empty() : Optional.of(files.get(0));
-        } else {
-          return formdata.file(value.name());
-        }
+        return switch (parameter.kind) {
+          case SET -> new LinkedHashSet<>(formdata.files(value.name()));
+          case COLLECTION -> formdata.files(value.name());
+          case OPTIONAL -> {
+            List<FileUpload> files = formdata.files(value.name());
+            yield files.isEmpty() ? Optional.empty() : Optional.of(files.get(0));
+          }
+          default -> formdata.file(value.name());
+        };
       } else {
-        if (Set.class.isAssignableFrom(parameter.getType())) {
-          return value.toSet($Types.parameterizedType0(parameter.getParameterizedType()));
-        } else if (Collection.class.isAssignableFrom(parameter.getType())) {
-          return value.toList($Types.parameterizedType0(parameter.getParameterizedType()));
-        } else if (Optional.class.isAssignableFrom(parameter.getType())) {
-          return value.toOptional($Types.parameterizedType0(parameter.getParameterizedType()));
-        } else {
-          if (isNullable(parameter)) {
+        return switch (parameter.kind) {
+          case SET -> value.toSet(parameter.type);
+          case COLLECTION -> value.toList(parameter.type);
+          case OPTIONAL -> value.toOptional(parameter.type);
+          case NULLABLE -> {
             if (value.isSingle()) {
               var str = value.valueOrNull();
               if (str == null || str.isEmpty()) {
                 // treat empty values as null
-                return null;
+                yield null;
               }
             }
-            return value.toNullable(parameter.getType());
-          } else {
-            return value.to(parameter.getType());
+            yield value.toNullable(parameter.type);
           }
-        }
+          case REQUIRED -> value.to(parameter.type);
+        };
       }
     } catch (BadRequestException x) {
-      throw new ProvisioningException(parameter, x);
+      throw new ProvisioningException(parameter.parameter, x);
     }
   }
 
@@ -297,28 +430,7 @@ public class ReflectiveBeanConverter implements Converter {
     return false;
   }
 
-  private static boolean isFileUpload(Value node, Parameter parameter) {
-    return (node instanceof Formdata) && isFileUpload(parameter.getType())
-        || isFileUpload($Types.parameterizedType0(parameter.getParameterizedType()));
-  }
-
   private static boolean isFileUpload(Class<?> type) {
     return FileUpload.class == type;
   }
-
-  private static Method findSetter(Method[] methods, String name) {
-    var setter = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
-    var candidates = new LinkedList<Method>();
-    for (var method : methods) {
-      if ((method.getName().equals(name) || method.getName().equals(setter))
-          && method.getParameterCount() == 1) {
-        if (method.getName().startsWith("set")) {
-          candidates.addFirst(method);
-        } else {
-          candidates.addLast(method);
-        }
-      }
-    }
-    return candidates.isEmpty() ? null : candidates.getFirst();
-  }
 }
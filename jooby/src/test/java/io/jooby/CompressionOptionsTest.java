@@ -0,0 +1,84 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class CompressionOptionsTest {
+
+  @Test
+  @DisplayName("Negotiate encoding honoring quality values and configured order")
+  void testNegotiate() {
+    var options = new CompressionOptions().setEncodings("zstd", "br", "gzip");
+
+    assertEquals("zstd", options.negotiate("gzip, deflate, br, zstd"));
+    assertEquals("br", options.negotiate("gzip, deflate, br"));
+    assertEquals("gzip", options.negotiate("gzip;q=1.0, br;q=0.5"));
+    assertEquals("gzip", options.negotiate("br;q=0, GZIP"));
+    assertEquals("zstd", options.negotiate("*"));
+    assertEquals("br", options.negotiate("zstd;q=0, *;q=0.1"));
+    assertNull(options.negotiate("identity"));
+    assertNull(options.negotiate("gzip;q=0"));
+    assertNull(options.negotiate(""));
+    assertNull(options.negotiate(null));
+
+    assertEquals("gzip", CompressionOptions.negotiate("zstd, gzip", List.of("gzip", "deflate")));
+  }
+
+  @Test
+  @DisplayName("Compress by content type and size")
+  void testShouldCompress() {
+    var options = new CompressionOptions();
+
+    assertTrue(options.shouldCompress("text/html;charset=utf-8", 2048));
+    assertTrue(options.shouldCompress("application/json", -1));
+    assertTrue(options.shouldCompress("Application/JSON; charset=UTF-8", 1024));
+    assertFalse(options.shouldCompress("application/json", 1023));
+    assertFalse(options.shouldCompress("image/jpeg", 100_000));
+    assertFalse(options.shouldCompress("application/zip", -1));
+    assertFalse(options.shouldCompress(null, 100_000));
+
+    options.setMimeTypes("image/*").setMinSize(0);
+    assertTrue(options.shouldCompress("image/bmp", 10));
+    assertFalse(options.shouldCompress("text/html", 10));
+  }
+
+  @Test
+  @DisplayName("Encodings are validated")
+  void testEncodings() {
+    var options = new CompressionOptions();
+    assertEquals(List.of("gzip", "deflate"), options.getEncodings());
+
+    options.setEncodings("ZSTD", "gzip", "zstd");
+    assertEquals(List.of("zstd", "gzip"), options.getEncodings());
+
+    assertThrows(IllegalArgumentException.class, () -> options.setEncodings("snappy"));
+    assertThrows(IllegalArgumentException.class, () -> options.setEncodings());
+  }
+
+  @Test
+  @DisplayName("Level is validated, any type matches everything")
+  void testLevelAndAnyType() {
+    var options = new CompressionOptions();
+    assertEquals(22, options.setLevel(22).getLevel());
+    assertEquals(0, options.setLevel(0).getLevel());
+    assertThrows(IllegalArgumentException.class, () -> options.setLevel(-1));
+    assertThrows(IllegalArgumentException.class, () -> options.setLevel(23));
+
+    options.setMimeTypes(CompressionOptions.ANY_TYPE);
+    assertTrue(options.isCompressible("image/jpeg"));
+    assertTrue(options.isCompressible(null));
+  }
+}
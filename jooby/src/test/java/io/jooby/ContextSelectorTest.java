@@ -96,4 +96,24 @@ public class ContextSelectorTest {
     // Since app1 (/v1) is first, it will consume /v1/api/test because it starts with /v1
     assertEquals(app1, selector.select("/v1/api/test"));
   }
+
+  @Test
+  public void testSelectorPrefixTree() {
+    Jooby api = mock(Jooby.class);
+    when(api.getContextPath()).thenReturn("/v1/api");
+
+    Jooby v1 = mock(Jooby.class);
+    when(v1.getContextPath()).thenReturn("/v1");
+
+    Jooby main = mock(Jooby.class);
+    when(main.getContextPath()).thenReturn("/");
+
+    Context.Selector selector = Context.Selector.create(Arrays.asList(api, v1, main));
+
+    assertEquals(api, selector.select("/v1/api/test"));
+    assertEquals(v1, selector.select("/v1/other"));
+    assertEquals(v1, selector.select("/v1"));
+    assertEquals(main, selector.select("/v"));
+    assertEquals(main, selector.select(""));
+  }
 }
@@ -673,13 +673,39 @@ public class DefaultContextTest {
 
     doReturn(route).when(ctx).getRoute();
     when(route.getEncoder()).thenReturn(encoder);
-    when(encoder.encode(ctx, "data")).thenReturn(output);
+    when(encoder.encode(ctx, "data", true)).thenReturn(output);
     doReturn(ctx).when(ctx).send(output);
 
     ctx.render("data");
     verify(ctx).send(output);
   }
 
+  @Test
+  void renderFlagsRouteResponse() throws Exception {
+    Route route = mock(Route.class);
+    var output = mock(Output.class);
+
+    doReturn(route).when(ctx).getRoute();
+    when(route.getEncoder())
+        .thenReturn(
+            new MessageEncoder() {
+              @Override
+              public Output encode(Context context, Object value) {
+                return null;
+              }
+
+              @Override
+              public Output encode(Context context, Object value, boolean render) {
+                return render ? output : null;
+              }
+            });
+    doReturn(ctx).when(ctx).send(output);
+
+    ctx.render("data");
+    verify(ctx).send(output);
+    verify(ctx, never()).getAttributes();
+  }
+
   @Test
   void renderDataNullNotStarted() throws Exception {
     Route route = mock(Route.class);
@@ -687,7 +713,7 @@ public class DefaultContextTest {
 
     doReturn(route).when(ctx).getRoute();
     when(route.getEncoder()).thenReturn(encoder);
-    when(encoder.encode(ctx, "data")).thenReturn(null);
+    when(encoder.encode(ctx, "data", true)).thenReturn(null);
     doReturn(false).when(ctx).isResponseStarted();
 
     assertThrows(IllegalStateException.class, () -> ctx.render("data"));
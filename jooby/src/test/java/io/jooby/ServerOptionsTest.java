@@ -9,6 +9,7 @@ import static java.util.Map.entry;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -77,8 +78,35 @@ public class ServerOptionsTest {
 
     options.setCompressionLevel(9);
     assertEquals(9, options.getCompressionLevel());
+    // same as previous versions: any type and size
+    assertEquals(0, options.getCompression().getMinSize());
+    assertTrue(options.getCompression().shouldCompress("image/png", 1));
     options.setCompressionLevel(null);
     assertNull(options.getCompressionLevel());
+    assertNull(options.getCompression());
+
+    CompressionOptions compression = new CompressionOptions().setEncodings("zstd", "gzip");
+    options.setCompression(compression);
+    assertEquals(6, options.getCompressionLevel());
+    options.setCompressionLevel(4);
+    assertSame(compression, options.getCompression());
+    assertEquals(4, compression.getLevel());
+  }
+
+  @Test
+  @DisplayName("Test compression options from config")
+  void testCompressionFromConfig() {
+    Config config =
+        ConfigFactory.parseString(
+            "server.compression { level = 3, encodings = [br, gzip], minSize = 2k, "
+                + "mimeTypes = [\"application/json\"] }");
+    CompressionOptions compression = ServerOptions.from(config).get().getCompression();
+    assertNotNull(compression);
+    assertEquals(3, compression.getLevel());
+    assertEquals(List.of("br", "gzip"), compression.getEncodings());
+    assertEquals(2048, compression.getMinSize());
+    assertTrue(compression.isCompressible("application/json"));
+    assertFalse(compression.isCompressible("text/html"));
   }
 
   @Test
@@ -266,6 +294,40 @@ public class ServerOptionsTest {
     assertTrue(options.isExpectContinue());
   }
 
+  @Test
+  @DisplayName("Test virtual threads options")
+  void testVirtualThreads() {
+    ServerOptions options = new ServerOptions();
+    assertFalse(options.isVirtualThreads());
+    assertFalse(options.isTracePinnedThreads());
+    options.setVirtualThreads(true).setTracePinnedThreads(true);
+    assertTrue(options.isVirtualThreads());
+    assertTrue(options.isTracePinnedThreads());
+    assertTrue(options.toString().contains("workerThreads: virtual"));
+
+    Config config =
+        ConfigFactory.parseMap(
+            Map.of("server.virtualThreads", true, "server.tracePinnedThreads", true));
+    ServerOptions fromConfig = ServerOptions.from(config).orElseThrow();
+    assertTrue(fromConfig.isVirtualThreads());
+    assertTrue(fromConfig.isTracePinnedThreads());
+  }
+
+  @Test
+  @DisplayName("Test acceptors option")
+  void testAcceptors() {
+    ServerOptions options = new ServerOptions();
+    assertEquals(1, options.getAcceptors());
+    assertFalse(options.toString().contains("acceptors"));
+    options.setAcceptors(4);
+    assertEquals(4, options.getAcceptors());
+    assertTrue(options.toString().contains("acceptors: 4"));
+    assertThrows(IllegalArgumentException.class, () -> options.setAcceptors(0));
+
+    Config config = ConfigFactory.parseMap(Map.of("server.acceptors", 8));
+    assertEquals(8, ServerOptions.from(config).orElseThrow().getAcceptors());
+  }
+
   @Test
   @DisplayName("Test package-private constructor")
   void testPackagePrivateConstructor() {
@@ -42,6 +42,7 @@ public class ServerSentEmitterTest {
   }
 
   @Test
+  @SuppressWarnings("removal")
   void testKeepAliveTaskSuccess() {
     when(emitter.isOpen()).thenReturn(true);
     when(emitter.getId()).thenReturn("sse-123");
@@ -54,6 +55,7 @@ public class ServerSentEmitterTest {
   }
 
   @Test
+  @SuppressWarnings("removal")
   void testKeepAliveTaskError() {
     when(emitter.isOpen()).thenReturn(true);
     when(emitter.getId()).thenReturn("sse-123");
@@ -66,6 +68,7 @@ public class ServerSentEmitterTest {
   }
 
   @Test
+  @SuppressWarnings("removal")
   void testKeepAliveTaskWhenClosed() {
     when(emitter.isOpen()).thenReturn(false);
 
@@ -86,6 +86,22 @@ public class ServerSentMessageTest {
     assertEquals("Encoder failed", thrown.getMessage());
   }
 
+  @Test
+  @DisplayName("Data must be encoded, not sent")
+  public void shouldFailWhenNotEncoded() throws Exception {
+    var ctx = mock(Context.class);
+    when(ctx.getOutputFactory()).thenReturn(OutputFactory.create(OutputOptions.small()));
+
+    var route = mock(Route.class);
+    when(route.getEncoder()).thenReturn(mock(MessageEncoder.class));
+    when(ctx.getRoute()).thenReturn(route);
+
+    var message = new ServerSentMessage("data");
+
+    var thrown = assertThrows(IllegalStateException.class, () -> message.encode(ctx));
+    assertEquals("The message was not encoded", thrown.getMessage());
+  }
+
   @Test
   @DisplayName("Verify buffer merging logic when data is split across multiple ByteBuffers")
   public void shouldFormatDataAcrossMultipleBuffers() throws Exception {
@@ -0,0 +1,96 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ServerSentReplayBufferTest {
+
+  @Test
+  @DisplayName("Capacity must be positive")
+  void capacity() {
+    assertThrows(IllegalArgumentException.class, () -> new ServerSentReplayBuffer(0));
+  }
+
+  @Test
+  @DisplayName("Messages without ID get a sequential ID")
+  void generatedIds() {
+    var buffer = new ServerSentReplayBuffer(4);
+
+    assertEquals("0", buffer.add("t", new ServerSentMessage("a")).getId());
+    assertEquals("1", buffer.add("t", new ServerSentMessage("b")).getId());
+    assertEquals("custom", buffer.add("t", new ServerSentMessage("c").setId("custom")).getId());
+    // Each topic has its own sequence
+    assertEquals("0", buffer.add("other", new ServerSentMessage("a")).getId());
+  }
+
+  @Test
+  @DisplayName("Messages after the last event ID are returned, oldest first")
+  void since() {
+    var buffer = new ServerSentReplayBuffer(4);
+    for (var data : List.of("a", "b", "c")) {
+      buffer.add("t", new ServerSentMessage(data));
+    }
+
+    assertEquals(List.of("b", "c"), data(buffer.since("t", "0")));
+    assertTrue(buffer.since("t", "2").isEmpty());
+    assertTrue(buffer.since("t", null).isEmpty());
+    assertTrue(buffer.since("unknown", "0").isEmpty());
+  }
+
+  @Test
+  @DisplayName("Oldest messages are evicted when the buffer is full")
+  void eviction() {
+    var buffer = new ServerSentReplayBuffer(3);
+    for (var data : List.of("a", "b", "c", "d", "e")) {
+      buffer.add("t", new ServerSentMessage(data));
+    }
+
+    assertEquals(List.of("d", "e"), data(buffer.since("t", "2")));
+    // Evicted ID: everything retained
+    assertEquals(List.of("c", "d", "e"), data(buffer.since("t", "0")));
+    // Unknown ID: everything retained
+    assertEquals(List.of("c", "d", "e"), data(buffer.since("t", "x")));
+  }
+
+  @Test
+  @DisplayName("Missed messages are sent using the Last-Event-ID header")
+  void replay() {
+    var buffer = new ServerSentReplayBuffer(10);
+    var a = buffer.add("t", new ServerSentMessage("a"));
+    var b = buffer.add("t", new ServerSentMessage("b"));
+    var c = buffer.add("t", new ServerSentMessage("c"));
+
+    var sse = mock(ServerSentEmitter.class);
+    when(sse.getLastEventId()).thenReturn(a.getId().toString());
+
+    assertEquals(2, buffer.replay("t", sse));
+    var order = inOrder(sse);
+    order.verify(sse).send(b);
+    order.verify(sse).send(c);
+
+    var fresh = mock(ServerSentEmitter.class);
+    assertEquals(0, buffer.replay("t", fresh));
+    verify(fresh, never()).send(any(ServerSentMessage.class));
+  }
+
+  private static List<Object> data(List<ServerSentMessage> messages) {
+    return messages.stream().map(ServerSentMessage::getData).toList();
+  }
+}
@@ -7,13 +7,19 @@ package io.jooby.handler;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -164,6 +170,146 @@ public class AccessLogHandlerTest {
     assertTrue(result.contains(" [STATIC_DATE] "));
   }
 
+  @Test
+  @DisplayName("Verify JSON log formatting")
+  void testJsonLogFormat() throws Exception {
+    when(ctx.getUser()).thenReturn(null);
+    when(ctx.getResponseHeader("X-Request-Id")).thenReturn("req-\"123\"");
+
+    AtomicReference<String> logResult = new AtomicReference<>();
+    AccessLogHandler handler =
+        new AccessLogHandler()
+            .format(AccessLogHandler.Format.JSON)
+            .responseHeader("X-Request-Id")
+            .log(logResult::set);
+
+    triggerAndCaptureLog(handler);
+
+    String result = logResult.get();
+    assertTrue(
+        result.startsWith("{\"remoteAddress\":\"192.168.1.1\",\"user\":\"-\",\"timestamp\":"));
+    assertTrue(
+        result.contains(
+            "\"method\":\"GET\",\"path\":\"/api/users\",\"query\":\"?status=active\","
+                + "\"protocol\":\"HTTP/1.1\",\"status\":200,\"length\":512,\"latency\":"));
+    assertTrue(result.endsWith(",\"responseHeaders\":{\"X-Request-Id\":\"req-\\\"123\\\"\"}}"));
+  }
+
+  @Test
+  @DisplayName("Verify binary log records")
+  void testBinaryLogFormat() throws Exception {
+    when(ctx.getUser()).thenReturn("admin-user");
+    when(ctx.queryString()).thenReturn("");
+    when(ctx.getResponseHeader("X-Request-Id")).thenReturn(null);
+
+    AtomicReference<ByteBuffer> logResult = new AtomicReference<>();
+    AccessLogHandler handler =
+        new AccessLogHandler()
+            .responseHeader("X-Request-Id")
+            .binaryLog(buffer -> logResult.set(copy(buffer)));
+
+    triggerAndCaptureLog(handler);
+
+    ByteBuffer record = logResult.get();
+    assertEquals(record.remaining() - Integer.BYTES, record.getInt());
+    assertTrue(record.getLong() > 0);
+    assertTrue(record.getLong() >= 0);
+    assertEquals(200, record.getInt());
+    assertEquals(512L, record.getLong());
+    assertEquals("192.168.1.1", string(record));
+    assertEquals("admin-user", string(record));
+    assertEquals("GET", string(record));
+    assertEquals("/api/users", string(record));
+    assertEquals("", string(record));
+    assertEquals("HTTP/1.1", string(record));
+    assertEquals(null, string(record));
+    assertEquals(0, record.remaining());
+  }
+
+  @Test
+  @DisplayName("Verify binary format requires a consumer")
+  void testBinaryFormatWithoutConsumer() {
+    AccessLogHandler handler = new AccessLogHandler().format(AccessLogHandler.Format.BINARY);
+    assertThrows(IllegalStateException.class, () -> handler.apply(next));
+  }
+
+  @Test
+  @DisplayName("Verify sync mode reuses the record of the request thread")
+  void testSyncLogReusesRecord() throws Exception {
+    Value userAgent = mock(Value.class);
+    when(userAgent.valueOrNull()).thenReturn("Mozilla/5.0", (String) null);
+    when(ctx.header("User-Agent")).thenReturn(userAgent);
+
+    List<String> lines = new CopyOnWriteArrayList<>();
+    AccessLogHandler handler = new AccessLogHandler().requestHeader("User-Agent").log(lines::add);
+    Route.Handler pipeline = handler.apply(next);
+
+    pipeline.apply(ctx);
+    when(ctx.getRequestPath()).thenReturn("/api/orders");
+    pipeline.apply(ctx);
+
+    ArgumentCaptor<Route.Complete> captor = ArgumentCaptor.forClass(Route.Complete.class);
+    verify(ctx, times(2)).onComplete(captor.capture());
+    for (Route.Complete complete : captor.getAllValues()) {
+      complete.apply(ctx);
+    }
+
+    assertEquals(2, lines.size());
+    assertTrue(lines.get(0).contains("\"GET /api/orders?status=active HTTP/1.1\""));
+    assertTrue(lines.get(0).endsWith(" \"Mozilla/5.0\""));
+    assertTrue(lines.get(1).endsWith(" \"-\""));
+  }
+
+  @Test
+  @DisplayName("Verify async mode writes entries from background thread and on close")
+  void testAsyncLog() throws Exception {
+    when(ctx.getUser()).thenReturn(null);
+
+    List<String> lines = new CopyOnWriteArrayList<>();
+    List<String> threads = new CopyOnWriteArrayList<>();
+    AccessLogHandler handler =
+        new AccessLogHandler()
+            .async(16, AccessLogHandler.Overflow.BLOCK)
+            .log(
+                line -> {
+                  threads.add(Thread.currentThread().getName());
+                  lines.add(line);
+                });
+
+    triggerAndCaptureLog(handler);
+    handler.close();
+
+    assertEquals(1, lines.size());
+    assertTrue(lines.get(0).startsWith("192.168.1.1 - - ["));
+    assertTrue(lines.get(0).contains("] \"GET /api/users?status=active HTTP/1.1\" 200 512 "));
+    assertEquals(List.of("access-log"), threads);
+    assertEquals(0, handler.getDropped());
+  }
+
+  @Test
+  @DisplayName("Verify async capacity must be a power of two")
+  void testAsyncCapacity() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new AccessLogHandler().async(100, AccessLogHandler.Overflow.DROP));
+  }
+
+  private static ByteBuffer copy(ByteBuffer buffer) {
+    ByteBuffer copy = ByteBuffer.allocate(buffer.remaining());
+    copy.put(buffer);
+    return copy.flip();
+  }
+
+  private static String string(ByteBuffer buffer) {
+    short length = buffer.getShort();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
   /** Helper to execute the pipeline and manually trigger the context.onComplete callback. */
   private void triggerAndCaptureLog(AccessLogHandler handler) throws Exception {
     Route.Handler pipeline = handler.apply(next);
@@ -0,0 +1,147 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.handler;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.jooby.Context;
+import io.jooby.MediaType;
+import io.jooby.Route;
+import io.jooby.value.Value;
+import io.jooby.value.ValueFactory;
+
+public class AssetHandlerTest {
+
+  @TempDir Path dir;
+
+  private ValueFactory factory = new ValueFactory();
+
+  private Map<String, String> headers;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    headers = new HashMap<>();
+    Files.writeString(dir.resolve("app.js"), "console.log('app');");
+    Files.writeString(dir.resolve("app.js.br"), "br");
+    Files.writeString(dir.resolve("app.js.gz"), "gz");
+    Files.writeString(dir.resolve("style.css"), "body {}");
+  }
+
+  private Context newContext(String path) {
+    var ctx = mock(Context.class);
+    when(ctx.path("path")).thenReturn(Value.value(factory, "path", path));
+    when(ctx.header(anyString()))
+        .then(
+            invocation -> {
+              String name = invocation.getArgument(0);
+              return Value.create(factory, name, headers.get(name));
+            });
+    return ctx;
+  }
+
+  private AssetHandler newHandler() {
+    var route = mock(Route.class);
+    when(route.getPathKeys()).thenReturn(List.of("path"));
+    var handler = new AssetHandler(AssetSource.create(dir));
+    handler.setRoute(route);
+    return handler;
+  }
+
+  @Test
+  @DisplayName("File assets are sent as file channel")
+  void shouldSendFileChannel() throws Exception {
+    var ctx = newContext("app.js");
+    newHandler().apply(ctx);
+
+    verify(ctx).setResponseType(MediaType.js);
+    verify(ctx).send(any(FileChannel.class));
+    verify(ctx, never()).setResponseHeader("Content-Encoding", "br");
+  }
+
+  @Test
+  @DisplayName("Pick precompressed variant by Accept-Encoding and server preference")
+  void shouldSendPrecompressedVariant() throws Exception {
+    var handler = newHandler().setPrecompressed("br", "gzip");
+
+    headers.put("Accept-Encoding", "gzip, deflate, br");
+    var br = newContext("app.js");
+    handler.apply(br);
+    verify(br).setResponseHeader("Vary", "Accept-Encoding");
+    verify(br).setResponseHeader("Content-Encoding", "br");
+    verify(br).setResponseType(MediaType.js);
+
+    headers.put("Accept-Encoding", "gzip, br;q=0");
+    var gzip = newContext("app.js");
+    handler.apply(gzip);
+    verify(gzip).setResponseHeader("Content-Encoding", "gzip");
+
+    // No variant on disk
+    headers.put("Accept-Encoding", "*");
+    var css = newContext("style.css");
+    handler.apply(css);
+    verify(css, never()).setResponseHeader("Content-Encoding", "br");
+    verify(css, never()).setResponseHeader("Content-Encoding", "gzip");
+    verify(css).setResponseType(MediaType.css);
+
+    assertThrows(IllegalArgumentException.class, () -> handler.setPrecompressed("deflate"));
+  }
+
+  @Test
+  @DisplayName("Small assets are served from memory")
+  void shouldServeFromCache() throws Exception {
+    var handler = newHandler().setCache(1024, 64);
+
+    for (int i = 0; i < 2; i++) {
+      var ctx = newContext("app.js");
+      handler.apply(ctx);
+      verify(ctx).send("console.log('app');".getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Changes are picked up
+    Files.writeString(dir.resolve("app.js"), "console.log('changed');");
+    var ctx = newContext("app.js");
+    handler.apply(ctx);
+    verify(ctx).send("console.log('changed');".getBytes(StandardCharsets.UTF_8));
+
+    // Range requests go to the file
+    headers.put("Range", "bytes=0-1");
+    var range = newContext("app.js");
+    handler.apply(range);
+    verify(range).send(any(FileChannel.class));
+  }
+
+  @Test
+  @DisplayName("Accept-Encoding matching")
+  void acceptEncoding() {
+    assertTrue(AssetHandler.accepts("gzip, br", "br"));
+    assertTrue(AssetHandler.accepts("GZIP;q=0.5", "gzip"));
+    assertTrue(AssetHandler.accepts("*", "zstd"));
+    assertFalse(AssetHandler.accepts("br;q=0, *", "br"));
+    assertFalse(AssetHandler.accepts("gzip, *;q=0", "br"));
+    assertFalse(AssetHandler.accepts("identity", "gzip"));
+  }
+}
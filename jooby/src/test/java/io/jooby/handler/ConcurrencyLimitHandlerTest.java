@@ -0,0 +1,227 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.jooby.Context;
+import io.jooby.Route;
+import io.jooby.Router;
+import io.jooby.StatusCode;
+
+public class ConcurrencyLimitHandlerTest {
+
+  private List<Route.Complete> listeners;
+
+  private Route.Handler next;
+
+  @BeforeEach
+  void setUp() {
+    listeners = new ArrayList<>();
+    next = mock(Route.Handler.class);
+  }
+
+  private Context newContext(Object priority) {
+    var ctx = mock(Context.class);
+    var route = mock(Route.class);
+    when(route.getAttribute(ConcurrencyLimitHandler.PRIORITY)).thenReturn(priority);
+    when(ctx.getRoute()).thenReturn(route);
+    when(ctx.getResponseCode()).thenReturn(StatusCode.OK);
+    when(ctx.onComplete(any()))
+        .then(
+            invocation -> {
+              listeners.add(invocation.getArgument(0));
+              return ctx;
+            });
+    return ctx;
+  }
+
+  private void complete(Context ctx) throws Exception {
+    for (var listener : listeners) {
+      listener.apply(ctx);
+    }
+    listeners.clear();
+  }
+
+  @Test
+  @DisplayName("Admit requests until limit is reached, then reject with 503 and Retry-After")
+  void shouldRejectOnceLimitIsReached() throws Exception {
+    var handler =
+        new ConcurrencyLimitHandler(ConcurrencyLimit.fixed(2))
+            .setRetryAfter(Duration.ofMillis(1500));
+    var pipeline = handler.apply(next);
+
+    // NORMAL gets 90% of 2 => 1
+    var first = newContext(null);
+    pipeline.apply(first);
+    verify(next).apply(first);
+    assertEquals(1, handler.getInflight());
+
+    var rejected = newContext(null);
+    pipeline.apply(rejected);
+    verify(next, never()).apply(rejected);
+    verify(rejected).setResponseHeader("Retry-After", "2");
+    verify(rejected).send(StatusCode.SERVICE_UNAVAILABLE);
+    assertEquals(1, handler.getRejected());
+
+    complete(first);
+    assertEquals(0, handler.getInflight());
+
+    var third = newContext(null);
+    pipeline.apply(third);
+    verify(next).apply(third);
+  }
+
+  @Test
+  @DisplayName("Priority names are converted once, bad names fail when the route is built")
+  void shouldResolvePriorityOnSetRoute() {
+    var handler = new ConcurrencyLimitHandler(ConcurrencyLimit.fixed(4));
+    var route = new Route(Router.GET, "/", ctx -> "OK");
+    route.setAttribute(ConcurrencyLimitHandler.PRIORITY, "low");
+    handler.setRoute(route);
+    assertEquals(
+        ConcurrencyLimitHandler.Priority.LOW,
+        route.getAttribute(ConcurrencyLimitHandler.PRIORITY));
+
+    route.setAttribute(ConcurrencyLimitHandler.PRIORITY, "urgent");
+    var failure = assertThrows(IllegalArgumentException.class, () -> handler.setRoute(route));
+    assertEquals("Invalid concurrencyPriority: urgent at GET /", failure.getMessage());
+  }
+
+  @Test
+  @DisplayName("Low priority routes are shed first, critical routes are never rejected")
+  void shouldShedByPriority() throws Exception {
+    var handler = new ConcurrencyLimitHandler(ConcurrencyLimit.fixed(4));
+    var pipeline = handler.apply(next);
+
+    // LOW gets 50% of 4 => 2
+    pipeline.apply(newContext(ConcurrencyLimitHandler.Priority.LOW));
+    pipeline.apply(newContext("low"));
+    var low = newContext(ConcurrencyLimitHandler.Priority.LOW);
+    pipeline.apply(low);
+    verify(low).send(StatusCode.SERVICE_UNAVAILABLE);
+
+    // HIGH uses the whole limit
+    pipeline.apply(newContext(ConcurrencyLimitHandler.Priority.HIGH));
+    pipeline.apply(newContext("HIGH"));
+    var high = newContext(ConcurrencyLimitHandler.Priority.HIGH);
+    pipeline.apply(high);
+    verify(high).send(StatusCode.SERVICE_UNAVAILABLE);
+    assertEquals(4, handler.getInflight());
+
+    var critical = newContext(ConcurrencyLimitHandler.Priority.CRITICAL);
+    pipeline.apply(critical);
+    verify(next).apply(critical);
+    assertEquals(5, handler.getInflight());
+    assertEquals(2, handler.getRejected());
+  }
+
+  @Test
+  @DisplayName("AIMD grows under load and backs off on dropped or slow requests")
+  void aimd() {
+    var limit =
+        ConcurrencyLimit.aimd()
+            .setInitialLimit(10)
+            .setMinLimit(5)
+            .setMaxLimit(12)
+            .setTimeout(Duration.ofMillis(100));
+    var fast = TimeUnit.MILLISECONDS.toNanos(10);
+    var slow = TimeUnit.MILLISECONDS.toNanos(200);
+
+    // not enough in-flight requests, limit stays
+    limit.onSample(fast, 1, false);
+    assertEquals(10, limit.getLimit());
+
+    limit.onSample(fast, 5, false);
+    assertEquals(11, limit.getLimit());
+    limit.onSample(fast, 10, false);
+    limit.onSample(fast, 10, false);
+    assertEquals(12, limit.getLimit());
+
+    limit.onSample(slow, 10, false);
+    assertEquals(10, limit.getLimit());
+    limit.onSample(fast, 10, true);
+    assertEquals(9, limit.getLimit());
+
+    for (int i = 0; i < 10; i++) {
+      limit.onSample(fast, 10, true);
+    }
+    assertEquals(5, limit.getLimit());
+
+    assertThrows(IllegalArgumentException.class, () -> limit.setBackoffRatio(1.0));
+  }
+
+  @Test
+  @DisplayName("Gradient grows while latency is stable and shrinks when latency goes up")
+  void gradient() {
+    var limit = ConcurrencyLimit.gradient().setInitialLimit(20).setMinLimit(4).setMaxLimit(100);
+    var rtt = TimeUnit.MILLISECONDS.toNanos(10);
+
+    for (int i = 0; i < 50; i++) {
+      limit.onSample(rtt, limit.getLimit(), false);
+    }
+    var grown = limit.getLimit();
+    assertTrue(grown > 20, "limit should grow: " + grown);
+
+    for (int i = 0; i < 20; i++) {
+      limit.onSample(rtt * 10, limit.getLimit(), false);
+    }
+    var shrunk = limit.getLimit();
+    assertTrue(shrunk < grown, "limit should shrink: " + shrunk + " < " + grown);
+
+    // Idle application doesn't move the limit
+    limit.onSample(rtt, 0, false);
+    assertEquals(shrunk, limit.getLimit());
+  }
+
+  @Test
+  @DisplayName("Gradient keeps a valid limit when latency is below clock resolution")
+  void gradientZeroRtt() {
+    var limit = ConcurrencyLimit.gradient().setInitialLimit(20).setMinLimit(4).setMaxLimit(100);
+
+    for (int i = 0; i < 50; i++) {
+      limit.onSample(0, limit.getLimit(), false);
+    }
+    var grown = limit.getLimit();
+    assertTrue(grown >= 20 && grown <= 100, "limit should stay in range: " + grown);
+
+    limit.onSample(TimeUnit.MILLISECONDS.toNanos(10), limit.getLimit(), false);
+    assertTrue(limit.getLimit() >= 4, "limit should stay in range: " + limit.getLimit());
+  }
+
+  @Test
+  @DisplayName("Completed requests report latency and overload responses to the limit")
+  void shouldReportSamples() throws Exception {
+    var limit = mock(ConcurrencyLimit.class);
+    when(limit.getLimit()).thenReturn(10);
+    var pipeline = new ConcurrencyLimitHandler(limit).apply(next);
+
+    var ctx = newContext(null);
+    when(ctx.getResponseCode()).thenReturn(StatusCode.SERVICE_UNAVAILABLE);
+    pipeline.apply(ctx);
+    complete(ctx);
+
+    verify(limit).onSample(anyLong(), eq(1), eq(true));
+  }
+}
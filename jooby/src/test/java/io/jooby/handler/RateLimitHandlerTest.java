@@ -7,11 +7,13 @@ package io.jooby.handler;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -22,6 +24,7 @@ import org.junit.jupiter.api.Test;
 import io.github.bucket4j.Bucket;
 import io.github.bucket4j.ConsumptionProbe;
 import io.jooby.Context;
+import io.jooby.SneakyThrows;
 import io.jooby.StatusCode;
 import io.jooby.value.Value;
 
@@ -72,7 +75,7 @@ public class RateLimitHandlerTest {
   }
 
   @Test
-  @DisplayName("Verify RemoteAddress constructor and local caching via ConcurrentHashMap")
+  @DisplayName("Verify RemoteAddress constructor and local caching of buckets")
   void testRemoteAddressConstructorAndCaching() throws Exception {
     AtomicInteger factoryCalls = new AtomicInteger(0);
     RateLimitHandler handler =
@@ -90,11 +93,35 @@ public class RateLimitHandlerTest {
     handler.apply(ctx);
     handler.apply(ctx);
 
-    // Factory should only be invoked once due to the byKey ConcurrentHashMap cache
+    // Factory should only be invoked once due to the byKey cache
     assertEquals(1, factoryCalls.get());
     verify(ctx, times(2)).getRemoteAddress();
   }
 
+  @Test
+  @DisplayName("Verify buckets created by a factory are bounded")
+  void testBucketFactoryIsBounded() {
+    AtomicInteger factoryCalls = new AtomicInteger(0);
+    SneakyThrows.Function<String, Bucket> factory =
+        key -> {
+          factoryCalls.incrementAndGet();
+          return bucket;
+        };
+    RateLimitHandler.Buckets buckets = new RateLimitHandler.Buckets(64);
+
+    buckets.get("first", factory);
+    for (int i = 0; i < 10_000; i++) {
+      buckets.get("key-" + i, factory);
+    }
+    assertEquals(10_001, factoryCalls.get());
+
+    // least recently used key was evicted
+    buckets.get("first", factory);
+    assertEquals(10_002, factoryCalls.get());
+    buckets.get("first", factory);
+    assertEquals(10_002, factoryCalls.get());
+  }
+
   @Test
   @DisplayName("Verify Header constructor extracts key correctly")
   void testHeaderConstructor() throws Exception {
@@ -189,4 +216,37 @@ public class RateLimitHandlerTest {
     // queries the proxy manager dynamically on every request.
     assertEquals(2, factoryCalls.get());
   }
+
+  @Test
+  @DisplayName("Verify built-in limiter per remote address")
+  void testRateLimiter() throws Exception {
+    RateLimitHandler handler = new RateLimitHandler(new RateLimiter(2, Duration.ofMinutes(1)));
+
+    when(ctx.getRemoteAddress()).thenReturn("192.168.1.1");
+
+    handler.apply(ctx);
+    verify(ctx).setResponseHeader("X-Rate-Limit-Remaining", 1L);
+
+    handler.apply(ctx);
+    verify(ctx).setResponseHeader("X-Rate-Limit-Remaining", 0L);
+
+    handler.apply(ctx);
+    verify(ctx).setResponseHeader(eq("X-Rate-Limit-Retry-After-Milliseconds"), anyLong());
+    verify(ctx).send(StatusCode.TOO_MANY_REQUESTS);
+  }
+
+  @Test
+  @DisplayName("Verify built-in limiter per header")
+  void testRateLimiterHeader() throws Exception {
+    RateLimitHandler handler =
+        new RateLimitHandler(new RateLimiter(10, Duration.ofMinutes(1)), "X-API-Key");
+
+    Value headerValue = mock(Value.class);
+    when(ctx.header("X-API-Key")).thenReturn(headerValue);
+    when(headerValue.value()).thenReturn("my-api-key");
+
+    handler.apply(ctx);
+
+    verify(ctx).setResponseHeader("X-Rate-Limit-Remaining", 9L);
+  }
 }
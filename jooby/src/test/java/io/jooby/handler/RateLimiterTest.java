@@ -0,0 +1,94 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class RateLimiterTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  @Test
+  @DisplayName("Verify burst up to the limit and rejection with time to wait")
+  void testBurstAndReject() {
+    RateLimiter limiter = new RateLimiter(3, Duration.ofSeconds(3));
+    long now = 10 * SECOND;
+
+    assertEquals(2, limiter.consume("a", now));
+    assertEquals(1, limiter.consume("a", now));
+    assertEquals(0, limiter.consume("a", now));
+    // next permit in one second
+    assertEquals(-SECOND, limiter.consume("a", now));
+
+    // other keys aren't affected
+    assertEquals(2, limiter.consume("b", now));
+  }
+
+  @Test
+  @DisplayName("Verify permits are refilled evenly over the period")
+  void testRefill() {
+    RateLimiter limiter = new RateLimiter(3, Duration.ofSeconds(3));
+    long now = 10 * SECOND;
+
+    for (int i = 0; i < 3; i++) {
+      limiter.consume("a", now);
+    }
+    assertTrue(limiter.consume("a", now + SECOND / 2) < 0);
+    assertEquals(0, limiter.consume("a", now + SECOND));
+    assertTrue(limiter.consume("a", now + SECOND) < 0);
+
+    // full period idle, all permits back
+    assertEquals(2, limiter.consume("a", now + 5 * SECOND));
+  }
+
+  @Test
+  @DisplayName("Verify number of keys is bounded")
+  void testMaxKeys() {
+    RateLimiter limiter = new RateLimiter(10, Duration.ofSeconds(10)).setMaxKeys(1024);
+    long now = 10 * SECOND;
+
+    for (int i = 0; i < 100_000; i++) {
+      limiter.consume("10.0.0." + i, now);
+    }
+    assertTrue(limiter.size() <= 1024, "size: " + limiter.size());
+  }
+
+  @Test
+  @DisplayName("Verify least recently used keys are evicted first")
+  void testEvictLeastRecentlyUsed() {
+    RateLimiter limiter = new RateLimiter(10, Duration.ofSeconds(10)).setMaxKeys(1024);
+    long now = 10 * SECOND;
+
+    // exhaust active key
+    for (int i = 0; i < 10; i++) {
+      limiter.consume("active", now);
+    }
+    // single request keys, their state expires before the active key
+    long later = now + SECOND / 2;
+    for (int i = 0; i < 10_000; i++) {
+      limiter.consume("10.0.0." + i, later);
+    }
+    assertTrue(limiter.consume("active", later) < 0);
+  }
+
+  @Test
+  @DisplayName("Verify invalid limits")
+  void testInvalidLimits() {
+    assertThrows(IllegalArgumentException.class, () -> new RateLimiter(0, Duration.ofSeconds(1)));
+    assertThrows(IllegalArgumentException.class, () -> new RateLimiter(10, Duration.ZERO));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new RateLimiter(10, Duration.ofSeconds(1)).setMaxKeys(0));
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.jooby.Context;
+
+public class BodyPublisherTest {
+
+  private static class Collector implements Flow.Subscriber<ByteBuffer> {
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final List<String> signals = new ArrayList<>();
+    private Flow.Subscription subscription;
+    private Throwable error;
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      signals.add("subscribe");
+    }
+
+    @Override
+    public void onNext(ByteBuffer item) {
+      byte[] chunk = new byte[item.remaining()];
+      item.get(chunk);
+      bytes.writeBytes(chunk);
+      signals.add("next");
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      this.error = throwable;
+      signals.add("error");
+    }
+
+    @Override
+    public void onComplete() {
+      signals.add("complete");
+    }
+  }
+
+  private static BodyPublisher publisher(byte[] content) {
+    return new BodyPublisher(new ByteArrayBody(mock(Context.class), content));
+  }
+
+  @Test
+  @DisplayName("Publish body on demand, one buffer per request")
+  void shouldPublishOnDemand() {
+    byte[] content = new byte[20_000];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) i;
+    }
+    var subscriber = new Collector();
+    publisher(content).subscribe(subscriber);
+    assertEquals(List.of("subscribe"), subscriber.signals);
+
+    subscriber.subscription.request(1);
+    assertEquals(List.of("subscribe", "next"), subscriber.signals);
+
+    subscriber.subscription.request(Long.MAX_VALUE);
+    assertEquals("complete", subscriber.signals.get(subscriber.signals.size() - 1));
+    assertArrayEquals(content, subscriber.bytes.toByteArray());
+  }
+
+  @Test
+  @DisplayName("Request from onNext doesn't recurse")
+  void shouldRequestFromOnNext() {
+    byte[] content = new byte[100_000];
+    Collector subscriber =
+        new Collector() {
+          @Override
+          public void onNext(ByteBuffer item) {
+            super.onNext(item);
+            super.subscription.request(1);
+          }
+        };
+    publisher(content).subscribe(subscriber);
+    subscriber.subscription.request(1);
+
+    assertEquals(content.length, subscriber.bytes.size());
+    assertEquals("complete", subscriber.signals.get(subscriber.signals.size() - 1));
+  }
+
+  @Test
+  @DisplayName("Empty body completes")
+  void shouldCompleteEmptyBody() {
+    var subscriber = new Collector();
+    publisher(new byte[0]).subscribe(subscriber);
+    subscriber.subscription.request(1);
+
+    assertEquals(List.of("subscribe", "complete"), subscriber.signals);
+  }
+
+  @Test
+  @DisplayName("Cancel stops publishing")
+  void shouldCancel() {
+    var subscriber = new Collector();
+    publisher(new byte[100_000]).subscribe(subscriber);
+    subscriber.subscription.request(1);
+    subscriber.subscription.cancel();
+    subscriber.subscription.request(10);
+
+    assertEquals(List.of("subscribe", "next"), subscriber.signals);
+  }
+
+  @Test
+  @DisplayName("Body can be subscribed once and demand must be positive")
+  void shouldRejectInvalidUsage() {
+    var publisher = publisher(new byte[10]);
+    var first = new Collector();
+    publisher.subscribe(first);
+
+    var second = new Collector();
+    publisher.subscribe(second);
+    assertEquals(List.of("subscribe", "error"), second.signals);
+    assertInstanceOf(IllegalStateException.class, second.error);
+
+    first.subscription.request(0);
+    assertInstanceOf(IllegalArgumentException.class, first.error);
+    first.subscription.request(1);
+    assertEquals(List.of("subscribe", "error"), first.signals);
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.jooby.Context;
+import io.jooby.MediaType;
+import io.jooby.MessageEncoder;
+import io.jooby.Route;
+import io.jooby.value.Value;
+import io.jooby.value.ValueFactory;
+
+public class ContentNegotiationTest {
+
+  private final MessageEncoder json = mock(MessageEncoder.class);
+
+  private final MessageEncoder xml = mock(MessageEncoder.class);
+
+  private final Map<MediaType, MessageEncoder> encoders =
+      Map.of(MediaType.json, json, MediaType.xml, xml);
+
+  private Context newContext(String accept) {
+    var ctx = mock(Context.class);
+    when(ctx.header(Context.ACCEPT))
+        .thenReturn(Value.create(new ValueFactory(), Context.ACCEPT, accept));
+    return ctx;
+  }
+
+  @Test
+  @DisplayName("Accept header is parsed once, de-duplicated and sorted")
+  void acceptTypes() {
+    var types = ContentNegotiation.acceptTypes("text/*, text/plain, */*;q=0.5, text/plain");
+    assertEquals("[text/plain, text/*, */*;q=0.5]", types.toString());
+    assertSame(types, ContentNegotiation.acceptTypes("text/*, text/plain, */*;q=0.5, text/plain"));
+
+    var multiple = ContentNegotiation.acceptTypes(List.of("*/*", "application/json"));
+    assertEquals("[application/json, */*]", multiple.toString());
+  }
+
+  @Test
+  @DisplayName("Pick produce type that matches the most specific accept type")
+  void accept() {
+    var produces = List.of(MediaType.json, MediaType.xml);
+    assertEquals(
+        MediaType.xml,
+        ContentNegotiation.accept(
+            ContentNegotiation.acceptTypes("application/json;q=0.5, application/xml"), produces));
+    assertEquals(
+        MediaType.json, ContentNegotiation.accept(ContentNegotiation.acceptTypes("*/*"), produces));
+    assertNull(ContentNegotiation.accept(ContentNegotiation.acceptTypes("text/html"), produces));
+  }
+
+  @Test
+  @DisplayName("Resolve encoder from negotiation table")
+  void encoder() {
+    var negotiation = new ContentNegotiation(List.of(MediaType.json, MediaType.xml), encoders);
+
+    assertSame(json, negotiation.encoder(newContext(null)));
+    assertSame(json, negotiation.encoder(newContext("*/*")));
+    assertSame(xml, negotiation.encoder(newContext("application/xml")));
+    // cached
+    assertSame(xml, negotiation.encoder(newContext("application/xml")));
+    assertSame(MessageEncoder.TO_STRING, negotiation.encoder(newContext("text/html")));
+
+    // produce type without encoder
+    var html = new ContentNegotiation(List.of(MediaType.html), encoders);
+    assertSame(MessageEncoder.TO_STRING, html.encoder(newContext("text/html")));
+  }
+
+  @Test
+  @DisplayName("Route encoder uses route produce types")
+  void forRoute() throws Exception {
+    var encoder = new HttpMessageEncoder().add(MediaType.json, json).add(MediaType.xml, xml);
+
+    var none = new Route("GET", "/", ctx -> "");
+    assertSame(encoder, encoder.forRoute(none));
+
+    var route = new Route("GET", "/", ctx -> "").produces(MediaType.xml);
+    var ctx = newContext("*/*");
+    encoder.forRoute(route).encode(ctx, new Object());
+    encoder.encode(ctx, new Object());
+
+    var order = inOrder(xml, json);
+    order.verify(xml).encode(eq(ctx), any(), eq(false));
+    order.verify(json).encode(eq(ctx), any(), eq(false));
+  }
+}
@@ -154,7 +154,7 @@ public class HeadContextTest {
 
     var output = mock(Output.class);
     Object value = new Object();
-    when(encoder.encode(head, value)).thenReturn(output);
+    when(encoder.encode(head, value, true)).thenReturn(output);
 
     head.render(value);
   }
@@ -0,0 +1,120 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.jooby.QueryString;
+import io.jooby.value.ValueFactory;
+
+public class LazyQueryStringValueTest {
+
+  private final ValueFactory factory = new ValueFactory();
+
+  private LazyQueryStringValue lazy(String queryString) {
+    return (LazyQueryStringValue) UrlParser.lazyQueryString(factory, queryString);
+  }
+
+  @Test
+  @DisplayName("Simple parameters are decoded on access without parsing the whole query")
+  public void simpleAccess() {
+    var query = lazy("q=jooby+web&page=2&sort=name&sort=-date&utm_source=x%20y&flag");
+
+    assertEquals(6, query.paramCount());
+    assertEquals("jooby web", query.get("q").value());
+    assertEquals(2, query.get("page").intValue());
+    assertEquals(List.of("name", "-date"), query.get("sort").toList());
+    assertEquals("", query.get("flag").value());
+    assertTrue(query.get("missing").isMissing());
+    assertEquals("10", query.getOrDefault("size", "10").value());
+    assertSame(query.get("q"), query.get("q"));
+    assertFalse(query.isParsed());
+    assertEquals(
+        "?q=jooby+web&page=2&sort=name&sort=-date&utm_source=x%20y&flag", query.queryString());
+
+    // Anything else decodes all the parameters
+    assertEquals(
+        Map.of(
+            "q", List.of("jooby web"),
+            "page", List.of("2"),
+            "sort", List.of("name", "-date"),
+            "utm_source", List.of("x y"),
+            "flag", List.of("")),
+        query.toMultimap());
+    assertTrue(query.isParsed());
+    assertEquals("jooby web", query.get("q").value());
+  }
+
+  @Test
+  @DisplayName("Nested parameters are decoded on demand")
+  public void nestedAccess() {
+    var query = lazy("q=foo&filter.name=bar&filter.tags[0]=a&filter.tags[1]=b");
+
+    assertEquals("foo", query.get("q").value());
+    assertFalse(query.isParsed());
+
+    assertEquals("bar", query.get("filter").get("name").value());
+    assertEquals(List.of("a", "b"), query.get("filter").get("tags").toList());
+    assertTrue(query.isParsed());
+
+    // encoded nested name
+    var encoded = lazy("filter%2Ename=bar");
+    assertEquals("bar", encoded.get("filter").get("name").value());
+  }
+
+  @Test
+  @DisplayName("Lazy and eager query strings are equivalent")
+  public void sameAsEager() {
+    for (var value :
+        List.of(
+            "a=1&b=2&a=3",
+            "=x&a==1&;b",
+            "a[]=1&a[]=2&[0]=z",
+            "user.name=edgar&user.address.city=lima&x=%E2%82%AC#fragment",
+            "?p=1&q")) {
+      QueryString eager = UrlParser.queryString(factory, value);
+      assertEquals(eager.toString(), lazy(value).toString(), value);
+      assertEquals(eager.toMultimap(), lazy(value).toMultimap(), value);
+      assertEquals(eager.get("a").toString(), lazy(value).get("a").toString(), value);
+    }
+  }
+
+  @Test
+  @DisplayName("Decoding errors are reported on access")
+  public void decodingErrors() {
+    var query = lazy("a=%2&b=1");
+    assertEquals("1", query.get("b").value());
+    assertThrows(IllegalArgumentException.class, () -> query.get("a"));
+  }
+
+  @Test
+  @DisplayName("Parameter limit applies to lazy query strings")
+  public void paramsLimit() {
+    var sb = new StringBuilder();
+    for (int i = 0; i < 1030; i++) {
+      sb.append("k").append(i).append("=v&");
+    }
+    var query = lazy(sb.toString());
+    assertEquals(1024, query.paramCount());
+    assertTrue(query.get("k1024").isMissing());
+    assertEquals(1024, query.toMap().size());
+  }
+
+  @Test
+  @DisplayName("Empty query string")
+  public void empty() {
+    assertEquals("", UrlParser.lazyQueryString(factory, null).queryString());
+    assertEquals(0, UrlParser.lazyQueryString(factory, "").size());
+    assertTrue(QueryString.create(factory, "a=1", true) instanceof LazyQueryStringValue);
+    assertFalse(QueryString.create(factory, "a=1", false) instanceof LazyQueryStringValue);
+  }
+}
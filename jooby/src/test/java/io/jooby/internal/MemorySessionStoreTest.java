@@ -0,0 +1,106 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.jooby.Context;
+import io.jooby.Session;
+import io.jooby.SessionToken;
+
+public class MemorySessionStoreTest {
+
+  private static class Store extends MemorySessionStore {
+    Store(SessionToken token, Duration timeout) {
+      super(token, timeout);
+    }
+
+    void save(String id, Instant lastAccessedTime) {
+      put(id, new Data(lastAccessedTime, lastAccessedTime, new HashMap<>(Map.of("id", id))));
+    }
+  }
+
+  @Test
+  @DisplayName("Verify expired sessions are swept by bucket and counted")
+  void testSweepExpired() {
+    var token = mock(SessionToken.class);
+    var ctx = mock(Context.class);
+    var store = new Store(token, Duration.ofMinutes(30));
+
+    var now = Instant.now();
+    for (int i = 0; i < 100; i++) {
+      store.save("old-" + i, now.minus(Duration.ofHours(1)));
+    }
+    store.save("live", now);
+    assertEquals(101, store.getSessionCount());
+
+    when(token.findToken(ctx)).thenReturn("live");
+    Session session = store.findSession(ctx);
+    assertNotNull(session);
+    assertEquals("live", session.toMap().get("id"));
+
+    assertEquals(1, store.getSessionCount());
+    assertEquals(100, store.getExpiredCount());
+  }
+
+  @Test
+  @DisplayName("Verify an expired session is never returned, even before sweep")
+  void testExpiredLookup() {
+    var token = mock(SessionToken.class);
+    var ctx = mock(Context.class);
+    var store = new Store(token, Duration.ofMinutes(30));
+
+    // first lookup sweeps for this tick
+    when(token.findToken(ctx)).thenReturn("missing");
+    assertNull(store.findSession(ctx));
+
+    store.save("old", Instant.now().minus(Duration.ofHours(1)));
+    when(token.findToken(ctx)).thenReturn("old");
+    assertNull(store.findSession(ctx));
+    assertEquals(0, store.getSessionCount());
+    assertEquals(1, store.getExpiredCount());
+  }
+
+  @Test
+  @DisplayName("Verify sessions never expire without timeout")
+  void testNoTimeout() {
+    var token = mock(SessionToken.class);
+    var ctx = mock(Context.class);
+    var store = new Store(token, null);
+    store.save("old", Instant.now().minus(Duration.ofDays(10)));
+
+    when(token.findToken(ctx)).thenReturn("old");
+    assertNotNull(store.findSession(ctx));
+    assertEquals(0, store.getExpiredCount());
+  }
+
+  @Test
+  @DisplayName("Verify moving a session to a new bucket keeps it alive")
+  void testResave() {
+    var token = mock(SessionToken.class);
+    var ctx = mock(Context.class);
+    var store = new Store(token, Duration.ofMinutes(30));
+    store.save("sid", Instant.now().minus(Duration.ofHours(1)));
+    store.save("sid", Instant.now());
+
+    when(token.findToken(ctx)).thenReturn("sid");
+    assertNotNull(store.findSession(ctx));
+    assertEquals(1, store.getSessionCount());
+    assertEquals(0, store.getExpiredCount());
+  }
+}
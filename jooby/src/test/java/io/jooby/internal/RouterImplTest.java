@@ -17,6 +17,8 @@ import org.junit.jupiter.api.Test;
 
 import io.jooby.*;
 import io.jooby.exception.StatusCodeException;
+import io.jooby.value.Value;
+import io.jooby.value.ValueFactory;
 
 public class RouterImplTest {
 
@@ -111,6 +113,42 @@ public class RouterImplTest {
     assertFalse(router.match(ctxDomainMiss).matches());
   }
 
+  @Test
+  @DisplayName("Domain mounts are indexed by host and keep mount order with predicates")
+  public void testDomainIndex() {
+    RouterImpl router = new RouterImpl();
+
+    router.domain("foo.com", () -> router.get("/a", ctx -> "foo"));
+    router.mount(ctx -> ctx.header("X-Beta").isPresent(), () -> router.get("/b", ctx -> "beta"));
+    router.domain("foo.com", () -> router.get("/b", ctx -> "foo"));
+    router.domain("bar.com", () -> router.get("/b", ctx -> "bar"));
+
+    // predicate mounted before the domain wins
+    var beta = host("foo.com", "/b");
+    when(beta.header("X-Beta")).thenReturn(Value.value(new ValueFactory(), "X-Beta", "1"));
+    assertEquals("/b", router.match(beta).route().getPattern());
+    verify(beta).header("X-Beta");
+
+    // same domain mounted twice
+    assertTrue(router.match(host("foo.com", "/a")).matches());
+    var foo = host("foo.com", "/b");
+    when(foo.header("X-Beta")).thenReturn(Value.missing(new ValueFactory(), "X-Beta"));
+    assertTrue(router.match(foo).matches());
+
+    // other domains are never tested
+    var bar = host("bar.com", "/a");
+    when(bar.header("X-Beta")).thenReturn(Value.missing(new ValueFactory(), "X-Beta"));
+    assertFalse(router.match(bar).matches());
+  }
+
+  private Context host(String host, String path) {
+    Context ctx = mock(Context.class);
+    when(ctx.getHost()).thenReturn(host);
+    when(ctx.getMethod()).thenReturn(Router.GET);
+    when(ctx.getRequestPath()).thenReturn(path);
+    return ctx;
+  }
+
   @Test
   @DisplayName("Test Sub-router mounting, route copying, and error handler merging")
   public void testMountSubRouter() {
@@ -0,0 +1,115 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.jooby.ServerSentEmitter;
+
+class ServerSentHeartbeatTest {
+
+  private ServerSentHeartbeat heartbeat;
+
+  @BeforeEach
+  void setup() {
+    heartbeat = new ServerSentHeartbeat(100, 8);
+  }
+
+  @Test
+  @DisplayName("Wheel size must be a power of two")
+  void wheelSize() {
+    assertThrows(IllegalArgumentException.class, () -> new ServerSentHeartbeat(100, 10));
+  }
+
+  @Test
+  @DisplayName("Keep-alive comment is sent every period")
+  void beatEveryPeriod() {
+    var emitter = emitter("sse-1");
+    heartbeat.register(emitter, 300);
+
+    tick(2);
+    verify(emitter, never()).send(anyString());
+    tick(2);
+    verify(emitter, times(1)).send(":sse-1\n");
+    tick(3);
+    verify(emitter, times(2)).send(":sse-1\n");
+  }
+
+  @Test
+  @DisplayName("Periods longer than the wheel take multiple rounds")
+  void multipleRounds() {
+    var emitter = emitter("sse-1");
+    heartbeat.register(emitter, 2000);
+
+    tick(20);
+    verify(emitter, never()).send(anyString());
+    tick(1);
+    verify(emitter).send(":sse-1\n");
+  }
+
+  @Test
+  @DisplayName("Registering again changes the period, without adding a new timer")
+  void reRegister() {
+    var emitter = emitter("sse-1");
+    heartbeat.register(emitter, 100);
+    heartbeat.register(emitter, 200);
+    assertEquals(1, heartbeat.size());
+
+    tick(3);
+    verify(emitter, times(1)).send(anyString());
+    tick(2);
+    verify(emitter, times(2)).send(anyString());
+  }
+
+  @Test
+  @DisplayName("Closed emitters are removed")
+  void closed() {
+    var emitter = emitter("sse-1");
+    heartbeat.register(emitter, 100);
+    when(emitter.isOpen()).thenReturn(false);
+
+    tick(2);
+    verify(emitter, never()).send(anyString());
+    assertEquals(0, heartbeat.size());
+  }
+
+  @Test
+  @DisplayName("Failed keep-alive closes the emitter")
+  void failure() {
+    var emitter = emitter("sse-1");
+    doThrow(new IllegalStateException("Connection lost")).when(emitter).send(anyString());
+    heartbeat.register(emitter, 100);
+
+    tick(2);
+    verify(emitter).close();
+    assertEquals(0, heartbeat.size());
+  }
+
+  private void tick(int count) {
+    for (int i = 0; i < count; i++) {
+      heartbeat.tick();
+    }
+  }
+
+  private static ServerSentEmitter emitter(String id) {
+    var emitter = mock(ServerSentEmitter.class);
+    when(emitter.isOpen()).thenReturn(true);
+    when(emitter.getId()).thenReturn(id);
+    return emitter;
+  }
+}
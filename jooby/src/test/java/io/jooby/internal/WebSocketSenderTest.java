@@ -5,12 +5,15 @@
  */
 package io.jooby.internal;
 
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Date;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -133,4 +136,60 @@ public class WebSocketSenderTest {
     // Verify that render eventually called ws.sendBinary because binary was true
     verify(ws).sendBinary(output, callback);
   }
+
+  @Test
+  void testRenderNeverStreams() throws Exception {
+    WebSocketSender sender = new WebSocketSender(ctx, ws, false, callback);
+
+    Route route = mock(Route.class);
+    var output = mock(Output.class);
+    when(ctx.getRoute()).thenReturn(route);
+    // like JSON encoders: stream into the response while rendering the route response
+    when(route.getEncoder())
+        .thenReturn(
+            new MessageEncoder() {
+              @Override
+              public Output encode(Context context, Object value) {
+                return output;
+              }
+
+              @Override
+              public Output encode(Context context, Object value, boolean render) {
+                return render ? null : output;
+              }
+            });
+
+    sender.render(Stream.of("a", "b"));
+
+    verify(ws).send(output, callback);
+    verify(ctx, never()).responseStream();
+  }
+
+  @Test
+  void testEncode() throws Exception {
+    Route route = mock(Route.class);
+    MessageEncoder encoder = mock(MessageEncoder.class);
+    var output = mock(Output.class);
+
+    when(ctx.getRoute()).thenReturn(route);
+    when(route.getEncoder()).thenReturn(encoder);
+    when(encoder.encode(any(), eq("encode-me"))).thenReturn(output);
+
+    assertSame(output, WebSocketSender.encode(ctx, ws, "encode-me"));
+
+    // Nothing was sent
+    verifyNoInteractions(ws);
+  }
+
+  @Test
+  void testEncodeNothing() throws Exception {
+    Route route = mock(Route.class);
+    MessageEncoder encoder = mock(MessageEncoder.class);
+
+    when(ctx.getRoute()).thenReturn(route);
+    when(ctx.isResponseStarted()).thenReturn(true);
+    when(route.getEncoder()).thenReturn(encoder);
+
+    assertThrows(IllegalStateException.class, () -> WebSocketSender.encode(ctx, ws, "value"));
+  }
 }
@@ -0,0 +1,82 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.output;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BufferPoolTest {
+
+  @Test
+  @DisplayName("Verify capacity is rounded up to a size class")
+  void testSizeClasses() {
+    var pool = new BufferPool(false, 1, 64 * 1024);
+    assertEquals(BufferPool.MIN_SIZE, pool.acquire(1).capacity());
+    assertEquals(1024, pool.acquire(513).capacity());
+    assertEquals(16384, pool.acquire(16364).capacity());
+    assertFalse(pool.acquire(1).isDirect());
+    assertTrue(new BufferPool(true, 1, 1024).acquire(1).isDirect());
+  }
+
+  @Test
+  @DisplayName("Verify released buffers are recycled")
+  void testRecycle() {
+    var pool = new BufferPool(false, 2, 64 * 1024);
+    var buffer = pool.acquire(4096);
+    buffer.put((byte) 1);
+    pool.release(buffer);
+
+    var recycled = pool.acquire(4000);
+    assertSame(buffer, recycled);
+    assertEquals(0, recycled.position());
+    assertEquals(recycled.capacity(), recycled.limit());
+  }
+
+  @Test
+  @DisplayName("Verify virtual threads go through the shared arenas")
+  void testVirtualThreads() throws Exception {
+    var pool = new BufferPool(false, 1, 64 * 1024);
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var buffer = executor.submit(() -> pool.acquire(1024)).get();
+      executor.submit(() -> pool.release(buffer)).get();
+      assertSame(buffer, executor.submit(() -> pool.acquire(1024)).get());
+    }
+  }
+
+  @Test
+  @DisplayName("Verify large and foreign buffers are never cached")
+  void testNotCached() {
+    var pool = new BufferPool(false, 1, 1024);
+    var large = pool.acquire(5000);
+    assertEquals(5000, large.capacity());
+    pool.release(large);
+    assertNotSame(large, pool.acquire(5000));
+
+    var direct = ByteBuffer.allocateDirect(1024);
+    pool.release(direct);
+    assertNotSame(direct, pool.acquire(1024));
+
+    var odd = ByteBuffer.allocate(1000);
+    pool.release(odd);
+    assertNotSame(odd, pool.acquire(1000));
+  }
+
+  @Test
+  @DisplayName("Verify arenas must be positive")
+  void testInvalidArenas() {
+    assertThrows(IllegalArgumentException.class, () -> new BufferPool(false, 0, 1024));
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.output;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.jooby.Context;
+import io.jooby.Route;
+
+public class PooledOutputFactoryTest {
+
+  @Test
+  @DisplayName("Verify OutputFactory.create picks the pooled factory when enabled")
+  void testCreate() {
+    assertInstanceOf(
+        PooledOutputFactory.class, OutputFactory.create(new OutputOptions().setPooled(true)));
+    assertFalse(
+        OutputFactory.create(new OutputOptions()) instanceof PooledOutputFactory,
+        "Pooling is off by default");
+  }
+
+  @Test
+  @DisplayName("Verify context factory allocates from the pool")
+  void testContextFactory() {
+    var factory = new PooledOutputFactory(new OutputOptions().setPooled(true));
+    var output = factory.getContextFactory().allocate(false, 100);
+    assertEquals("PooledOutput", output.getClass().getSimpleName());
+  }
+
+  @Test
+  @DisplayName("Verify writes grow across size classes and keep content")
+  void testWrites() {
+    var factory = new PooledOutputFactory(new OutputOptions().setPooled(true));
+    var output = factory.allocate(false, 16);
+    var payload = new byte[2000];
+    for (int i = 0; i < payload.length; i++) {
+      payload[i] = (byte) i;
+    }
+    output.write((byte) 7);
+    output.write(payload);
+    output.write(ByteBuffer.wrap(new byte[] {1, 2, 3}));
+
+    assertEquals(2004, output.size());
+    var buffer = output.asByteBuffer();
+    assertEquals(7, buffer.get(0));
+    assertEquals(payload[1999], buffer.get(2000));
+    assertEquals(3, buffer.get(2003));
+
+    output.clear();
+    assertEquals(0, output.size());
+  }
+
+  @Test
+  @DisplayName("Verify buffer is recycled when the response completes")
+  void testRecycleOnComplete() throws Exception {
+    var factory = new PooledOutputFactory(new OutputOptions().setPooled(true));
+    var output = factory.allocate(true, 1024);
+    output.write("Hello");
+
+    Context ctx = mock(Context.class);
+    output.send(ctx);
+
+    var sent = ArgumentCaptor.forClass(ByteBuffer.class);
+    verify(ctx).send(sent.capture());
+    assertEquals(5, sent.getValue().remaining());
+    assertTrue(sent.getValue().isDirect());
+
+    var onComplete = ArgumentCaptor.forClass(Route.Complete.class);
+    verify(ctx).onComplete(onComplete.capture());
+    onComplete.getValue().apply(ctx);
+
+    // released, but still usable
+    assertEquals(0, output.size());
+    output.write("World");
+    assertEquals(5, output.size());
+  }
+
+  @Test
+  @DisplayName("Verify output can't be sent or written again while the response is in progress")
+  void testSendOnce() throws Exception {
+    var factory = new PooledOutputFactory(new OutputOptions().setPooled(true));
+    var output = factory.allocate(false, 1024);
+    output.write("Hello");
+
+    Context ctx = mock(Context.class);
+    output.send(ctx);
+
+    assertThrows(IllegalStateException.class, () -> output.send(ctx));
+    assertThrows(IllegalStateException.class, () -> output.write("World"));
+    assertThrows(IllegalStateException.class, output::clear);
+
+    var onComplete = ArgumentCaptor.forClass(Route.Complete.class);
+    verify(ctx).onComplete(onComplete.capture());
+    onComplete.getValue().apply(ctx);
+
+    output.write("World");
+    assertEquals(5, output.size());
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.value;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ReflectiveBeanConverterTest {
+
+  public static class Bean {
+    private final String name;
+    private int age;
+    private List<String> tags;
+    private Optional<Integer> level = Optional.empty();
+    private String alias;
+
+    public Bean(String name) {
+      this.name = name;
+    }
+
+    public void setAge(int age) {
+      this.age = age;
+    }
+
+    public void tags(List<String> tags) {
+      this.tags = tags;
+    }
+
+    public void setLevel(Optional<Integer> level) {
+      this.level = level;
+    }
+
+    // set prefixed method wins over the plain one
+    public void alias(String alias) {
+      this.alias = "plain:" + alias;
+    }
+
+    public void setAlias(String alias) {
+      this.alias = alias;
+    }
+
+    // static setter like method: doesn't break the plan, fails only if a value is bound to it
+    public static Bean of(String name) {
+      return new Bean(name);
+    }
+  }
+
+  public record Point(int x, int y) {}
+
+  @Test
+  @DisplayName("Verify constructor, setters and setter like methods")
+  void testBind() {
+    var factory = new ValueFactory(MethodHandles.lookup());
+    var converter = new ReflectiveBeanConverter(factory, MethodHandles.lookup());
+    for (int i = 0; i < 3; i++) {
+      // same plan, reused across calls
+      var bean =
+          (Bean)
+              converter.convert(
+                  Bean.class,
+                  hash(
+                      factory,
+                      Map.of(
+                          "name", List.of("jooby"),
+                          "age", List.of("" + i),
+                          "tags", List.of("a", "b"),
+                          "level", List.of("3"),
+                          "alias", List.of("j"),
+                          "unknown", List.of("x"))),
+                  ConversionHint.Strict);
+      assertEquals("jooby", bean.name);
+      assertEquals(i, bean.age);
+      assertEquals(List.of("a", "b"), bean.tags);
+      assertEquals(Optional.of(3), bean.level);
+      assertEquals("j", bean.alias);
+    }
+  }
+
+  @Test
+  @DisplayName("Verify records and missing values")
+  void testRecord() {
+    var factory = new ValueFactory(MethodHandles.lookup());
+    var converter = new ReflectiveBeanConverter(factory, MethodHandles.lookup());
+    var point =
+        (Point)
+            converter.convert(
+                Point.class,
+                hash(factory, Map.of("x", List.of("1"), "y", List.of("2"))),
+                ConversionHint.Strict);
+    assertEquals(new Point(1, 2), point);
+
+    assertNull(converter.convert(Bean.class, hash(factory, Map.of()), ConversionHint.Nullable));
+  }
+
+  private static Value hash(ValueFactory factory, Map<String, List<String>> map) {
+    return Value.hash(factory, new LinkedHashMap<String, Collection<String>>(map));
+  }
+}
@@ -0,0 +1,558 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.apt;
+
+import static io.jooby.internal.apt.AnnotationSupport.NON_NULL;
+import static io.jooby.internal.apt.AnnotationSupport.NULLABLE;
+import static io.jooby.internal.apt.AnnotationSupport.findAnnotationByName;
+import static io.jooby.internal.apt.AnnotationSupport.findAnnotationValue;
+import static io.jooby.internal.apt.CodeBlock.indent;
+import static io.jooby.internal.apt.CodeBlock.statement;
+import static io.jooby.internal.apt.CodeBlock.string;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+
+/**
+ * Generates a reflection free <code>io.jooby.value.Converter</code> for a bean bound from query or
+ * form parameters. Generated code follows the same rules as <code>ReflectiveBeanConverter</code>:
+ * constructor selection, nullability, setter like methods and empty bean detection.
+ *
+ * <p>Types that don't fit into what can be generated at compile time are ignored, so they keep
+ * using the reflective converter at runtime.
+ */
+public class BeanConverter {
+  private enum Kind {
+    SET,
+    COLLECTION,
+    OPTIONAL,
+    NULLABLE,
+    REQUIRED
+  }
+
+  /**
+   * Constructor or setter parameter.
+   *
+   * @param name Value name.
+   * @param kind Conversion kind.
+   * @param type Declared type, used for local variables.
+   * @param element Type to convert to: element type for collections and optional.
+   * @param description Parameter description used on error messages.
+   */
+  private record Param(String name, Kind kind, String type, String element, String description) {}
+
+  /**
+   * Setter like method.
+   *
+   * @param method Method name.
+   * @param names Value names bound to this method.
+   * @param param Method parameter.
+   */
+  private record Setter(String method, List<String> names, Param param) {}
+
+  private static final String INJECT = "jakarta.inject.Inject";
+
+  private static final String NAMED = "jakarta.inject.Named";
+
+  private static final String STRING = "java.lang.String";
+
+  private static final String FILE_UPLOAD = "io.jooby.FileUpload";
+
+  private final String typeName;
+  private final String className;
+  private final List<Param> parameters;
+  private final List<Setter> setters;
+
+  private BeanConverter(
+      String typeName, String className, List<Param> parameters, List<Setter> setters) {
+    this.typeName = typeName;
+    this.className = className;
+    this.parameters = parameters;
+    this.setters = setters;
+  }
+
+  /**
+   * Bean type name.
+   *
+   * @return Bean type name.
+   */
+  public String getTypeName() {
+    return typeName;
+  }
+
+  /**
+   * Name of the generated converter class. It is a nested class of the generated router.
+   *
+   * @return Name of the generated converter class.
+   */
+  public String getClassName() {
+    return className;
+  }
+
+  /**
+   * Creates a bean converter when the given type can be bound from generated code.
+   *
+   * @param context Mvc context.
+   * @param type Bean type.
+   * @param className Name of the generated converter class.
+   * @return Bean converter or empty for unsupported types.
+   */
+  public static Optional<BeanConverter> create(
+      MvcContext context, TypeMirror type, String className) {
+    if (type.getKind() != TypeKind.DECLARED) {
+      return Optional.empty();
+    }
+    var typeUtils = context.getProcessingEnvironment().getTypeUtils();
+    var declaredType = (DeclaredType) type;
+    var element = (TypeElement) declaredType.asElement();
+    if (!isBindable(element) || hasValueOf(element)) {
+      return Optional.empty();
+    }
+    var constructor = selectConstructor(element);
+    if (constructor == null || !constructor.getThrownTypes().isEmpty()) {
+      return Optional.empty();
+    }
+    var constructorName = describe(context, "constructor", element, constructor);
+    var parameters = new ArrayList<Param>();
+    for (var parameter : constructor.getParameters()) {
+      var param = param(context, parameterName(parameter), parameter, constructorName);
+      if (param == null) {
+        return Optional.empty();
+      }
+      parameters.add(param);
+    }
+    var bound = parameters.stream().map(Param::name).collect(Collectors.toSet());
+    var setters = new ArrayList<Setter>();
+    for (var entry : setterMethods(context, element).entrySet()) {
+      var method = entry.getKey();
+      var names = entry.getValue().stream().filter(it -> !bound.contains(it)).toList();
+      if (!names.isEmpty()) {
+        if (!method.getThrownTypes().isEmpty()) {
+          return Optional.empty();
+        }
+        var methodName = describe(context, "method", element, method);
+        var methodType = (ExecutableType) typeUtils.asMemberOf(declaredType, method);
+        var param =
+            param(
+                context,
+                names.get(0),
+                method.getParameters().get(0),
+                methodType.getParameterTypes().get(0),
+                methodName);
+        if (param == null) {
+          return Optional.empty();
+        }
+        setters.add(new Setter(method.getSimpleName().toString(), names, param));
+      }
+    }
+    return Optional.of(
+        new BeanConverter(
+            typeUtils.erasure(type).toString(), className, List.copyOf(parameters), setters));
+  }
+
+  /**
+   * Generates converter class.
+   *
+   * @return Source code lines.
+   */
+  public List<String> toSourceCode() {
+    var buffer = new ArrayList<String>();
+    buffer.add(
+        statement(
+            "private static final class ",
+            className,
+            " implements io.jooby.value.Converter {"));
+    buffer.add(statement(indent(2), "@Override"));
+    buffer.add(statement(indent(2), "public Object convert("));
+    buffer.add(
+        statement(
+            indent(6),
+            "java.lang.reflect.Type type,",
+            " io.jooby.value.Value value,",
+            " io.jooby.value.ConversionHint hint) {"));
+    buffer.add(statement(indent(4), "var present = false;"));
+    for (int i = 0; i < parameters.size(); i++) {
+      var param = parameters.get(i);
+      var node = "v" + i;
+      var arg = "a" + i;
+      buffer.add(statement(indent(4), "var ", node, " = value.get(", string(param.name), ");"));
+      buffer.add(statement(indent(4), param.type, " ", arg, ";"));
+      buffer.add(statement(indent(4), "try {"));
+      buffer.add(statement(indent(6), arg, " = ", convert(param, node), ";"));
+      buffer.add(statement(indent(4), "} catch (io.jooby.exception.BadRequestException x) {"));
+      buffer.add(provisioning(6, param));
+      buffer.add(statement(indent(4), "}"));
+      if (isPrimitive(param.type)) {
+        buffer.add(statement(indent(4), "present |= !", node, ".isMissing();"));
+      } else {
+        buffer.add(
+            statement(indent(4), "present |= ", arg, " != null && !", node, ".isMissing();"));
+      }
+    }
+    if (!setters.isEmpty()) {
+      for (int i = 0; i < setters.size(); i++) {
+        var param = setters.get(i).param;
+        buffer.add(statement(indent(4), boxed(param.type), " s", i + " = null;"));
+        buffer.add(statement(indent(4), "var has", i + " = false;"));
+      }
+      buffer.add(statement(indent(4), "for (var item : value) {"));
+      buffer.add(statement(indent(6), "switch (item.name()) {"));
+      for (int i = 0; i < setters.size(); i++) {
+        var setter = setters.get(i);
+        var cases = setter.names.stream().map(CodeBlock::string).collect(Collectors.joining(", "));
+        buffer.add(statement(indent(8), "case ", cases, " -> {"));
+        buffer.add(statement(indent(10), "try {"));
+        buffer.add(statement(indent(12), "s", i + " = ", convert(setter.param, "item"), ";"));
+        // nested bean failed already, keep its message
+        buffer.add(
+            statement(indent(10), "} catch (io.jooby.exception.ProvisioningException x) {"));
+        buffer.add(statement(indent(12), "throw x;"));
+        buffer.add(statement(indent(10), "} catch (Exception x) {"));
+        buffer.add(provisioning(12, setter.param));
+        buffer.add(statement(indent(10), "}"));
+        buffer.add(statement(indent(10), "has", i + " = true;"));
+        buffer.add(statement(indent(10), "present = true;"));
+        buffer.add(statement(indent(8), "}"));
+      }
+      buffer.add(statement(indent(8), "default -> {}"));
+      buffer.add(statement(indent(6), "}"));
+      buffer.add(statement(indent(4), "}"));
+    }
+    buffer.add(
+        statement(
+            indent(4), "if (!present && hint != io.jooby.value.ConversionHint.Empty) {"));
+    buffer.add(statement(indent(6), "return null;"));
+    buffer.add(statement(indent(4), "}"));
+    var args =
+        Stream.iterate(0, i -> i < parameters.size(), i -> i + 1)
+            .map(i -> "a" + i)
+            .collect(Collectors.joining(", "));
+    buffer.add(statement(indent(4), "var bean = new ", typeName, "(", args, ");"));
+    for (int i = 0; i < setters.size(); i++) {
+      buffer.add(statement(indent(4), "if (has", i + ") {"));
+      buffer.add(statement(indent(6), "bean.", setters.get(i).method, "(s", i + ");"));
+      buffer.add(statement(indent(4), "}"));
+    }
+    buffer.add(statement(indent(4), "return bean;"));
+    buffer.add(statement(indent(2), "}"));
+    buffer.add(statement("}", System.lineSeparator()));
+    return buffer;
+  }
+
+  private static boolean isBindable(TypeElement element) {
+    var kind = element.getKind();
+    if ((kind != ElementKind.CLASS && kind != ElementKind.RECORD)
+        || element.getModifiers().contains(Modifier.ABSTRACT)
+        || !element.getTypeParameters().isEmpty()) {
+      return false;
+    }
+    // Generated router must be able to create it
+    Element it = element;
+    while (it instanceof TypeElement type) {
+      var owner = type.getEnclosingElement();
+      if (!type.getModifiers().contains(Modifier.PUBLIC)
+          || (owner instanceof TypeElement && !type.getModifiers().contains(Modifier.STATIC))) {
+        return false;
+      }
+      it = owner;
+    }
+    return true;
+  }
+
+  /**
+   * Types with a <code>valueOf(String)</code> or <code>constructor(String)</code> are converted by
+   * <code>ValueFactory</code> from single values. A registered converter takes precedence over
+   * them, so we don't generate one.
+   */
+  private static boolean hasValueOf(TypeElement element) {
+    return element.getEnclosedElements().stream()
+        .filter(it -> it.getModifiers().contains(Modifier.PUBLIC))
+        .filter(ExecutableElement.class::isInstance)
+        .map(ExecutableElement.class::cast)
+        .filter(it -> it.getParameters().size() == 1)
+        .filter(it -> it.getParameters().get(0).asType().toString().equals(STRING))
+        .anyMatch(
+            it ->
+                it.getKind() == ElementKind.CONSTRUCTOR
+                    || (it.getModifiers().contains(Modifier.STATIC)
+                        && it.getSimpleName().contentEquals("valueOf")));
+  }
+
+  private static ExecutableElement selectConstructor(TypeElement element) {
+    var constructors =
+        element.getEnclosedElements().stream()
+            .filter(it -> it.getKind() == ElementKind.CONSTRUCTOR)
+            .filter(it -> it.getModifiers().contains(Modifier.PUBLIC))
+            .map(ExecutableElement.class::cast)
+            .toList();
+    if (constructors.size() == 1) {
+      return constructors.get(0);
+    }
+    ExecutableElement injectConstructor = null;
+    ExecutableElement defaultConstructor = null;
+    for (var constructor : constructors) {
+      if (findAnnotationByName(constructor, INJECT) != null) {
+        if (injectConstructor != null) {
+          // Ambiguous, let reflective converter report it
+          return null;
+        }
+        injectConstructor = constructor;
+      } else if (constructor.getParameters().isEmpty()) {
+        defaultConstructor = constructor;
+      }
+    }
+    return injectConstructor == null ? defaultConstructor : injectConstructor;
+  }
+
+  private static String parameterName(VariableElement parameter) {
+    var named =
+        findAnnotationValue(findAnnotationByName(parameter, NAMED), AnnotationSupport.VALUE);
+    return named.isEmpty() || named.get(0).isEmpty()
+        ? parameter.getSimpleName().toString()
+        : named.get(0);
+  }
+
+  /**
+   * Index setter like methods by property name. Property <code>name</code> matches a single
+   * argument method named <code>setName</code> or <code>name</code>, <code>set</code> prefixed
+   * methods win.
+   */
+  private static Map<ExecutableElement, List<String>> setterMethods(
+      MvcContext context, TypeElement element) {
+    var elements = context.getProcessingEnvironment().getElementUtils();
+    var objectMethods =
+        ElementFilter.methodsIn(
+            elements.getTypeElement(Object.class.getName()).getEnclosedElements());
+    var methods = new LinkedHashMap<String, ExecutableElement>();
+    for (var method : ElementFilter.methodsIn(elements.getAllMembers(element))) {
+      if (method.getModifiers().contains(Modifier.PUBLIC)
+          && !method.getModifiers().contains(Modifier.STATIC)
+          && method.getParameters().size() == 1
+          && method.getTypeParameters().isEmpty()) {
+        // equals(Object) and friends
+        var objectMethod =
+            objectMethods.stream()
+                .anyMatch(it -> it.equals(method) || elements.overrides(method, it, element));
+        if (!objectMethod) {
+          var methodName = method.getSimpleName().toString();
+          addSetter(methods, methodName, method);
+          if (methodName.length() > 3 && methodName.startsWith("set")) {
+            var property = methodName.substring(3);
+            var decapitalized = Character.toLowerCase(property.charAt(0)) + property.substring(1);
+            for (var name : List.of(property, decapitalized)) {
+              if (setterName(name).equals(methodName)) {
+                addSetter(methods, name, method);
+              }
+            }
+          }
+        }
+      }
+    }
+    var result = new LinkedHashMap<ExecutableElement, List<String>>();
+    methods.forEach(
+        (name, method) -> result.computeIfAbsent(method, key -> new ArrayList<>()).add(name));
+    return result;
+  }
+
+  private static void addSetter(
+      Map<String, ExecutableElement> methods, String name, ExecutableElement method) {
+    if (method.getSimpleName().toString().startsWith("set")) {
+      // set prefixed methods always win
+      methods.put(name, method);
+    } else {
+      methods.putIfAbsent(name, method);
+    }
+  }
+
+  private static String setterName(String name) {
+    return "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+  }
+
+  private static Param param(
+      MvcContext context, String name, VariableElement parameter, String executable) {
+    return param(context, name, parameter, parameter.asType(), executable);
+  }
+
+  /**
+   * Resolve how a parameter is converted.
+   *
+   * @return Parameter or <code>null</code> when type isn't supported.
+   */
+  private static Param param(
+      MvcContext context,
+      String name,
+      VariableElement parameter,
+      TypeMirror type,
+      String executable) {
+    var typeUtils = context.getProcessingEnvironment().getTypeUtils();
+    var description =
+        "Unable to provision parameter: '"
+            + parameter.getSimpleName()
+            + ": "
+            + typeName(context, type)
+            + "', require by: "
+            + executable;
+    if (type.getKind().isPrimitive()) {
+      var primitive = type.getKind().name().toLowerCase();
+      var kind = isNullable(parameter, false) ? Kind.NULLABLE : Kind.REQUIRED;
+      return new Param(name, kind, primitive, primitive, description);
+    }
+    if (type.getKind() != TypeKind.DECLARED) {
+      return null;
+    }
+    var rawType = typeUtils.erasure(type).toString();
+    var arguments = ((DeclaredType) type).getTypeArguments();
+    var container =
+        switch (rawType) {
+          case "java.util.Set" -> Kind.SET;
+          case "java.util.List", "java.util.Collection" -> Kind.COLLECTION;
+          case "java.util.Optional" -> Kind.OPTIONAL;
+          default -> null;
+        };
+    if (container != null) {
+      if (arguments.size() != 1 || !isSimpleType(arguments.get(0))) {
+        return null;
+      }
+      var element = typeUtils.erasure(arguments.get(0)).toString();
+      if (element.equals(FILE_UPLOAD)) {
+        return null;
+      }
+      var local =
+          switch (container) {
+            case SET -> "java.util.Set";
+            case COLLECTION -> "java.util.List";
+            default -> "java.util.Optional";
+          };
+      return new Param(name, container, local + "<" + element + ">", element, description);
+    }
+    if (!arguments.isEmpty() || rawType.equals(FILE_UPLOAD) || isContainer(context, type)) {
+      return null;
+    }
+    var kind = isNullable(parameter, true) ? Kind.NULLABLE : Kind.REQUIRED;
+    return new Param(name, kind, rawType, rawType, description);
+  }
+
+  private static boolean isSimpleType(TypeMirror type) {
+    return type.getKind() == TypeKind.DECLARED
+        && ((DeclaredType) type).getTypeArguments().isEmpty();
+  }
+
+  private static boolean isContainer(MvcContext context, TypeMirror type) {
+    var environment = context.getProcessingEnvironment();
+    var typeUtils = environment.getTypeUtils();
+    var rawType = typeUtils.erasure(type);
+    return Stream.of(Collection.class, Optional.class)
+        .map(it -> environment.getElementUtils().getTypeElement(it.getName()))
+        .filter(Objects::nonNull)
+        .anyMatch(it -> typeUtils.isAssignable(rawType, typeUtils.erasure(it.asType())));
+  }
+
+  private static boolean isNullable(VariableElement parameter, boolean defaultValue) {
+    var annotations =
+        Stream.of(parameter.getAnnotationMirrors(), parameter.asType().getAnnotationMirrors())
+            .flatMap(List::stream)
+            .map(it -> it.getAnnotationType().toString())
+            .toList();
+    if (annotations.stream().anyMatch(NULLABLE)) {
+      return true;
+    }
+    if (annotations.stream().anyMatch(NON_NULL)) {
+      return false;
+    }
+    return defaultValue;
+  }
+
+  private static String describe(
+      MvcContext context, String kind, TypeElement owner, ExecutableElement executable) {
+    var buffer = new StringBuilder(kind).append(" ");
+    if (executable.getKind() == ElementKind.CONSTRUCTOR) {
+      buffer.append(owner.getQualifiedName());
+    } else {
+      buffer
+          .append(((TypeElement) executable.getEnclosingElement()).getQualifiedName())
+          .append(".")
+          .append(executable.getSimpleName());
+    }
+    return buffer
+        .append(
+            executable.getParameters().stream()
+                .map(it -> typeName(context, it.asType()))
+                .collect(Collectors.joining(", ", "(", ")")))
+        .toString();
+  }
+
+  private static String typeName(MvcContext context, TypeMirror type) {
+    if (type.getKind().isPrimitive()) {
+      return type.getKind().name().toLowerCase();
+    }
+    if (type instanceof DeclaredType declaredType) {
+      var rawType = context.getProcessingEnvironment().getTypeUtils().erasure(type).toString();
+      var arguments = declaredType.getTypeArguments();
+      return arguments.isEmpty()
+          ? rawType
+          : arguments.stream()
+              .map(it -> typeName(context, it))
+              .collect(Collectors.joining(", ", rawType + "<", ">"));
+    }
+    return type.toString();
+  }
+
+  private static String provisioning(int indent, Param param) {
+    return statement(
+        indent(indent),
+        "throw new io.jooby.exception.ProvisioningException(",
+        string(param.description),
+        ", x);");
+  }
+
+  private static String convert(Param param, String node) {
+    var type = param.element + ".class";
+    return switch (param.kind) {
+      case SET -> node + ".toSet(" + type + ")";
+      case COLLECTION -> node + ".toList(" + type + ")";
+      case OPTIONAL -> node + ".toOptional(" + type + ")";
+      // treat empty values as null
+      case NULLABLE ->
+          node
+              + ".isSingle() && ("
+              + node
+              + ".valueOrNull() == null || "
+              + node
+              + ".valueOrNull().isEmpty()) ? null : "
+              + node
+              + ".toNullable("
+              + type
+              + ")";
+      case REQUIRED -> node + ".to(" + type + ")";
+    };
+  }
+
+  private static boolean isPrimitive(String type) {
+    return !type.contains(".");
+  }
+
+  private static String boxed(String type) {
+    return switch (type) {
+      case "boolean" -> "Boolean";
+      case "byte" -> "Byte";
+      case "char" -> "Character";
+      case "short" -> "Short";
+      case "int" -> "Integer";
+      case "long" -> "Long";
+      case "float" -> "Float";
+      case "double" -> "Double";
+      default -> type;
+    };
+  }
+}
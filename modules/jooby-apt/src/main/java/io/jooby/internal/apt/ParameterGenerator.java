@@ -223,6 +223,10 @@ public enum ParameterGenerator {
                     return Map.entry(convertMethod, type);
                   });
       if (paramSource.isEmpty() && BUILT_IN.stream().noneMatch(it -> toValue.getValue().is(it))) {
+        if (!kt && (this == QueryParam || this == FormParam)) {
+          // reflection free binding, when possible
+          route.getRouter().addBeanConverter(toValue.getValue().getType());
+        }
         var useEmpty = this == QueryParam && toValue.getKey().equals("toNullable");
         String valueToBean;
         String toMethod = toValue.getKey();
@@ -8,6 +8,7 @@ package io.jooby.internal.apt;
 import static io.jooby.internal.apt.CodeBlock.*;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -105,6 +106,15 @@ public class RestRouter extends WebRouter<RestRoute> {
     var imports = buffer.toString();
     buffer.setLength(0);
 
+    // Handlers go first, they find out bean converters to install
+    var handlers = new StringBuilder();
+    var generatedHandlers = new java.util.HashSet<>();
+    getRoutes().stream()
+        .filter(it -> generatedHandlers.add(it.getGeneratedName()))
+        .flatMap(it -> it.generateHandlerCall(kt).stream())
+        .forEach(line -> handlers.append(CodeBlock.indent(4)).append(line));
+    var beanConverters = kt ? List.<BeanConverter>of() : getBeanConverters();
+
     if (kt) {
       buffer.append(indent(4)).append("@Throws(Exception::class)").append(System.lineSeparator());
       buffer
@@ -116,6 +126,20 @@ public class RestRouter extends WebRouter<RestRoute> {
           .append(indent(4))
           .append("public void install(io.jooby.Jooby app) throws Exception {")
           .append(System.lineSeparator());
+      for (var converter : beanConverters) {
+        var type = converter.getTypeName() + ".class";
+        buffer.append(
+            statement(indent(6), "if (app.getValueFactory().get(", type, ") == null) {"));
+        buffer.append(
+            statement(
+                indent(8),
+                "app.getValueFactory().put(",
+                type,
+                ", new ",
+                converter.getClassName(),
+                "());"));
+        buffer.append(statement(indent(6), "}"));
+      }
     }
 
     if (!suspended.isEmpty()) {
@@ -152,10 +176,9 @@ public class RestRouter extends WebRouter<RestRoute> {
         .append(System.lineSeparator())
         .append(System.lineSeparator());
 
-    var generatedHandlers = new java.util.HashSet<>();
-    getRoutes().stream()
-        .filter(it -> generatedHandlers.add(it.getGeneratedName()))
-        .flatMap(it -> it.generateHandlerCall(kt).stream())
+    buffer.append(handlers);
+    beanConverters.stream()
+        .flatMap(it -> it.toSourceCode().stream())
         .forEach(line -> buffer.append(CodeBlock.indent(4)).append(line));
 
     return template
@@ -21,6 +21,7 @@ import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
 
 public abstract class WebRouter<R extends WebRoute> {
   public static final String JAVA =
@@ -79,6 +80,7 @@ public abstract class WebRouter<R extends WebRoute> {
   protected final MvcContext context;
   protected final TypeElement clazz;
   protected final Map<String, R> routes = new LinkedHashMap<>();
+  private final Map<String, Optional<BeanConverter>> beanConverters = new LinkedHashMap<>();
 
   public WebRouter(MvcContext context, TypeElement clazz) {
     this.context = context;
@@ -124,6 +126,33 @@ public abstract class WebRouter<R extends WebRoute> {
     return pkgEnd > 0 ? classname.substring(0, pkgEnd) : "";
   }
 
+  /**
+   * Register a bean type bound from query or form parameters. A converter is generated for it when
+   * possible, see {@link BeanConverter}.
+   *
+   * @param type Bean type.
+   */
+  public void addBeanConverter(TypeMirror type) {
+    var typeName = context.getProcessingEnvironment().getTypeUtils().erasure(type).toString();
+    if (!beanConverters.containsKey(typeName)) {
+      var simpleName = typeName.substring(typeName.lastIndexOf('.') + 1);
+      var className = simpleName + "Converter";
+      var existing = beanConverters.values().stream().flatMap(Optional::stream).toList();
+      for (int i = 1; existing.stream().anyMatch(nameClash(className)); i++) {
+        className = simpleName + "Converter" + i;
+      }
+      beanConverters.put(typeName, BeanConverter.create(context, type, className));
+    }
+  }
+
+  public List<BeanConverter> getBeanConverters() {
+    return beanConverters.values().stream().flatMap(Optional::stream).toList();
+  }
+
+  private static Predicate<BeanConverter> nameClash(String className) {
+    return it -> it.getClassName().equals(className);
+  }
+
   public boolean hasBeanValidation() {
     return getRoutes().stream().anyMatch(WebRoute::hasBeanValidation);
   }
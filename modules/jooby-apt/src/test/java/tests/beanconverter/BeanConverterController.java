@@ -0,0 +1,22 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package tests.beanconverter;
+
+import io.jooby.annotation.*;
+
+@Path("/converter")
+public class BeanConverterController {
+
+  @GET("/query")
+  public String query(@QueryParam SearchQuery query) {
+    return query.toString();
+  }
+
+  @POST("/point")
+  public String point(@FormParam Point point) {
+    return point.toString();
+  }
+}
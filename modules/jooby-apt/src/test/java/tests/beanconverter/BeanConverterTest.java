@@ -0,0 +1,74 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package tests.beanconverter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import io.jooby.Formdata;
+import io.jooby.Jooby;
+import io.jooby.apt.ProcessorRunner;
+import io.jooby.test.MockContext;
+import io.jooby.test.MockRouter;
+
+public class BeanConverterTest {
+
+  @Test
+  public void shouldGenerateBeanConverters() throws Exception {
+    new ProcessorRunner(new BeanConverterController())
+        .withSourceCode(
+            source -> {
+              assertTrue(
+                  source.contains(
+                      "app.getValueFactory().put(tests.beanconverter.SearchQuery.class, new"
+                          + " SearchQueryConverter());"));
+              assertTrue(
+                  source.contains(
+                      "app.getValueFactory().put(tests.beanconverter.Point.class, new"
+                          + " PointConverter());"));
+              assertTrue(
+                  source.contains(
+                      "private static final class PointConverter implements"
+                          + " io.jooby.value.Converter {"));
+            })
+        .withRouter(
+            app -> {
+              assertNotNull(app.getValueFactory().get(SearchQuery.class));
+              assertNotNull(app.getValueFactory().get(Point.class));
+
+              var router = new MockRouter(app);
+              assertEquals(
+                  "jooby:[a, b]:2:10",
+                  router
+                      .get(
+                          "/converter/query",
+                          newContext(app).setQueryString("?q=jooby&tags=a&tags=b&page=2&size=10"))
+                      .value());
+              assertEquals(
+                  "jooby:[]:0:-1",
+                  router
+                      .get("/converter/query", newContext(app).setQueryString("?q=jooby"))
+                      .value());
+
+              var ctx = newContext(app);
+              var form = Formdata.create(ctx.getValueFactory());
+              form.put("x", "1");
+              form.put("y", "2");
+              assertEquals(
+                  "Point[x=1, y=2]", router.post("/converter/point", ctx.setForm(form)).value());
+            });
+  }
+
+  private static MockContext newContext(Jooby app) {
+    var ctx = new MockContext();
+    // generated converters are registered on application value factory
+    ctx.setValueFactory(app.getValueFactory());
+    return ctx;
+  }
+}
@@ -0,0 +1,34 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package tests.beanconverter;
+
+import java.util.List;
+import java.util.Optional;
+
+public class SearchQuery {
+  private final String q;
+  private final List<String> tags;
+  private int page;
+  private Optional<Integer> size = Optional.empty();
+
+  public SearchQuery(String q, List<String> tags) {
+    this.q = q;
+    this.tags = tags;
+  }
+
+  public void setPage(int page) {
+    this.page = page;
+  }
+
+  public void size(Optional<Integer> size) {
+    this.size = size;
+  }
+
+  @Override
+  public String toString() {
+    return q + ":" + tags + ":" + page + ":" + size.orElse(-1);
+  }
+}
@@ -0,0 +1,549 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.caffeine;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+import org.jspecify.annotations.Nullable;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jooby.Context;
+import io.jooby.MediaType;
+import io.jooby.Route;
+import io.jooby.Router;
+import io.jooby.StatusCode;
+
+/**
+ * Server side HTTP response cache. Keeps encoded responses of <code>GET</code> requests and sends
+ * them again without executing the route.
+ *
+ * <p>Usage:
+ *
+ * <pre>{@code
+ * {
+ *   use(new CaffeineResponseCache()
+ *       .setTtl(Duration.ofSeconds(30))
+ *       .setStaleWhileRevalidate(Duration.ofSeconds(10)));
+ *
+ *   get("/catalog", ctx -> catalog.findAll());
+ * }
+ * }</pre>
+ *
+ * <p>Responses are keyed by request path, query string and the values of the {@link
+ * #setVary(String...)} headers. Only <code>200</code> responses sent as bytes (rendered values,
+ * strings, byte arrays and buffers) are cached. Streams, files, asynchronous results ({@link
+ * CompletionStage} and {@link Flow.Publisher}), responses with cookies and responses with <code>
+ * Cache-Control: no-store, private or no-cache</code> are never cached.
+ *
+ * <p>Requests with an <code>Authorization</code> or <code>Cookie</code> header always execute the
+ * route. Their responses are cached only when marked as shared with a <code>public</code> or <code>
+ * s-maxage</code> directive (RFC 9111, section 3.5).
+ *
+ * <p>Freshness comes from <code>s-maxage</code> or <code>max-age</code> response directives.
+ * Responses without them are cached only when {@link #setTtl(Duration)} is set (it is off by
+ * default). Once expired, an entry is served stale for <code>
+ * stale-while-revalidate</code> seconds (directive or {@link #setStaleWhileRevalidate(Duration)})
+ * while the first request finding it stale executes the route again.
+ *
+ * <p>Only one request per key executes the route at a time (request coalescing), concurrent
+ * requests for the same key wait for its response (or get the stale one when available). Waiting
+ * requests that need to execute the route (the response wasn't cached) do it on a worker thread.
+ *
+ * <p>Cached responses have an <code>ETag</code> (the one set by the route or a generated weak one),
+ * so conditional requests get a <code>304</code> response.
+ *
+ * <p>The cache is bounded by size in bytes, see {@link #CaffeineResponseCache(long)}. Default max
+ * size is <code>64mb</code>.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+public class CaffeineResponseCache implements Route.Filter {
+
+  /** Cache key: path, query string and vary header values. */
+  record Key(String path, String query, List<@Nullable String> vary) {}
+
+  /** Cached response. */
+  static final class Entry {
+    private final MediaType type;
+
+    /** Header names and values, in pairs. */
+    private final String[] headers;
+
+    private final byte[] body;
+
+    private final @Nullable String etag;
+
+    private final long created;
+
+    private final long freshUntil;
+
+    private final long staleUntil;
+
+    Entry(
+        MediaType type,
+        String[] headers,
+        byte[] body,
+        @Nullable String etag,
+        long created,
+        long freshUntil,
+        long staleUntil) {
+      this.type = type;
+      this.headers = headers;
+      this.body = body;
+      this.etag = etag;
+      this.created = created;
+      this.freshUntil = freshUntil;
+      this.staleUntil = staleUntil;
+    }
+
+    private int weight(Key key) {
+      int weight = body.length + key.path.length() + key.query.length();
+      for (String header : headers) {
+        weight += header.length();
+      }
+      return weight;
+    }
+  }
+
+  private static final long DEFAULT_MAX_SIZE = 64 * 1024 * 1024;
+
+  private static final String CACHE_CONTROL = "Cache-Control";
+
+  private static final String ETAG = "ETag";
+
+  private static final String AUTHORIZATION = "Authorization";
+
+  private static final String COOKIE = "Cookie";
+
+  /** Response headers not stored, server takes care of them. */
+  private static final Set<String> SKIP_HEADERS =
+      Set.of(
+          "content-length",
+          "content-type",
+          "date",
+          "server",
+          "etag",
+          "age",
+          "transfer-encoding",
+          "connection",
+          "set-cookie");
+
+  private final Cache<Key, Entry> cache;
+
+  private final ConcurrentHashMap<Key, CompletableFuture<@Nullable Entry>> inflight =
+      new ConcurrentHashMap<>();
+
+  private long ttl;
+
+  private long staleWhileRevalidate;
+
+  private String[] vary = new String[0];
+
+  private int maxEntrySize = 1024 * 1024;
+
+  private boolean etag = true;
+
+  /**
+   * Creates a response cache.
+   *
+   * @param maxSize Max size of the cache, in bytes.
+   */
+  public CaffeineResponseCache(long maxSize) {
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumWeight(maxSize)
+            .weigher((Key key, Entry entry) -> entry.weight(key))
+            .expireAfter(
+                new Expiry<Key, Entry>() {
+                  @Override
+                  public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+                    return Math.max(0, entry.staleUntil - currentTime);
+                  }
+
+                  @Override
+                  public long expireAfterUpdate(
+                      Key key, Entry entry, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, entry, currentTime);
+                  }
+
+                  @Override
+                  public long expireAfterRead(
+                      Key key, Entry entry, long currentTime, long currentDuration) {
+                    return currentDuration;
+                  }
+                })
+            .build();
+  }
+
+  /** Creates a response cache of <code>64mb</code>. */
+  public CaffeineResponseCache() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * Time to live of responses without a <code>max-age</code> or <code>s-maxage</code> directive.
+   * Default is: <code>0</code>, only responses with one of these directives are cached.
+   *
+   * @param ttl Time to live.
+   * @return This cache.
+   */
+  public CaffeineResponseCache setTtl(Duration ttl) {
+    this.ttl = ttl.toNanos();
+    return this;
+  }
+
+  /**
+   * How long an expired response is served while a request executes the route again, unless the
+   * response has a <code>stale-while-revalidate</code> directive. Default is: <code>0</code>.
+   *
+   * @param staleWhileRevalidate Max staleness.
+   * @return This cache.
+   */
+  public CaffeineResponseCache setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+    this.staleWhileRevalidate = staleWhileRevalidate.toNanos();
+    return this;
+  }
+
+  /**
+   * Request headers that are part of the cache key, like <code>Accept</code> or <code>
+   * Accept-Language</code>. Responses with a <code>Vary</code> header listing any other header are
+   * not cached. Default is: none.
+   *
+   * @param headers Request headers.
+   * @return This cache.
+   */
+  public CaffeineResponseCache setVary(String... headers) {
+    this.vary = headers.clone();
+    return this;
+  }
+
+  /**
+   * Responses larger than this (in bytes) are not cached. Default is: <code>1mb</code>.
+   *
+   * @param maxEntrySize Max response size.
+   * @return This cache.
+   */
+  public CaffeineResponseCache setMaxEntrySize(int maxEntrySize) {
+    this.maxEntrySize = maxEntrySize;
+    return this;
+  }
+
+  /**
+   * Generate a weak <code>ETag</code> for responses without one. Default is: <code>true</code>.
+   *
+   * @param etag True to generate an <code>ETag</code>.
+   * @return This cache.
+   */
+  public CaffeineResponseCache setETag(boolean etag) {
+    this.etag = etag;
+    return this;
+  }
+
+  /**
+   * Remove all the responses of a path (any query string or vary header value).
+   *
+   * @param path Request path.
+   */
+  public void invalidate(String path) {
+    cache.asMap().keySet().removeIf(key -> key.path.equals(path));
+  }
+
+  /** Remove all the responses. */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * Number of cached responses.
+   *
+   * @return Number of cached responses.
+   */
+  public long size() {
+    return cache.estimatedSize();
+  }
+
+  @Override
+  public Route.Handler apply(Route.Handler next) {
+    return ctx -> {
+      if (!ctx.getMethod().equals(Router.GET)) {
+        return next.apply(ctx);
+      }
+      var cacheControl = lowerCase(ctx.header(CACHE_CONTROL).valueOrNull());
+      if (hasDirective(cacheControl, "no-store")) {
+        return next.apply(ctx);
+      }
+      var key = key(ctx);
+      if (isPersonalized(ctx)) {
+        // never served from cache, stored only when marked as shared
+        return execute(ctx, next, key, new CompletableFuture<>());
+      }
+      var now = System.nanoTime();
+      Entry entry =
+          hasDirective(cacheControl, "no-cache") || seconds(cacheControl, "max-age") == 0
+              ? null
+              : cache.getIfPresent(key);
+      if (entry != null && entry.freshUntil - now > 0) {
+        return write(ctx, entry, now);
+      }
+      var result = new CompletableFuture<@Nullable Entry>();
+      var existing = inflight.putIfAbsent(key, result);
+      if (existing != null) {
+        // someone else is executing the route
+        return entry == null ? await(ctx, next, existing) : write(ctx, entry, now);
+      }
+      result.whenComplete((value, cause) -> inflight.remove(key, result));
+      return execute(ctx, next, key, result);
+    };
+  }
+
+  /** Execute the route capturing its response. */
+  private Object execute(
+      Context ctx, Route.Handler next, Key key, CompletableFuture<@Nullable Entry> result)
+      throws Exception {
+    // response sent without going through the cache (streams, files, errors, etc.)
+    ctx.onComplete(done -> result.complete(null));
+    var capture = new ResponseCacheContext(ctx, this, key, result);
+    try {
+      var value = next.apply(capture);
+      if (value == capture) {
+        return ctx;
+      }
+      if (value != ctx && !capture.isResponseStarted() && !isAsync(value)) {
+        capture.render(value);
+      }
+      // asynchronous results are sent later by the pipeline, without going through the cache
+      return value;
+    } catch (Throwable cause) {
+      result.complete(null);
+      throw cause;
+    }
+  }
+
+  /**
+   * Wait for the request executing the route. Worker threads wait, IO threads get a callback on a
+   * worker thread (never on the IO thread of the request executing the route). Route is executed
+   * when the response wasn't cached.
+   */
+  private Object await(
+      Context ctx, Route.Handler next, CompletableFuture<@Nullable Entry> inflight)
+      throws Exception {
+    if (ctx.isInIoThread()) {
+      inflight.whenCompleteAsync(
+          (entry, cause) -> {
+            if (entry == null) {
+              execute(ctx, next);
+            } else {
+              write(ctx, entry, System.nanoTime());
+            }
+          },
+          ctx.getRouter().getWorker());
+      return ctx;
+    }
+    var entry = inflight.join();
+    return entry == null ? next.apply(ctx) : write(ctx, entry, System.nanoTime());
+  }
+
+  private static void execute(Context ctx, Route.Handler next) {
+    try {
+      var value = next.apply(ctx);
+      if (value != ctx && !ctx.isResponseStarted()) {
+        ctx.render(value);
+      }
+    } catch (Throwable cause) {
+      ctx.sendError(cause);
+    }
+  }
+
+  private static boolean isAsync(@Nullable Object value) {
+    return value instanceof CompletionStage || value instanceof Flow.Publisher;
+  }
+
+  private static boolean isPersonalized(Context ctx) {
+    return ctx.header(AUTHORIZATION).isPresent() || ctx.header(COOKIE).isPresent();
+  }
+
+  private Key key(Context ctx) {
+    if (vary.length == 0) {
+      return new Key(ctx.getRequestPath(), ctx.queryString(), List.of());
+    }
+    var values = new String[vary.length];
+    for (int i = 0; i < vary.length; i++) {
+      values[i] = ctx.header(vary[i]).valueOrNull();
+    }
+    return new Key(ctx.getRequestPath(), ctx.queryString(), Arrays.asList(values));
+  }
+
+  private Context write(Context ctx, Entry entry, long now) {
+    var headers = entry.headers;
+    for (int i = 0; i < headers.length; i += 2) {
+      ctx.setResponseHeader(headers[i], headers[i + 1]);
+    }
+    long age = TimeUnit.NANOSECONDS.toSeconds(now - entry.created);
+    ctx.setResponseHeader("Age", Long.toString(age));
+    if (entry.etag != null) {
+      ctx.setResponseHeader(ETAG, entry.etag);
+      if (matches(ctx.header("If-None-Match").valueOrNull(), entry.etag)) {
+        return ctx.send(StatusCode.NOT_MODIFIED);
+      }
+    }
+    ctx.setResponseType(entry.type);
+    return ctx.send(entry.body);
+  }
+
+  /**
+   * Store a response, called by {@link ResponseCacheContext} right before sending it.
+   *
+   * @param key Cache key.
+   * @param ctx Context.
+   * @param headers Names of the response headers set by the route.
+   * @param body Response body.
+   * @return Cached response or <code>null</code> when response is not cacheable.
+   */
+  @Nullable Entry store(Key key, Context ctx, Set<String> headers, byte[] body) {
+    if (body.length > maxEntrySize || ctx.getResponseCode().value() != StatusCode.OK_CODE) {
+      return null;
+    }
+    var cacheControl = lowerCase(ctx.getResponseHeader(CACHE_CONTROL));
+    if (hasDirective(cacheControl, "no-store")
+        || hasDirective(cacheControl, "private")
+        || hasDirective(cacheControl, "no-cache")
+        || !isVaryCovered(ctx.getResponseHeader("Vary"))) {
+      return null;
+    }
+    long maxAge = seconds(cacheControl, "s-maxage");
+    if (maxAge == -2 && !hasDirective(cacheControl, "public") && isPersonalized(ctx)) {
+      // response to an authenticated request, not marked as shared
+      return null;
+    }
+    if (maxAge < 0) {
+      maxAge = seconds(cacheControl, "max-age");
+    }
+    long fresh = maxAge < 0 ? ttl : TimeUnit.SECONDS.toNanos(maxAge);
+    long swr = seconds(cacheControl, "stale-while-revalidate");
+    long stale = swr < 0 ? staleWhileRevalidate : TimeUnit.SECONDS.toNanos(swr);
+    if (fresh <= 0 && stale <= 0) {
+      return null;
+    }
+    var etag = ctx.getResponseHeader(ETAG);
+    if (etag == null && this.etag) {
+      etag = etag(body);
+      ctx.setResponseHeader(ETAG, etag);
+    }
+    var values = new String[headers.size() * 2];
+    int size = 0;
+    for (var name : headers) {
+      var value = ctx.getResponseHeader(name);
+      if (value != null && !SKIP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+        values[size++] = name;
+        values[size++] = value;
+      }
+    }
+    long now = System.nanoTime();
+    var entry =
+        new Entry(
+            ctx.getResponseType(),
+            Arrays.copyOf(values, size),
+            body,
+            etag,
+            now,
+            now + fresh,
+            now + fresh + stale);
+    cache.put(key, entry);
+    return entry;
+  }
+
+  private boolean isVaryCovered(@Nullable String header) {
+    if (header == null) {
+      return true;
+    }
+    for (var name : header.split(",")) {
+      var value = name.trim();
+      if (!value.isEmpty() && Arrays.stream(vary).noneMatch(value::equalsIgnoreCase)) {
+        // includes: *
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String etag(byte[] body) {
+    var crc = new CRC32C();
+    crc.update(body);
+    return "W/\""
+        + Integer.toHexString(body.length)
+        + "-"
+        + Long.toHexString(crc.getValue())
+        + "\"";
+  }
+
+  private static boolean matches(@Nullable String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    var value = weak(etag);
+    for (var candidate : ifNoneMatch.split(",")) {
+      var tag = candidate.trim();
+      if (tag.equals("*") || weak(tag).equals(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String weak(String etag) {
+    return etag.startsWith("W/") ? etag.substring(2) : etag;
+  }
+
+  private static String lowerCase(@Nullable String value) {
+    return value == null ? "" : value.toLowerCase(Locale.ROOT);
+  }
+
+  private static boolean hasDirective(String cacheControl, String directive) {
+    return seconds(cacheControl, directive) != -2;
+  }
+
+  /**
+   * Value of a cache control directive.
+   *
+   * @return Directive value, <code>-1</code> when directive has no (valid) value and <code>-2
+   *     </code> when directive is missing.
+   */
+  private static long seconds(String cacheControl, String directive) {
+    if (cacheControl.isEmpty()) {
+      return -2;
+    }
+    for (var part : cacheControl.split(",")) {
+      var value = part.trim();
+      if (value.startsWith(directive)) {
+        var rest = value.substring(directive.length()).trim();
+        if (rest.isEmpty()) {
+          return -1;
+        }
+        if (rest.charAt(0) == '=') {
+          try {
+            return Long.parseLong(rest.substring(1).trim().replace("\"", ""));
+          } catch (NumberFormatException x) {
+            return -1;
+          }
+        }
+      }
+    }
+    return -2;
+  }
+}
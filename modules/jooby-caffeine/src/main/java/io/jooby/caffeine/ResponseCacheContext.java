@@ -0,0 +1,178 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.caffeine;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.jspecify.annotations.Nullable;
+
+import io.jooby.Context;
+import io.jooby.Cookie;
+import io.jooby.ForwardingContext;
+import io.jooby.SneakyThrows;
+import io.jooby.output.Output;
+
+/**
+ * Captures the response of a route: response headers set by the route and response bytes. Bytes
+ * are stored in the cache right before sending them.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+class ResponseCacheContext extends ForwardingContext {
+
+  private final CaffeineResponseCache cache;
+
+  private final CaffeineResponseCache.Key key;
+
+  private final CompletableFuture<CaffeineResponseCache.@Nullable Entry> result;
+
+  private final Set<String> headers = new LinkedHashSet<>();
+
+  private boolean cookies;
+
+  ResponseCacheContext(
+      Context context,
+      CaffeineResponseCache cache,
+      CaffeineResponseCache.Key key,
+      CompletableFuture<CaffeineResponseCache.@Nullable Entry> result) {
+    super(context);
+    this.cache = cache;
+    this.key = key;
+    this.result = result;
+  }
+
+  @Override
+  public Context setResponseHeader(String name, Date value) {
+    headers.add(name);
+    return super.setResponseHeader(name, value);
+  }
+
+  @Override
+  public Context setResponseHeader(String name, Instant value) {
+    headers.add(name);
+    return super.setResponseHeader(name, value);
+  }
+
+  @Override
+  public Context setResponseHeader(String name, Object value) {
+    headers.add(name);
+    return super.setResponseHeader(name, value);
+  }
+
+  @Override
+  public Context setResponseHeader(String name, String value) {
+    headers.add(name);
+    return super.setResponseHeader(name, value);
+  }
+
+  @Override
+  public Context setResponseCookie(Cookie cookie) {
+    cookies = true;
+    return super.setResponseCookie(cookie);
+  }
+
+  @Override
+  public Context render(Object value) {
+    try {
+      var output = getRoute().getEncoder().encode(this, value);
+      if (output == null) {
+        if (!isResponseStarted()) {
+          throw new IllegalStateException("The response was not encoded");
+        }
+        return this;
+      }
+      return send(output);
+    } catch (Exception x) {
+      throw SneakyThrows.propagate(x);
+    }
+  }
+
+  @Override
+  public Context send(String data) {
+    return send(data, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public Context send(String data, Charset charset) {
+    return send(data.getBytes(charset));
+  }
+
+  @Override
+  public Context send(byte[] data) {
+    capture(data);
+    ctx.send(data);
+    return this;
+  }
+
+  @Override
+  public Context send(byte[]... data) {
+    int size = 0;
+    for (var chunk : data) {
+      size += chunk.length;
+    }
+    var bytes = new byte[size];
+    int offset = 0;
+    for (var chunk : data) {
+      System.arraycopy(chunk, 0, bytes, offset, chunk.length);
+      offset += chunk.length;
+    }
+    capture(bytes);
+    ctx.send(data);
+    return this;
+  }
+
+  @Override
+  public Context send(ByteBuffer data) {
+    capture(bytes(data));
+    ctx.send(data);
+    return this;
+  }
+
+  @Override
+  public Context send(ByteBuffer[] data) {
+    int size = 0;
+    for (var chunk : data) {
+      size += chunk.remaining();
+    }
+    var bytes = ByteBuffer.allocate(size);
+    for (var chunk : data) {
+      bytes.put(chunk.duplicate());
+    }
+    capture(bytes.array());
+    ctx.send(data);
+    return this;
+  }
+
+  @Override
+  public Context send(Output output) {
+    capture(bytes(output.asByteBuffer()));
+    ctx.send(output);
+    return this;
+  }
+
+  private void capture(byte[] body) {
+    try {
+      result.complete(cookies ? null : cache.store(key, ctx, headers, body));
+    } catch (Throwable cause) {
+      result.complete(null);
+      throw cause;
+    }
+  }
+
+  private static byte[] bytes(ByteBuffer buffer) {
+    var bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return bytes;
+  }
+}
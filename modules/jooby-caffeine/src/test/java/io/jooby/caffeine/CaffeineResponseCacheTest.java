@@ -0,0 +1,332 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.caffeine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.jooby.Context;
+import io.jooby.Cookie;
+import io.jooby.MediaType;
+import io.jooby.Route;
+import io.jooby.Router;
+import io.jooby.StatusCode;
+import io.jooby.value.Value;
+import io.jooby.value.ValueFactory;
+
+public class CaffeineResponseCacheTest {
+
+  /** Request/response stand-in: request headers in, response headers and body out. */
+  private static class Exchange {
+    private final Map<String, String> requestHeaders = new HashMap<>();
+
+    private final Map<String, String> responseHeaders = new HashMap<>();
+
+    private final List<Route.Complete> onComplete = new ArrayList<>();
+
+    private String body;
+
+    private StatusCode status;
+
+    private String thread;
+
+    private Object result;
+
+    private final Context ctx = mock(Context.class);
+
+    Exchange(Router router, boolean ioThread) {
+      var values = new ValueFactory();
+      when(ctx.getMethod()).thenReturn(Router.GET);
+      when(ctx.getRequestPath()).thenReturn("/catalog");
+      when(ctx.queryString()).thenReturn("");
+      when(ctx.getRouter()).thenReturn(router);
+      when(ctx.isInIoThread()).thenReturn(ioThread);
+      when(ctx.getResponseCode()).thenReturn(StatusCode.OK);
+      when(ctx.getResponseType()).thenReturn(MediaType.json);
+      when(ctx.header(anyString()))
+          .thenAnswer(
+              call -> {
+                String name = call.getArgument(0);
+                return Value.create(values, name, requestHeaders.get(name));
+              });
+      when(ctx.getResponseHeader(anyString()))
+          .thenAnswer(call -> responseHeaders.get((String) call.getArgument(0)));
+      when(ctx.setResponseHeader(anyString(), anyString()))
+          .thenAnswer(
+              call -> {
+                responseHeaders.put(call.getArgument(0), call.getArgument(1));
+                return ctx;
+              });
+      when(ctx.setResponseCookie(any())).thenReturn(ctx);
+      when(ctx.setResponseType(any(MediaType.class))).thenReturn(ctx);
+      when(ctx.isResponseStarted()).thenAnswer(call -> body != null || status != null);
+      when(ctx.onComplete(any()))
+          .thenAnswer(
+              call -> {
+                onComplete.add(call.getArgument(0));
+                return ctx;
+              });
+      when(ctx.send(any(byte[].class)))
+          .thenAnswer(
+              call -> {
+                body = new String((byte[]) call.getArgument(0), StandardCharsets.UTF_8);
+                thread = Thread.currentThread().getName();
+                return ctx;
+              });
+      when(ctx.send(any(StatusCode.class)))
+          .thenAnswer(
+              call -> {
+                status = call.getArgument(0);
+                return ctx;
+              });
+    }
+
+    Exchange header(String name, String value) {
+      requestHeaders.put(name, value);
+      return this;
+    }
+
+    Exchange execute(Route.Handler handler) throws Exception {
+      result = handler.apply(ctx);
+      for (var task : onComplete) {
+        task.apply(ctx);
+      }
+      return this;
+    }
+  }
+
+  private final List<Runnable> dispatched = new ArrayList<>();
+
+  private final Router router = router();
+
+  private final AtomicInteger executions = new AtomicInteger();
+
+  private Router router() {
+    var router = mock(Router.class);
+    when(router.getWorker()).thenReturn(dispatched::add);
+    return router;
+  }
+
+  /** Cache with a time to live, so responses without cache directives are cached. */
+  private CaffeineResponseCache cache() {
+    return new CaffeineResponseCache().setTtl(Duration.ofMinutes(1));
+  }
+
+  private Exchange exchange() {
+    return new Exchange(router, false);
+  }
+
+  private Route.Handler route(CaffeineResponseCache cache, Route.Handler handler) {
+    return cache.apply(
+        ctx -> {
+          executions.incrementAndGet();
+          return handler.apply(ctx);
+        });
+  }
+
+  @Test
+  @DisplayName("Second request is served from cache")
+  void shouldServeFromCache() throws Exception {
+    var cache = cache();
+    var handler = route(cache, ctx -> ctx.send("catalog"));
+
+    var miss = exchange().execute(handler);
+    assertEquals("catalog", miss.body);
+    assertNotNull(miss.responseHeaders.get("ETag"));
+    assertEquals(1, cache.size());
+
+    var hit = exchange().execute(handler);
+    assertEquals("catalog", hit.body);
+    assertEquals("0", hit.responseHeaders.get("Age"));
+    assertEquals(miss.responseHeaders.get("ETag"), hit.responseHeaders.get("ETag"));
+    assertEquals(1, executions.get());
+
+    var notModified =
+        exchange().header("If-None-Match", miss.responseHeaders.get("ETag")).execute(handler);
+    assertEquals(StatusCode.NOT_MODIFIED, notModified.status);
+    assertNull(notModified.body);
+
+    exchange().header("Cache-Control", "no-cache").execute(handler);
+    assertEquals(2, executions.get());
+  }
+
+  @Test
+  @DisplayName("Vary headers are part of the key, other Vary headers turn caching off")
+  void shouldVary() throws Exception {
+    var cache = cache().setVary("Accept-Language");
+    var handler = route(cache, ctx -> ctx.send(ctx.header("Accept-Language").value()));
+
+    assertEquals("en", exchange().header("Accept-Language", "en").execute(handler).body);
+    assertEquals("es", exchange().header("Accept-Language", "es").execute(handler).body);
+    assertEquals("en", exchange().header("Accept-Language", "en").execute(handler).body);
+    assertEquals(2, executions.get());
+
+    var uncovered =
+        route(
+            cache(),
+            ctx -> ctx.setResponseHeader("Vary", "Accept-Encoding").send("gzip"));
+    exchange().execute(uncovered);
+    exchange().execute(uncovered);
+    assertEquals(4, executions.get());
+  }
+
+  @Test
+  @DisplayName("Responses with cookies are not cached")
+  void shouldNotCacheCookies() throws Exception {
+    var cache = cache();
+    var handler = route(cache, ctx -> ctx.setResponseCookie(new Cookie("sid", "1")).send("me"));
+
+    exchange().execute(handler);
+    exchange().execute(handler);
+    assertEquals(2, executions.get());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  @DisplayName("Authorized requests are not served from cache, stored only when shared")
+  void shouldBypassAuthorizedRequests() throws Exception {
+    var cache = cache();
+    var handler = route(cache, ctx -> ctx.send("private"));
+
+    exchange().header("Authorization", "Bearer a").execute(handler);
+    assertEquals(0, cache.size());
+
+    var shared =
+        route(cache, ctx -> ctx.setResponseHeader("Cache-Control", "public").send("shared"));
+    exchange().header("Authorization", "Bearer a").execute(shared);
+    assertEquals(1, cache.size());
+    assertEquals("shared", exchange().execute(shared).body);
+    assertEquals(2, executions.get());
+
+    // cached, but authorized requests always execute the route
+    assertEquals("private", exchange().header("Authorization", "Bearer b").execute(handler).body);
+    assertEquals(3, executions.get());
+
+    cache.invalidateAll();
+    var sharedMaxAge =
+        route(cache, ctx -> ctx.setResponseHeader("Cache-Control", "s-maxage=60").send("shared"));
+    exchange().header("Authorization", "Bearer a").execute(sharedMaxAge);
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  @DisplayName("Requests with cookies are not served from cache, stored only when shared")
+  void shouldBypassRequestsWithCookies() throws Exception {
+    var cache = cache();
+    var handler = route(cache, ctx -> ctx.send("mine"));
+
+    exchange().header("Cookie", "sid=1").execute(handler);
+    assertEquals(0, cache.size());
+
+    exchange().execute(handler);
+    assertEquals(1, cache.size());
+    assertEquals("mine", exchange().header("Cookie", "sid=1").execute(handler).body);
+    assertEquals(3, executions.get());
+
+    var shared = route(cache, ctx -> ctx.setResponseHeader("Cache-Control", "public").send("all"));
+    cache.invalidateAll();
+    exchange().header("Cookie", "sid=1").execute(shared);
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  @DisplayName("Without a time to live, only responses with explicit freshness are cached")
+  void shouldCacheExplicitFreshnessByDefault() throws Exception {
+    var cache = new CaffeineResponseCache();
+
+    exchange().execute(route(cache, ctx -> ctx.send("heuristic")));
+    assertEquals(0, cache.size());
+
+    var fresh = route(cache, ctx -> ctx.setResponseHeader("Cache-Control", "max-age=60").send("1"));
+    exchange().execute(fresh);
+    assertEquals(1, cache.size());
+    assertEquals("1", exchange().execute(fresh).body);
+    assertEquals(2, executions.get());
+  }
+
+  @Test
+  @DisplayName("Asynchronous results are returned to the pipeline and not cached")
+  void shouldNotCacheAsyncResults() throws Exception {
+    var cache = cache();
+    var future = CompletableFuture.completedFuture("async");
+    var handler = route(cache, ctx -> future);
+
+    var miss = exchange().execute(handler);
+    assertSame(future, miss.result);
+    assertNull(miss.body);
+    assertEquals(0, cache.size());
+
+    exchange().execute(handler);
+    assertEquals(2, executions.get());
+  }
+
+  @Test
+  @DisplayName("Concurrent requests wait for the first one, IO threads resume on a worker")
+  void shouldCoalesceRequests() throws Exception {
+    var cache = cache();
+    var waiter = new Exchange(router, true);
+    var handler =
+        route(
+            cache,
+            ctx -> {
+              // second request arrives while the first one executes the route
+              waiter.execute(cache.apply(it -> executions.incrementAndGet()));
+              return ctx.send("catalog");
+            });
+
+    exchange().execute(handler);
+    assertNull(waiter.body);
+    assertEquals(1, dispatched.size());
+
+    dispatched.forEach(Runnable::run);
+    assertEquals("catalog", waiter.body);
+    assertEquals(1, executions.get());
+  }
+
+  @Test
+  @DisplayName("Waiters execute the route on a worker when the response isn't cached")
+  void shouldExecuteWaiterOnWorker() throws Exception {
+    var cache = cache();
+    var waiter = new Exchange(router, true);
+    var handler =
+        route(
+            cache,
+            ctx -> {
+              var bytes = "waiter".getBytes(StandardCharsets.UTF_8);
+              waiter.execute(route(cache, it -> it.send(bytes)));
+              return ctx.setResponseHeader("Cache-Control", "no-store").send("leader");
+            });
+
+    exchange().execute(handler);
+    assertNull(waiter.body);
+    assertEquals(1, executions.get());
+
+    Thread worker = new Thread(() -> dispatched.forEach(Runnable::run), "worker");
+    worker.start();
+    worker.join();
+    assertEquals("waiter", waiter.body);
+    assertEquals("worker", waiter.thread);
+    assertEquals(2, executions.get());
+  }
+}
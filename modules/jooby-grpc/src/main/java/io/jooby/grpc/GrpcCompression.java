@@ -0,0 +1,169 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.grpc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+
+import io.grpc.Codec;
+import io.grpc.Compressor;
+import io.grpc.CompressorRegistry;
+import io.grpc.Decompressor;
+import io.grpc.DecompressorRegistry;
+
+/**
+ * gRPC message compression options.
+ *
+ * <p>Response messages are compressed with the first encoding (in preference order) listed by the
+ * client <code>grpc-accept-encoding</code> header. Messages smaller than the minimum size are sent
+ * uncompressed. Request messages are decompressed using the <code>grpc-encoding</code> header.
+ *
+ * <pre>{@code
+ * install(new GrpcModule(new GreeterService())
+ *     .compression(new GrpcCompression()
+ *         .register(new ZstdCodec())
+ *         .setMinSize(2048)
+ *         .setMinSize("pkg.Greeter/SayHello", 256)));
+ * }</pre>
+ *
+ * <p>Only <code>gzip</code> is available by default. Other encodings (zstd, snappy, etc.) are
+ * added with {@link #register(Codec)}.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+public class GrpcCompression {
+
+  private final CompressorRegistry compressors = CompressorRegistry.newEmptyInstance();
+
+  private DecompressorRegistry decompressors = DecompressorRegistry.getDefaultInstance();
+
+  private List<String> encodings = new ArrayList<>();
+
+  private int minSize = 1024;
+
+  private final Map<String, Integer> methodMinSize = new HashMap<>();
+
+  /** Creates compression options with <code>gzip</code> support. */
+  public GrpcCompression() {
+    register(new Codec.Gzip());
+  }
+
+  /**
+   * Register a codec. Registered codecs are preferred over the ones registered before.
+   *
+   * @param codec Codec.
+   * @return This options.
+   */
+  public GrpcCompression register(Codec codec) {
+    compressors.register(codec);
+    decompressors = decompressors.with(codec, true);
+    encodings.remove(codec.getMessageEncoding());
+    encodings.addFirst(codec.getMessageEncoding());
+    return this;
+  }
+
+  /**
+   * Response encodings, in preference order. Encodings must be registered.
+   *
+   * @return Response encodings, in preference order.
+   */
+  public List<String> getEncodings() {
+    return encodings;
+  }
+
+  /**
+   * Set response encodings, in preference order. Encodings must be registered.
+   *
+   * @param encodings Response encodings, in preference order.
+   * @return This options.
+   */
+  public GrpcCompression setEncodings(List<String> encodings) {
+    for (var encoding : encodings) {
+      if (compressors.lookupCompressor(encoding) == null) {
+        throw new IllegalArgumentException("Unknown encoding: " + encoding);
+      }
+    }
+    this.encodings = new ArrayList<>(encodings);
+    return this;
+  }
+
+  /**
+   * Minimum size (in bytes) of messages to compress. Default is: <code>1024</code>.
+   *
+   * @return Minimum size of messages to compress.
+   */
+  public int getMinSize() {
+    return minSize;
+  }
+
+  /**
+   * Set minimum size (in bytes) of messages to compress.
+   *
+   * @param minSize Minimum size of messages to compress.
+   * @return This options.
+   */
+  public GrpcCompression setMinSize(int minSize) {
+    this.minSize = minSize;
+    return this;
+  }
+
+  /**
+   * Minimum size (in bytes) of messages to compress for the given method.
+   *
+   * @param fullMethodName Full method name, like: <code>package.Service/Method</code>.
+   * @return Minimum size of messages to compress.
+   */
+  public int getMinSize(String fullMethodName) {
+    return methodMinSize.getOrDefault(fullMethodName, minSize);
+  }
+
+  /**
+   * Set minimum size (in bytes) of messages to compress for the given method. Use {@link
+   * Integer#MAX_VALUE} to turn off compression for a method.
+   *
+   * @param fullMethodName Full method name, like: <code>package.Service/Method</code>.
+   * @param minSize Minimum size of messages to compress.
+   * @return This options.
+   */
+  public GrpcCompression setMinSize(String fullMethodName, int minSize) {
+    methodMinSize.put(fullMethodName, minSize);
+    return this;
+  }
+
+  /**
+   * Pick a compressor for a <code>grpc-accept-encoding</code> header value.
+   *
+   * @param acceptEncoding Header value or <code>null</code>.
+   * @return Compressor or <code>null</code> when there is no acceptable encoding.
+   */
+  public @Nullable Compressor negotiate(@Nullable String acceptEncoding) {
+    if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+      return null;
+    }
+    var accepted = List.of(acceptEncoding.trim().split("\\s*,\\s*"));
+    for (var encoding : encodings) {
+      if (accepted.contains(encoding)) {
+        return compressors.lookupCompressor(encoding);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Find a decompressor for a <code>grpc-encoding</code> header value.
+   *
+   * @param encoding Header value.
+   * @return Decompressor or <code>null</code>.
+   */
+  public @Nullable Decompressor decompressor(String encoding) {
+    return decompressors.lookupDecompressor(encoding);
+  }
+}
@@ -6,15 +6,18 @@
 package io.jooby.grpc;
 
 import java.util.*;
+import java.util.concurrent.Executors;
 
 import org.slf4j.bridge.SLF4JBridgeHandler;
 
 import io.grpc.BindableService;
 import io.grpc.MethodDescriptor;
+import io.grpc.ServerMethodDefinition;
 import io.grpc.inprocess.InProcessChannelBuilder;
 import io.grpc.inprocess.InProcessServerBuilder;
 import io.jooby.*;
 import io.jooby.internal.grpc.DefaultGrpcProcessor;
+import io.jooby.internal.grpc.DirectGrpcProcessor;
 import io.jooby.rpc.grpc.GrpcProcessor;
 
 /**
@@ -65,6 +68,21 @@ import io.jooby.rpc.grpc.GrpcProcessor;
  * service implementations are thread-safe and do not hold request-scoped state in instance
  * variables.
  *
+ * <h3>Direct dispatch</h3>
+ *
+ * <p>By default, calls are forwarded through an in-process channel to an in-process gRPC server.
+ * With {@link #directDispatch(boolean)} calls are dispatched to the service handlers straight from
+ * the web server: messages are parsed from the server buffers and responses are written to the
+ * server response. There is no executor hop: service methods run on the thread delivering the
+ * request (usually an I/O thread), so they must not block. Server and channel customizers are
+ * ignored in this mode.
+ *
+ * <h3>Compression</h3>
+ *
+ * <p>Compressed request messages are decompressed using the {@code grpc-encoding} header. Response
+ * compression is negotiated from the {@code grpc-accept-encoding} header when enabled with {@link
+ * #compression(GrpcCompression)}.
+ *
  * <h3>Logging</h3>
  *
  * <p>gRPC internally uses {@code java.util.logging}. This module automatically installs the {@link
@@ -75,6 +93,8 @@ public class GrpcModule implements Extension {
   private final List<Class<? extends BindableService>> serviceClasses = new ArrayList<>();
   private SneakyThrows.Consumer<InProcessServerBuilder> serverCustomizer;
   private SneakyThrows.Consumer<InProcessChannelBuilder> channelCustomizer;
+  private boolean directDispatch;
+  private GrpcCompression compression;
 
   static {
     // Optionally remove existing handlers attached to the j.u.l root logger
@@ -137,6 +157,31 @@ public class GrpcModule implements Extension {
     return this;
   }
 
+  /**
+   * Dispatches calls to the service handlers from the web server, without the in-process channel
+   * and server. Service methods run on the thread delivering the request and must not block. Server
+   * and channel customizers are ignored when enabled.
+   *
+   * @param directDispatch True to dispatch calls directly. Default is: <code>false</code>.
+   * @return this {@code GrpcModule} instance for method chaining.
+   */
+  public GrpcModule directDispatch(boolean directDispatch) {
+    this.directDispatch = directDispatch;
+    return this;
+  }
+
+  /**
+   * Turn on response compression. Compressed requests are always accepted (gzip by default or any
+   * codec registered in the given options).
+   *
+   * @param compression Compression options.
+   * @return this {@code GrpcModule} instance for method chaining.
+   */
+  public GrpcModule compression(GrpcCompression compression) {
+    this.compression = compression;
+    return this;
+  }
+
   /**
    * Installs the gRPC extension into the Jooby application. *
    *
@@ -148,6 +193,10 @@ public class GrpcModule implements Extension {
    */
   @Override
   public void install(Jooby app) throws Exception {
+    if (directDispatch) {
+      installDirect(app);
+      return;
+    }
     var serverName = app.getName();
     var builder = InProcessServerBuilder.forName(serverName);
     final Map<String, MethodDescriptor<?, ?>> registry = new HashMap<>();
@@ -159,6 +208,7 @@ public class GrpcModule implements Extension {
 
     var services = app.getServices();
     var processor = new DefaultGrpcProcessor(registry);
+    processor.setCompression(compression);
     services.put(GrpcProcessor.class, processor);
 
     // Lazy init service from DI.
@@ -191,6 +241,50 @@ public class GrpcModule implements Extension {
         });
   }
 
+  private void installDirect(Jooby app) {
+    final Map<String, ServerMethodDefinition<?, ?>> registry = new HashMap<>();
+    for (var service : services) {
+      bindService(app, registry, service);
+    }
+
+    var scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            task -> {
+              var thread = new Thread(task, "grpc-deadline");
+              thread.setDaemon(true);
+              return thread;
+            });
+    var processor = new DirectGrpcProcessor(registry, scheduler);
+    processor.setCompression(compression);
+    app.getServices().put(GrpcProcessor.class, processor);
+    app.onStop(scheduler::shutdownNow);
+
+    // Lazy init service from DI.
+    app.onStarting(
+        () -> {
+          for (Class<? extends BindableService> serviceClass : serviceClasses) {
+            bindService(app, registry, app.require(serviceClass));
+          }
+          processor.setMaxMessageSize(app.getServerOptions().getMaxRequestSize());
+        });
+  }
+
+  /**
+   * Register the service method definitions for direct dispatch and map fail-fast routes.
+   *
+   * @param app The target Jooby application.
+   * @param registry The method definition registry.
+   * @param service The provisioned gRPC service to bind.
+   */
+  private static void bindService(
+      Jooby app, Map<String, ServerMethodDefinition<?, ?>> registry, BindableService service) {
+    for (var method : service.bindService().getMethods()) {
+      var methodFullName = method.getMethodDescriptor().getFullMethodName();
+      registry.put(methodFullName, method);
+      fallbackRoute(app, "/" + methodFullName);
+    }
+  }
+
   /**
    * Internal helper to register a service with the gRPC builder, extract its method descriptors,
    * and map a fail-fast route in the Jooby router.
@@ -210,21 +304,29 @@ public class GrpcModule implements Extension {
       var descriptor = method.getMethodDescriptor();
       String methodFullName = descriptor.getFullMethodName();
       registry.put(methodFullName, descriptor);
-      String routePath = "/" + methodFullName;
-
-      // Map a fallback route. If a request hits this, it means the native SPI interceptor
-      // failed to upgrade the request, typically due to a missing HTTP/2 configuration.
-      app.post(
-          routePath,
-          ctx -> {
-            throw new IllegalStateException(
-                "gRPC request reached the standard HTTP router for: "
-                    + routePath
-                    + ". "
-                    + "This means the native gRPC server interceptor was bypassed. "
-                    + "Ensure you are running with HTTP/2 enabled, "
-                    + "and that the GrpcProcessor SPI is correctly loaded.");
-          });
+      fallbackRoute(app, "/" + methodFullName);
     }
   }
+
+  /**
+   * Map a fail-fast route for a gRPC method.
+   *
+   * @param app The target Jooby application.
+   * @param routePath gRPC method path.
+   */
+  private static void fallbackRoute(Jooby app, String routePath) {
+    // Map a fallback route. If a request hits this, it means the native SPI interceptor
+    // failed to upgrade the request, typically due to a missing HTTP/2 configuration.
+    app.post(
+        routePath,
+        ctx -> {
+          throw new IllegalStateException(
+              "gRPC request reached the standard HTTP router for: "
+                  + routePath
+                  + ". "
+                  + "This means the native gRPC server interceptor was bypassed. "
+                  + "Ensure you are running with HTTP/2 enabled, "
+                  + "and that the GrpcProcessor SPI is correctly loaded.");
+        });
+  }
 }
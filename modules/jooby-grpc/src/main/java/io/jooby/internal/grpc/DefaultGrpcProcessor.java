@@ -11,8 +11,10 @@ import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,6 +25,7 @@ import io.grpc.Status;
 import io.grpc.stub.ClientCallStreamObserver;
 import io.grpc.stub.ClientCalls;
 import io.grpc.stub.ClientResponseObserver;
+import io.jooby.grpc.GrpcCompression;
 import io.jooby.rpc.grpc.GrpcExchange;
 import io.jooby.rpc.grpc.GrpcProcessor;
 
@@ -47,6 +50,7 @@ public class DefaultGrpcProcessor implements GrpcProcessor {
 
   private final Logger log = LoggerFactory.getLogger(getClass());
   private ManagedChannel channel;
+  private @Nullable GrpcCompression compression;
   private final Map<String, MethodDescriptor<?, ?>> registry;
 
   public DefaultGrpcProcessor(Map<String, MethodDescriptor<?, ?>> registry) {
@@ -57,6 +61,10 @@ public class DefaultGrpcProcessor implements GrpcProcessor {
     this.channel = channel;
   }
 
+  public void setCompression(@Nullable GrpcCompression compression) {
+    this.compression = compression;
+  }
+
   @Override
   public boolean isGrpcMethod(String path) {
     // gRPC paths typically come in as "/package.Service/Method"
@@ -106,7 +114,12 @@ public class DefaultGrpcProcessor implements GrpcProcessor {
         method.getType() == MethodDescriptor.MethodType.UNARY
             || method.getType() == MethodDescriptor.MethodType.SERVER_STREAMING;
 
-    var requestBridge = new GrpcRequestBridge(call, method.getType());
+    var requestBridge =
+        new GrpcRequestBridge(
+            call,
+            method.getType(),
+            GrpcDeframer.create(Integer.MAX_VALUE, compression, exchange));
+    var framer = GrpcFramer.create(compression, exchange, method.getFullMethodName());
 
     var responseObserver =
         new ClientResponseObserver<byte[], byte[]>() {
@@ -125,7 +138,7 @@ public class DefaultGrpcProcessor implements GrpcProcessor {
           public void onNext(byte[] value) {
             if (isFinished.get()) return;
 
-            ByteBuffer framed = addGrpcHeader(value);
+            ByteBuffer framed = framer.frame(value);
 
             exchange.send(
                 framed,
@@ -173,22 +186,9 @@ public class DefaultGrpcProcessor implements GrpcProcessor {
     }
 
     try {
-      var unit = timeout.charAt(timeout.length() - 1);
-      var value = Long.parseLong(timeout.substring(0, timeout.length() - 1));
-
-      var timeUnit =
-          switch (unit) {
-            case 'H' -> java.util.concurrent.TimeUnit.HOURS;
-            case 'M' -> java.util.concurrent.TimeUnit.MINUTES;
-            case 'S' -> java.util.concurrent.TimeUnit.SECONDS;
-            case 'm' -> java.util.concurrent.TimeUnit.MILLISECONDS;
-            case 'u' -> java.util.concurrent.TimeUnit.MICROSECONDS;
-            case 'n' -> java.util.concurrent.TimeUnit.NANOSECONDS;
-            default -> null;
-          };
-
-      if (timeUnit != null) {
-        options = options.withDeadlineAfter(value, timeUnit);
+      var nanos = parseTimeout(timeout);
+      if (nanos >= 0) {
+        options = options.withDeadlineAfter(nanos, TimeUnit.NANOSECONDS);
       }
     } catch (Exception e) {
       log.debug("Failed to parse grpc-timeout header: {}", timeout);
@@ -197,8 +197,33 @@ public class DefaultGrpcProcessor implements GrpcProcessor {
     return options;
   }
 
+  /**
+   * Parses a grpc-timeout header value.
+   *
+   * @param timeout Header value.
+   * @return Timeout in nanoseconds or <code>-1</code> for unknown time units.
+   * @throws NumberFormatException For invalid values.
+   */
+  static long parseTimeout(String timeout) {
+    var unit = timeout.charAt(timeout.length() - 1);
+    var value = Long.parseLong(timeout.substring(0, timeout.length() - 1));
+
+    var timeUnit =
+        switch (unit) {
+          case 'H' -> TimeUnit.HOURS;
+          case 'M' -> TimeUnit.MINUTES;
+          case 'S' -> TimeUnit.SECONDS;
+          case 'm' -> TimeUnit.MILLISECONDS;
+          case 'u' -> TimeUnit.MICROSECONDS;
+          case 'n' -> TimeUnit.NANOSECONDS;
+          default -> null;
+        };
+
+    return timeUnit == null ? -1 : timeUnit.toNanos(value);
+  }
+
   /** Maps standard HTTP headers from the GrpcExchange into gRPC Metadata. */
-  private io.grpc.Metadata extractMetadata(GrpcExchange exchange) {
+  static io.grpc.Metadata extractMetadata(GrpcExchange exchange) {
     var metadata = new io.grpc.Metadata();
 
     for (var header : exchange.getHeaders().entrySet()) {
@@ -224,14 +249,4 @@ public class DefaultGrpcProcessor implements GrpcProcessor {
     }
     return metadata;
   }
-
-  /** Prepends the 5-byte gRPC header and returns a ready-to-write ByteBuffer. */
-  private ByteBuffer addGrpcHeader(byte[] payload) {
-    var buffer = ByteBuffer.allocate(5 + payload.length);
-    buffer.put((byte) 0); // Compressed flag (0 = none)
-    buffer.putInt(payload.length);
-    buffer.put(payload);
-    buffer.flip(); // Prepare the buffer for reading by the server socket
-    return buffer;
-  }
 }
@@ -0,0 +1,98 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.grpc;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.jspecify.annotations.Nullable;
+
+import io.grpc.ServerMethodDefinition;
+import io.jooby.grpc.GrpcCompression;
+import io.jooby.rpc.grpc.GrpcExchange;
+import io.jooby.rpc.grpc.GrpcProcessor;
+
+/**
+ * gRPC processor that invokes the registered {@link io.grpc.ServerCallHandler} from the native
+ * server exchange. Unlike {@link DefaultGrpcProcessor} there is no in-process channel/server: the
+ * request is deframed and parsed from the server buffers and responses are written straight to the
+ * exchange.
+ *
+ * <p>Service methods run on the thread delivering the request body (usually a server I/O thread)
+ * unless they hand off the work themselves.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+public class DirectGrpcProcessor implements GrpcProcessor {
+
+  private final Map<String, ServerMethodDefinition<?, ?>> registry;
+
+  private final ScheduledExecutorService scheduler;
+
+  private int maxMessageSize = Integer.MAX_VALUE;
+
+  private @Nullable GrpcCompression compression;
+
+  /**
+   * Creates a new processor.
+   *
+   * @param registry Method definitions by full method name.
+   * @param scheduler Scheduler for call deadlines.
+   */
+  public DirectGrpcProcessor(
+      Map<String, ServerMethodDefinition<?, ?>> registry, ScheduledExecutorService scheduler) {
+    this.registry = registry;
+    this.scheduler = scheduler;
+  }
+
+  /**
+   * Set the max size of inbound messages. Bigger messages fail with <code>RESOURCE_EXHAUSTED
+   * </code>.
+   *
+   * @param maxMessageSize Max message size in bytes.
+   */
+  public void setMaxMessageSize(int maxMessageSize) {
+    this.maxMessageSize = maxMessageSize;
+  }
+
+  /**
+   * Set message compression options.
+   *
+   * @param compression Compression options or <code>null</code> to turn off response compression.
+   */
+  public void setCompression(@Nullable GrpcCompression compression) {
+    this.compression = compression;
+  }
+
+  @Override
+  public boolean isGrpcMethod(String path) {
+    String methodName = path.startsWith("/") ? path.substring(1) : path;
+    return registry.get(methodName) != null;
+  }
+
+  @Override
+  public Flow.Subscriber<ByteBuffer> process(GrpcExchange exchange) {
+    String path = exchange.getRequestPath();
+    var definition = registry.get(path.substring(1));
+
+    if (definition == null) {
+      // MUST never occur, it is guarded by {@link #isGrpcMethod}
+      throw new IllegalStateException(
+          "Unregistered gRPC method: '"
+              + path
+              + "'. "
+              + "This request bypassed the GrpcProcessor.isGrpcMethod() guard, "
+              + "indicating a bug or misconfiguration in the native server interceptor.");
+    }
+
+    var call = new DirectServerCall<>(exchange, definition, maxMessageSize, compression);
+    call.start(scheduler);
+    return call;
+  }
+}
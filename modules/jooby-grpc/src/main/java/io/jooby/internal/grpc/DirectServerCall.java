@@ -0,0 +1,311 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.grpc;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.grpc.Context;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerMethodDefinition;
+import io.grpc.Status;
+import io.jooby.grpc.GrpcCompression;
+import io.jooby.rpc.grpc.GrpcExchange;
+
+/**
+ * Server call bound to a native {@link GrpcExchange}. Request messages are deframed and parsed
+ * from the buffers delivered by the server, responses are framed and sent to the exchange.
+ *
+ * <p>Listener callbacks are serialized (never concurrent) and run with the call {@link Context}
+ * attached, as required by {@link ServerCall.Listener}.
+ *
+ * @param <ReqT> Request type.
+ * @param <RespT> Response type.
+ * @author edgar
+ * @since 4.5.5
+ */
+class DirectServerCall<ReqT, RespT> extends ServerCall<ReqT, RespT>
+    implements Flow.Subscriber<ByteBuffer> {
+
+  private static final Logger log = LoggerFactory.getLogger(DirectServerCall.class);
+
+  private final GrpcExchange exchange;
+  private final ServerMethodDefinition<ReqT, RespT> definition;
+  private final MethodDescriptor<ReqT, RespT> method;
+  private final GrpcDeframer deframer;
+  private final GrpcFramer framer;
+
+  private final Queue<ReqT> messages = new ConcurrentLinkedQueue<>();
+  private final AtomicLong demand = new AtomicLong();
+  private final AtomicInteger wip = new AtomicInteger();
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  private Context.CancellableContext context;
+  private Listener<ReqT> listener;
+  private volatile Flow.Subscription subscription;
+
+  /** True while a chunk has been requested and not delivered yet. */
+  private volatile boolean reading;
+
+  private volatile boolean inputComplete;
+  private volatile boolean cancelled;
+  private volatile boolean messageCompression = true;
+
+  // Owned by drain loop
+  private boolean ready;
+  private boolean halfClosed;
+  private boolean done;
+
+  DirectServerCall(
+      GrpcExchange exchange,
+      ServerMethodDefinition<ReqT, RespT> definition,
+      int maxMessageSize,
+      @Nullable GrpcCompression compression) {
+    this.exchange = exchange;
+    this.definition = definition;
+    this.method = definition.getMethodDescriptor();
+    this.deframer = GrpcDeframer.create(maxMessageSize, compression, exchange);
+    this.framer = GrpcFramer.create(compression, exchange, method.getFullMethodName());
+  }
+
+  /**
+   * Creates the call context (applying grpc-timeout) and starts the call.
+   *
+   * @param scheduler Deadline scheduler.
+   */
+  void start(ScheduledExecutorService scheduler) {
+    var timeout = exchange.getHeader("grpc-timeout");
+    var nanos = -1L;
+    if (timeout != null && !timeout.isEmpty()) {
+      try {
+        nanos = DefaultGrpcProcessor.parseTimeout(timeout);
+      } catch (Exception e) {
+        log.debug("Failed to parse grpc-timeout header: {}", timeout);
+      }
+    }
+    context =
+        nanos >= 0
+            ? Context.ROOT.withDeadlineAfter(nanos, TimeUnit.NANOSECONDS, scheduler)
+            : Context.ROOT.withCancellation();
+    context.addListener(this::onContextCancelled, Runnable::run);
+
+    var metadata = DefaultGrpcProcessor.extractMetadata(exchange);
+    var previous = context.attach();
+    try {
+      listener = definition.getServerCallHandler().startCall(this, metadata);
+    } finally {
+      context.detach(previous);
+    }
+    drain();
+  }
+
+  // --- ServerCall ---
+
+  @Override
+  public void request(int numMessages) {
+    demand.addAndGet(numMessages);
+    drain();
+  }
+
+  @Override
+  public void sendHeaders(Metadata headers) {
+    // Response headers are written by the exchange with the first message
+  }
+
+  @Override
+  public void sendMessage(RespT message) {
+    if (closed.get()) {
+      return;
+    }
+    ByteBuffer frame;
+    try (var stream = method.streamResponse(message)) {
+      frame = (messageCompression ? framer : GrpcFramer.NONE).frame(stream);
+    } catch (IOException cause) {
+      throw Status.INTERNAL.withCause(cause).asRuntimeException();
+    }
+    exchange.send(
+        frame,
+        cause -> {
+          if (cause != null) {
+            log.debug("gRPC stream error", cause);
+            cancel(cause);
+          }
+        });
+  }
+
+  @Override
+  public void close(Status status, Metadata trailers) {
+    if (closed.compareAndSet(false, true)) {
+      exchange.close(status.getCode().value(), status.getDescription());
+      context.cancel(null);
+      drain();
+    }
+  }
+
+  @Override
+  public void setMessageCompression(boolean enabled) {
+    this.messageCompression = enabled;
+  }
+
+  @Override
+  public boolean isReady() {
+    return !closed.get() && !cancelled;
+  }
+
+  @Override
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  @Override
+  public MethodDescriptor<ReqT, RespT> getMethodDescriptor() {
+    return method;
+  }
+
+  // --- Subscriber ---
+
+  @Override
+  public void onSubscribe(Flow.Subscription subscription) {
+    this.subscription = subscription;
+    drain();
+  }
+
+  @Override
+  public void onNext(ByteBuffer item) {
+    reading = false;
+    if (!closed.get() && !cancelled) {
+      try {
+        // Parse while the buffer is valid, messages are fully decoded before returning
+        deframer.deframe(
+            item, message -> messages.add(method.parseRequest(new ByteBufferInputStream(message))));
+      } catch (Throwable cause) {
+        log.debug("Failed to read gRPC request", cause);
+        close(Status.fromThrowable(cause), new Metadata());
+      }
+    }
+    drain();
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    log.debug("Error in gRPC request stream", throwable);
+    cancel(throwable);
+  }
+
+  @Override
+  public void onComplete() {
+    inputComplete = true;
+    drain();
+  }
+
+  // --- Internals ---
+
+  private void cancel(Throwable cause) {
+    // Client is gone, nothing else is written
+    closed.set(true);
+    cancelled = true;
+    context.cancel(cause);
+    drain();
+  }
+
+  private void onContextCancelled(Context context) {
+    var deadline = this.context.getDeadline();
+    if (deadline != null && deadline.isExpired() && !closed.get()) {
+      cancelled = true;
+      close(Status.DEADLINE_EXCEEDED, new Metadata());
+    }
+  }
+
+  private void fail(Throwable cause) {
+    log.debug("gRPC call failed", cause);
+    done = true;
+    close(Status.fromThrowable(cause), new Metadata());
+  }
+
+  /** Delivers queued events to the listener. Only one thread at a time runs the loop. */
+  private void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+    var previous = context.attach();
+    try {
+      int missed = 1;
+      do {
+        try {
+          deliver();
+        } catch (Throwable cause) {
+          fail(cause);
+        }
+        missed = wip.addAndGet(-missed);
+      } while (missed != 0);
+    } finally {
+      context.detach(previous);
+    }
+  }
+
+  private void deliver() {
+    if (done || listener == null) {
+      // finished or call not started yet
+      return;
+    }
+    if (!ready) {
+      // Server is ready to take responses
+      ready = true;
+      listener.onReady();
+    }
+    if (cancelled) {
+      done = true;
+      messages.clear();
+      listener.onCancel();
+      return;
+    }
+    if (closed.get()) {
+      done = true;
+      messages.clear();
+      listener.onComplete();
+      return;
+    }
+    while (demand.get() > 0) {
+      var message = messages.poll();
+      if (message == null) {
+        break;
+      }
+      demand.decrementAndGet();
+      listener.onMessage(message);
+      if (closed.get() || cancelled) {
+        return;
+      }
+    }
+    if (messages.isEmpty()) {
+      if (inputComplete) {
+        if (!halfClosed) {
+          halfClosed = true;
+          listener.onHalfClose();
+        }
+      } else if (!reading && demand.get() > 0) {
+        var subscription = this.subscription;
+        if (subscription != null) {
+          reading = true;
+          subscription.request(1);
+        }
+      }
+    }
+  }
+}
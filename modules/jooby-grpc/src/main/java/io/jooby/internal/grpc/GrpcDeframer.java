@@ -5,23 +5,102 @@
  */
 package io.jooby.internal.grpc;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.function.Consumer;
 
+import org.jspecify.annotations.Nullable;
+
+import io.grpc.Decompressor;
+import io.grpc.DecompressorRegistry;
+import io.grpc.Status;
+import io.jooby.grpc.GrpcCompression;
+import io.jooby.rpc.grpc.GrpcExchange;
+
 public class GrpcDeframer {
   private enum State {
     HEADER,
     PAYLOAD
   }
 
+  private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
   private State state = State.HEADER;
   private final ByteBuffer headerBuffer = ByteBuffer.allocate(5);
+  private final int maxMessageSize;
+  private final @Nullable String encoding;
+  private final @Nullable Decompressor decompressor;
   private ByteBuffer payloadBuffer;
+  private boolean compressed;
+
+  /**
+   * Last message allocated by the deframer (assembled or decompressed), its array can be handed
+   * over as it is. Any other message is a view of the transport buffer and must be copied.
+   */
+  private @Nullable ByteBuffer owned;
+
+  /**
+   * Creates a deframer.
+   *
+   * @param maxMessageSize Max (decompressed) message size.
+   * @param encoding Value of <code>grpc-encoding</code> header or <code>null</code>.
+   * @param decompressor Decompressor for the encoding or <code>null</code> when not supported.
+   */
+  public GrpcDeframer(
+      int maxMessageSize, @Nullable String encoding, @Nullable Decompressor decompressor) {
+    this.maxMessageSize = maxMessageSize;
+    this.encoding = encoding;
+    this.decompressor = decompressor;
+  }
+
+  public GrpcDeframer(int maxMessageSize) {
+    this(maxMessageSize, null, null);
+  }
+
+  public GrpcDeframer() {
+    this(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Creates a deframer for the <code>grpc-encoding</code> of an exchange.
+   *
+   * @param maxMessageSize Max (decompressed) message size.
+   * @param compression Compression options or <code>null</code> for default decompressors.
+   * @param exchange Current exchange.
+   * @return Deframer.
+   */
+  public static GrpcDeframer create(
+      int maxMessageSize, @Nullable GrpcCompression compression, GrpcExchange exchange) {
+    var encoding = exchange.getHeader("grpc-encoding");
+    if (encoding == null || encoding.equals("identity")) {
+      return new GrpcDeframer(maxMessageSize, encoding, null);
+    }
+    var decompressor =
+        compression == null
+            ? DecompressorRegistry.getDefaultInstance().lookupDecompressor(encoding)
+            : compression.decompressor(encoding);
+    return new GrpcDeframer(maxMessageSize, encoding, decompressor);
+  }
 
   /** Processes a chunk of data directly from the server's native ByteBuffer. */
   public void process(ByteBuffer input, Consumer<byte[]> onMessage) {
+    deframe(input, message -> onMessage.accept(toByteArray(message)));
+  }
+
+  /**
+   * Processes a chunk of data directly from the server's native ByteBuffer. Messages fully
+   * contained in the input are emitted as a slice of it (no copy), so they are only valid while the
+   * consumer runs. Fragmented messages are assembled into a new buffer.
+   */
+  public void deframe(ByteBuffer input, Consumer<ByteBuffer> onMessage) {
     while (input.hasRemaining()) {
       if (state == State.HEADER) {
+        if (headerBuffer.position() == 0 && input.remaining() >= 5) {
+          // Fast path: header fully available, read it in place
+          compressed = compressedFlag(input.get());
+          readPayload(input, input.getInt(), onMessage);
+          continue;
+        }
         int toRead = Math.min(headerBuffer.remaining(), input.remaining());
 
         // Bulk read into header buffer
@@ -32,16 +111,10 @@ public class GrpcDeframer {
 
         if (!headerBuffer.hasRemaining()) {
           headerBuffer.flip();
-          headerBuffer.get(); // skip compressed flag
+          compressed = compressedFlag(headerBuffer.get());
           int length = headerBuffer.getInt();
-
-          if (length == 0) {
-            onMessage.accept(new byte[0]);
-            headerBuffer.clear();
-          } else {
-            payloadBuffer = ByteBuffer.allocate(length);
-            state = State.PAYLOAD;
-          }
+          headerBuffer.clear();
+          readPayload(input, length, onMessage);
         }
       } else if (state == State.PAYLOAD) {
         int toRead = Math.min(payloadBuffer.remaining(), input.remaining());
@@ -54,12 +127,84 @@ public class GrpcDeframer {
 
         if (!payloadBuffer.hasRemaining()) {
           // The full gRPC message is assembled. Emit it.
-          onMessage.accept(payloadBuffer.array());
-          headerBuffer.clear();
+          var message = payloadBuffer.flip();
+          owned = message;
           payloadBuffer = null;
           state = State.HEADER;
+          onMessage.accept(decompress(message));
         }
       }
     }
   }
+
+  private static boolean compressedFlag(byte flag) {
+    if (flag != 0 && flag != 1) {
+      throw Status.INTERNAL
+          .withDescription("Invalid gRPC compressed flag: " + (flag & 0xFF))
+          .asRuntimeException();
+    }
+    return flag == 1;
+  }
+
+  private void readPayload(ByteBuffer input, int length, Consumer<ByteBuffer> onMessage) {
+    if (length < 0 || length > maxMessageSize) {
+      throw Status.RESOURCE_EXHAUSTED
+          .withDescription(
+              "gRPC message exceeds maximum size " + maxMessageSize + ": " + (length & 0xFFFFFFFFL))
+          .asRuntimeException();
+    }
+    if (length == 0) {
+      onMessage.accept(compressed ? decompress(EMPTY) : EMPTY);
+    } else if (input.remaining() >= length) {
+      // Whole message is available, emit a view of the input
+      var message = input.slice(input.position(), length);
+      input.position(input.position() + length);
+      onMessage.accept(decompress(message));
+    } else {
+      payloadBuffer = ByteBuffer.allocate(length);
+      state = State.PAYLOAD;
+    }
+  }
+
+  private ByteBuffer decompress(ByteBuffer message) {
+    if (!compressed) {
+      return message;
+    }
+    if (decompressor == null) {
+      throw (encoding == null || encoding.equals("identity")
+              ? Status.INTERNAL.withDescription(
+                  "Compressed gRPC message without grpc-encoding header")
+              : Status.UNIMPLEMENTED.withDescription("Can't find decompressor for " + encoding))
+          .asRuntimeException();
+    }
+    byte[] bytes;
+    try (var stream = decompressor.decompress(new ByteBufferInputStream(message))) {
+      bytes =
+          stream.readNBytes(
+              maxMessageSize == Integer.MAX_VALUE ? maxMessageSize : maxMessageSize + 1);
+    } catch (IOException cause) {
+      throw Status.INTERNAL
+          .withDescription("Failed to decompress gRPC message")
+          .withCause(cause)
+          .asRuntimeException();
+    }
+    if (bytes.length > maxMessageSize) {
+      throw Status.RESOURCE_EXHAUSTED
+          .withDescription("Decompressed gRPC message exceeds maximum size " + maxMessageSize)
+          .asRuntimeException();
+    }
+    owned = ByteBuffer.wrap(bytes);
+    return owned;
+  }
+
+  private byte[] toByteArray(ByteBuffer message) {
+    if (message == owned) {
+      // Assembled or decompressed payload: sized to the message, nobody else references it
+      owned = null;
+      return message.array();
+    }
+    var bytes = new byte[message.remaining()];
+    message.get(bytes);
+    return bytes;
+  }
 }
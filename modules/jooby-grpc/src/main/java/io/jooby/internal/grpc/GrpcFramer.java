@@ -0,0 +1,138 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.grpc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.jspecify.annotations.Nullable;
+
+import io.grpc.Compressor;
+import io.grpc.KnownLength;
+import io.jooby.grpc.GrpcCompression;
+import io.jooby.rpc.grpc.GrpcExchange;
+
+/**
+ * Writes the 5-byte gRPC header (compressed flag and length) in front of response messages.
+ * Messages are compressed when a compressor has been negotiated and they are at least the minimum
+ * size, unless compression doesn't make them smaller.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+class GrpcFramer {
+
+  /** Keeps the frame in the internal buffer, so no copy is required. */
+  private static class FrameOutputStream extends ByteArrayOutputStream {
+    FrameOutputStream(int size) {
+      super(size);
+    }
+
+    ByteBuffer toFrame() {
+      return ByteBuffer.wrap(buf, 0, count);
+    }
+  }
+
+  static final GrpcFramer NONE = new GrpcFramer(null, Integer.MAX_VALUE);
+
+  private final @Nullable Compressor compressor;
+
+  private final int minSize;
+
+  GrpcFramer(@Nullable Compressor compressor, int minSize) {
+    this.compressor = compressor;
+    this.minSize = minSize;
+  }
+
+  /**
+   * Negotiates response compression for an exchange and sets the <code>grpc-encoding</code>
+   * response header. Compression is off when the exchange doesn't support response headers.
+   *
+   * @param compression Compression options or <code>null</code> when compression is off.
+   * @param exchange Current exchange.
+   * @param fullMethodName Method name.
+   * @return Framer.
+   */
+  static GrpcFramer create(
+      @Nullable GrpcCompression compression, GrpcExchange exchange, String fullMethodName) {
+    if (compression == null || !exchange.supportsResponseHeaders()) {
+      return NONE;
+    }
+    var compressor = compression.negotiate(exchange.getHeader("grpc-accept-encoding"));
+    if (compressor == null) {
+      return NONE;
+    }
+    exchange.setResponseHeader("grpc-encoding", compressor.getMessageEncoding());
+    return new GrpcFramer(compressor, compression.getMinSize(fullMethodName));
+  }
+
+  /**
+   * Frame a serialized message.
+   *
+   * @param payload Message bytes.
+   * @return Framed message, ready to write.
+   */
+  ByteBuffer frame(byte[] payload) {
+    if (compressor != null && payload.length >= minSize) {
+      var compressed = compress(compressor, payload);
+      if (compressed != null) {
+        return compressed;
+      }
+    }
+    var buffer = ByteBuffer.allocate(5 + payload.length);
+    buffer.put((byte) 0); // Compressed flag (0 = none)
+    buffer.putInt(payload.length);
+    buffer.put(payload);
+    buffer.flip(); // Prepare the buffer for reading by the server socket
+    return buffer;
+  }
+
+  /**
+   * Frame a message stream (as produced by a marshaller). Streams of known length are serialized
+   * straight into the frame when no compression is required.
+   *
+   * @param stream Message stream.
+   * @return Framed message, ready to write.
+   * @throws IOException If read fails.
+   */
+  ByteBuffer frame(InputStream stream) throws IOException {
+    if (stream instanceof KnownLength) {
+      int length = stream.available();
+      if (compressor == null || length < minSize) {
+        var buffer = ByteBuffer.allocate(5 + length);
+        buffer.put((byte) 0);
+        buffer.putInt(length);
+        stream.readNBytes(buffer.array(), 5, length);
+        return buffer.clear();
+      }
+    }
+    return frame(stream.readAllBytes());
+  }
+
+  private static @Nullable ByteBuffer compress(Compressor compressor, byte[] payload) {
+    var out = new FrameOutputStream(5 + payload.length / 2);
+    try {
+      // Header placeholder
+      out.write(new byte[5]);
+      try (var compressed = compressor.compress(out)) {
+        compressed.write(payload);
+      }
+    } catch (IOException cause) {
+      throw new IllegalStateException("Message compression failed", cause);
+    }
+    var frame = out.toFrame();
+    var length = frame.remaining() - 5;
+    if (length >= payload.length) {
+      // Not worth it
+      return null;
+    }
+    frame.put(0, (byte) 1);
+    frame.putInt(1, length);
+    return frame;
+  }
+}
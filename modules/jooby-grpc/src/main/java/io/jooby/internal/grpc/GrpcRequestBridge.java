@@ -22,7 +22,7 @@ import io.grpc.stub.ClientResponseObserver;
 public class GrpcRequestBridge implements Subscriber<ByteBuffer> {
 
   private final Logger log = LoggerFactory.getLogger(getClass());
-  private final GrpcDeframer deframer = new GrpcDeframer();
+  private final GrpcDeframer deframer;
   private final AtomicBoolean completed = new AtomicBoolean(false);
 
   private final ClientCall<byte[], byte[]> call;
@@ -36,7 +36,15 @@ public class GrpcRequestBridge implements Subscriber<ByteBuffer> {
 
   public GrpcRequestBridge(
       ClientCall<byte[], byte[]> call, MethodDescriptor.MethodType methodType) {
+    this(call, methodType, new GrpcDeframer());
+  }
+
+  public GrpcRequestBridge(
+      ClientCall<byte[], byte[]> call,
+      MethodDescriptor.MethodType methodType,
+      GrpcDeframer deframer) {
     this.call = call;
+    this.deframer = deframer;
     this.methodType = methodType;
     this.isUnaryOrServerStreaming =
         methodType == MethodDescriptor.MethodType.UNARY
@@ -0,0 +1,247 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.grpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerMethodDefinition;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+import io.jooby.rpc.grpc.GrpcExchange;
+
+class DirectGrpcProcessorTest {
+
+  private static final MethodDescriptor.Marshaller<String> STRING =
+      new MethodDescriptor.Marshaller<>() {
+        @Override
+        public InputStream stream(String value) {
+          return new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String parse(InputStream stream) {
+          try {
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }
+      };
+
+  private final AtomicBoolean cancelled = new AtomicBoolean();
+
+  private ScheduledExecutorService scheduler;
+
+  private DirectGrpcProcessor processor;
+
+  private GrpcExchange exchange;
+
+  private Flow.Subscription subscription;
+
+  @BeforeEach
+  void setup() {
+    Map<String, ServerMethodDefinition<?, ?>> registry = new HashMap<>();
+    registry.put(
+        "pkg.Svc/Unary",
+        ServerMethodDefinition.create(
+            method("pkg.Svc/Unary", MethodDescriptor.MethodType.UNARY),
+            ServerCalls.asyncUnaryCall(
+                (String request, StreamObserver<String> response) -> {
+                  response.onNext(request + "!");
+                  response.onCompleted();
+                })));
+    registry.put(
+        "pkg.Svc/Bidi",
+        ServerMethodDefinition.create(
+            method("pkg.Svc/Bidi", MethodDescriptor.MethodType.BIDI_STREAMING),
+            ServerCalls.asyncBidiStreamingCall(
+                (StreamObserver<String> response) -> {
+                  ((ServerCallStreamObserver<String>) response)
+                      .setOnCancelHandler(() -> cancelled.set(true));
+                  return new StreamObserver<>() {
+                    @Override
+                    public void onNext(String value) {
+                      response.onNext(value.toUpperCase());
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {}
+
+                    @Override
+                    public void onCompleted() {
+                      response.onCompleted();
+                    }
+                  };
+                })));
+    scheduler = Executors.newSingleThreadScheduledExecutor();
+    processor = new DirectGrpcProcessor(registry, scheduler);
+
+    exchange = mock(GrpcExchange.class);
+    when(exchange.getHeaders()).thenReturn(Map.of());
+    subscription = mock(Flow.Subscription.class);
+  }
+
+  @AfterEach
+  void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("Registered methods are recognized")
+  void isGrpcMethod() {
+    assertTrue(processor.isGrpcMethod("/pkg.Svc/Unary"));
+    assertTrue(processor.isGrpcMethod("pkg.Svc/Bidi"));
+    assertFalse(processor.isGrpcMethod("/pkg.Svc/Unknown"));
+
+    when(exchange.getRequestPath()).thenReturn("/pkg.Svc/Unknown");
+    assertThrows(IllegalStateException.class, () -> processor.process(exchange));
+  }
+
+  @Test
+  @DisplayName("Unary call is dispatched to the service handler")
+  void unary() {
+    var subscriber = start("/pkg.Svc/Unary");
+
+    subscriber.onNext(frames("jooby"));
+    subscriber.onComplete();
+
+    assertEquals(List.of("jooby!"), sent(1));
+    verify(exchange).close(eq(Status.Code.OK.value()), isNull());
+  }
+
+  @Test
+  @DisplayName("Streaming call parses multiple messages from a single buffer")
+  void bidiStreaming() {
+    var subscriber = start("/pkg.Svc/Bidi");
+
+    subscriber.onNext(frames("a", "b"));
+    // fragmented message
+    var frame = frames("fragment");
+    subscriber.onNext(frame.slice(0, 7));
+    subscriber.onNext(frame.slice(7, frame.remaining() - 7));
+    subscriber.onComplete();
+
+    assertEquals(List.of("A", "B", "FRAGMENT"), sent(3));
+    verify(exchange).close(eq(Status.Code.OK.value()), isNull());
+  }
+
+  @Test
+  @DisplayName("Client cancellation notifies the service")
+  void cancel() {
+    var subscriber = start("/pkg.Svc/Bidi");
+
+    subscriber.onError(new IOException("Connection reset"));
+
+    assertTrue(cancelled.get());
+    verify(exchange, never()).close(anyInt(), any());
+  }
+
+  @Test
+  @DisplayName("Messages bigger than the max size are rejected")
+  void maxMessageSize() {
+    processor.setMaxMessageSize(4);
+    var subscriber = start("/pkg.Svc/Unary");
+
+    subscriber.onNext(frames("too long"));
+
+    verify(exchange).close(eq(Status.Code.RESOURCE_EXHAUSTED.value()), any());
+    verify(exchange, never()).send(any(), any());
+  }
+
+  @Test
+  @DisplayName("grpc-timeout sets the call deadline")
+  void deadline() {
+    when(exchange.getHeader("grpc-timeout")).thenReturn("200m");
+    var subscriber = start("/pkg.Svc/Bidi");
+
+    verify(exchange, timeout(5000)).close(eq(Status.Code.DEADLINE_EXCEEDED.value()), any());
+
+    // late input is ignored
+    subscriber.onNext(frames("late"));
+    verify(exchange, never()).send(any(), any());
+  }
+
+  private Flow.Subscriber<ByteBuffer> start(String path) {
+    when(exchange.getRequestPath()).thenReturn(path);
+    var subscriber = processor.process(exchange);
+    subscriber.onSubscribe(subscription);
+    verify(subscription, atLeastOnce()).request(1);
+    return subscriber;
+  }
+
+  private List<String> sent(int count) {
+    var captor = ArgumentCaptor.forClass(ByteBuffer.class);
+    verify(exchange, times(count)).send(captor.capture(), any());
+    return captor.getAllValues().stream()
+        .map(
+            frame -> {
+              assertEquals(0, frame.get());
+              var payload = new byte[frame.getInt()];
+              frame.get(payload);
+              assertFalse(frame.hasRemaining());
+              return new String(payload, StandardCharsets.UTF_8);
+            })
+        .toList();
+  }
+
+  private static ByteBuffer frames(String... messages) {
+    var buffer = ByteBuffer.allocate(1024);
+    for (var message : messages) {
+      var bytes = message.getBytes(StandardCharsets.UTF_8);
+      buffer.put((byte) 0);
+      buffer.putInt(bytes.length);
+      buffer.put(bytes);
+    }
+    return buffer.flip();
+  }
+
+  private static MethodDescriptor<String, String> method(
+      String name, MethodDescriptor.MethodType type) {
+    return MethodDescriptor.<String, String>newBuilder()
+        .setType(type)
+        .setFullMethodName(name)
+        .setRequestMarshaller(STRING)
+        .setResponseMarshaller(STRING)
+        .build();
+  }
+}
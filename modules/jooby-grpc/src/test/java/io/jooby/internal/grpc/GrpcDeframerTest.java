@@ -9,11 +9,15 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
 public class GrpcDeframerTest {
 
   private GrpcDeframer deframer;
@@ -112,6 +116,87 @@ public class GrpcDeframerTest {
     assertArrayEquals(payload, outputMessages.get(0));
   }
 
+  @Test
+  public void shouldEmitCompleteMessagesAsSlices() {
+    byte[] payload = "slice".getBytes();
+    ByteBuffer frame = createGrpcFrame(payload);
+    List<ByteBuffer> messages = new ArrayList<>();
+
+    deframer.deframe(frame, messages::add);
+
+    assertEquals(1, messages.size());
+    assertSame(frame.array(), messages.get(0).array());
+    byte[] bytes = new byte[messages.get(0).remaining()];
+    messages.get(0).get(bytes);
+    assertArrayEquals(payload, bytes);
+    assertFalse(frame.hasRemaining());
+  }
+
+  @Test
+  public void shouldCopyMessagesOutOfTransportBuffers() {
+    byte[] payload = "reused".getBytes();
+    ByteBuffer frame = createGrpcFrame(payload);
+
+    deframer.process(frame, msg -> outputMessages.add(msg));
+    // transport reuses its buffer for the next read
+    Arrays.fill(frame.array(), (byte) 0);
+
+    assertEquals(1, outputMessages.size());
+    assertArrayEquals(payload, outputMessages.get(0));
+  }
+
+  @Test
+  public void shouldHandOverAssembledMessages() {
+    byte[] payload = "assembled".getBytes();
+    byte[] frame = createGrpcFrame(payload).array();
+    ByteBuffer first = ByteBuffer.wrap(frame, 0, 7);
+    ByteBuffer second = ByteBuffer.wrap(frame, 7, frame.length - 7);
+
+    deframer.process(first, msg -> outputMessages.add(msg));
+    deframer.process(second, msg -> outputMessages.add(msg));
+    Arrays.fill(frame, (byte) 0);
+
+    assertEquals(1, outputMessages.size());
+    assertArrayEquals(payload, outputMessages.get(0));
+  }
+
+  @Test
+  public void shouldRejectMessagesBiggerThanMaxSize() {
+    var limited = new GrpcDeframer(4);
+    var frame = createGrpcFrame("too long".getBytes());
+
+    var error =
+        assertThrows(
+            StatusRuntimeException.class, () -> limited.process(frame, outputMessages::add));
+    assertEquals(Status.Code.RESOURCE_EXHAUSTED, error.getStatus().getCode());
+    assertEquals(0, outputMessages.size());
+  }
+
+  @Test
+  public void shouldRejectInvalidCompressedFlag() {
+    var frame = createGrpcFrame("bad flag".getBytes());
+    frame.put(0, (byte) 2);
+
+    // fast path: whole header available
+    var error =
+        assertThrows(
+            StatusRuntimeException.class, () -> deframer.process(frame, outputMessages::add));
+    assertEquals(Status.Code.INTERNAL, error.getStatus().getCode());
+
+    // fragmented header
+    var fragmented = new GrpcDeframer();
+    fragmented.process(ByteBuffer.wrap(frame.array(), 0, 2), outputMessages::add);
+    error =
+        assertThrows(
+            StatusRuntimeException.class,
+            () ->
+                fragmented.process(
+                    ByteBuffer.wrap(frame.array(), 2, frame.array().length - 2),
+                    outputMessages::add));
+    assertEquals(Status.Code.INTERNAL, error.getStatus().getCode());
+    assertEquals(0, outputMessages.size());
+  }
+
   /** Helper to wrap a raw payload in the standard 5-byte gRPC framing. */
   private ByteBuffer createGrpcFrame(byte[] payload) {
     ByteBuffer buffer = ByteBuffer.allocate(5 + payload.length);
@@ -0,0 +1,165 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.grpc;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.grpc.Codec;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.jooby.grpc.GrpcCompression;
+import io.jooby.rpc.grpc.GrpcExchange;
+
+class GrpcFramerTest {
+
+  private static final byte[] LARGE = "jooby ".repeat(500).getBytes(StandardCharsets.UTF_8);
+
+  @Test
+  @DisplayName("Negotiate response encoding from grpc-accept-encoding")
+  void negotiate() {
+    var compression = new GrpcCompression().setMinSize("pkg.Svc/Small", 10);
+    var exchange = mock(GrpcExchange.class);
+    when(exchange.supportsResponseHeaders()).thenReturn(true);
+
+    assertSame(GrpcFramer.NONE, GrpcFramer.create(null, exchange, "pkg.Svc/Method"));
+    assertSame(GrpcFramer.NONE, GrpcFramer.create(compression, exchange, "pkg.Svc/Method"));
+    verify(exchange, never()).setResponseHeader(anyString(), anyString());
+
+    when(exchange.getHeader("grpc-accept-encoding")).thenReturn("identity, deflate, gzip");
+    var framer = GrpcFramer.create(compression, exchange, "pkg.Svc/Small");
+    verify(exchange).setResponseHeader("grpc-encoding", "gzip");
+
+    // per method threshold
+    var frame = framer.frame("small ".repeat(20).getBytes());
+    assertEquals(1, frame.get(0));
+
+    assertNull(compression.negotiate("deflate"));
+    assertThrows(IllegalArgumentException.class, () -> compression.setEncodings(List.of("zstd")));
+  }
+
+  @Test
+  @DisplayName("Exchanges without response headers don't compress")
+  void negotiateWithoutResponseHeaders() {
+    var exchange =
+        new GrpcExchange() {
+          @Override
+          public String getRequestPath() {
+            return "/pkg.Svc/Method";
+          }
+
+          @Override
+          public String getHeader(String name) {
+            return name.equals("grpc-accept-encoding") ? "gzip" : null;
+          }
+
+          @Override
+          public Map<String, String> getHeaders() {
+            return Map.of("grpc-accept-encoding", "gzip");
+          }
+
+          @Override
+          public void send(ByteBuffer payload, Consumer<Throwable> onFailure) {}
+
+          @Override
+          public void close(int statusCode, String description) {}
+        };
+
+    assertSame(
+        GrpcFramer.NONE, GrpcFramer.create(new GrpcCompression(), exchange, "pkg.Svc/Method"));
+  }
+
+  @Test
+  @DisplayName("Compress messages bigger than the threshold")
+  void compress() throws Exception {
+    var framer = new GrpcFramer(new Codec.Gzip(), 1024);
+
+    var small = framer.frame(new ByteArrayInputStream("small".getBytes()));
+    assertEquals(0, small.get());
+    assertEquals(5, small.getInt());
+
+    var large = framer.frame(LARGE);
+    assertEquals(1, large.get());
+    int length = large.getInt();
+    assertEquals(large.remaining(), length);
+    assertTrue(length < LARGE.length);
+
+    // round trip
+    var deframer = new GrpcDeframer(Integer.MAX_VALUE, "gzip", new Codec.Gzip());
+    List<byte[]> messages = new ArrayList<>();
+    deframer.process(large.rewind(), messages::add);
+    assertArrayEquals(LARGE, messages.get(0));
+  }
+
+  @Test
+  @DisplayName("Uncompressed frames are the same as before")
+  void noCompression() throws Exception {
+    var frame = GrpcFramer.NONE.frame(LARGE);
+    assertEquals(0, frame.get());
+    assertEquals(LARGE.length, frame.getInt());
+    assertEquals(LARGE.length, frame.remaining());
+  }
+
+  @Test
+  @DisplayName("Compressed requests require a known grpc-encoding")
+  void decompressErrors() throws Exception {
+    var bytes = new ByteArrayOutputStream();
+    try (var out = new Codec.Gzip().compress(bytes)) {
+      out.write(LARGE);
+    }
+    var payload = bytes.toByteArray();
+    var frame = ByteBuffer.allocate(5 + payload.length).put((byte) 1).putInt(payload.length);
+    frame.put(payload).flip();
+
+    var exchange = mock(GrpcExchange.class);
+    assertEquals(
+        Status.Code.INTERNAL,
+        decompressError(GrpcDeframer.create(Integer.MAX_VALUE, null, exchange), frame));
+
+    when(exchange.getHeader("grpc-encoding")).thenReturn("zstd");
+    assertEquals(
+        Status.Code.UNIMPLEMENTED,
+        decompressError(GrpcDeframer.create(Integer.MAX_VALUE, null, exchange), frame.rewind()));
+
+    when(exchange.getHeader("grpc-encoding")).thenReturn("gzip");
+    assertEquals(
+        Status.Code.RESOURCE_EXHAUSTED,
+        decompressError(GrpcDeframer.create(1024, null, exchange), frame.rewind()));
+
+    List<byte[]> messages = new ArrayList<>();
+    GrpcDeframer.create(Integer.MAX_VALUE, new GrpcCompression(), exchange)
+        .process(frame.rewind(), messages::add);
+    assertArrayEquals(LARGE, messages.get(0));
+  }
+
+  private Status.Code decompressError(GrpcDeframer deframer, ByteBuffer frame) {
+    var error =
+        assertThrows(
+            StatusRuntimeException.class, () -> deframer.process(frame, message -> {}));
+    return error.getStatus().getCode();
+  }
+}
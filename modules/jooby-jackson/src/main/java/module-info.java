@@ -55,6 +55,7 @@ module io.jooby.jackson {
   requires io.jooby;
   requires static org.jspecify;
   requires typesafe.config;
+  requires org.slf4j;
   requires com.fasterxml.jackson.databind;
   requires com.fasterxml.jackson.datatype.jdk8;
   requires com.fasterxml.jackson.datatype.jsr310;
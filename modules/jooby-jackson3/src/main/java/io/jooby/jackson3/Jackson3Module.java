@@ -6,11 +6,15 @@
 package io.jooby.jackson3;
 
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.BaseStream;
 import java.util.stream.Stream;
 
+import org.jspecify.annotations.Nullable;
+
 import com.fasterxml.jackson.annotation.JsonFilter;
 import io.jooby.*;
 import io.jooby.internal.jackson3.*;
@@ -18,6 +22,7 @@ import io.jooby.json.JsonCodec;
 import io.jooby.json.JsonDecoder;
 import io.jooby.json.JsonEncoder;
 import io.jooby.output.Output;
+import tools.jackson.core.TreeNode;
 import tools.jackson.core.exc.StreamReadException;
 import tools.jackson.databind.*;
 import tools.jackson.databind.json.JsonMapper;
@@ -72,6 +77,11 @@ public class Jackson3Module implements Extension, MessageDecoder, MessageEncoder
   // Cache for ObjectWriters tied to specific projection strings
   private final Map<String, ObjectWriter> writerCache = new ConcurrentHashMap<>();
 
+  // Cache for ObjectWriters tied to route return types
+  private final Map<Route.MvcMethod, RouteWriter> routeWriters = new ConcurrentHashMap<>();
+
+  private record RouteWriter(Class<?> type, ObjectWriter writer) {}
+
   private final MediaType mediaType;
 
   private ObjectMapper mapper;
@@ -185,8 +195,12 @@ public class Jackson3Module implements Extension, MessageDecoder, MessageEncoder
   }
 
   @Override
-  public Output encode(Context ctx, Object value) {
-    var factory = ctx.getOutputFactory();
+  public @Nullable Output encode(Context ctx, Object value) {
+    return encode(ctx, value, false);
+  }
+
+  @Override
+  public @Nullable Output encode(Context ctx, Object value, boolean render) {
     ctx.setDefaultResponseType(mediaType);
     if (value instanceof Projected<?> projected) {
       var p = projected.getProjection();
@@ -200,10 +214,124 @@ public class Jackson3Module implements Extension, MessageDecoder, MessageEncoder
                     new SimpleFilterProvider().addFilter(FILTER_ID, new JacksonProjectionFilter(p));
                 return projectionMapper.writer(filters);
               });
-      return factory.wrap(writer.writeValueAsBytes(projected.getValue()));
+      return write(ctx, writer, projected.getValue());
+    }
+    if (mediaType.isJson()) {
+      if (value instanceof BaseStream<?, ?> stream) {
+        try (stream) {
+          return stream(ctx, stream.iterator(), render);
+        }
+      }
+      if (value instanceof Iterable<?> iterable && isStreamable(iterable)) {
+        return stream(ctx, iterable.iterator(), render);
+      }
+    }
+    return write(ctx, writer(ctx, value), value);
+  }
+
+  /**
+   * Serialize straight into a buffered output, there is no intermediate byte array.
+   *
+   * @param ctx Web context.
+   * @param writer Object writer.
+   * @param value Value.
+   * @return Buffered output.
+   */
+  private Output write(Context ctx, ObjectWriter writer, Object value) {
+    var output = ctx.getOutputFactory().allocate();
+    writer.writeValue(output.asOutputStream(), value);
+    return output;
+  }
+
+  /**
+   * Stream items as JSON array into the response. Items are serialized one by one, response is
+   * chunked, and neither the items nor the JSON document are kept in memory.
+   *
+   * <p>Streaming is only possible while rendering the route response. Otherwise (server-sent
+   * events, web socket messages, etc.) items are written into a buffered output. A failure after
+   * the array started aborts the response: closing the array would look like a complete one.
+   *
+   * @param ctx Web context.
+   * @param items Items to write.
+   * @param render True when encoding the route response.
+   * @return Buffered output or <code>null</code> when response was sent.
+   */
+  private @Nullable Output stream(Context ctx, Iterator<?> items, boolean render) {
+    if (!render) {
+      var output = ctx.getOutputFactory().allocate();
+      writeArray(output.asOutputStream(), items);
+      return output;
+    }
+    var out = ctx.responseStream();
+    try {
+      writeArray(out, items);
+    } catch (Exception cause) {
+      ctx.getRouter()
+          .getLog()
+          .error(
+              "unable to write JSON array, response aborted: {} {}",
+              ctx.getMethod(),
+              ctx.getRequestPath(),
+              cause);
+      ctx.abort(cause);
+    }
+    return null;
+  }
+
+  private void writeArray(OutputStream out, Iterator<?> items) {
+    var writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    // closed on success only, a failure must not complete the array or the stream
+    var generator = writer.createGenerator(out);
+    generator.writeStartArray();
+    while (items.hasNext()) {
+      writer.writeValue(generator, items.next());
+    }
+    generator.writeEndArray();
+    generator.close();
+  }
+
+  /**
+   * Collections are in memory already, they are written into a buffer (known response length).
+   * JSON trees and paths are iterable, but they aren't serialized as arrays.
+   */
+  private static boolean isStreamable(Iterable<?> value) {
+    return !(value instanceof Collection<?>)
+        && !(value instanceof TreeNode)
+        && !(value instanceof java.nio.file.Path);
+  }
+
+  /**
+   * Find a writer for the MVC route return type (<code>List&lt;User&gt;</code> instead of <code>
+   * ArrayList</code>). Writers are cached per route method. Non-final types fallback to runtime
+   * type, otherwise subclass properties are lost.
+   *
+   * @param ctx Web context.
+   * @param value Value.
+   * @return Object writer.
+   */
+  private ObjectWriter writer(Context ctx, Object value) {
+    var route = ctx.getRoute();
+    var method = route == null ? null : route.getMvcMethod();
+    if (method != null) {
+      var writer = routeWriters.computeIfAbsent(method, this::routeWriter);
+      if (writer.type.isInstance(value)) {
+        return writer.writer;
+      }
+    }
+    return mapper.writer();
+  }
+
+  private RouteWriter routeWriter(Route.MvcMethod method) {
+    try {
+      var javaType = typeFactory.constructType(method.toMethod().getGenericReturnType());
+      if (javaType.isFinal() || javaType.isContainerType()) {
+        return new RouteWriter(javaType.getRawClass(), mapper.writerFor(javaType));
+      }
+    } catch (Exception ignored) {
+      // fallback to runtime type
     }
-    // let jackson uses his own cache, so wrap the bytes
-    return factory.wrap(mapper.writeValueAsBytes(value));
+    // Void has no instances: always fallback to runtime type
+    return new RouteWriter(Void.class, mapper.writer());
   }
 
   @Override
@@ -10,5 +10,6 @@ module io.jooby.jackson3 {
   requires io.jooby;
   requires static org.jspecify;
   requires typesafe.config;
+  requires org.slf4j;
   requires tools.jackson.databind;
 }
@@ -6,19 +6,30 @@
 package io.jooby.jackson3;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
 
 import io.jooby.Body;
 import io.jooby.Context;
 import io.jooby.MediaType;
+import io.jooby.Route;
+import io.jooby.Router;
+import io.jooby.ServerSentMessage;
 import io.jooby.output.OutputFactory;
 import io.jooby.output.OutputOptions;
 import tools.jackson.databind.ObjectMapper;
@@ -39,6 +50,92 @@ public class JacksonEncoderDecoderTest {
     verify(ctx).setDefaultResponseType(MediaType.json);
   }
 
+  @Test
+  public void streamJson() {
+    var out = new ByteArrayOutputStream();
+    Context ctx = mock(Context.class);
+    when(ctx.responseStream()).thenReturn(out);
+
+    Jackson3Module jackson = new Jackson3Module(new ObjectMapper());
+
+    var buffer = jackson.encode(ctx, Stream.of(mapOf("k", "v"), mapOf("k", "w")), true);
+    assertNull(buffer);
+    assertEquals("[{\"k\":\"v\"},{\"k\":\"w\"}]", out.toString(StandardCharsets.UTF_8));
+
+    verify(ctx).setDefaultResponseType(MediaType.json);
+  }
+
+  @Test
+  public void streamJsonFailureAbortsResponse() {
+    var out = new ByteArrayOutputStream();
+    Context ctx = mock(Context.class);
+    when(ctx.responseStream()).thenReturn(out);
+    var router = mock(Router.class);
+    when(router.getLog()).thenReturn(mock(Logger.class));
+    when(ctx.getRouter()).thenReturn(router);
+
+    Jackson3Module jackson = new Jackson3Module(new ObjectMapper());
+
+    var items =
+        Stream.of("v", "w")
+            .map(
+                it -> {
+                  if (it.equals("w")) {
+                    throw new IllegalStateException("w");
+                  }
+                  return mapOf("k", it);
+                });
+    assertNull(jackson.encode(ctx, items, true));
+    // array is never closed
+    assertFalse(out.toString(StandardCharsets.UTF_8).endsWith("]"));
+
+    verify(ctx).abort(any(IllegalStateException.class));
+  }
+
+  @Test
+  public void streamJsonAsServerSentEvent() {
+    Context ctx = mock(Context.class);
+    when(ctx.getOutputFactory()).thenReturn(OutputFactory.create(OutputOptions.small()));
+    var route = mock(Route.class);
+    when(route.getEncoder()).thenReturn(new Jackson3Module(new ObjectMapper()));
+    when(ctx.getRoute()).thenReturn(route);
+
+    var message = new ServerSentMessage(Stream.of(mapOf("k", "v"), mapOf("k", "w"))).encode(ctx);
+    assertEquals(
+        "data: [{\"k\":\"v\"},{\"k\":\"w\"}]\n\n",
+        StandardCharsets.UTF_8.decode(message.asByteBuffer()).toString());
+
+    verify(ctx, never()).responseStream();
+  }
+
+  @Test
+  public void streamJsonAsWebSocketMessage() {
+    Context ctx = mock(Context.class);
+    when(ctx.getOutputFactory()).thenReturn(OutputFactory.create(OutputOptions.small()));
+
+    Jackson3Module jackson = new Jackson3Module(new ObjectMapper());
+
+    // WebSocket.render: no route response in progress, message must be encoded
+    var buffer = jackson.encode(ctx, Stream.of(mapOf("k", "v"), mapOf("k", "w")));
+    assertEquals(
+        "[{\"k\":\"v\"},{\"k\":\"w\"}]",
+        StandardCharsets.UTF_8.decode(buffer.asByteBuffer()).toString());
+
+    verify(ctx, never()).responseStream();
+  }
+
+  @Test
+  public void renderCollectionIntoBuffer() {
+    Context ctx = mock(Context.class);
+    when(ctx.getOutputFactory()).thenReturn(OutputFactory.create(OutputOptions.small()));
+
+    Jackson3Module jackson = new Jackson3Module(new ObjectMapper());
+
+    var buffer = jackson.encode(ctx, List.of(mapOf("k", "v")));
+    assertEquals(
+        "[{\"k\":\"v\"}]", StandardCharsets.UTF_8.decode(buffer.asByteBuffer()).toString());
+  }
+
   @Test
   public void parseJson() throws Exception {
     byte[] bytes = "{\"k\":\"v\"}".getBytes(StandardCharsets.UTF_8);
@@ -0,0 +1,126 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.jetty;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jetty.server.Request;
+
+import io.jooby.ReactiveSupport;
+import io.jooby.StatusCode;
+import io.jooby.exception.StatusCodeException;
+
+/**
+ * Publish request body as it arrives. Jetty never reads the body ahead of the application, so
+ * chunks are read while the subscriber has demand and {@link Request#demand(Runnable)} is used to
+ * get notified when more content is available.
+ */
+public class JettyBodyPublisher implements Flow.Publisher<ByteBuffer>, Flow.Subscription, Runnable {
+
+  private final Request request;
+
+  private final long maxRequestSize;
+
+  private final AtomicBoolean subscribed = new AtomicBoolean();
+
+  private final AtomicLong demand = new AtomicLong();
+
+  private volatile Flow.Subscriber<? super ByteBuffer> subscriber;
+
+  private volatile boolean done;
+
+  private long size;
+
+  public JettyBodyPublisher(Request request, long maxRequestSize) {
+    this.request = request;
+    this.maxRequestSize = maxRequestSize;
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+    if (subscribed.compareAndSet(false, true)) {
+      this.subscriber = subscriber;
+      subscriber.onSubscribe(this);
+    } else {
+      ReactiveSupport.reject(subscriber, new IllegalStateException("Body was subscribed already"));
+    }
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      fail(new IllegalArgumentException("Demand must be positive: " + n));
+    } else if (demand.getAndAccumulate(n, ReactiveSupport::addDemand) == 0 && !done) {
+      run();
+    }
+  }
+
+  @Override
+  public void cancel() {
+    // remaining content is consumed by Jetty once the response is complete
+    done = true;
+    demand.set(0);
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (!done && demand.get() > 0) {
+        var chunk = request.read();
+        if (chunk == null) {
+          request.demand(this);
+          return;
+        }
+        try {
+          var failure = chunk.getFailure();
+          if (failure != null) {
+            fail(failure);
+            return;
+          }
+          var buffer = chunk.getByteBuffer();
+          if (buffer != null && buffer.hasRemaining()) {
+            size += buffer.remaining();
+            if (maxRequestSize > 0 && size > maxRequestSize) {
+              fail(new StatusCodeException(StatusCode.REQUEST_ENTITY_TOO_LARGE));
+              return;
+            }
+            try {
+              // buffer is released once onNext returns
+              subscriber.onNext(buffer);
+            } catch (Throwable cause) {
+              // subscriber failed, subscription is cancelled
+              cancel();
+              throw cause;
+            }
+            demand.decrementAndGet();
+          }
+          if (chunk.isLast()) {
+            done = true;
+            subscriber.onComplete();
+            return;
+          }
+        } finally {
+          chunk.release();
+        }
+      }
+    } catch (Throwable cause) {
+      if (done) {
+        throw cause;
+      }
+      fail(cause);
+    }
+  }
+
+  private void fail(Throwable cause) {
+    if (!done) {
+      done = true;
+      subscriber.onError(cause);
+    }
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.jetty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+import org.eclipse.jetty.compression.Compression;
+import org.eclipse.jetty.compression.gzip.GzipCompression;
+import org.eclipse.jetty.compression.server.CompressionConfig;
+import org.eclipse.jetty.compression.server.CompressionHandler;
+import org.eclipse.jetty.http.MimeTypes;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Response;
+import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.compression.DeflaterPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.jooby.CompressionOptions;
+import io.jooby.Route;
+
+/**
+ * Jetty compression handler configured from {@link CompressionOptions}:
+ *
+ * <ul>
+ *   <li>Encodings: <code>gzip</code> is always available, <code>br</code> and <code>zstd</code>
+ *       when <code>jetty-compression-brotli</code> and <code>jetty-compression-zstandard</code> are
+ *       present. There is no <code>deflate</code> support. Missing encodings are logged and
+ *       ignored.
+ *   <li>Min size: applies to every encoding.
+ *   <li>Types: Jetty matches types exactly, so wildcards (<code>text/*</code>) are expanded using
+ *       the types Jetty knows about. <code>*&#47;*</code> keeps the Jetty defaults.
+ *   <li>{@link Route#setCompress(boolean)}: routes that turn compression off write to the
+ *       response as it was before compression, see {@link #RESPONSE}.
+ * </ul>
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+public class JettyCompressionHandler extends CompressionHandler {
+
+  /** Request attribute with the uncompressed response. Only set when a route opts out. */
+  public static final String RESPONSE = JettyCompressionHandler.class.getName() + ".response";
+
+  private static final String ANY = "*/*";
+
+  private final boolean routeOptOut;
+
+  /**
+   * Creates a compression handler.
+   *
+   * @param options Compression options.
+   * @param deflater Deflater pool, with the compression level.
+   * @param routeOptOut True when at least one route turns compression off.
+   */
+  public JettyCompressionHandler(
+      CompressionOptions options, DeflaterPool deflater, boolean routeOptOut) {
+    this.routeOptOut = routeOptOut;
+    Logger log = LoggerFactory.getLogger(getClass());
+    Map<String, Compression> available = new HashMap<>();
+    for (var compression : ServiceLoader.load(Compression.class)) {
+      available.put(compression.getEncodingName(), compression);
+    }
+    var encodings = new ArrayList<String>();
+    for (var encoding : options.getEncodings()) {
+      Compression compression;
+      if (encoding.equals(CompressionOptions.GZIP)) {
+        var gzip = new GzipCompression();
+        gzip.setDeflaterPool(deflater);
+        compression = gzip;
+      } else {
+        compression = available.get(encoding);
+      }
+      if (compression == null) {
+        log.warn("{} compression is not available on Jetty, it is ignored", encoding);
+      } else {
+        compression.setMinCompressSize(options.getMinSize());
+        putCompression(compression);
+        encodings.add(encoding);
+      }
+    }
+
+    var config = CompressionConfig.builder().compressPreferredEncodings(encodings);
+    var mimeTypes = options.getMimeTypes();
+    if (mimeTypes.contains(ANY)) {
+      config.defaults();
+    } else {
+      for (var mimeType : mimeTypes) {
+        if (mimeType.endsWith("/*")) {
+          var prefix = mimeType.substring(0, mimeType.length() - 1);
+          for (var known : MimeTypes.DEFAULTS.getMimeMap().values()) {
+            if (known.toLowerCase(Locale.ROOT).startsWith(prefix)) {
+              config.compressIncludeMimeType(known);
+            }
+          }
+        } else {
+          config.compressIncludeMimeType(mimeType);
+        }
+      }
+    }
+    putConfiguration("/", config.build());
+  }
+
+  @Override
+  public boolean handle(Request request, Response response, Callback callback) throws Exception {
+    if (routeOptOut) {
+      request.setAttribute(RESPONSE, response);
+    }
+    return super.handle(request, response, callback);
+  }
+}
@@ -33,6 +33,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
 
 import org.eclipse.jetty.http.*;
 import org.eclipse.jetty.http.HttpField;
@@ -153,6 +154,11 @@ public class JettyContext implements DefaultContext, Callback {
     return Body.of(this, in, len);
   }
 
+  @Override
+  public Flow.Publisher<ByteBuffer> bodyPublisher() {
+    return new JettyBodyPublisher(request, maxRequestSize);
+  }
+
   @Override
   public Router getRouter() {
     return router;
@@ -205,7 +211,11 @@ public class JettyContext implements DefaultContext, Callback {
   @Override
   public QueryString query() {
     if (query == null) {
-      query = QueryString.create(getValueFactory(), request.getHttpURI().getQuery());
+      query =
+          QueryString.create(
+              getValueFactory(),
+              request.getHttpURI().getQuery(),
+              router.getRouterOptions().isLazyQueryString());
     }
     return query;
   }
@@ -595,8 +605,16 @@ public class JettyContext implements DefaultContext, Callback {
   @Override
   public Context send(FileChannel file) {
     try {
-      response.getHeaders().put(CONTENT_LENGTH, file.size());
-      return sendStreamInternal(Channels.newInputStream(file));
+      var len = file.size();
+      response.getHeaders().put(CONTENT_LENGTH, len);
+      var range = ByteRange.parse(request.getHeaders().get(HttpHeader.RANGE), len).apply(this);
+      // reads the file region straight into pooled buffers, channel is closed once done
+      var pool =
+          new ByteBufferPool.Sized(request.getComponents().getByteBufferPool(), true, bufferSize);
+      responseStarted = true;
+      Content.copy(
+          Content.Source.from(pool, file, range.getStart(), range.getEnd()), response, this);
+      return this;
     } catch (IOException x) {
       throw SneakyThrows.propagate(x);
     }
@@ -607,6 +625,14 @@ public class JettyContext implements DefaultContext, Callback {
     return responseStarted || response.isCommitted();
   }
 
+  @Override
+  public Context abort(Throwable cause) {
+    responseStarted = true;
+    // committed response: Jetty aborts the stream/connection
+    failed(cause);
+    return this;
+  }
+
   @Override
   public boolean getResetHeadersOnError() {
     return resetHeadersOnError == null
@@ -57,6 +57,16 @@ public class JettyGrpcExchange implements GrpcExchange {
     return map;
   }
 
+  @Override
+  public boolean supportsResponseHeaders() {
+    return true;
+  }
+
+  @Override
+  public void setResponseHeader(String name, String value) {
+    response.getHeaders().put(name, value);
+  }
+
   @Override
   public void send(ByteBuffer payload, Consumer<Throwable> callback) {
     headersSent = true;
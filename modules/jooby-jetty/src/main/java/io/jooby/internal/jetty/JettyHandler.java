@@ -43,7 +43,12 @@ public class JettyHandler extends Handler.Abstract {
       var context =
           new JettyContext(
               getInvocationType(), request, response, callback, router, bufferSize, maxRequestSize);
-      router.match(context).execute(context);
+      var match = router.match(context);
+      if (!match.route().isCompress()
+          && request.getAttribute(JettyCompressionHandler.RESPONSE) instanceof Response plain) {
+        context.response = plain;
+      }
+      match.execute(context);
     } catch (JettyStopPipeline ignored) {
       // handled already,
     }
@@ -8,7 +8,6 @@ package io.jooby.internal.jetty;
 import static io.jooby.internal.jetty.JettyCallbacks.fromOutput;
 
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.jetty.io.EofException;
@@ -79,8 +78,7 @@ public class JettyServerSentEmitter implements ServerSentEmitter, Callback {
   @Override
   public ServerSentEmitter keepAlive(long timeInMillis) {
     if (isOpen()) {
-      var scheduler = jetty.request.getConnectionMetaData().getConnector().getScheduler();
-      scheduler.schedule(new KeepAlive(this, timeInMillis), timeInMillis, TimeUnit.MILLISECONDS);
+      ServerSentEmitter.heartbeat(this, timeInMillis);
     }
     return this;
   }
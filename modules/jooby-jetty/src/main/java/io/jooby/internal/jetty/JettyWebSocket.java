@@ -16,6 +16,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 
@@ -90,6 +91,8 @@ public class JettyWebSocket
   private AtomicReference<WebSocket.OnClose> onCloseCallback = new AtomicReference<>();
   private WebSocket.OnError onErrorCallback;
   private AtomicBoolean open = new AtomicBoolean(false);
+  /** Bytes of broadcast messages waiting to be written. */
+  private final AtomicLong pendingBroadcast = new AtomicLong();
 
   public JettyWebSocket(JettyContext ctx) {
     this.ctx = ctx;
@@ -333,6 +336,62 @@ public class JettyWebSocket
     return this;
   }
 
+  @Override
+  public WebSocket broadcast(Object value, SlowConsumer slowConsumer) {
+    return broadcastMessage(value, false, slowConsumer);
+  }
+
+  @Override
+  public WebSocket broadcastBinary(Object value, SlowConsumer slowConsumer) {
+    return broadcastMessage(value, true, slowConsumer);
+  }
+
+  private WebSocket broadcastMessage(Object value, boolean binary, SlowConsumer slowConsumer) {
+    List<JettyWebSocket> sessions = all.get(key);
+    if (sessions == null) {
+      return this;
+    }
+    BiConsumer<Session, Callback> writer;
+    int size;
+    try {
+      var message = Context.websocketMessage(ctx, this, value).asByteBuffer();
+      size = message.remaining();
+      if (binary) {
+        writer = (remote, writeCallback) -> remote.sendBinary(message.duplicate(), writeCallback);
+      } else {
+        var text = UTF_8.decode(message).toString();
+        writer = (remote, writeCallback) -> remote.sendText(text, writeCallback);
+      }
+    } catch (Throwable x) {
+      onWebSocketError(x);
+      return this;
+    }
+    for (JettyWebSocket ws : sessions) {
+      ws.sendSharedMessage(writer, size, slowConsumer);
+    }
+    return this;
+  }
+
+  /**
+   * Write a message shared by multiple sessions. Sessions with more than {@link
+   * WebSocket#MAX_BUFFER_SIZE} bytes of pending broadcast messages are considered slow.
+   */
+  private void sendSharedMessage(
+      BiConsumer<Session, Callback> writer, int size, SlowConsumer slowConsumer) {
+    if (!isOpen()) {
+      return;
+    }
+    if (pendingBroadcast.get() >= MAX_BUFFER_SIZE) {
+      if (slowConsumer == SlowConsumer.CLOSE) {
+        handleClose(WebSocketCloseStatus.SERVICE_OVERLOAD);
+      }
+      return;
+    }
+    pendingBroadcast.addAndGet(size);
+    sendMessage(
+        writer, new WriteCallbackAdaptor(this, (ws, cause) -> pendingBroadcast.addAndGet(-size)));
+  }
+
   @Override
   public WebSocket close(WebSocketCloseStatus closeStatus) {
     handleClose(closeStatus);
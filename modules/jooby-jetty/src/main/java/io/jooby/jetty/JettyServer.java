@@ -11,15 +11,17 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
-import org.eclipse.jetty.compression.server.CompressionHandler;
 import org.eclipse.jetty.http.UriCompliance;
 import org.eclipse.jetty.server.*;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.handler.ContextHandler;
 import org.eclipse.jetty.util.DecoratedObjectFactory;
+import org.eclipse.jetty.util.VirtualThreads;
 import org.eclipse.jetty.util.compression.CompressionPool;
 import org.eclipse.jetty.util.compression.DeflaterPool;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
@@ -58,6 +60,8 @@ public class JettyServer extends io.jooby.Server.Base {
 
   private ThreadPool threadPool;
 
+  private ExecutorService virtualWorker;
+
   private List<Jooby> applications;
 
   private Consumer<HttpConfiguration> httpConfigurer;
@@ -132,6 +136,15 @@ public class JettyServer extends io.jooby.Server.Base {
         threadPool = new QueuedThreadPool(options.getWorkerThreads());
         ((QueuedThreadPool) threadPool).setName("worker");
       }
+      Executor worker = threadPool;
+      if (options.isVirtualThreads()) {
+        virtualWorker = newVirtualThreadExecutor("worker");
+        if (threadPool instanceof VirtualThreads.Configurable configurable) {
+          // blocking handlers dispatched by jetty itself
+          configurable.setVirtualThreadsExecutor(virtualWorker);
+        }
+        worker = virtualWorker;
+      }
 
       var acceptors = 1;
       var selectors = options.getIoThreads();
@@ -229,13 +242,15 @@ public class JettyServer extends io.jooby.Server.Base {
           application[0].getRoutes().stream().anyMatch(it -> it.getMethod().equals(Router.WS));
 
       /* ********************************* Compression *************************************/
-      var gzip = options.getCompressionLevel() != null;
-      var compress = gzip || webSockets;
+      var compression = options.getCompression();
+      var compress = compression != null || webSockets;
+      DeflaterPool deflater = null;
       if (compress) {
         int compressionLevel =
             Optional.ofNullable(options.getCompressionLevel())
+                .map(level -> Math.min(level, 9))
                 .orElse(ServerOptions.DEFAULT_COMPRESSION_LEVEL);
-        DeflaterPool deflater = newDeflater(compressionLevel);
+        deflater = newDeflater(compressionLevel);
         server.addBean(deflater, true);
       }
 
@@ -246,9 +261,12 @@ public class JettyServer extends io.jooby.Server.Base {
       context.setHandler(handler);
 
       /* ********************************* Gzip *************************************/
-      if (gzip) {
-        var gzipHandler = new CompressionHandler();
-        context.insertHandler(gzipHandler);
+      if (compression != null) {
+        var routeOptOut =
+            applications.stream()
+                .flatMap(app -> app.getRoutes().stream())
+                .anyMatch(route -> !route.isCompress());
+        context.insertHandler(new JettyCompressionHandler(compression, deflater, routeOptOut));
       }
       /* ********************************* WebSocket *************************************/
       if (webSockets) {
@@ -275,7 +293,7 @@ public class JettyServer extends io.jooby.Server.Base {
         services.put(Server.class, server);
       }
 
-      fireStart(List.of(application), threadPool);
+      fireStart(List.of(application), worker);
 
       server.start();
       if (httpConector != null) {
@@ -355,6 +373,10 @@ public class JettyServer extends io.jooby.Server.Base {
         throw SneakyThrows.propagate(x);
       } finally {
         server = null;
+        if (virtualWorker != null) {
+          virtualWorker.shutdown();
+          virtualWorker = null;
+        }
       }
     }
     return this;
@@ -19,7 +19,12 @@ module io.jooby.jetty {
   requires org.eclipse.jetty.websocket.server;
   requires java.desktop;
   requires org.eclipse.jetty.http;
+  requires org.eclipse.jetty.compression;
+  requires org.eclipse.jetty.compression.gzip;
   requires org.eclipse.jetty.compression.server;
+  requires org.slf4j;
+
+  uses org.eclipse.jetty.compression.Compression;
 
   provides Server with
       JettyServer;
@@ -9,10 +9,13 @@ import static org.eclipse.jetty.http.HttpHeader.CONTENT_LENGTH;
 import static org.mockito.Mockito.*;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 
 import org.eclipse.jetty.http.HttpFields;
 import org.eclipse.jetty.http.HttpURI;
+import org.eclipse.jetty.io.ByteBufferPool;
+import org.eclipse.jetty.server.Components;
 import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.Response;
 import org.eclipse.jetty.util.Callback;
@@ -30,6 +33,10 @@ public class Issue3437 {
     var request = mock(Request.class);
     when(request.getMethod()).thenReturn("GET");
     when(request.getHttpURI()).thenReturn(uri);
+    when(request.getHeaders()).thenReturn(HttpFields.EMPTY);
+    var components = mock(Components.class);
+    when(components.getByteBufferPool()).thenReturn(ByteBufferPool.NON_POOLING);
+    when(request.getComponents()).thenReturn(components);
 
     var headers = mock(HttpFields.Mutable.class);
 
@@ -39,6 +46,15 @@ public class Issue3437 {
     var router = mock(Router.class);
     var channel = mock(FileChannel.class);
     when(channel.size()).thenReturn(fileSize);
+    when(channel.isOpen()).thenReturn(true);
+    // first chunk is read, but response write is still pending
+    when(channel.read(any(ByteBuffer.class)))
+        .thenAnswer(
+            call -> {
+              ByteBuffer buffer = call.getArgument(0);
+              buffer.put(new byte[100]);
+              return 100;
+            });
 
     var context =
         new JettyContext(
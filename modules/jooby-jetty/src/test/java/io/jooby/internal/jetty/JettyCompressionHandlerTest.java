@@ -0,0 +1,100 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.jetty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpURI;
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Response;
+import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.compression.DeflaterPool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.jooby.CompressionOptions;
+import io.jooby.Context;
+import io.jooby.Route;
+import io.jooby.Router;
+
+public class JettyCompressionHandlerTest {
+
+  private final DeflaterPool deflater = new DeflaterPool(1, 6, true);
+
+  @Test
+  @DisplayName("Types, wildcards and encodings are mapped to the Jetty configuration")
+  void shouldMapOptions() {
+    var options =
+        new CompressionOptions()
+            .setEncodings("zstd", "br", "gzip", "deflate")
+            .setMimeTypes("text/*", "application/json");
+    var config = new JettyCompressionHandler(options, deflater, false).getConfiguration("/");
+
+    // no brotli, zstd or deflate on the classpath
+    assertEquals(List.of("gzip"), config.getCompressPreferredEncodings());
+    assertTrue(config.isCompressMimeTypeSupported("application/json"));
+    assertTrue(config.isCompressMimeTypeSupported("text/html"));
+    assertTrue(config.isCompressMimeTypeSupported("text/css"));
+    assertFalse(config.isCompressMimeTypeSupported("image/png"));
+    assertFalse(config.isCompressMimeTypeSupported("application/xml"));
+  }
+
+  @Test
+  @DisplayName("Any type keeps the Jetty defaults")
+  void shouldKeepDefaultsForAnyType() {
+    var options = new CompressionOptions().setMimeTypes(CompressionOptions.ANY_TYPE);
+    var config = new JettyCompressionHandler(options, deflater, false).getConfiguration("/");
+
+    assertTrue(config.isCompressMimeTypeSupported("application/xml"));
+    assertTrue(config.isCompressMimeTypeSupported("text/html"));
+    // already compressed
+    assertFalse(config.isCompressMimeTypeSupported("image/png"));
+  }
+
+  @Test
+  @DisplayName("Routes with compression off write to the uncompressed response")
+  void shouldSkipCompressionForRoute() throws Exception {
+    var request = mock(Request.class);
+    when(request.getMethod()).thenReturn("GET");
+    when(request.getHttpURI()).thenReturn(HttpURI.from("/"));
+    var compressed = mock(Response.class);
+    when(compressed.getHeaders()).thenReturn(HttpFields.build());
+    var plain = mock(Response.class);
+    when(request.getAttribute(JettyCompressionHandler.RESPONSE)).thenReturn(plain);
+
+    var route = mock(Route.class);
+    var match = mock(Router.Match.class);
+    when(match.route()).thenReturn(route);
+    var router = mock(Router.class);
+    when(router.match(any())).thenReturn(match);
+    var handler =
+        new JettyHandler(Handler.Abstract.InvocationType.BLOCKING, router, 1024, 1024, false);
+
+    when(route.isCompress()).thenReturn(false);
+    handler.handle(request, compressed, mock(Callback.class));
+    var context = ArgumentCaptor.forClass(Context.class);
+    verify(match).execute(context.capture());
+    assertSame(plain, ((JettyContext) context.getValue()).response);
+
+    when(route.isCompress()).thenReturn(true);
+    handler.handle(request, compressed, mock(Callback.class));
+    verify(match, times(2)).execute(context.capture());
+    assertSame(compressed, ((JettyContext) context.getValue()).response);
+  }
+}
@@ -7,6 +7,8 @@ package io.jooby.jwt;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
@@ -20,11 +22,10 @@ import io.jooby.Cookie;
 import io.jooby.Session;
 import io.jooby.SessionStore;
 import io.jooby.SessionToken;
-import io.jooby.SneakyThrows;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
@@ -44,13 +45,30 @@ import io.jsonwebtoken.security.Keys;
  * <p>This session store delegates to {@link SessionStore#signed(SessionToken, Function, Function)}
  * using JSON Web Token library.
  *
+ * <p>Verified tokens are kept in a bounded cache (until they expire), so a token is parsed and
+ * verified once. Likewise, encoded tokens are cached by session attributes, so unchanged sessions
+ * are not signed again. See {@link #setCacheSize(int)}.
+ *
  * @author edgar
  * @since 2.2.0
  */
 public class JwtSessionStore implements SessionStore {
 
+  /** Default max number of cached tokens. */
+  private static final int CACHE_SIZE = 1024;
+
+  private record Decoded(Map<String, String> attributes, long expiresAt) {}
+
   private final SessionStore store;
 
+  private final JwtParser parser;
+
+  private final Key key;
+
+  private @Nullable TokenCache<String, Decoded> decoded;
+
+  private @Nullable TokenCache<Map<String, String>, String> encoded;
+
   /**
    * Creates a JSON Web Token session store. Session token is usually a {@link
    * SessionToken#signedCookie(Cookie)}, {@link SessionToken#header(String)} or combination of both.
@@ -70,7 +88,26 @@ public class JwtSessionStore implements SessionStore {
    * @param key Secret key.
    */
   public JwtSessionStore(SessionToken token, SecretKey key) {
-    this.store = SessionStore.signed(token, decoder(key), encoder(key));
+    this.parser = Jwts.parser().verifyWith(key).build();
+    this.key = key;
+    this.store = SessionStore.signed(token, this::decode, this::encode);
+    setCacheSize(CACHE_SIZE);
+  }
+
+  /**
+   * Set max number of decoded and encoded tokens to keep in memory. Default is: <code>1024</code>.
+   * Set to <code>0</code> to turn off caching.
+   *
+   * @param maxSize Max number of tokens to cache.
+   * @return This store.
+   */
+  public JwtSessionStore setCacheSize(int maxSize) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+    }
+    this.decoded = maxSize == 0 ? null : new TokenCache<>(maxSize);
+    this.encoded = maxSize == 0 ? null : new TokenCache<>(maxSize);
+    return this;
   }
 
   @Override
@@ -103,28 +140,54 @@ public class JwtSessionStore implements SessionStore {
     store.renewSessionId(ctx, session);
   }
 
-  static SneakyThrows.Function<String, Map<String, String>> decoder(SecretKey key) {
-    return value -> {
-      try {
-        Jws<Claims> claims = Jwts.parser().verifyWith(key).build().parseSignedClaims(value);
-        Map<String, String> attributes = new HashMap<>();
-        for (Map.Entry<String, Object> entry : claims.getPayload().entrySet()) {
-          attributes.put(entry.getKey(), entry.getValue().toString());
+  @Nullable Map<String, String> decode(String value) {
+    var cache = this.decoded;
+    if (cache != null) {
+      var entry = cache.get(value);
+      if (entry != null) {
+        if (System.currentTimeMillis() < entry.expiresAt) {
+          return entry.attributes;
         }
-        return attributes;
-      } catch (JwtException x) {
+        // expired, parser would reject it too
+        cache.remove(value);
         return null;
       }
-    };
+    }
+    try {
+      Claims claims = parser.parseSignedClaims(value).getPayload();
+      Map<String, String> attributes = new HashMap<>();
+      for (Map.Entry<String, Object> entry : claims.entrySet()) {
+        attributes.put(entry.getKey(), entry.getValue().toString());
+      }
+      attributes = Collections.unmodifiableMap(attributes);
+      if (cache != null) {
+        Date expiration = claims.getExpiration();
+        var expiresAt = expiration == null ? Long.MAX_VALUE : expiration.getTime();
+        cache.put(value, new Decoded(attributes, expiresAt));
+      }
+      return attributes;
+    } catch (JwtException x) {
+      return null;
+    }
   }
 
-  static SneakyThrows.Function<Map<String, String>, String> encoder(Key key) {
-    return attributes -> {
-      JwtBuilder builder = Jwts.builder().signWith(key);
-      for (Map.Entry<String, String> entry : attributes.entrySet()) {
-        builder.claim(entry.getKey(), entry.getValue());
+  String encode(Map<String, String> attributes) {
+    var cache = this.encoded;
+    if (cache != null) {
+      var token = cache.get(attributes);
+      if (token != null) {
+        return token;
       }
-      return builder.compact();
-    };
+    }
+    JwtBuilder builder = Jwts.builder().signWith(key);
+    for (Map.Entry<String, String> entry : attributes.entrySet()) {
+      builder.claim(entry.getKey(), entry.getValue());
+    }
+    var token = builder.compact();
+    if (cache != null) {
+      // Session attributes are mutable, keep a copy
+      cache.put(Map.copyOf(attributes), token);
+    }
+    return token;
   }
 }
@@ -0,0 +1,105 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.jwt;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Bounded cache of tokens. Lookups are lock free, entries keep their last access time. When the
+ * cache gets full, a sample of entries is used to find the least recently used ones, which are
+ * evicted until the cache is 3/4 full. Concurrent writes might go over the max size for a short
+ * period of time.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author edgar
+ * @since 4.5.5
+ */
+final class TokenCache<K, V> {
+
+  private static final class Entry<V> {
+    private final V value;
+
+    private volatile long accessedAt;
+
+    Entry(V value, long accessedAt) {
+      this.value = value;
+      this.accessedAt = accessedAt;
+    }
+  }
+
+  /** Number of entries inspected to compute the LRU threshold during eviction. */
+  private static final int SAMPLE_SIZE = 64;
+
+  private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+  private final AtomicBoolean evicting = new AtomicBoolean();
+
+  private final int maxSize;
+
+  TokenCache(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  @Nullable V get(K key) {
+    var entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    entry.accessedAt = System.nanoTime();
+    return entry.value;
+  }
+
+  void put(K key, V value) {
+    if (entries.size() >= maxSize) {
+      evict();
+    }
+    entries.put(key, new Entry<>(value, System.nanoTime()));
+  }
+
+  void remove(K key) {
+    entries.remove(key);
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  private void evict() {
+    if (!evicting.compareAndSet(false, true)) {
+      // someone else is on it
+      return;
+    }
+    try {
+      int target = maxSize - Math.max(1, maxSize / 4);
+      int size = entries.size();
+      if (size <= target) {
+        return;
+      }
+      long[] sample = new long[Math.min(SAMPLE_SIZE, size)];
+      int count = 0;
+      for (var entry : entries.values()) {
+        if (count == sample.length) {
+          break;
+        }
+        sample[count++] = entry.accessedAt;
+      }
+      if (count == 0) {
+        return;
+      }
+      Arrays.sort(sample, 0, count);
+      int index = Math.min(count - 1, (int) ((long) (size - target) * count / size));
+      long threshold = sample[index];
+      entries.values().removeIf(entry -> entry.accessedAt <= threshold);
+    } finally {
+      evicting.set(false);
+    }
+  }
+}
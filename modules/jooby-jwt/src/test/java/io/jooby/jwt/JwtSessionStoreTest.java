@@ -0,0 +1,116 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.crypto.SecretKey;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.jooby.SessionToken;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+public class JwtSessionStoreTest {
+
+  private static final SecretKey KEY =
+      Keys.hmacShaKeyFor("7a85c3b6-3ef0-4625-82d3-a1da36094804".getBytes(StandardCharsets.UTF_8));
+
+  private final JwtSessionStore store = new JwtSessionStore(mock(SessionToken.class), KEY);
+
+  @Test
+  @DisplayName("Decoded tokens are verified once")
+  public void shouldCacheDecodedToken() {
+    var token = store.encode(Map.of("user", "1"));
+
+    var attributes = store.decode(token);
+    assertEquals(Map.of("user", "1"), attributes);
+    assertSame(attributes, store.decode(token));
+  }
+
+  @Test
+  @DisplayName("Changed tokens are decoded again")
+  public void shouldDecodeChangedToken() {
+    var token = store.encode(Map.of("user", "1"));
+    assertEquals(Map.of("user", "1"), store.decode(token));
+
+    var changed = store.encode(Map.of("user", "2"));
+    assertNotEquals(token, changed);
+    assertEquals(Map.of("user", "2"), store.decode(changed));
+
+    // same claims, different signature
+    var other =
+        new JwtSessionStore(
+                mock(SessionToken.class),
+                Keys.hmacShaKeyFor(
+                    "0c8b9f9e-1d0e-4a1a-9a6c-5c7a3b2e1f00".getBytes(StandardCharsets.UTF_8)))
+            .encode(Map.of("user", "1"));
+    assertNotEquals(token, other);
+    assertNull(store.decode(other));
+  }
+
+  @Test
+  @DisplayName("Cached tokens are rejected once expired")
+  public void shouldExpireCachedToken() throws InterruptedException {
+    var token =
+        Jwts.builder()
+            .claim("user", "1")
+            .expiration(new Date(System.currentTimeMillis() + 2000))
+            .signWith(KEY)
+            .compact();
+    assertEquals("1", store.decode(token).get("user"));
+
+    // expiration has seconds precision
+    Thread.sleep(2100);
+
+    assertNull(store.decode(token));
+  }
+
+  @Test
+  @DisplayName("Unchanged sessions are not signed again")
+  public void shouldCacheEncodedToken() {
+    var attributes = new HashMap<String, String>();
+    attributes.put("user", "1");
+
+    var token = store.encode(attributes);
+    assertSame(token, store.encode(Map.of("user", "1")));
+
+    // cached by value, not by the mutable session map
+    attributes.put("role", "admin");
+    var changed = store.encode(attributes);
+    assertNotEquals(token, changed);
+    assertEquals(Map.of("user", "1", "role", "admin"), store.decode(changed));
+  }
+
+  @Test
+  @DisplayName("Cache size zero turns caching off")
+  public void shouldTurnOffCache() {
+    store.setCacheSize(0);
+
+    var token = store.encode(Map.of("user", "1"));
+    assertNotSame(token, store.encode(Map.of("user", "1")));
+    assertEquals(token, store.encode(Map.of("user", "1")));
+
+    var attributes = store.decode(token);
+    assertNotSame(attributes, store.decode(token));
+    assertEquals(attributes, store.decode(token));
+
+    assertThrows(IllegalArgumentException.class, () -> store.setCacheSize(-1));
+  }
+}
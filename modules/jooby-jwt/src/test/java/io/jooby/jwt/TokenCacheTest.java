@@ -0,0 +1,53 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TokenCacheTest {
+
+  @Test
+  @DisplayName("Cache is bounded, least recently used entries are evicted first")
+  public void shouldEvictLeastRecentlyUsed() throws InterruptedException {
+    var cache = new TokenCache<String, String>(8);
+    for (int i = 0; i < 8; i++) {
+      cache.put("k" + i, "v" + i);
+    }
+    Thread.sleep(1);
+    // recently used
+    assertEquals("v0", cache.get("k0"));
+
+    cache.put("k8", "v8");
+    assertTrue(cache.size() <= 8, "size: " + cache.size());
+    assertEquals("v0", cache.get("k0"));
+    assertEquals("v8", cache.get("k8"));
+
+    for (int i = 9; i < 1000; i++) {
+      cache.put("k" + i, "v" + i);
+    }
+    assertTrue(cache.size() <= 8, "size: " + cache.size());
+  }
+
+  @Test
+  @DisplayName("Single entry cache keeps the last entry")
+  public void shouldKeepLastEntry() {
+    var cache = new TokenCache<String, String>(1);
+    cache.put("a", "1");
+    cache.put("b", "2");
+
+    assertEquals(1, cache.size());
+    assertNull(cache.get("a"));
+    assertEquals("2", cache.get("b"));
+
+    cache.remove("b");
+    assertEquals(0, cache.size());
+  }
+}
@@ -0,0 +1,245 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.metrics;
+
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+
+/**
+ * Log-linear histogram (HdrHistogram style) of fixed size. Values are counted in buckets: values
+ * lower than <code>128</code> have their own bucket, larger values share buckets of 64 linear
+ * steps per power of two, so recorded values keep a precision of ~1.5%.
+ *
+ * <p>Recording a value is a bucket lookup plus an atomic increment, there is no sampling, locking
+ * or allocation. Values are kept since creation time (not decayed), which is what Prometheus
+ * expects from summaries and histograms.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+class BucketReservoir implements Reservoir {
+
+  private static final int SUB_BUCKET_BITS = 6;
+
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  private static final int LINEAR = SUB_BUCKETS << 1;
+
+  /** Values are capped to one hour in nanoseconds. */
+  private static final long MAX_VALUE = TimeUnit.HOURS.toNanos(1);
+
+  private final AtomicLongArray buckets = new AtomicLongArray(index(MAX_VALUE) + 1);
+
+  private final LongAdder count = new LongAdder();
+
+  private final LongAdder sum = new LongAdder();
+
+  private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+  private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+  @Override
+  public int size() {
+    return (int) Math.min(Integer.MAX_VALUE, count.sum());
+  }
+
+  @Override
+  public void update(long value) {
+    long v = Math.min(Math.max(value, 0), MAX_VALUE);
+    buckets.incrementAndGet(index(v));
+    count.increment();
+    sum.add(v);
+    if (v < min.get()) {
+      min.accumulateAndGet(v, Math::min);
+    }
+    if (v > max.get()) {
+      max.accumulateAndGet(v, Math::max);
+    }
+  }
+
+  /**
+   * Number of recorded values.
+   *
+   * @return Number of recorded values.
+   */
+  public long count() {
+    return count.sum();
+  }
+
+  /**
+   * Sum of recorded values.
+   *
+   * @return Sum of recorded values.
+   */
+  public long sum() {
+    return sum.sum();
+  }
+
+  /**
+   * Value at the given quantile, computed from live buckets without copying them.
+   *
+   * @param quantile Quantile between <code>0</code> and <code>1</code>.
+   * @return Value at quantile or <code>0</code> when empty.
+   */
+  public long quantile(double quantile) {
+    long rank = rank(count.sum(), quantile);
+    if (rank == 0) {
+      return 0;
+    }
+    long seen = 0;
+    for (int i = 0; i < buckets.length(); i++) {
+      seen += buckets.get(i);
+      if (seen >= rank) {
+        return Math.min(valueOf(i), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  @Override
+  public Snapshot getSnapshot() {
+    long[] counts = new long[buckets.length()];
+    long total = 0;
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = buckets.get(i);
+      total += counts[i];
+    }
+    return new BucketSnapshot(counts, total, sum.sum(), min.get(), max.get());
+  }
+
+  static int index(long value) {
+    if (value < LINEAR) {
+      return (int) value;
+    }
+    int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+    return LINEAR + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+  }
+
+  static long valueOf(int index) {
+    if (index < LINEAR) {
+      return index;
+    }
+    int bucket = index - LINEAR;
+    int shift = bucket / SUB_BUCKETS + 1;
+    long low = (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+    // middle of the bucket
+    return low + ((1L << shift) >> 1);
+  }
+
+  private static long rank(long total, double quantile) {
+    return total == 0 ? 0 : Math.max(1, (long) Math.ceil(quantile * total));
+  }
+
+  private static class BucketSnapshot extends Snapshot {
+    private final long[] counts;
+    private final long total;
+    private final long sum;
+    private final long min;
+    private final long max;
+
+    BucketSnapshot(long[] counts, long total, long sum, long min, long max) {
+      this.counts = counts;
+      this.total = total;
+      this.sum = sum;
+      this.min = total == 0 ? 0 : min;
+      this.max = total == 0 ? 0 : max;
+    }
+
+    @Override
+    public double getValue(double quantile) {
+      if (quantile < 0.0 || quantile > 1.0 || Double.isNaN(quantile)) {
+        throw new IllegalArgumentException(quantile + " is not in [0..1]");
+      }
+      long rank = rank(total, quantile);
+      if (rank == 0) {
+        return 0;
+      }
+      long seen = 0;
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if (seen >= rank) {
+          return Math.min(valueOf(i), max);
+        }
+      }
+      return max;
+    }
+
+    /**
+     * One value per non-empty bucket, recorded values are not kept.
+     *
+     * @return One value per non-empty bucket.
+     */
+    @Override
+    public long[] getValues() {
+      int size = 0;
+      for (long c : counts) {
+        if (c > 0) {
+          size += 1;
+        }
+      }
+      long[] values = new long[size];
+      for (int i = 0, j = 0; i < counts.length; i++) {
+        if (counts[i] > 0) {
+          values[j++] = Math.min(valueOf(i), max);
+        }
+      }
+      return values;
+    }
+
+    @Override
+    public int size() {
+      return (int) Math.min(Integer.MAX_VALUE, total);
+    }
+
+    @Override
+    public long getMax() {
+      return max;
+    }
+
+    @Override
+    public double getMean() {
+      return total == 0 ? 0 : (double) sum / total;
+    }
+
+    @Override
+    public long getMin() {
+      return min;
+    }
+
+    @Override
+    public double getStdDev() {
+      if (total <= 1) {
+        return 0;
+      }
+      double mean = getMean();
+      double variance = 0;
+      for (int i = 0; i < counts.length; i++) {
+        if (counts[i] > 0) {
+          double diff = Math.min(valueOf(i), max) - mean;
+          variance += counts[i] * diff * diff;
+        }
+      }
+      return Math.sqrt(variance / (total - 1));
+    }
+
+    @Override
+    public void dump(OutputStream output) {
+      try (PrintWriter out = new PrintWriter(output, false, StandardCharsets.UTF_8)) {
+        for (long value : getValues()) {
+          out.println(value);
+        }
+      }
+    }
+  }
+}
@@ -5,12 +5,14 @@
  */
 package io.jooby.metrics;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import com.codahale.metrics.Counter;
@@ -25,14 +27,61 @@ import com.codahale.metrics.Sampling;
 import com.codahale.metrics.Snapshot;
 import com.codahale.metrics.Timer;
 import io.jooby.Context;
+import io.jooby.MediaType;
 import io.jooby.Route;
 import io.jooby.StatusCode;
+import io.jooby.output.BufferedOutput;
 
 public class MetricHandler implements Route.Handler {
 
+  private static final MediaType PROMETHEUS = MediaType.valueOf("text/plain; version=0.0.4");
+
+  private static final double[] QUANTILES = {0.5, 0.75, 0.95, 0.98, 0.99, 0.999};
+
+  private static final byte[][] QUANTILE_LABELS = {
+    ascii("quantile=\"0.5\"}"),
+    ascii("quantile=\"0.75\"}"),
+    ascii("quantile=\"0.95\"}"),
+    ascii("quantile=\"0.98\"}"),
+    ascii("quantile=\"0.99\"}"),
+    ascii("quantile=\"0.999\"}")
+  };
+
+  private static final byte[] ROUTE_FAMILY = ascii("http_server_requests_seconds");
+
+  private static final byte[] TYPE = ascii("# TYPE ");
+
+  private static final byte[] GAUGE = ascii(" gauge\n");
+
+  private static final byte[] COUNTER = ascii(" counter\n");
+
+  private static final byte[] SUMMARY = ascii(" summary\n");
+
+  private static final byte[] TOTAL = ascii("_total");
+
+  private static final byte[] COUNT = ascii("_count");
+
+  private static final byte[] SUM = ascii("_sum");
+
+  private static final byte[] NAN = ascii("NaN");
+
+  private static final byte[] POSITIVE_INF = ascii("+Inf");
+
+  private static final byte[] NEGATIVE_INF = ascii("-Inf");
+
+  private static final byte[] LONG_MIN = ascii(Long.toString(Long.MIN_VALUE));
+
+  /** Prometheus names of metrics, computed once per metric. */
+  private final Map<String, byte[]> names = new ConcurrentHashMap<>();
+
   @Override
   public Object apply(Context ctx) {
     MetricRegistry registry = ctx.require(MetricRegistry.class);
+
+    if (ctx.query("format").value("json").equals("prometheus")) {
+      return prometheus(ctx, registry);
+    }
+
     Map<String, Metric> allMetrics = registry.getMetrics();
 
     if (allMetrics.isEmpty()) {
@@ -96,6 +145,177 @@ public class MetricHandler implements Route.Handler {
     }
   }
 
+  /**
+   * Prometheus text exposition. Metric names and route labels are encoded once, numbers are written
+   * digit by digit into a buffer from the output factory, so no strings are created per scrape.
+   * Route timers are written as a single <code>http_server_requests_seconds</code> summary with
+   * <code>method</code> and <code>route</code> labels.
+   */
+  private Context prometheus(Context ctx, MetricRegistry registry) {
+    Map<String, Metric> metrics = registry.getMetrics();
+    BufferedOutput out = ctx.getOutputFactory().allocate();
+
+    boolean routes = false;
+    for (Metric metric : metrics.values()) {
+      if (metric instanceof RouteTimer timer) {
+        if (!routes) {
+          out.write(TYPE).write(ROUTE_FAMILY).write(SUMMARY);
+          routes = true;
+        }
+        routeTimer(out, timer);
+      }
+    }
+
+    for (Map.Entry<String, Metric> entry : metrics.entrySet()) {
+      Metric metric = entry.getValue();
+      if (metric instanceof RouteTimer) {
+        continue;
+      }
+      byte[] name = names.computeIfAbsent(entry.getKey(), MetricHandler::sanitize);
+      if (metric instanceof Counter counter) {
+        out.write(TYPE).write(name).write(GAUGE);
+        out.write(name).write((byte) ' ');
+        writeLong(out, counter.getCount());
+        out.write((byte) '\n');
+      } else if (metric instanceof Gauge<?> gauge) {
+        Object value;
+        try {
+          value = gauge.getValue();
+        } catch (Exception ignored) {
+          continue;
+        }
+        if (value instanceof Number number) {
+          out.write(TYPE).write(name).write(GAUGE);
+          out.write(name).write((byte) ' ');
+          if (number instanceof Long || number instanceof Integer || number instanceof Short) {
+            writeLong(out, number.longValue());
+          } else {
+            writeDouble(out, number.doubleValue());
+          }
+          out.write((byte) '\n');
+        }
+      } else if (metric instanceof Timer timer) {
+        double seconds = 1.0 / TimeUnit.SECONDS.toNanos(1);
+        summary(out, name, timer.getSnapshot(), timer.getCount(), seconds);
+      } else if (metric instanceof Histogram histogram) {
+        summary(out, name, histogram.getSnapshot(), histogram.getCount(), 1);
+      } else if (metric instanceof Meter meter) {
+        out.write(TYPE).write(name).write(TOTAL).write(COUNTER);
+        out.write(name).write(TOTAL).write((byte) ' ');
+        writeLong(out, meter.getCount());
+        out.write((byte) '\n');
+      }
+    }
+
+    ctx.setResponseType(PROMETHEUS);
+    ctx.setResponseHeader(MetricsModule.CACHE_HEADER_NAME, MetricsModule.CACHE_HEADER_VALUE);
+    return ctx.send(out);
+  }
+
+  private static void routeTimer(BufferedOutput out, RouteTimer timer) {
+    BucketReservoir reservoir = timer.getReservoir();
+    byte[] labels = timer.getLabels();
+    for (int i = 0; i < QUANTILES.length; i++) {
+      out.write(ROUTE_FAMILY).write((byte) '{').write(labels).write((byte) ',');
+      out.write(QUANTILE_LABELS[i]).write((byte) ' ');
+      writeSeconds(out, reservoir.quantile(QUANTILES[i]));
+      out.write((byte) '\n');
+    }
+    out.write(ROUTE_FAMILY).write(COUNT).write((byte) '{').write(labels).write((byte) '}');
+    out.write((byte) ' ');
+    writeLong(out, reservoir.count());
+    out.write((byte) '\n');
+    out.write(ROUTE_FAMILY).write(SUM).write((byte) '{').write(labels).write((byte) '}');
+    out.write((byte) ' ');
+    writeSeconds(out, reservoir.sum());
+    out.write((byte) '\n');
+  }
+
+  private static void summary(
+      BufferedOutput out, byte[] name, Snapshot snapshot, long count, double factor) {
+    out.write(TYPE).write(name).write(SUMMARY);
+    for (int i = 0; i < QUANTILES.length; i++) {
+      out.write(name).write((byte) '{').write(QUANTILE_LABELS[i]).write((byte) ' ');
+      writeDouble(out, snapshot.getValue(QUANTILES[i]) * factor);
+      out.write((byte) '\n');
+    }
+    out.write(name).write(COUNT).write((byte) ' ');
+    writeLong(out, count);
+    out.write((byte) '\n');
+  }
+
+  private static void writeLong(BufferedOutput out, long value) {
+    if (value == Long.MIN_VALUE) {
+      out.write(LONG_MIN);
+      return;
+    }
+    if (value < 0) {
+      out.write((byte) '-');
+      value = -value;
+    }
+    long divisor = 1;
+    while (divisor <= value / 10) {
+      divisor *= 10;
+    }
+    while (divisor > 0) {
+      out.write((byte) ('0' + value / divisor));
+      value %= divisor;
+      divisor /= 10;
+    }
+  }
+
+  private static void writeFraction(BufferedOutput out, long value, long scale) {
+    writeLong(out, value / scale);
+    out.write((byte) '.');
+    long fraction = value % scale;
+    for (long divisor = scale / 10; divisor > 0; divisor /= 10) {
+      out.write((byte) ('0' + fraction / divisor));
+      fraction %= divisor;
+    }
+  }
+
+  private static void writeSeconds(BufferedOutput out, long nanos) {
+    writeFraction(out, nanos, TimeUnit.SECONDS.toNanos(1));
+  }
+
+  private static void writeDouble(BufferedOutput out, double value) {
+    if (Double.isNaN(value)) {
+      out.write(NAN);
+    } else if (Double.isInfinite(value)) {
+      out.write(value > 0 ? POSITIVE_INF : NEGATIVE_INF);
+    } else if (Math.abs(value) >= 1e12) {
+      writeLong(out, Math.round(value));
+    } else {
+      if (value < 0) {
+        out.write((byte) '-');
+      }
+      // six decimal digits are enough for rates, ratios and seconds
+      writeFraction(out, Math.round(Math.abs(value) * 1_000_000), 1_000_000);
+    }
+  }
+
+  private static byte[] sanitize(String name) {
+    StringBuilder buffer = new StringBuilder(name.length() + 1);
+    if (name.isEmpty() || Character.isDigit(name.charAt(0))) {
+      buffer.append('_');
+    }
+    for (int i = 0; i < name.length(); i++) {
+      char ch = name.charAt(i);
+      boolean valid =
+          (ch >= 'a' && ch <= 'z')
+              || (ch >= 'A' && ch <= 'Z')
+              || (ch >= '0' && ch <= '9')
+              || ch == '_'
+              || ch == ':';
+      buffer.append(valid ? ch : '_');
+    }
+    return ascii(buffer.toString());
+  }
+
+  private static byte[] ascii(String value) {
+    return value.getBytes(StandardCharsets.US_ASCII);
+  }
+
   private static Map<String, Object> timers(
       final SortedMap<String, Timer> timers,
       final String rateUnit,
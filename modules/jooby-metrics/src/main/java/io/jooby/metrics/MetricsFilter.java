@@ -5,30 +5,130 @@
  */
 package io.jooby.metrics;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.jspecify.annotations.Nullable;
+
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
+import io.jooby.Context;
 import io.jooby.Route;
 
+/**
+ * Instrument requests: active requests (<code>request.actives</code>), execution time of all
+ * requests (<code>request</code>) and of each route pattern (<code>request.GET./path/{id}
+ * </code>), plus a meter per response code (<code>responses.200</code>).
+ *
+ * <p>Instruments are resolved once: route timers are created while routes are defined and kept by
+ * this filter, keyed by route (or on first request when the registry is resolved from application
+ * services, or the route is a copy of the one seen at definition time). Route timers record
+ * durations in a log-linear (HdrHistogram style) histogram, without sampling or locking.
+ *
+ * @author edgar
+ */
 public class MetricsFilter implements Route.Filter {
 
+  private static final int MAX_STATUS_CODE = 600;
+
+  /** Route timers, keyed by route instance. */
+  private final Map<Route, Timer> timers = new ConcurrentHashMap<>();
+
+  private volatile @Nullable Instruments instruments;
+
+  /** Creates a metrics filter. Metric registry is resolved from application services. */
+  public MetricsFilter() {}
+
+  /**
+   * Creates a metrics filter.
+   *
+   * @param registry Metric registry.
+   */
+  public MetricsFilter(MetricRegistry registry) {
+    this.instruments = new Instruments(registry);
+  }
+
+  @Override
+  public void setRoute(Route route) {
+    var instruments = this.instruments;
+    if (instruments != null) {
+      timers.put(route, instruments.timer(route));
+    }
+  }
+
   @Override
   public Route.Handler apply(Route.Handler next) {
     return ctx -> {
-      MetricRegistry registry = ctx.require(MetricRegistry.class);
-      Counter counter = registry.counter("request.actives");
-      Timer.Context timer = registry.timer("request").time();
-
-      counter.inc();
+      var instruments = instruments(ctx);
+      var route = ctx.getRoute();
+      var timer = timers.get(route);
+      if (timer == null) {
+        // mounted/copied route or registry resolved at runtime
+        timer = timers.computeIfAbsent(route, instruments::timer);
+      }
+      var routeTimer = timer;
+      long start = System.nanoTime();
+      instruments.actives.inc();
 
       ctx.onComplete(
           context -> {
-            timer.stop();
-            counter.dec();
-            registry.meter("responses." + context.getResponseCode().value()).mark();
+            long duration = System.nanoTime() - start;
+            instruments.requests.update(duration, TimeUnit.NANOSECONDS);
+            routeTimer.update(duration, TimeUnit.NANOSECONDS);
+            instruments.actives.dec();
+            instruments.response(context.getResponseCode().value()).mark();
           });
 
       return next.apply(ctx);
     };
   }
+
+  private Instruments instruments(Context ctx) {
+    var instruments = this.instruments;
+    if (instruments == null) {
+      instruments = new Instruments(ctx.require(MetricRegistry.class));
+      this.instruments = instruments;
+    }
+    return instruments;
+  }
+
+  private static final class Instruments {
+    private final MetricRegistry registry;
+
+    private final Counter actives;
+
+    private final Timer requests;
+
+    /** Meter per status code, registered on first use to keep the registry clean. */
+    private final AtomicReferenceArray<Meter> responses =
+        new AtomicReferenceArray<>(MAX_STATUS_CODE);
+
+    Instruments(MetricRegistry registry) {
+      this.registry = registry;
+      this.actives = registry.counter("request.actives");
+      this.requests = registry.timer("request");
+    }
+
+    Timer timer(Route route) {
+      return registry.timer(
+          MetricRegistry.name("request", route.getMethod(), route.getPattern()),
+          () -> new RouteTimer(route));
+    }
+
+    Meter response(int code) {
+      if (code < 0 || code >= MAX_STATUS_CODE) {
+        return registry.meter("responses." + code);
+      }
+      var meter = responses.get(code);
+      if (meter == null) {
+        meter = registry.meter("responses." + code);
+        responses.set(code, meter);
+      }
+      return meter;
+    }
+  }
 }
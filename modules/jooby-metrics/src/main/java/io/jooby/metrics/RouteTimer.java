@@ -0,0 +1,59 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.metrics;
+
+import java.nio.charset.StandardCharsets;
+
+import com.codahale.metrics.Timer;
+import io.jooby.Route;
+
+/**
+ * Timer of a route pattern backed by a {@link BucketReservoir}. Keeps the Prometheus labels of the
+ * route already encoded, so they are written as they are on every scrape.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+class RouteTimer extends Timer {
+
+  private final BucketReservoir reservoir;
+
+  private final byte[] labels;
+
+  RouteTimer(Route route) {
+    this(new BucketReservoir(), route);
+  }
+
+  private RouteTimer(BucketReservoir reservoir, Route route) {
+    super(reservoir);
+    this.reservoir = reservoir;
+    var labels =
+        "method=\"" + escape(route.getMethod()) + "\",route=\"" + escape(route.getPattern()) + "\"";
+    this.labels = labels.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Recorded durations in nanoseconds.
+   *
+   * @return Recorded durations in nanoseconds.
+   */
+  public BucketReservoir getReservoir() {
+    return reservoir;
+  }
+
+  /**
+   * Prometheus labels: <code>method="GET",route="/path/{id}"</code>.
+   *
+   * @return Prometheus labels.
+   */
+  public byte[] getLabels() {
+    return labels;
+  }
+
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BucketReservoirTest {
+
+  @Test
+  @DisplayName("Values lower than 128 have their own bucket")
+  void shouldKeepSmallValues() {
+    for (long value = 0; value < 128; value++) {
+      assertEquals(value, BucketReservoir.index(value));
+      assertEquals(value, BucketReservoir.valueOf((int) value));
+    }
+  }
+
+  @Test
+  @DisplayName("Bucket edges at powers of two")
+  void shouldSplitAtBucketEdges() {
+    // first log-linear range: buckets of 2
+    assertEquals(127, BucketReservoir.index(127));
+    assertEquals(128, BucketReservoir.index(128));
+    assertEquals(128, BucketReservoir.index(129));
+    assertEquals(129, BucketReservoir.index(130));
+    assertEquals(129, BucketReservoir.valueOf(128));
+    assertEquals(191, BucketReservoir.index(255));
+    // next range: buckets of 4
+    assertEquals(192, BucketReservoir.index(256));
+    assertEquals(192, BucketReservoir.index(259));
+    assertEquals(193, BucketReservoir.index(260));
+    assertEquals(258, BucketReservoir.valueOf(192));
+  }
+
+  @Test
+  @DisplayName("Buckets are contiguous and keep values within 1.5%")
+  void shouldKeepPrecision() {
+    long max = TimeUnit.HOURS.toNanos(1);
+    int previous = BucketReservoir.index(127);
+    for (long value = 128; value <= max; value += Math.max(1, value / 1000)) {
+      int index = BucketReservoir.index(value);
+      assertTrue(index == previous || index == previous + 1, "gap at " + value);
+      previous = index;
+      long bucket = BucketReservoir.valueOf(index);
+      assertTrue(Math.abs(bucket - value) <= value * 0.015, value + " ~ " + bucket);
+    }
+  }
+
+  @Test
+  @DisplayName("Values are clamped to 0..1h")
+  void shouldClampValues() {
+    var reservoir = new BucketReservoir();
+    reservoir.update(-5);
+    reservoir.update(Long.MAX_VALUE);
+
+    assertEquals(2, reservoir.count());
+    assertEquals(TimeUnit.HOURS.toNanos(1), reservoir.sum());
+    var snapshot = reservoir.getSnapshot();
+    assertEquals(0, snapshot.getMin());
+    assertEquals(TimeUnit.HOURS.toNanos(1), snapshot.getMax());
+    // last bucket
+    long hour = TimeUnit.HOURS.toNanos(1);
+    assertTrue(Math.abs(hour - reservoir.quantile(1)) <= hour * 0.015);
+  }
+
+  @Test
+  @DisplayName("Quantiles and snapshot")
+  void shouldComputeQuantiles() {
+    var reservoir = new BucketReservoir();
+    assertEquals(0, reservoir.quantile(0.5));
+    assertEquals(0, reservoir.getSnapshot().getMax());
+
+    for (int value = 1; value <= 100; value++) {
+      reservoir.update(value);
+    }
+    assertEquals(50, reservoir.quantile(0.5));
+    assertEquals(99, reservoir.quantile(0.99));
+    assertEquals(100, reservoir.quantile(1));
+    assertEquals(1, reservoir.quantile(0));
+
+    var snapshot = reservoir.getSnapshot();
+    assertEquals(100, snapshot.size());
+    assertEquals(50.5, snapshot.getMean());
+    assertEquals(95, snapshot.getValue(0.95));
+    assertEquals(1, snapshot.getMin());
+    assertEquals(100, snapshot.getMax());
+    assertEquals(100, snapshot.getValues().length);
+    assertThrows(IllegalArgumentException.class, () -> snapshot.getValue(2));
+
+    // max caps the middle of its bucket
+    var large = new BucketReservoir();
+    large.update(1000);
+    assertArrayEquals(new long[] {1000}, large.getSnapshot().getValues());
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import io.jooby.Context;
+import io.jooby.MediaType;
+import io.jooby.Route;
+import io.jooby.output.Output;
+import io.jooby.output.OutputFactory;
+import io.jooby.value.Value;
+import io.jooby.value.ValueFactory;
+
+public class MetricHandlerTest {
+
+  /** Keeps metrics sorted by name, so the output is stable. */
+  private static class SortedRegistry extends MetricRegistry {
+    @Override
+    protected ConcurrentMap<String, Metric> buildMap() {
+      return new ConcurrentSkipListMap<>();
+    }
+  }
+
+  @Test
+  @DisplayName("Prometheus text exposition")
+  void shouldWritePrometheusFormat() throws Exception {
+    var registry = new SortedRegistry();
+    registry.counter("request.actives").inc(2);
+    registry.register("jvm.threads", (Gauge<Integer>) () -> 5);
+    registry.register("cpu.load", (Gauge<Double>) () -> 0.25);
+    registry.register("app.name", (Gauge<String>) () -> "ignored");
+    registry.meter("responses.200").mark(3);
+    registry.timer("db").update(2, TimeUnit.SECONDS);
+    var route = new Route("GET", "/users/{id}", ctx -> ctx);
+    var timer = registry.register("request.GET./users/{id}", new RouteTimer(route));
+    // middle of its bucket, so quantiles are exact
+    for (int i = 0; i < 3; i++) {
+      timer.update(1_003_520, TimeUnit.NANOSECONDS);
+    }
+
+    var values = new ValueFactory();
+    var ctx = mock(Context.class);
+    when(ctx.require(MetricRegistry.class)).thenReturn(registry);
+    when(ctx.query(anyString()))
+        .thenAnswer(call -> Value.missing(values, call.getArgument(0)));
+    when(ctx.query("format")).thenReturn(Value.value(values, "format", "prometheus"));
+    when(ctx.getOutputFactory()).thenReturn(OutputFactory.create());
+
+    new MetricHandler().apply(ctx);
+
+    var output = ArgumentCaptor.forClass(Output.class);
+    verify(ctx).send(output.capture());
+    verify(ctx).setResponseType(MediaType.valueOf("text/plain; version=0.0.4"));
+    var labels = "{method=\"GET\",route=\"/users/{id}\"";
+    assertEquals(
+        "# TYPE http_server_requests_seconds summary\n"
+            + "http_server_requests_seconds"
+            + labels
+            + ",quantile=\"0.5\"} 0.001003520\n"
+            + "http_server_requests_seconds"
+            + labels
+            + ",quantile=\"0.75\"} 0.001003520\n"
+            + "http_server_requests_seconds"
+            + labels
+            + ",quantile=\"0.95\"} 0.001003520\n"
+            + "http_server_requests_seconds"
+            + labels
+            + ",quantile=\"0.98\"} 0.001003520\n"
+            + "http_server_requests_seconds"
+            + labels
+            + ",quantile=\"0.99\"} 0.001003520\n"
+            + "http_server_requests_seconds"
+            + labels
+            + ",quantile=\"0.999\"} 0.001003520\n"
+            + "http_server_requests_seconds_count"
+            + labels
+            + "} 3\n"
+            + "http_server_requests_seconds_sum"
+            + labels
+            + "} 0.003010560\n"
+            + "# TYPE cpu_load gauge\n"
+            + "cpu_load 0.250000\n"
+            + "# TYPE db summary\n"
+            + "db{quantile=\"0.5\"} 2.000000\n"
+            + "db{quantile=\"0.75\"} 2.000000\n"
+            + "db{quantile=\"0.95\"} 2.000000\n"
+            + "db{quantile=\"0.98\"} 2.000000\n"
+            + "db{quantile=\"0.99\"} 2.000000\n"
+            + "db{quantile=\"0.999\"} 2.000000\n"
+            + "db_count 1\n"
+            + "# TYPE jvm_threads gauge\n"
+            + "jvm_threads 5\n"
+            + "# TYPE request_actives gauge\n"
+            + "request_actives 2\n"
+            + "# TYPE responses_200_total counter\n"
+            + "responses_200_total 3\n",
+        StandardCharsets.UTF_8.decode(output.getValue().asByteBuffer()).toString());
+  }
+}
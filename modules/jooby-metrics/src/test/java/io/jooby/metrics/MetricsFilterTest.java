@@ -0,0 +1,97 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.codahale.metrics.MetricRegistry;
+import io.jooby.Context;
+import io.jooby.Route;
+import io.jooby.StatusCode;
+
+public class MetricsFilterTest {
+
+  private final MetricRegistry registry = new MetricRegistry();
+
+  private final Route route = new Route("GET", "/users/{id}", ctx -> ctx);
+
+  private void execute(MetricsFilter filter, Route route) throws Exception {
+    var onComplete = new ArrayList<Route.Complete>();
+    var ctx = mock(Context.class);
+    when(ctx.getRoute()).thenReturn(route);
+    when(ctx.getResponseCode()).thenReturn(StatusCode.OK);
+    when(ctx.require(MetricRegistry.class)).thenReturn(registry);
+    when(ctx.onComplete(any()))
+        .thenAnswer(
+            call -> {
+              onComplete.add(call.getArgument(0));
+              return ctx;
+            });
+
+    assertEquals("ok", filter.apply(it -> "ok").apply(ctx));
+    assertEquals(1, registry.counter("request.actives").getCount());
+    for (var task : onComplete) {
+      task.apply(ctx);
+    }
+  }
+
+  @Test
+  @DisplayName("Route timer is created at definition time, without touching route attributes")
+  void shouldAttachTimerToRoute() throws Exception {
+    var filter = new MetricsFilter(registry);
+    filter.setRoute(route);
+
+    var timer = registry.getTimers().get("request.GET./users/{id}");
+    assertInstanceOf(RouteTimer.class, timer);
+    assertTrue(route.getAttributes().isEmpty());
+
+    execute(filter, route);
+    execute(filter, route);
+
+    assertEquals(2, timer.getCount());
+    assertEquals(2, registry.timer("request").getCount());
+    assertEquals(0, registry.counter("request.actives").getCount());
+    assertEquals(2, registry.meter("responses.200").getCount());
+  }
+
+  @Test
+  @DisplayName("Copied routes get their own timer")
+  void shouldTimeCopiedRoutes() throws Exception {
+    var filter = new MetricsFilter(registry);
+    filter.setRoute(route);
+    var copy = new Route("GET", "/api/users/{id}", ctx -> ctx);
+
+    execute(filter, copy);
+
+    assertEquals(0, registry.getTimers().get("request.GET./users/{id}").getCount());
+    assertEquals(1, registry.getTimers().get("request.GET./api/users/{id}").getCount());
+  }
+
+  @Test
+  @DisplayName("Registry is resolved from application services on first request")
+  void shouldResolveRegistry() throws Exception {
+    var filter = new MetricsFilter();
+    filter.setRoute(route);
+    assertEquals(List.of(), List.copyOf(registry.getNames()));
+
+    execute(filter, route);
+
+    var timer = registry.getTimers().get("request.GET./users/{id}");
+    assertInstanceOf(RouteTimer.class, timer);
+    assertEquals(1, timer.getCount());
+  }
+}
@@ -5,17 +5,62 @@
  */
 package io.jooby.internal.netty;
 
-import static io.netty.handler.codec.compression.StandardCompressionOptions.gzip;
+import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_TYPE;
 
+import java.util.List;
+
+import io.jooby.CompressionOptions;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.compression.Brotli;
+import io.netty.handler.codec.compression.BrotliMode;
+import io.netty.handler.codec.compression.StandardCompressionOptions;
+import io.netty.handler.codec.compression.Zstd;
 import io.netty.handler.codec.http.DefaultHttpContent;
 import io.netty.handler.codec.http.HttpContentCompressor;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpUtil;
 
 public class HttpChunkContentCompressor extends HttpContentCompressor {
-  public HttpChunkContentCompressor(int compressionLevel) {
-    super(gzip(compressionLevel, gzip().windowBits(), gzip().memLevel()));
+  private final CompressionOptions options;
+
+  /** Configured encodings available at runtime, in order of preference. */
+  private final List<String> encodings;
+
+  private ChannelHandlerContext ctx;
+
+  private NettyHandler handler;
+
+  public HttpChunkContentCompressor(CompressionOptions options) {
+    this(options, available(options.getEncodings()));
+  }
+
+  private HttpChunkContentCompressor(CompressionOptions options, List<String> encodings) {
+    super(options.getMinSize(), compressionOptions(options.getLevel(), encodings));
+    this.options = options;
+    this.encodings = encodings;
+  }
+
+  @Override
+  public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+    this.ctx = ctx;
+    super.handlerAdded(ctx);
+  }
+
+  @Override
+  protected String determineEncoding(String acceptEncoding) {
+    return CompressionOptions.negotiate(acceptEncoding, encodings);
+  }
+
+  @Override
+  protected Result beginEncode(HttpResponse response, String acceptEncoding) throws Exception {
+    var contentType = response.headers().get(CONTENT_TYPE);
+    var contentLength = HttpUtil.getContentLength(response, -1L);
+    if (!options.shouldCompress(contentType, contentLength) || !isRouteCompress()) {
+      return null;
+    }
+    return super.beginEncode(response, acceptEncoding);
   }
 
   @Override
@@ -34,4 +79,49 @@ public class HttpChunkContentCompressor extends HttpContentCompressor {
     }
     super.write(ctx, msg, promise);
   }
+
+  private boolean isRouteCompress() {
+    if (handler == null) {
+      handler = ctx.pipeline().get(NettyHandler.class);
+    }
+    return handler == null || handler.isCompress();
+  }
+
+  private static List<String> available(List<String> encodings) {
+    return encodings.stream()
+        .filter(
+            encoding ->
+                switch (encoding) {
+                  case CompressionOptions.BROTLI -> Brotli.isAvailable();
+                  case CompressionOptions.ZSTD -> Zstd.isAvailable();
+                  default -> true;
+                })
+        .toList();
+  }
+
+  private static io.netty.handler.codec.compression.CompressionOptions[] compressionOptions(
+      int level, List<String> encodings) {
+    var zlibLevel = Math.min(level, 9);
+    return encodings.stream()
+        .map(
+            encoding ->
+                switch (encoding) {
+                  case CompressionOptions.BROTLI ->
+                      StandardCompressionOptions.brotli(Math.min(level, 11), 22, BrotliMode.TEXT);
+                  // 64kb blocks, 32mb max encode size (netty defaults)
+                  case CompressionOptions.ZSTD ->
+                      StandardCompressionOptions.zstd(level, 1 << 16, 1 << 25);
+                  case CompressionOptions.DEFLATE ->
+                      StandardCompressionOptions.deflate(
+                          zlibLevel,
+                          StandardCompressionOptions.deflate().windowBits(),
+                          StandardCompressionOptions.deflate().memLevel());
+                  default ->
+                      StandardCompressionOptions.gzip(
+                          zlibLevel,
+                          StandardCompressionOptions.gzip().windowBits(),
+                          StandardCompressionOptions.gzip().memLevel());
+                })
+        .toArray(io.netty.handler.codec.compression.CompressionOptions[]::new);
+  }
 }
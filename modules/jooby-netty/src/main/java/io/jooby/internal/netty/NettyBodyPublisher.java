@@ -0,0 +1,194 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.netty;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.Flow;
+
+import io.jooby.ReactiveSupport;
+import io.jooby.StatusCode;
+import io.jooby.exception.StatusCodeException;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * Publish request body chunks as they arrive, for routes with streaming body. Auto-read is turned
+ * off while the body is being consumed, so Netty reads from the socket only when the subscriber
+ * has demand. Chunks decoded ahead of demand (same socket read) are kept until requested.
+ *
+ * <p>All the state is confined to the event loop: requests from other threads are moved there.
+ */
+public class NettyBodyPublisher implements Flow.Publisher<ByteBuffer>, Flow.Subscription {
+
+  private final ChannelHandlerContext ctx;
+
+  private final long maxRequestSize;
+
+  private final ArrayDeque<HttpContent> pending = new ArrayDeque<>();
+
+  private Flow.Subscriber<? super ByteBuffer> subscriber;
+
+  private long demand;
+
+  private long size;
+
+  /** Last chunk was received. */
+  private boolean last;
+
+  /** Completed, failed or cancelled. Remaining chunks are discarded. */
+  private boolean done;
+
+  /** Failure found before subscription. */
+  private Throwable failure;
+
+  private boolean draining;
+
+  public NettyBodyPublisher(ChannelHandlerContext ctx, long maxRequestSize) {
+    this.ctx = ctx;
+    this.maxRequestSize = maxRequestSize;
+    ctx.channel().config().setAutoRead(false);
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+    if (ctx.executor().inEventLoop()) {
+      if (this.subscriber != null) {
+        ReactiveSupport.reject(
+            subscriber, new IllegalStateException("Body was subscribed already"));
+      } else {
+        this.subscriber = subscriber;
+        subscriber.onSubscribe(this);
+        if (failure != null) {
+          subscriber.onError(failure);
+        } else {
+          drain();
+        }
+      }
+    } else {
+      ctx.executor().execute(() -> subscribe(subscriber));
+    }
+  }
+
+  @Override
+  public void request(long n) {
+    if (ctx.executor().inEventLoop()) {
+      if (n <= 0) {
+        fail(new IllegalArgumentException("Demand must be positive: " + n));
+      } else if (!done) {
+        demand = ReactiveSupport.addDemand(demand, n);
+        drain();
+      }
+    } else {
+      ctx.executor().execute(() -> request(n));
+    }
+  }
+
+  @Override
+  public void cancel() {
+    if (ctx.executor().inEventLoop()) {
+      discard();
+    } else {
+      ctx.executor().execute(this::cancel);
+    }
+  }
+
+  /**
+   * Offer a body chunk. Caller releases the chunk, it is retained when there is no demand for it.
+   *
+   * @param chunk Body chunk.
+   */
+  public void onChunk(HttpContent chunk) {
+    if (done) {
+      return;
+    }
+    size += chunk.content().readableBytes();
+    if (size > maxRequestSize) {
+      fail(new StatusCodeException(StatusCode.REQUEST_ENTITY_TOO_LARGE));
+      return;
+    }
+    pending.add(chunk.retain());
+    last = chunk instanceof LastHttpContent;
+    drain();
+  }
+
+  /**
+   * Connection was closed before reading the whole body.
+   *
+   * @param cause Cause.
+   */
+  public void onClose(Throwable cause) {
+    if (!last) {
+      fail(cause);
+    }
+  }
+
+  /** Stop reading the body, remaining chunks (if any) are read from the socket and discarded. */
+  public void discard() {
+    if (!done) {
+      done = true;
+      release();
+    }
+  }
+
+  private void fail(Throwable cause) {
+    if (!done) {
+      discard();
+      if (subscriber == null) {
+        failure = cause;
+      } else {
+        subscriber.onError(cause);
+      }
+    }
+  }
+
+  private void drain() {
+    if (subscriber == null || draining) {
+      return;
+    }
+    draining = true;
+    try {
+      while (!done && demand > 0 && !pending.isEmpty()) {
+        var chunk = pending.poll();
+        try {
+          var content = chunk.content();
+          if (content.isReadable()) {
+            demand -= 1;
+            // nioBuffer() shares memory with the chunk, released once onNext returns
+            subscriber.onNext(content.nioBuffer());
+          }
+        } catch (Throwable cause) {
+          // subscriber failed, subscription is cancelled
+          discard();
+          throw cause;
+        } finally {
+          ReferenceCountUtil.release(chunk);
+        }
+      }
+      if (!done) {
+        if (last && pending.isEmpty()) {
+          done = true;
+          ctx.channel().config().setAutoRead(true);
+          subscriber.onComplete();
+        } else if (demand > 0 && !last) {
+          ctx.read();
+        }
+      }
+    } finally {
+      draining = false;
+    }
+  }
+
+  private void release() {
+    HttpContent chunk;
+    while ((chunk = pending.poll()) != null) {
+      ReferenceCountUtil.release(chunk);
+    }
+    ctx.channel().config().setAutoRead(true);
+  }
+}
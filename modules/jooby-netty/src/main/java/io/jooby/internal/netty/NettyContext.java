@@ -31,6 +31,7 @@ import java.nio.file.Files;
 import java.security.cert.Certificate;
 import java.util.*;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
 import java.util.stream.Stream;
 
 import javax.net.ssl.SSLPeerUnverifiedException;
@@ -114,6 +115,7 @@ public class NettyContext implements DefaultContext {
   private int bufferSize;
   InterfaceHttpPostRequestDecoder decoder;
   DefaultHttpDataFactory httpDataFactory;
+  NettyBodyPublisher bodyPublisher;
   private Router router;
   private Route route;
   ChannelHandlerContext ctx;
@@ -250,7 +252,11 @@ public class NettyContext implements DefaultContext {
     if (query == null) {
       String uri = req.uri();
       int q = uri.indexOf('?');
-      query = QueryString.create(getValueFactory(), q >= 0 ? uri.substring(q + 1) : null);
+      query =
+          QueryString.create(
+              getValueFactory(),
+              q >= 0 ? uri.substring(q + 1) : null,
+              router.getRouterOptions().isLazyQueryString());
     }
     return query;
   }
@@ -381,6 +387,11 @@ public class NettyContext implements DefaultContext {
     return Body.empty(this);
   }
 
+  @Override
+  public Flow.Publisher<ByteBuffer> bodyPublisher() {
+    return bodyPublisher == null ? DefaultContext.super.bodyPublisher() : bodyPublisher;
+  }
+
   @Override
   public Map<String, String> cookieMap() {
     if (this.cookies == null) {
@@ -798,6 +809,14 @@ public class NettyContext implements DefaultContext {
     return responseStarted;
   }
 
+  @Override
+  public Context abort(Throwable cause) {
+    responseStarted = true;
+    ctx.close();
+    requestComplete();
+    return this;
+  }
+
   @Override
   public boolean getResetHeadersOnError() {
     return resetHeadersOnError == null
@@ -862,6 +881,12 @@ public class NettyContext implements DefaultContext {
     responsePromise.addListener(new DestroyDecoder(router.getLog(), decoder));
   }
 
+  public void setBodyPublisher(NettyBodyPublisher bodyPublisher) {
+    this.bodyPublisher = bodyPublisher;
+    // response sent before reading the whole body
+    getOrCreateResponsePromise().addListener(future -> bodyPublisher.discard());
+  }
+
   void log(Throwable cause) {
     if (Server.connectionLost(cause)) {
       router
@@ -953,6 +978,6 @@ public class NettyContext implements DefaultContext {
   }
 
   private boolean isGzip() {
-    return require(ServerOptions.class).getCompressionLevel() != null;
+    return require(ServerOptions.class).getCompression() != null;
   }
 }
@@ -19,11 +19,21 @@ public class NettyEventLoopGroupImpl implements NettyEventLoopGroup {
 
   public NettyEventLoopGroupImpl(
       NettyTransport transport, boolean single, int ioThreads, ExecutorService worker) {
+    this(transport, single, ioThreads, 1, worker);
+  }
+
+  public NettyEventLoopGroupImpl(
+      NettyTransport transport,
+      boolean single,
+      int ioThreads,
+      int acceptors,
+      ExecutorService worker) {
     child = transport.createEventLoop(ioThreads, "eventloop", 100);
     if (single) {
       parent = child;
     } else {
-      parent = transport.createEventLoop(1, "acceptor", 50);
+      // one thread per bound server channel
+      parent = transport.createEventLoop(acceptors, "acceptor", 50);
     }
     this.worker = worker;
   }
@@ -18,9 +18,11 @@ import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
 import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.DefaultLastHttpContent;
 import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
@@ -34,6 +36,8 @@ public class NettyGrpcExchange implements GrpcExchange {
 
   private final AtomicBoolean headersSent = new AtomicBoolean(false);
 
+  private HttpHeaders responseHeaders;
+
   public NettyGrpcExchange(ChannelHandlerContext ctx, HttpRequest request) {
     this.ctx = ctx;
     this.request = request;
@@ -60,11 +64,27 @@ public class NettyGrpcExchange implements GrpcExchange {
     return map;
   }
 
+  @Override
+  public boolean supportsResponseHeaders() {
+    return true;
+  }
+
+  @Override
+  public void setResponseHeader(String name, String value) {
+    if (responseHeaders == null) {
+      responseHeaders = new DefaultHttpHeaders();
+    }
+    responseHeaders.set(name, value);
+  }
+
   private void sendHeadersIfNecessary() {
     if (headersSent.compareAndSet(false, true)) {
       // Send the initial HTTP/2 HEADERS frame (Status 200)
       HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
       response.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/grpc");
+      if (responseHeaders != null) {
+        response.headers().add(responseHeaders);
+      }
       ctx.write(response);
     }
   }
@@ -55,12 +55,10 @@ public class NettyGrpcInputBridge implements Flow.Subscription {
       ByteBuf content = chunk.content();
       if (content.isReadable()) {
 
-        // Copy the bytes. content.nioBuffer() shares memory with the ByteBuf,
-        // which gets released in the finally block of NettyGrpcHandler.
-        // We must copy it to an unmanaged heap buffer to prevent use-after-free corruption.
-        byte[] bytes = new byte[content.readableBytes()];
-        content.readBytes(bytes);
-        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        // content.nioBuffer() shares memory with the ByteBuf, which gets released in the finally
+        // block of NettyGrpcHandler. Subscribers consume (or copy) it before onNext returns, see
+        // GrpcProcessor.process.
+        ByteBuffer buffer = content.nioBuffer();
 
         // If onNext synchronously calls request(1), that request() will see demand transition
         // from 0 to 1 and safely trigger ctx.read().
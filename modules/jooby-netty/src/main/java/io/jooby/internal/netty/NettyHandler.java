@@ -9,6 +9,7 @@ import static io.jooby.internal.netty.NettyString.*;
 import static io.jooby.internal.netty.SlowPathChecks.*;
 import static io.netty.handler.codec.http.HttpUtil.isTransferEncodingChunked;
 
+import java.nio.channels.ClosedChannelException;
 import java.nio.charset.StandardCharsets;
 
 import org.slf4j.Logger;
@@ -35,6 +36,9 @@ public class NettyHandler extends ChannelInboundHandlerAdapter {
   private long chunkSize;
   private final boolean http2;
   private NettyContext context;
+
+  /** Route of a request whose body is being decoded, matched once when the request arrives. */
+  private Router.Match match;
   private boolean read;
   private boolean flush;
   ChannelHandlerContext channelContext;
@@ -62,6 +66,16 @@ public class NettyHandler extends ChannelInboundHandlerAdapter {
     super.handlerAdded(ctx);
   }
 
+  /**
+   * True when the response of current request might be compressed.
+   *
+   * @return True when the response of current request might be compressed.
+   */
+  boolean isCompress() {
+    var route = context == null ? null : context.getRoute();
+    return route == null || route.isCompress();
+  }
+
   @Override
   public void channelRead(ChannelHandlerContext ctx, Object msg) {
     if (isHttpRequest(msg)) {
@@ -96,9 +110,17 @@ public class NettyHandler extends ChannelInboundHandlerAdapter {
             // full body is here move
             router.match(context).execute(context);
           } else {
-            context.httpDataFactory = new DefaultHttpDataFactory(bufferSize);
-            context.httpDataFactory.setBaseDir(app.getTmpdir().toString());
-            context.setDecoder(newDecoder(req, context.httpDataFactory, maxFormFields));
+            var match = router.match(context);
+            if (match.matches() && match.route().isStreamingBody()) {
+              // body is read on demand, see NettyBodyPublisher
+              context.setBodyPublisher(new NettyBodyPublisher(ctx, maxRequestSize));
+              match.execute(context);
+            } else {
+              this.match = match;
+              context.httpDataFactory = new DefaultHttpDataFactory(bufferSize);
+              context.httpDataFactory.setBaseDir(app.getTmpdir().toString());
+              context.setDecoder(newDecoder(req, context.httpDataFactory, maxFormFields));
+            }
           }
         } else {
           // no body, move on
@@ -110,15 +132,17 @@ public class NettyHandler extends ChannelInboundHandlerAdapter {
       var chunk = (HttpContent) msg;
       try {
         // when decoder == null, chunk is always a LastHttpContent.EMPTY, ignore it
-        if (context.decoder != null) {
+        if (context.bodyPublisher != null) {
+          context.bodyPublisher.onChunk(chunk);
+        } else if (context.decoder != null) {
           chunkSize += chunk.content().readableBytes();
           if (chunkSize > maxRequestSize) {
             resetDecoderState(context, true);
-            router.match(context).execute(context, Route.REQUEST_ENTITY_TOO_LARGE);
+            pendingMatch().execute(context, Route.REQUEST_ENTITY_TOO_LARGE);
             return;
           }
           if (offer(context, chunk) && isLastHttpContent(msg)) {
-            Router.Match route = router.match(context);
+            var route = pendingMatch();
             resetDecoderState(context, !route.matches());
             route.execute(context);
           }
@@ -211,6 +235,14 @@ public class NettyHandler extends ChannelInboundHandlerAdapter {
     super.channelReadComplete(ctx);
   }
 
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+    if (context != null && context.bodyPublisher != null) {
+      context.bodyPublisher.onClose(new ClosedChannelException());
+    }
+    super.channelInactive(ctx);
+  }
+
   @Override
   public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
     if (evt instanceof IdleStateEvent) {
@@ -267,6 +299,12 @@ public class NettyHandler extends ChannelInboundHandlerAdapter {
     }
   }
 
+  private Router.Match pendingMatch() {
+    var match = this.match;
+    this.match = null;
+    return match == null ? router.match(context) : match;
+  }
+
   private void resetDecoderState(NettyContext context, boolean destroy) {
     chunkSize = 0;
     if (destroy && context.decoder != null) {
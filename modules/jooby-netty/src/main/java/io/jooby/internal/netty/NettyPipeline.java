@@ -8,6 +8,7 @@ package io.jooby.internal.netty;
 import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 
+import io.jooby.CompressionOptions;
 import io.jooby.Context;
 import io.jooby.rpc.grpc.GrpcProcessor;
 import io.netty.buffer.ByteBuf;
@@ -32,7 +33,7 @@ public class NettyPipeline extends ChannelInitializer<SocketChannel> {
   private final boolean defaultHeaders;
   private final boolean http2;
   private final boolean expectContinue;
-  private final Integer compressionLevel;
+  private final CompressionOptions compression;
   private final NettyDateService dateService;
   private final GrpcProcessor grpcProcessor;
 
@@ -46,7 +47,7 @@ public class NettyPipeline extends ChannelInitializer<SocketChannel> {
       boolean defaultHeaders,
       boolean http2,
       boolean expectContinue,
-      Integer compressionLevel,
+      CompressionOptions compression,
       NettyDateService dateService,
       GrpcProcessor grpcProcessor) {
     this.sslContext = sslContext;
@@ -58,7 +59,7 @@ public class NettyPipeline extends ChannelInitializer<SocketChannel> {
     this.defaultHeaders = defaultHeaders;
     this.http2 = http2;
     this.expectContinue = expectContinue;
-    this.compressionLevel = compressionLevel;
+    this.compression = compression;
     this.dateService = dateService;
     this.grpcProcessor = grpcProcessor;
   }
@@ -156,9 +157,9 @@ public class NettyPipeline extends ChannelInitializer<SocketChannel> {
     if (expectContinue) {
       p.addLast("expect-continue", new HttpServerExpectContinueHandler());
     }
-    if (compressionLevel != null) {
-      p.addLast("compressor", new HttpChunkContentCompressor(compressionLevel));
-      p.addLast("ws-compressor", new NettyWebSocketCompressor(compressionLevel));
+    if (compression != null) {
+      p.addLast("compressor", new HttpChunkContentCompressor(compression));
+      p.addLast("ws-compressor", new NettyWebSocketCompressor(Math.min(compression.getLevel(), 9)));
     }
   }
 
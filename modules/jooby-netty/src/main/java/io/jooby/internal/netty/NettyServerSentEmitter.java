@@ -8,7 +8,6 @@ package io.jooby.internal.netty;
 import static io.jooby.internal.netty.NettyByteBufRef.byteBuf;
 
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
@@ -19,7 +18,6 @@ import io.jooby.Server;
 import io.jooby.ServerSentEmitter;
 import io.jooby.ServerSentMessage;
 import io.jooby.SneakyThrows;
-import io.netty.channel.EventLoop;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
 
@@ -75,8 +73,7 @@ public class NettyServerSentEmitter implements ServerSentEmitter, GenericFutureL
   @Override
   public ServerSentEmitter keepAlive(long timeInMillis) {
     if (checkOpen()) {
-      EventLoop executor = netty.ctx.channel().eventLoop().next();
-      executor.schedule(new KeepAlive(this, timeInMillis), timeInMillis, TimeUnit.MILLISECONDS);
+      ServerSentEmitter.heartbeat(this, timeInMillis);
     }
     return this;
   }
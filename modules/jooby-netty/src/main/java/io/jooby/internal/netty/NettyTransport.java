@@ -34,6 +34,16 @@ public abstract class NettyTransport {
 
   public abstract EventLoopGroup createEventLoop(int threads, String threadName, int ioRatio);
 
+  /**
+   * True when multiple server channels can be bound to the same port and the kernel load balance
+   * accepts between them (SO_REUSEPORT on Linux).
+   *
+   * @return True when multiple server channels can share a port.
+   */
+  public boolean isReusePort() {
+    return false;
+  }
+
   public static NettyTransport transport(ClassLoader loader) {
     if (isIoUring(loader)) {
       return ioUring();
@@ -111,6 +121,11 @@ public abstract class NettyTransport {
           IoUringIoHandler.newFactory());
     }
 
+    @Override
+    public boolean isReusePort() {
+      return true;
+    }
+
     @Override
     public ServerBootstrap configure(EventLoopGroup acceptor, EventLoopGroup eventloop) {
       return super.configure(acceptor, eventloop)
@@ -126,6 +141,11 @@ public abstract class NettyTransport {
           threads, new DefaultThreadFactory(threadName + "-epoll"), EpollIoHandler.newFactory());
     }
 
+    @Override
+    public boolean isReusePort() {
+      return true;
+    }
+
     @Override
     public ServerBootstrap configure(EventLoopGroup acceptor, EventLoopGroup eventloop) {
       return super.configure(acceptor, eventloop)
@@ -167,6 +167,57 @@ public class NettyWebSocket implements WebSocketConfigurer, WebSocket {
     return this;
   }
 
+  @Override
+  public WebSocket broadcast(Object value, SlowConsumer slowConsumer) {
+    return broadcastMessage(value, false, slowConsumer);
+  }
+
+  @Override
+  public WebSocket broadcastBinary(Object value, SlowConsumer slowConsumer) {
+    return broadcastMessage(value, true, slowConsumer);
+  }
+
+  private WebSocket broadcastMessage(Object value, boolean binary, SlowConsumer slowConsumer) {
+    List<NettyWebSocket> sessions = all.get(key);
+    if (sessions == null) {
+      return this;
+    }
+    WebSocketFrame frame;
+    try {
+      var content = byteBuf(Context.websocketMessage(netty, this, value));
+      frame = binary ? new BinaryWebSocketFrame(content) : new TextWebSocketFrame(content);
+    } catch (Throwable x) {
+      handleError(x);
+      return this;
+    }
+    try {
+      for (NettyWebSocket ws : sessions) {
+        ws.sendSharedFrame(frame, slowConsumer);
+      }
+    } finally {
+      frame.release();
+    }
+    return this;
+  }
+
+  /**
+   * Write a frame shared by multiple sessions. Each session gets its own view (indexes) of the
+   * content, the content itself is reference counted and released once all writes complete.
+   */
+  private void sendSharedFrame(WebSocketFrame frame, SlowConsumer slowConsumer) {
+    if (!isOpen()) {
+      return;
+    }
+    var channel = netty.ctx.channel();
+    if (channel.isWritable()) {
+      channel
+          .writeAndFlush(frame.retainedDuplicate())
+          .addListener(new WriteCallbackAdaptor(this, WriteCallback.NOOP));
+    } else if (slowConsumer == SlowConsumer.CLOSE) {
+      handleClose(WebSocketCloseStatus.SERVICE_OVERLOAD);
+    }
+  }
+
   private WebSocket sendMessage(ByteBuf buffer, boolean binary, WriteCallback callback) {
     return sendMessage(
         binary ? new BinaryWebSocketFrame(buffer) : new TextWebSocketFrame(buffer), callback);
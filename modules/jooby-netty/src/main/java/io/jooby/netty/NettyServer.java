@@ -10,6 +10,7 @@ import static io.jooby.internal.netty.NettyHeadersFactory.HEADERS;
 import static java.util.concurrent.Executors.newFixedThreadPool;
 
 import java.net.BindException;
+import java.net.InetSocketAddress;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.*;
@@ -138,16 +139,21 @@ public class NettyServer extends Server.Base {
       var classLoader = applications.get(0).getClassLoader();
 
       var transport = NettyTransport.transport(classLoader);
+      // Multiple server channels on same port requires SO_REUSEPORT
+      var acceptors = transport.isReusePort() ? options.getAcceptors() : 1;
 
       eventLoop = createEventLoopGroup();
       if (eventLoop == null) {
         if (worker == null) {
           worker =
-              newFixedThreadPool(options.getWorkerThreads(), new DefaultThreadFactory("worker"));
+              options.isVirtualThreads()
+                  ? newVirtualThreadExecutor("worker")
+                  : newFixedThreadPool(
+                      options.getWorkerThreads(), new DefaultThreadFactory("worker"));
         }
         eventLoop =
             new NettyEventLoopGroupImpl(
-                transport, singleEventLoopGroup, options.getIoThreads(), worker);
+                transport, singleEventLoopGroup, options.getIoThreads(), acceptors, worker);
       }
       this.dateLoop = new NettyDateService();
       var outputFactory = (NettyOutputFactory) getOutputFactory();
@@ -172,14 +178,7 @@ public class NettyServer extends Server.Base {
             newBootstrap(
                 allocator, transport, newPipeline(options, null, http2, grpcProcessor), eventLoop);
 
-        var httpFuture = http.bind(options.getHost(), options.getPort());
-        if (options.getPort() == 0) {
-          httpFuture.get(); // Wait for bind to complete
-          java.net.SocketAddress address = httpFuture.channel().localAddress();
-          if (address instanceof java.net.InetSocketAddress) {
-            options.setPort(((java.net.InetSocketAddress) address).getPort());
-          }
-        }
+        options.setPort(bind(http, options.getHost(), options.getPort(), acceptors));
       }
 
       if (options.isSSLEnabled()) {
@@ -197,14 +196,7 @@ public class NettyServer extends Server.Base {
                 newPipeline(options, sslContext, http2, grpcProcessor),
                 eventLoop);
         portInUse = options.getSecurePort();
-        var httpsFuture = https.bind(options.getHost(), portInUse);
-        if (portInUse == 0) {
-          httpsFuture.get();
-          var address = httpsFuture.channel().localAddress();
-          if (address instanceof java.net.InetSocketAddress inetSocketAddress) {
-            options.setSecurePort(inetSocketAddress.getPort());
-          }
-        }
+        options.setSecurePort(bind(https, options.getHost(), portInUse, acceptors));
       } else if (options.isHttpsOnly()) {
         throw new StartupException("Server configured for httpsOnly, but ssl options not set");
       }
@@ -223,6 +215,27 @@ public class NettyServer extends Server.Base {
     return this;
   }
 
+  /**
+   * Bind one or more server channels to the given port. Additional channels share the port of the
+   * first one via SO_REUSEPORT, so a random port (<code>0</code>) is resolved first.
+   *
+   * @return Bound port.
+   */
+  private int bind(ServerBootstrap bootstrap, String host, int port, int acceptors)
+      throws InterruptedException, ExecutionException {
+    var future = bootstrap.bind(host, port);
+    if (port == 0 || acceptors > 1) {
+      future.get(); // Wait for bind to complete
+      if (future.channel().localAddress() instanceof InetSocketAddress address) {
+        port = address.getPort();
+      }
+    }
+    for (int i = 1; i < acceptors; i++) {
+      bootstrap.bind(host, port).get();
+    }
+    return port;
+  }
+
   protected @Nullable NettyEventLoopGroup createEventLoopGroup() {
     return null;
   }
@@ -267,7 +280,7 @@ public class NettyServer extends Server.Base {
         options.getDefaultHeaders(),
         http2,
         options.isExpectContinue() == Boolean.TRUE,
-        options.getCompressionLevel(),
+        options.getCompression(),
         dateLoop,
         grpcProcessor);
   }
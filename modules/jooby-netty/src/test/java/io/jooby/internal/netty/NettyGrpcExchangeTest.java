@@ -106,6 +106,20 @@ class NettyGrpcExchangeTest {
     verify(callback).accept(null);
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  void testSend_IncludesResponseHeaders() {
+    when(ctx.writeAndFlush(any(DefaultHttpContent.class))).thenReturn(channelFuture);
+
+    exchange.setResponseHeader("grpc-encoding", "gzip");
+    exchange.send(ByteBuffer.wrap(new byte[] {1}), mock(Consumer.class));
+
+    ArgumentCaptor<HttpResponse> responseCaptor = ArgumentCaptor.forClass(HttpResponse.class);
+    verify(ctx).write(responseCaptor.capture());
+    assertEquals("application/grpc", responseCaptor.getValue().headers().get("Content-Type"));
+    assertEquals("gzip", responseCaptor.getValue().headers().get("grpc-encoding"));
+  }
+
   @Test
   @SuppressWarnings("unchecked")
   void testSend_SubsequentSendsBypassHeaders_AndListenerFailure() throws Exception {
@@ -23,6 +23,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import io.jooby.CompressionOptions;
 import io.jooby.Context;
 import io.jooby.rpc.grpc.GrpcProcessor;
 import io.netty.buffer.ByteBuf;
@@ -86,7 +87,7 @@ class NettyPipelineTest {
             true,
             false,
             true,
-            6,
+            CompressionOptions.defaults(),
             dateService,
             grpcProcessor);
 
@@ -188,7 +189,7 @@ class NettyPipelineTest {
             true,
             true,
             true,
-            6,
+            CompressionOptions.defaults(),
             dateService,
             grpcProcessor);
 
@@ -240,7 +241,7 @@ class NettyPipelineTest {
             true,
             true,
             true,
-            6,
+            CompressionOptions.defaults(),
             dateService,
             grpcProcessor);
 
@@ -317,7 +318,7 @@ class NettyPipelineTest {
             true,
             true,
             true,
-            6,
+            CompressionOptions.defaults(),
             dateService,
             grpcProcessor);
 
@@ -360,7 +361,7 @@ class NettyPipelineTest {
             true,
             true,
             true,
-            6,
+            CompressionOptions.defaults(),
             dateService,
             null // Null GrpcProcessor
             );
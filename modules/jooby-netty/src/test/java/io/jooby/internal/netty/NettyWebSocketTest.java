@@ -11,6 +11,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -400,6 +401,67 @@ class NettyWebSocketTest {
     verify(logger).debug(anyString(), any(), any(RuntimeException.class));
   }
 
+  @Test
+  void testBroadcastSharesEncodedMessage() {
+    when(netty.isInIoThread()).thenReturn(true);
+    when(channel.isOpen()).thenReturn(true);
+    when(channel.isWritable()).thenReturn(true);
+    when(channel.writeAndFlush(any())).thenReturn(writeFuture);
+
+    NettyWebSocket ws1 = new NettyWebSocket(netty);
+    ws1.fireConnect();
+    NettyWebSocket ws2 = new NettyWebSocket(netty);
+    ws2.fireConnect();
+
+    Output output = mock(Output.class);
+    when(output.asByteBuffer()).thenReturn(ByteBuffer.wrap("hello".getBytes()));
+
+    try (MockedStatic<Context> sender = mockStatic(Context.class)) {
+      sender.when(() -> Context.websocketMessage(netty, ws1, "value")).thenReturn(output);
+
+      ws1.broadcast("value");
+
+      // encoded once
+      sender.verify(() -> Context.websocketMessage(any(), any(), any()), times(1));
+    }
+
+    ArgumentCaptor<TextWebSocketFrame> captor = ArgumentCaptor.forClass(TextWebSocketFrame.class);
+    verify(channel, times(2)).writeAndFlush(captor.capture());
+    var frames = captor.getAllValues();
+    assertNotSame(frames.get(0), frames.get(1));
+    // one reference per session write, the broadcast one has been released
+    assertEquals(2, frames.get(0).content().refCnt());
+    for (var frame : frames) {
+      assertEquals("hello", frame.content().toString(StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  void testBroadcastSlowConsumer() {
+    when(netty.isInIoThread()).thenReturn(true);
+    when(channel.isOpen()).thenReturn(true);
+    when(channel.isWritable()).thenReturn(false);
+
+    NettyWebSocket ws = new NettyWebSocket(netty);
+    ws.fireConnect();
+
+    Output output = mock(Output.class);
+    when(output.asByteBuffer()).thenReturn(ByteBuffer.wrap("hello".getBytes()));
+
+    try (MockedStatic<Context> sender = mockStatic(Context.class)) {
+      sender.when(() -> Context.websocketMessage(any(), any(), any())).thenReturn(output);
+
+      ws.broadcastBinary("value", WebSocket.SlowConsumer.DROP);
+      verify(channel, never()).writeAndFlush(any());
+      assertTrue(ws.isOpen());
+
+      when(channel.writeAndFlush(any())).thenReturn(writeFuture);
+      ws.broadcastBinary("value", WebSocket.SlowConsumer.CLOSE);
+      verify(channel).writeAndFlush(any(CloseWebSocketFrame.class));
+      assertFalse(ws.isOpen());
+    }
+  }
+
   @Test
   void testWaitForConnectInterrupted() throws InterruptedException {
     when(netty.isInIoThread()).thenReturn(true);
@@ -8,9 +8,10 @@ package io.jooby.redis;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.pool2.impl.GenericObjectPool;
@@ -21,9 +22,10 @@ import org.slf4j.LoggerFactory;
 
 import io.jooby.*;
 import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScriptOutputType;
 import io.lettuce.core.api.StatefulRedisConnection;
 import io.lettuce.core.api.async.RedisAsyncCommands;
-import io.lettuce.core.api.sync.RedisCommands;
 import io.lettuce.core.support.ConnectionPoolSupport;
 
 /**
@@ -36,6 +38,33 @@ public class RedisSessionStore implements SessionStore {
 
   private static final String LAST_ACCESSED_AT = "__accessed_at";
   private static final String CREATED_AT = "__created_at";
+  private static final String SNAPSHOT = RedisSessionStore.class.getName() + ".snapshot";
+
+  /**
+   * Apply a delta to an existing session hash: <code>ARGV[1]</code> is the timeout in seconds,
+   * <code>ARGV[2]</code> the number of removed attributes, followed by removed names and by
+   * changed name/value pairs. Returns <code>0</code> when the key doesn't exist, so an expired or
+   * deleted session is never recreated with partial data.
+   */
+  private static final String WRITE =
+      """
+      local key = KEYS[1]
+      if redis.call('exists', key) == 0 then
+        return 0
+      end
+      local removed = tonumber(ARGV[2])
+      if removed > 0 then
+        redis.call('hdel', key, unpack(ARGV, 3, 2 + removed))
+      end
+      if #ARGV > 2 + removed then
+        redis.call('hset', key, unpack(ARGV, 3 + removed))
+      end
+      local seconds = tonumber(ARGV[1])
+      if seconds > 0 then
+        redis.call('expire', key, seconds)
+      end
+      return 1
+      """;
 
   private final Logger log = LoggerFactory.getLogger(getClass());
 
@@ -43,6 +72,10 @@ public class RedisSessionStore implements SessionStore {
   private String namespace = "sessions";
   private Duration timeout = Duration.ofMinutes(DEFAULT_TIMEOUT);
   private final GenericObjectPool<StatefulRedisConnection<String, String>> pool;
+  private @Nullable SessionNearCache nearCache;
+
+  /** Session state as read/written to Redis during current request. */
+  private record Snapshot(String sessionId, Map<String, String> data) {}
 
   /**
    * Creates a new session store.
@@ -128,24 +161,60 @@ public class RedisSessionStore implements SessionStore {
     return token;
   }
 
+  /**
+   * Keep session data in a local near-cache, so finding a session doesn't require a Redis round
+   * trip. The cache is kept coherent using Redis client-side caching: the given connection is
+   * switched to <code>CLIENT TRACKING ON NOLOOP</code> and Redis pushes an invalidation message
+   * every time another client modifies a cached session. Session reads and writes go through this
+   * connection.
+   *
+   * <p>Client-side caching requires Redis 6+ and a RESP3 connection (default protocol of Lettuce
+   * when server supports it). The connection is dedicated to this store, and it isn't closed by
+   * it:
+   *
+   * <pre>{@code
+   * {
+   *   install(new RedisModule());
+   *
+   *   RedisClient redis = require(RedisClient.class);
+   *   StatefulRedisConnection<String, String> tracking = redis.connect();
+   *   onStop(tracking);
+   *
+   *   setSessionStore(
+   *       new RedisSessionStore(Cookie.session("myappid"), redis).setNearCache(tracking, 10_000));
+   * }
+   * }</pre>
+   *
+   * Local entries are also dropped after one minute, this limits how stale data might be if the
+   * connection loses its tracking state (like after a reconnect).
+   *
+   * @param connection Dedicated connection.
+   * @param maxSize Max number of sessions to keep in memory.
+   * @return This store.
+   */
+  public RedisSessionStore setNearCache(
+      StatefulRedisConnection<String, String> connection, int maxSize) {
+    this.nearCache = new SessionNearCache(connection, maxSize);
+    return this;
+  }
+
   @Override
   public Session newSession(Context ctx) {
     String sessionId = token.newToken();
 
     Instant now = Instant.now();
-    String isoNow = DateTimeFormatter.ISO_INSTANT.format(now);
 
-    Map<String, String> data = new HashMap<>();
-    data.put(LAST_ACCESSED_AT, isoNow);
-    data.put(CREATED_AT, isoNow);
+    Session session =
+        Session.create(ctx, sessionId, new ConcurrentHashMap<>())
+            .setLastAccessedTime(now)
+            .setCreationTime(now);
 
-    saveSession(sessionId, data);
+    // Key doesn't exist yet, a delta is never written to a missing key
+    saveSession(ctx, session, null);
 
     token.saveToken(ctx, sessionId);
 
-    return Session.create(ctx, sessionId, new ConcurrentHashMap<>())
-        .setLastAccessedTime(now)
-        .setCreationTime(now);
+    return session;
   }
 
   @Nullable @Override
@@ -154,33 +223,39 @@ public class RedisSessionStore implements SessionStore {
     if (sessionId == null) {
       return null;
     }
-    return withConnection(
-        connection -> {
-          RedisCommands<String, String> commands = connection.sync();
-          String redisId = key(sessionId);
-          Map<String, String> data = commands.hgetall(redisId);
-          if (data == null || data.isEmpty()) {
-            return null;
-          }
-          Optional.ofNullable(timeout)
-              .map(Duration::getSeconds)
-              .ifPresent(seconds -> commands.expire(redisId, seconds));
-          Instant lastAccessedTime = Instant.parse(data.remove(LAST_ACCESSED_AT));
-          Instant createdAt = Instant.parse(data.remove(CREATED_AT));
+    String redisId = key(sessionId);
+    long seconds = timeoutInSeconds();
+    Map<String, String> data =
+        nearCache == null
+            ? withConnection(connection -> find(connection.async(), redisId, seconds))
+            : nearCache.find(redisId, seconds);
+    // Hash without timestamps wasn't written by this store, it isn't a session
+    if (data == null || !data.containsKey(CREATED_AT) || !data.containsKey(LAST_ACCESSED_AT)) {
+      return null;
+    }
+    ctx.setAttribute(SNAPSHOT, new Snapshot(sessionId, Map.copyOf(data)));
 
-          token.saveToken(ctx, sessionId);
+    Map<String, String> attributes = new HashMap<>(data);
+    Instant lastAccessedTime = Instant.parse(attributes.remove(LAST_ACCESSED_AT));
+    Instant createdAt = Instant.parse(attributes.remove(CREATED_AT));
 
-          return Session.create(ctx, sessionId, new ConcurrentHashMap<>(data))
-              .setCreationTime(createdAt)
-              .setLastAccessedTime(lastAccessedTime);
-        });
+    token.saveToken(ctx, sessionId);
+
+    return Session.create(ctx, sessionId, new ConcurrentHashMap<>(attributes))
+        .setCreationTime(createdAt)
+        .setLastAccessedTime(lastAccessedTime);
   }
 
   @Override
   public void deleteSession(Context ctx, Session session) {
     String sessionId = session.getId();
+    String redisId = key(sessionId);
 
-    withConnection(connection -> connection.async().del(key(sessionId)));
+    if (nearCache == null) {
+      withConnection(connection -> connection.async().del(redisId));
+    } else {
+      nearCache.delete(redisId);
+    }
 
     token.deleteToken(ctx, sessionId);
   }
@@ -194,48 +269,157 @@ public class RedisSessionStore implements SessionStore {
 
   @Override
   public void saveSession(Context ctx, Session session) {
-    saveSession(session.getId(), new HashMap<>(session.toMap()));
+    Snapshot snapshot = ctx.getAttribute(SNAPSHOT);
+    saveSession(
+        ctx,
+        session,
+        snapshot != null && snapshot.sessionId().equals(session.getId()) ? snapshot.data() : null);
   }
 
   @Override
   public void renewSessionId(Context ctx, Session session) {}
 
-  private void saveSession(String sessionId, Map<String, String> data) {
+  /**
+   * Save session. Only attributes that differ from the last known state are written, together
+   * with the TTL refresh, in a single script that does nothing once the key is gone (expired or
+   * deleted). Without a known state, the whole hash is replaced.
+   *
+   * @param ctx HTTP context.
+   * @param session Session.
+   * @param snapshot Last known state of the session in Redis or <code>null</code>.
+   */
+  private void saveSession(Context ctx, Session session, @Nullable Map<String, String> snapshot) {
+    String sessionId = session.getId();
+    String redisId = key(sessionId);
+
+    Map<String, String> data = new HashMap<>(session.toMap());
+    data.put(LAST_ACCESSED_AT, DateTimeFormatter.ISO_INSTANT.format(Instant.now()));
+    data.put(CREATED_AT, DateTimeFormatter.ISO_INSTANT.format(session.getCreationTime()));
+
+    if (snapshot == null) {
+      replace(sessionId, redisId, data);
+    } else {
+      Map<String, String> changed = new HashMap<>();
+      data.forEach(
+          (name, value) -> {
+            if (!value.equals(snapshot.get(name))) {
+              changed.put(name, value);
+            }
+          });
+      List<String> removed = new ArrayList<>();
+      for (String name : snapshot.keySet()) {
+        if (!data.containsKey(name)) {
+          removed.add(name);
+        }
+      }
+      long seconds = timeoutInSeconds();
+      Map<String, String> newState = Map.copyOf(data);
+      if (nearCache == null) {
+        withConnection(
+            connection -> write(connection.async(), sessionId, redisId, changed, removed, seconds));
+      } else {
+        nearCache.write(
+            redisId,
+            newState,
+            commands -> write(commands, sessionId, redisId, changed, removed, seconds));
+      }
+      ctx.setAttribute(SNAPSHOT, new Snapshot(sessionId, newState));
+    }
+  }
+
+  private void replace(String sessionId, String redisId, Map<String, String> data) {
+    if (nearCache != null) {
+      nearCache.evict(redisId);
+    }
+    long seconds = timeoutInSeconds();
     withConnection(
         connection -> {
-          Instant now = Instant.now();
-          String isoNow = DateTimeFormatter.ISO_INSTANT.format(now);
-
-          data.put(LAST_ACCESSED_AT, isoNow);
-          data.put(CREATED_AT, isoNow);
-
           RedisAsyncCommands<String, String> commands = connection.async();
-          String redisId = key(sessionId);
           // start transaction
           commands.multi();
           // delete existing
           commands.del(redisId);
           // save again
           commands.hset(redisId, data);
+          if (seconds > 0) {
+            commands.expire(redisId, seconds);
+          }
           // commit
           return commands
               .exec()
               .handle(
                   (value, cause) -> {
                     if (cause != null) {
-                      log.error("unable to create session: {}", sessionId, cause);
+                      log.error("unable to save session: {}", sessionId, cause);
                       return sessionId;
-                    } else {
-                      Optional.ofNullable(timeout)
-                          .map(Duration::getSeconds)
-                          .ifPresent(seconds -> commands.expire(redisId, seconds));
-                      return value;
                     }
+                    return value;
                   });
         });
   }
 
-  private <T> T withConnection(SneakyThrows.Function<StatefulRedisConnection, T> callback) {
+  private RedisFuture<Long> write(
+      RedisAsyncCommands<String, String> commands,
+      String sessionId,
+      String redisId,
+      Map<String, String> changed,
+      List<String> removed,
+      long seconds) {
+    String[] args = new String[2 + removed.size() + changed.size() * 2];
+    int i = 0;
+    args[i++] = Long.toString(seconds);
+    args[i++] = Integer.toString(removed.size());
+    for (String name : removed) {
+      args[i++] = name;
+    }
+    for (Map.Entry<String, String> entry : changed.entrySet()) {
+      args[i++] = entry.getKey();
+      args[i++] = entry.getValue();
+    }
+    RedisFuture<Long> future =
+        commands.eval(WRITE, ScriptOutputType.INTEGER, new String[] {redisId}, args);
+    future.whenComplete(
+        (value, cause) -> {
+          if (cause != null) {
+            log.error("unable to save session: {}", sessionId, cause);
+          } else if (value != null && value == 0) {
+            // expired or deleted (logout): drop it, next lookup starts a new session
+            log.debug("session not found, it won't be saved: {}", sessionId);
+            if (nearCache != null) {
+              nearCache.evict(redisId);
+            }
+          }
+        });
+    return future;
+  }
+
+  /**
+   * Read session data and refresh TTL in a single pipeline.
+   *
+   * @param commands Redis commands.
+   * @param redisId Session key.
+   * @param seconds Timeout in seconds or <code>0</code>.
+   * @return Session data.
+   */
+  static Map<String, String> find(
+      RedisAsyncCommands<String, String> commands, String redisId, long seconds) {
+    RedisFuture<Map<String, String>> data = commands.hgetall(redisId);
+    if (seconds > 0) {
+      commands.expire(redisId, seconds);
+    }
+    try {
+      return data.get();
+    } catch (Exception cause) {
+      throw SneakyThrows.propagate(cause);
+    }
+  }
+
+  private long timeoutInSeconds() {
+    return timeout == null ? 0 : Math.max(0, timeout.getSeconds());
+  }
+
+  private <T> T withConnection(
+      SneakyThrows.Function<StatefulRedisConnection<String, String>, T> callback) {
     try (StatefulRedisConnection<String, String> connection = pool.borrowObject()) {
       return callback.apply(connection);
     } catch (Exception cause) {
@@ -0,0 +1,146 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.redis;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.jspecify.annotations.Nullable;
+
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.api.push.PushListener;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.StringCodec;
+
+/**
+ * Local cache of session data kept coherent via Redis client-side caching (<code>CLIENT TRACKING
+ * </code>). All the session reads and writes go through the tracking connection. Own writes don't
+ * produce invalidation messages (<code>NOLOOP</code>), so they update the cache directly.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+class SessionNearCache implements PushListener {
+
+  /** Upper bound for local entries, in case tracking state is lost (reconnect). */
+  private static final long MAX_AGE = TimeUnit.MINUTES.toNanos(1);
+
+  private record Entry(Map<String, String> data, long createdAt) {}
+
+  private final StatefulRedisConnection<String, String> connection;
+
+  private final Map<String, Entry> entries;
+
+  /** Incremented on every write or invalidation message, prevents caching a read racing a write. */
+  private final AtomicLong version = new AtomicLong();
+
+  SessionNearCache(StatefulRedisConnection<String, String> connection, int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Max size must be greater than 0: " + maxSize);
+    }
+    this.connection = connection;
+    this.entries =
+        Collections.synchronizedMap(
+            new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+              @Override
+              protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+              }
+            });
+    connection.addListener(this);
+    connection.sync().clientTracking(TrackingArgs.Builder.enabled().noloop());
+  }
+
+  /**
+   * Find session data. Local hits only send the TTL refresh (without waiting for it), misses read
+   * and refresh TTL in a single pipeline.
+   *
+   * @param key Session key.
+   * @param seconds Timeout in seconds or <code>0</code>.
+   * @return Session data or <code>null</code>.
+   */
+  @Nullable Map<String, String> find(String key, long seconds) {
+    RedisAsyncCommands<String, String> commands = connection.async();
+    Entry entry = entries.get(key);
+    if (entry != null) {
+      if (System.nanoTime() - entry.createdAt < MAX_AGE) {
+        if (seconds > 0) {
+          commands.expire(key, seconds);
+        }
+        return entry.data;
+      }
+      entries.remove(key);
+    }
+    long readVersion = version.get();
+    Map<String, String> data = RedisSessionStore.find(commands, key, seconds);
+    if (data == null || data.isEmpty()) {
+      return null;
+    }
+    Map<String, String> snapshot = Map.copyOf(data);
+    if (readVersion == version.get()) {
+      entries.put(key, new Entry(snapshot, System.nanoTime()));
+    }
+    return snapshot;
+  }
+
+  /**
+   * Send write commands through the tracking connection and update local state.
+   *
+   * @param key Session key.
+   * @param data New session state.
+   * @param write Write commands.
+   */
+  void write(
+      String key, Map<String, String> data, Consumer<RedisAsyncCommands<String, String>> write) {
+    version.incrementAndGet();
+    // local state first, a write that finds the key gone evicts it
+    entries.put(key, new Entry(data, System.nanoTime()));
+    write.accept(connection.async());
+  }
+
+  /**
+   * Delete a session.
+   *
+   * @param key Session key.
+   */
+  void delete(String key) {
+    version.incrementAndGet();
+    entries.remove(key);
+    connection.async().del(key);
+  }
+
+  /**
+   * Remove a local entry.
+   *
+   * @param key Session key.
+   */
+  void evict(String key) {
+    version.incrementAndGet();
+    entries.remove(key);
+  }
+
+  @Override
+  public void onPushMessage(PushMessage message) {
+    if ("invalidate".equals(message.getType())) {
+      version.incrementAndGet();
+      List<Object> content = message.getContent(StringCodec.UTF8::decodeKey);
+      Object keys = content.size() > 1 ? content.get(1) : null;
+      if (keys instanceof List<?> list) {
+        list.forEach(entries::remove);
+      } else {
+        // flushdb/flushall
+        entries.clear();
+      }
+    }
+  }
+}
@@ -0,0 +1,311 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.redis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.jooby.Context;
+import io.jooby.Router;
+import io.jooby.SessionToken;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.api.push.PushListener;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.api.sync.RedisCommands;
+
+public class RedisSessionStoreTest {
+
+  private static final String KEY = "sessions:abc";
+
+  private static final String CREATED_AT = "2024-01-01T00:00:00Z";
+
+  /** Completed lettuce future. */
+  private static class Done<T> extends CompletableFuture<T> implements RedisFuture<T> {
+    Done(T value) {
+      complete(value);
+    }
+
+    @Override
+    public String getError() {
+      return null;
+    }
+
+    @Override
+    public boolean await(long timeout, TimeUnit unit) {
+      return true;
+    }
+  }
+
+  /** In memory Redis stand-in: hashes only, commands run as they are sent. */
+  private final Map<String, Map<String, String>> redis = new ConcurrentHashMap<>();
+
+  private RedisAsyncCommands<String, String> commands;
+
+  private StatefulRedisConnection<String, String> connection;
+
+  private GenericObjectPool<StatefulRedisConnection<String, String>> pool;
+
+  private SessionToken token;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setup() throws Exception {
+    commands = mock(RedisAsyncCommands.class);
+    when(commands.hgetall(anyString()))
+        .thenAnswer(
+            call -> new Done<>(new HashMap<>(redis.getOrDefault(call.getArgument(0), Map.of()))));
+    when(commands.hset(anyString(), anyMap()))
+        .thenAnswer(
+            call -> {
+              Map<String, String> values = call.getArgument(1);
+              redis
+                  .computeIfAbsent(call.getArgument(0), k -> new ConcurrentHashMap<>())
+                  .putAll(values);
+              return new Done<>((long) values.size());
+            });
+    when(commands.hdel(anyString(), any(String[].class)))
+        .thenAnswer(
+            call -> {
+              var hash = redis.getOrDefault((String) call.getRawArguments()[0], Map.of());
+              for (String field : (String[]) call.getRawArguments()[1]) {
+                hash.remove(field);
+              }
+              return new Done<>(1L);
+            });
+    when(commands.del(any(String[].class)))
+        .thenAnswer(
+            call -> {
+              for (String key : (String[]) call.getRawArguments()[0]) {
+                redis.remove(key);
+              }
+              return new Done<>(1L);
+            });
+    when(commands.eval(
+            anyString(), eq(ScriptOutputType.INTEGER), any(String[].class), any(String[].class)))
+        .thenAnswer(
+            call -> {
+              var hash = redis.get(((String[]) call.getRawArguments()[2])[0]);
+              if (hash == null) {
+                return new Done<>(0L);
+              }
+              var delta = delta((String[]) call.getRawArguments()[3]);
+              delta.removed().forEach(hash::remove);
+              hash.putAll(delta.changed());
+              return new Done<>(1L);
+            });
+    when(commands.expire(anyString(), anyLong())).thenReturn(new Done<>(true));
+    when(commands.multi()).thenReturn(new Done<>("OK"));
+    when(commands.exec()).thenReturn(new Done<>(null));
+
+    connection = mock(StatefulRedisConnection.class);
+    when(connection.async()).thenReturn(commands);
+    when(connection.sync()).thenReturn(mock(RedisCommands.class));
+
+    pool = mock(GenericObjectPool.class);
+    when(pool.borrowObject()).thenReturn(connection);
+
+    token = mock(SessionToken.class);
+  }
+
+  private Context context(RedisSessionStore store) {
+    var attributes = new HashMap<String, Object>();
+    var router = mock(Router.class);
+    when(router.getSessionStore()).thenReturn(store);
+    var ctx = mock(Context.class);
+    when(ctx.getRouter()).thenReturn(router);
+    when(ctx.getAttribute(anyString())).thenAnswer(call -> attributes.get(call.getArgument(0)));
+    when(ctx.setAttribute(anyString(), any()))
+        .thenAnswer(
+            call -> {
+              attributes.put(call.getArgument(0), call.getArgument(1));
+              return ctx;
+            });
+    when(token.findToken(ctx)).thenReturn("abc");
+    return ctx;
+  }
+
+  private void seed(Map<String, String> attributes) {
+    var hash = new ConcurrentHashMap<>(attributes);
+    hash.put("__created_at", CREATED_AT);
+    hash.put("__accessed_at", CREATED_AT);
+    redis.put(KEY, hash);
+  }
+
+  /** Arguments of the delta script: timeout, removed count, removed names, changed pairs. */
+  private record Delta(long seconds, List<String> removed, Map<String, String> changed) {}
+
+  private static Delta delta(String[] args) {
+    int removed = Integer.parseInt(args[1]);
+    var changed = new HashMap<String, String>();
+    for (int i = 2 + removed; i < args.length; i += 2) {
+      changed.put(args[i], args[i + 1]);
+    }
+    return new Delta(Long.parseLong(args[0]), List.of(args).subList(2, 2 + removed), changed);
+  }
+
+  @Test
+  @DisplayName("Save writes changed attributes only, plus timestamps")
+  void shouldWriteDelta() {
+    seed(Map.of("foo", "1", "bar", "2", "baz", "3"));
+    var store = new RedisSessionStore(token, pool);
+
+    var ctx = context(store);
+    var session = store.findSession(ctx);
+    assertNotNull(session);
+    // each change saves the session
+    session.put("foo", "9");
+    session.remove("bar");
+
+    var args = ArgumentCaptor.forClass(String[].class);
+    verify(commands, times(2))
+        .eval(anyString(), eq(ScriptOutputType.INTEGER), eq(new String[] {KEY}), args.capture());
+    var writes = args.getAllValues().stream().map(RedisSessionStoreTest::delta).toList();
+    assertEquals(Map.of("foo", "9"), without(writes.get(0).changed(), "__accessed_at"));
+    assertEquals(List.of(), writes.get(0).removed());
+    assertEquals(List.of("bar"), writes.get(1).removed());
+    writes.forEach(it -> assertEquals(1800L, it.seconds()));
+    verify(commands, never()).hset(anyString(), anyMap());
+    verify(commands, never()).del(any(String[].class));
+
+    var hash = redis.get(KEY);
+    assertEquals("9", hash.get("foo"));
+    assertEquals("3", hash.get("baz"));
+    assertNull(hash.get("bar"));
+  }
+
+  @Test
+  @DisplayName("Session deleted or expired after read isn't recreated")
+  void shouldNotRecreateDeletedSession() {
+    for (var nearCache : List.of(false, true)) {
+      seed(Map.of("foo", "1"));
+      var store = new RedisSessionStore(token, pool);
+      if (nearCache) {
+        store.setNearCache(connection, 10);
+      }
+
+      var ctx = context(store);
+      var session = store.findSession(ctx);
+      assertNotNull(session);
+
+      // logout from another request
+      redis.remove(KEY);
+      session.put("foo", "2");
+      store.saveSession(ctx, session);
+
+      assertNull(redis.get(KEY));
+      assertNull(store.findSession(context(store)));
+    }
+  }
+
+  @Test
+  @DisplayName("Hash without timestamps isn't a session")
+  void shouldIgnorePartialHash() {
+    redis.put(KEY, new ConcurrentHashMap<>(Map.of("foo", "1")));
+    var store = new RedisSessionStore(token, pool);
+
+    assertNull(store.findSession(context(store)));
+  }
+
+  @Test
+  @DisplayName("Near cache serves reads locally and applies own writes")
+  void shouldReadFromNearCache() {
+    seed(Map.of("foo", "1"));
+    var store = new RedisSessionStore(token, pool).setNearCache(connection, 10);
+
+    var ctx = context(store);
+    var session = store.findSession(ctx);
+    assertNotNull(session);
+    // saves the session
+    session.put("foo", "2");
+
+    for (int i = 0; i < 3; i++) {
+      var found = store.findSession(context(store));
+      assertNotNull(found);
+      assertEquals("2", found.get("foo").value());
+    }
+    // one read for the first lookup, everything else is local
+    verify(commands, times(1)).hgetall(KEY);
+    // TTL is refreshed on every lookup, writes refresh it from the script
+    verify(commands, times(4)).expire(KEY, 1800L);
+  }
+
+  @Test
+  @DisplayName("Near cache drops entries on invalidation messages")
+  @SuppressWarnings("unchecked")
+  void shouldInvalidateNearCache() {
+    seed(Map.of("foo", "1"));
+    var store = new RedisSessionStore(token, pool).setNearCache(connection, 10);
+    var listener = ArgumentCaptor.forClass(PushListener.class);
+    verify(connection).addListener(listener.capture());
+
+    assertEquals("1", store.findSession(context(store)).get("foo").value());
+
+    // another client modified the session
+    redis.get(KEY).put("foo", "2");
+    var message = mock(PushMessage.class);
+    when(message.getType()).thenReturn("invalidate");
+    when(message.getContent(any())).thenReturn(List.of("invalidate", List.of(KEY)));
+    listener.getValue().onPushMessage(message);
+
+    assertEquals("2", store.findSession(context(store)).get("foo").value());
+    verify(commands, times(2)).hgetall(KEY);
+  }
+
+  @Test
+  @DisplayName("New session writes the whole hash")
+  void shouldWriteNewSession() {
+    when(token.newToken()).thenReturn("abc");
+    var store = new RedisSessionStore(token, pool);
+
+    var session = store.newSession(context(store));
+
+    var hash = redis.get(KEY);
+    assertNotNull(hash);
+    assertEquals(
+        session.getCreationTime().truncatedTo(ChronoUnit.SECONDS),
+        Instant.parse(hash.get("__created_at")).truncatedTo(ChronoUnit.SECONDS));
+    assertTrue(hash.containsKey("__accessed_at"));
+    verify(commands).expire(KEY, 1800L);
+  }
+
+  private static Map<String, String> without(Map<String, String> map, String... names) {
+    var result = new HashMap<>(map);
+    for (String name : names) {
+      result.remove(name);
+    }
+    return result;
+  }
+}
@@ -777,6 +777,12 @@ public class MockContext implements DefaultContext {
     return responseStarted;
   }
 
+  @Override
+  public Context abort(Throwable cause) {
+    responseStarted = true;
+    return this;
+  }
+
   @Override
   public boolean getResetHeadersOnError() {
     return resetHeadersOnError;
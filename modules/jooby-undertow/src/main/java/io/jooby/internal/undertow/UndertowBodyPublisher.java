@@ -0,0 +1,132 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.undertow;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.xnio.ChannelListener;
+import org.xnio.IoUtils;
+import org.xnio.channels.StreamSourceChannel;
+
+import io.jooby.ReactiveSupport;
+import io.jooby.StatusCode;
+import io.jooby.exception.StatusCodeException;
+import io.undertow.server.HttpServerExchange;
+
+/**
+ * Publish request body as it arrives, for routes with streaming body. Reads are resumed while the
+ * subscriber has demand and suspended otherwise. Buffer is reused between reads.
+ */
+public class UndertowBodyPublisher
+    implements Flow.Publisher<ByteBuffer>,
+        Flow.Subscription,
+        ChannelListener<StreamSourceChannel> {
+
+  private final StreamSourceChannel channel;
+
+  private final ByteBuffer buffer;
+
+  private final long maxRequestSize;
+
+  private final AtomicBoolean subscribed = new AtomicBoolean();
+
+  private final AtomicLong demand = new AtomicLong();
+
+  private volatile Flow.Subscriber<? super ByteBuffer> subscriber;
+
+  private volatile boolean done;
+
+  /** Bytes read so far, only updated by the IO thread. */
+  private long size;
+
+  public UndertowBodyPublisher(HttpServerExchange exchange, int bufferSize, long maxRequestSize) {
+    this.channel = exchange.getRequestChannel();
+    this.buffer = ByteBuffer.allocate(bufferSize);
+    this.maxRequestSize = maxRequestSize;
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+    if (subscribed.compareAndSet(false, true)) {
+      this.subscriber = subscriber;
+      channel.getReadSetter().set(this);
+      subscriber.onSubscribe(this);
+    } else {
+      ReactiveSupport.reject(subscriber, new IllegalStateException("Body was subscribed already"));
+    }
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      fail(new IllegalArgumentException("Demand must be positive: " + n));
+    } else if (demand.getAndAccumulate(n, ReactiveSupport::addDemand) == 0 && !done) {
+      // fires the listener, even if data arrived with the headers
+      channel.wakeupReads();
+    }
+  }
+
+  @Override
+  public void cancel() {
+    if (!done) {
+      done = true;
+      demand.set(0);
+      IoUtils.safeClose(channel);
+    }
+  }
+
+  @Override
+  public void handleEvent(StreamSourceChannel channel) {
+    try {
+      while (!done && demand.get() > 0) {
+        buffer.clear();
+        int read = channel.read(buffer);
+        if (read == -1) {
+          done = true;
+          channel.suspendReads();
+          subscriber.onComplete();
+          return;
+        } else if (read == 0) {
+          // waiting for more data from the network
+          return;
+        }
+        size += read;
+        if (size > maxRequestSize) {
+          fail(new StatusCodeException(StatusCode.REQUEST_ENTITY_TOO_LARGE));
+          return;
+        }
+        buffer.flip();
+        try {
+          subscriber.onNext(buffer);
+        } catch (Throwable cause) {
+          // subscriber failed, subscription is cancelled
+          cancel();
+          throw cause;
+        }
+        demand.decrementAndGet();
+      }
+      channel.suspendReads();
+      // demand might arrive between the loop and suspendReads()
+      if (!done && demand.get() > 0) {
+        channel.wakeupReads();
+      }
+    } catch (IOException cause) {
+      fail(cause);
+    }
+  }
+
+  private void fail(Throwable cause) {
+    if (!done) {
+      done = true;
+      IoUtils.safeClose(channel);
+      subscriber.onError(cause);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.undertow;
+
+import io.jooby.CompressionOptions;
+import io.undertow.predicate.Predicate;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.encoding.ContentEncodingRepository;
+import io.undertow.server.handlers.encoding.DeflateEncodingProvider;
+import io.undertow.server.handlers.encoding.GzipEncodingProvider;
+import io.undertow.util.AttachmentKey;
+import io.undertow.util.Headers;
+
+/**
+ * Apply {@link CompressionOptions} to Undertow encoding handler. The predicate runs once the
+ * response is started, so response type, length and matching route are known.
+ *
+ * <p>Only <code>gzip</code> and <code>deflate</code> are supported, other encodings are ignored.
+ *
+ * @author edgar
+ * @since 4.5.5
+ */
+public class UndertowCompression implements Predicate {
+
+  /** Set by {@link UndertowContext} when the matching route turns off compression. */
+  static final AttachmentKey<Boolean> OFF = AttachmentKey.create(Boolean.class);
+
+  private final CompressionOptions options;
+
+  private UndertowCompression(CompressionOptions options) {
+    this.options = options;
+  }
+
+  /**
+   * Creates an encoding repository from compression options. Encodings are prioritized by their
+   * position.
+   *
+   * @param options Compression options.
+   * @return Encoding repository.
+   */
+  public static ContentEncodingRepository repository(CompressionOptions options) {
+    var predicate = new UndertowCompression(options);
+    var repository = new ContentEncodingRepository();
+    var encodings = options.getEncodings();
+    var level = Math.min(options.getLevel(), 9);
+    for (int i = 0; i < encodings.size(); i++) {
+      var priority = encodings.size() - i;
+      switch (encodings.get(i)) {
+        case CompressionOptions.GZIP ->
+            repository.addEncodingHandler(
+                CompressionOptions.GZIP, new GzipEncodingProvider(level), priority, predicate);
+        case CompressionOptions.DEFLATE ->
+            repository.addEncodingHandler(
+                CompressionOptions.DEFLATE,
+                new DeflateEncodingProvider(level),
+                priority,
+                predicate);
+        default -> {
+          // not supported
+        }
+      }
+    }
+    return repository;
+  }
+
+  @Override
+  public boolean resolve(HttpServerExchange exchange) {
+    if (exchange.getAttachment(OFF) != null) {
+      return false;
+    }
+    return options.shouldCompress(
+        exchange.getResponseHeaders().getFirst(Headers.CONTENT_TYPE),
+        exchange.getResponseContentLength());
+  }
+}
@@ -28,11 +28,13 @@ import java.nio.file.Files;
 import java.security.cert.Certificate;
 import java.util.*;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
 
 import javax.net.ssl.SSLPeerUnverifiedException;
 
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
+import org.xnio.IoUtils;
 
 import io.jooby.*;
 import io.jooby.ByteRange;
@@ -59,6 +61,7 @@ public class UndertowContext implements DefaultContext, IoCallback {
   private Map<String, Object> attributes;
   private List<FileDownload> files;
   Body body;
+  UndertowBodyPublisher bodyPublisher;
   private MediaType responseType;
   private Map<String, String> cookies;
   private HashMap<String, String> responseCookies;
@@ -97,6 +100,11 @@ public class UndertowContext implements DefaultContext, IoCallback {
     return body == null ? Body.empty(this) : body;
   }
 
+  @Override
+  public Flow.Publisher<ByteBuffer> bodyPublisher() {
+    return bodyPublisher == null ? DefaultContext.super.bodyPublisher() : bodyPublisher;
+  }
+
   @Override
   public Map<String, String> cookieMap() {
     if (this.cookies == null) {
@@ -138,6 +146,9 @@ public class UndertowContext implements DefaultContext, IoCallback {
     if (this.route.isNonBlocking()) {
       this.exchange.dispatch();
     }
+    if (!route.isCompress()) {
+      this.exchange.putAttachment(UndertowCompression.OFF, Boolean.TRUE);
+    }
     return this;
   }
 
@@ -262,7 +273,11 @@ public class UndertowContext implements DefaultContext, IoCallback {
   @Override
   public QueryString query() {
     if (query == null) {
-      query = QueryString.create(getValueFactory(), exchange.getQueryString());
+      query =
+          QueryString.create(
+              getValueFactory(),
+              exchange.getQueryString(),
+              router.getRouterOptions().isLazyQueryString());
     }
     return query;
   }
@@ -530,6 +545,13 @@ public class UndertowContext implements DefaultContext, IoCallback {
     return exchange.isResponseStarted();
   }
 
+  @Override
+  public Context abort(Throwable cause) {
+    IoUtils.safeClose(exchange.getConnection());
+    destroy(null);
+    return this;
+  }
+
   @Override
   public boolean getResetHeadersOnError() {
     return resetHeadersOnError == null
@@ -51,6 +51,16 @@ public class UndertowGrpcExchange implements GrpcExchange {
     return map;
   }
 
+  @Override
+  public boolean supportsResponseHeaders() {
+    return true;
+  }
+
+  @Override
+  public void setResponseHeader(String name, String value) {
+    exchange.getResponseHeaders().put(HttpString.tryFromString(name), value);
+  }
+
   @Override
   public void send(ByteBuffer payload, Consumer<Throwable> callback) {
     if (!headersSent) {
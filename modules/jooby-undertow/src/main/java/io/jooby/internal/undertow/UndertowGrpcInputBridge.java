@@ -74,11 +74,10 @@ public class UndertowGrpcInputBridge
         }
 
         buffer.flip();
-        ByteBuffer chunk = ByteBuffer.allocate(buffer.remaining());
-        chunk.put(buffer);
-        chunk.flip();
 
-        subscriber.onNext(chunk);
+        // Buffer is reused, subscribers consume (or copy) it before onNext returns, see
+        // GrpcProcessor.process.
+        subscriber.onNext(buffer);
         demand.decrementAndGet();
       }
 
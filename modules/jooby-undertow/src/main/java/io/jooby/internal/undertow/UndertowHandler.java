@@ -68,6 +68,14 @@ public class UndertowHandler implements HttpHandler {
           return;
         }
 
+        Router.Match route = router.match(context);
+        if (route.matches() && route.route().isStreamingBody()) {
+          // body is read on demand, see UndertowBodyPublisher
+          context.bodyPublisher = new UndertowBodyPublisher(exchange, bufferSize, maxRequestSize);
+          route.execute(context);
+          return;
+        }
+
         /* Eager body parsing: */
         FormDataParser parser =
             FormParserFactory.builder(false)
@@ -82,7 +90,6 @@ public class UndertowHandler implements HttpHandler {
         if (parser == null) {
           // Read raw body
           Receiver receiver = exchange.getRequestReceiver();
-          Router.Match route = router.match(context);
           UndertowBodyHandler reader =
               new UndertowBodyHandler(route, context, bufferSize, maxRequestSize);
           if (len > 0 && len <= bufferSize) {
@@ -92,13 +99,13 @@ public class UndertowHandler implements HttpHandler {
           }
         } else {
           try {
-            parser.parse(execute(router, context));
+            parser.parse(execute(route, context));
           } catch (Exception x) {
             var cause = Optional.ofNullable(x.getCause()).orElse(x);
             if (cause instanceof ParameterLimitException) {
               context.setAttribute("__too_many_fields", cause);
             }
-            router.match(context).execute(context, Route.FORM_DECODER_HANDLER);
+            route.execute(context, Route.FORM_DECODER_HANDLER);
           }
         }
       } else {
@@ -116,7 +123,7 @@ public class UndertowHandler implements HttpHandler {
     }
   }
 
-  private static HttpHandler execute(Router router, Context ctx) {
-    return exchange -> router.match(ctx).execute(ctx);
+  private static HttpHandler execute(Router.Match route, Context ctx) {
+    return exchange -> route.execute(ctx);
   }
 }
@@ -7,12 +7,10 @@ package io.jooby.internal.undertow;
 
 import java.io.IOException;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.xnio.XnioIoThread;
 
 import io.jooby.Context;
 import io.jooby.Server;
@@ -58,8 +56,7 @@ public class UndertowSeverSentEmitter
   @Override
   public ServerSentEmitter keepAlive(long timeInMillis) {
     if (checkOpen()) {
-      XnioIoThread executor = context.exchange.getIoThread();
-      executor.executeAfter(new KeepAlive(this, timeInMillis), timeInMillis, TimeUnit.MILLISECONDS);
+      ServerSentEmitter.heartbeat(this, timeInMillis);
     }
     return this;
   }
@@ -20,6 +20,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.xnio.IoUtils;
@@ -145,6 +146,8 @@ public class UndertowWebSocket extends AbstractReceiveListener
   private CountDownLatch ready = new CountDownLatch(1);
   private AtomicBoolean open = new AtomicBoolean(false);
   private int maxSize;
+  /** Bytes of broadcast messages waiting to be written. */
+  private final AtomicLong pendingBroadcast = new AtomicLong();
 
   public UndertowWebSocket(UndertowContext ctx, WebSocketChannel channel) {
     this.ctx = ctx;
@@ -310,6 +313,54 @@ public class UndertowWebSocket extends AbstractReceiveListener
     return this;
   }
 
+  @Override
+  public WebSocket broadcast(Object value, SlowConsumer slowConsumer) {
+    return broadcastMessage(value, FrameType.TEXT, slowConsumer);
+  }
+
+  @Override
+  public WebSocket broadcastBinary(Object value, SlowConsumer slowConsumer) {
+    return broadcastMessage(value, FrameType.BINARY, slowConsumer);
+  }
+
+  private WebSocket broadcastMessage(Object value, FrameType type, SlowConsumer slowConsumer) {
+    List<UndertowWebSocket> sessions = all.get(key);
+    if (sessions == null) {
+      return this;
+    }
+    ByteBuffer message;
+    try {
+      message = Context.websocketMessage(ctx, this, value).asByteBuffer();
+    } catch (Throwable x) {
+      onError(channel, x);
+      return this;
+    }
+    for (UndertowWebSocket ws : sessions) {
+      ws.sendSharedMessage(message, type, slowConsumer);
+    }
+    return this;
+  }
+
+  /**
+   * Write a message shared by multiple sessions. Each session gets its own view (position and
+   * limit) of the buffer. Sessions with more than {@link WebSocket#MAX_BUFFER_SIZE} bytes of
+   * pending broadcast messages are considered slow.
+   */
+  private void sendSharedMessage(ByteBuffer message, FrameType type, SlowConsumer slowConsumer) {
+    if (!isOpen()) {
+      return;
+    }
+    if (pendingBroadcast.get() >= MAX_BUFFER_SIZE) {
+      if (slowConsumer == SlowConsumer.CLOSE) {
+        handleClose(WebSocketCloseStatus.SERVICE_OVERLOAD);
+      }
+      return;
+    }
+    int size = message.remaining();
+    pendingBroadcast.addAndGet(size);
+    sendMessage(message.duplicate(), type, (ws, cause) -> pendingBroadcast.addAndGet(-size));
+  }
+
   @Override
   public WebSocket close(WebSocketCloseStatus closeStatus) {
     handleClose(closeStatus);
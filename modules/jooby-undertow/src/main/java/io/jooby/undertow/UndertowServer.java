@@ -10,6 +10,7 @@ import static io.undertow.UndertowOptions.ENABLE_HTTP2;
 import java.net.BindException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
 import javax.net.ssl.SSLContext;
 
@@ -17,6 +18,7 @@ import org.xnio.*;
 
 import io.jooby.*;
 import io.jooby.exception.StartupException;
+import io.jooby.internal.undertow.UndertowCompression;
 import io.jooby.internal.undertow.UndertowGrpcHandler;
 import io.jooby.internal.undertow.UndertowHandler;
 import io.jooby.internal.undertow.UndertowWebSocket;
@@ -26,10 +28,7 @@ import io.undertow.Undertow;
 import io.undertow.UndertowOptions;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.handlers.HttpContinueReadHandler;
-import io.undertow.server.handlers.encoding.ContentEncodingRepository;
-import io.undertow.server.handlers.encoding.DeflateEncodingProvider;
 import io.undertow.server.handlers.encoding.EncodingHandler;
-import io.undertow.server.handlers.encoding.GzipEncodingProvider;
 
 /**
  * Web server implementation using <a href="http://undertow.io/">Undertow</a>.
@@ -48,16 +47,14 @@ public class UndertowServer extends Server.Base {
 
   private static final int BACKLOG = 8192;
 
-  private static final int _100 = 100;
-
-  private static final int _10 = 10;
-
   private Undertow server;
 
   private List<Jooby> applications;
 
   private XnioWorker worker;
 
+  private ExecutorService virtualWorker;
+
   private OutputFactory outputFactory;
 
   /**
@@ -109,15 +106,9 @@ public class UndertowServer extends Server.Base {
         handler = new UndertowGrpcHandler(handler, grpcProcessor);
       }
 
-      if (options.getCompressionLevel() != null) {
-        int compressionLevel = options.getCompressionLevel();
-        handler =
-            new EncodingHandler(
-                handler,
-                new ContentEncodingRepository()
-                    .addEncodingHandler("gzip", new GzipEncodingProvider(compressionLevel), _100)
-                    .addEncodingHandler(
-                        "deflate", new DeflateEncodingProvider(compressionLevel), _10));
+      var compression = options.getCompression();
+      if (compression != null) {
+        handler = new EncodingHandler(handler, UndertowCompression.repository(compression));
       }
 
       if (options.isExpectContinue() == Boolean.TRUE) {
@@ -183,7 +174,12 @@ public class UndertowServer extends Server.Base {
       for (var app : applications) {
         app.getServices().put(Undertow.class, server);
       }
-      fireStart(applications, worker);
+      if (options.isVirtualThreads()) {
+        virtualWorker = newVirtualThreadExecutor("worker");
+        fireStart(applications, virtualWorker);
+      } else {
+        fireStart(applications, worker);
+      }
 
       server.start();
 
@@ -254,6 +250,10 @@ public class UndertowServer extends Server.Base {
   }
 
   private void shutdownWorker() {
+    if (virtualWorker != null) {
+      virtualWorker.shutdown();
+      virtualWorker = null;
+    }
     /*
      * Only shutdown the worker if it was created during start()
      */
@@ -25,7 +25,6 @@ import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
-import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -35,10 +34,10 @@ import org.mockito.MockedConstruction;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
-import org.xnio.XnioIoThread;
 
 import io.jooby.Context;
 import io.jooby.Server;
+import io.jooby.ServerSentEmitter;
 import io.jooby.ServerSentMessage;
 import io.jooby.SneakyThrows;
 import io.undertow.server.HttpServerExchange;
@@ -157,12 +156,11 @@ class UndertowSeverSentEmitterTest {
       UndertowSeverSentEmitter emitter = createEmitter();
       when(exchange.isComplete()).thenReturn(false);
 
-      XnioIoThread ioThread = mock(XnioIoThread.class);
-      when(exchange.getIoThread()).thenReturn(ioThread);
+      try (MockedStatic<ServerSentEmitter> heartbeat = mockStatic(ServerSentEmitter.class)) {
+        emitter.keepAlive(1500L);
 
-      emitter.keepAlive(1500L);
-
-      verify(ioThread).executeAfter(any(Runnable.class), eq(1500L), eq(TimeUnit.MILLISECONDS));
+        heartbeat.verify(() -> ServerSentEmitter.heartbeat(emitter, 1500L));
+      }
     }
   }
 
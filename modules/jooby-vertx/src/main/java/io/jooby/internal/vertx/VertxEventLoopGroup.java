@@ -7,12 +7,15 @@ package io.jooby.internal.vertx;
 
 import java.util.concurrent.ExecutorService;
 
+import org.jspecify.annotations.Nullable;
+
 import io.jooby.netty.NettyEventLoopGroup;
 import io.netty.channel.EventLoopGroup;
 import io.vertx.core.Vertx;
 import io.vertx.core.internal.VertxInternal;
 
-public record VertxEventLoopGroup(Vertx vertx) implements NettyEventLoopGroup {
+public record VertxEventLoopGroup(Vertx vertx, @Nullable ExecutorService virtualWorker)
+    implements NettyEventLoopGroup {
 
   @Override
   public EventLoopGroup acceptor() {
@@ -26,11 +29,17 @@ public record VertxEventLoopGroup(Vertx vertx) implements NettyEventLoopGroup {
 
   @Override
   public ExecutorService worker() {
+    if (virtualWorker != null) {
+      return virtualWorker;
+    }
     return ((VertxInternal) vertx).workerPool().executor();
   }
 
   @Override
   public void shutdown() {
-    // NOOP
+    // vertx owns everything else
+    if (virtualWorker != null) {
+      virtualWorker.shutdown();
+    }
   }
 }
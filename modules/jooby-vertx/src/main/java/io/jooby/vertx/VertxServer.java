@@ -90,7 +90,9 @@ public class VertxServer extends NettyServer {
 
   @Nullable @Override
   protected NettyEventLoopGroup createEventLoopGroup() {
-    return new VertxEventLoopGroup(vertx);
+    var options = getOptions();
+    var virtualWorker = options.isVirtualThreads() ? newVirtualThreadExecutor("worker") : null;
+    return new VertxEventLoopGroup(vertx, virtualWorker);
   }
 
   @Override